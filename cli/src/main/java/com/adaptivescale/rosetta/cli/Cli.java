@@ -8,8 +8,10 @@ import com.adaptivescale.rosetta.cli.outputs.DbtSqlModelOutput;
 import com.adaptivescale.rosetta.cli.outputs.DbtYamlModelOutput;
 import com.adaptivescale.rosetta.cli.outputs.StringOutput;
 import com.adaptivescale.rosetta.cli.outputs.YamlModelOutput;
+import com.adaptivescale.rosetta.cli.services.ChangeMarkerService;
+import com.adaptivescale.rosetta.cli.services.ModelCacheService;
 import com.adaptivescale.rosetta.common.models.Database;
-import com.adaptivescale.rosetta.common.DriverManagerDriverProvider;
+import com.adaptivescale.rosetta.common.PooledDriverProvider;
 import com.adaptivescale.rosetta.common.models.DriverInfo;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.models.dbt.DbtModel;
@@ -20,6 +22,7 @@ import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.DriverClassName;
 import com.adaptivescale.rosetta.ddl.DDL;
 import com.adaptivescale.rosetta.ddl.executor.DDLExecutor;
+import com.adaptivescale.rosetta.ddl.executor.WaveDDLExecutor;
 import com.adaptivescale.rosetta.ddl.DDLFactory;
 import com.adaptivescale.rosetta.ddl.change.ChangeFinder;
 import com.adaptivescale.rosetta.ddl.change.ChangeHandler;
@@ -52,6 +55,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.io.Writer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
@@ -87,6 +91,9 @@ class Cli implements Callable<Void> {
     private static final String ENHANCED_LAYER = "enhanced";
     private static final String BUSINESS_LAYER = "business";
 
+    private final ModelCacheService modelCache = new ModelCacheService();
+    private final ChangeMarkerService changeMarkers = new ChangeMarkerService();
+
     @CommandLine.Spec
     CommandLine.Model.CommandSpec spec;
 
@@ -113,19 +120,28 @@ class Cli implements Callable<Void> {
 
     @CommandLine.Command(name = "extract", description = "Extract schema chosen from connection config.", mixinStandardHelpOptions = true)
     private void extract(@CommandLine.Option(names = {"-s", "--source"}, required = true) String sourceName,
-                         @CommandLine.Option(names = {"-t", "--convert-to"}) String targetName
+                         @CommandLine.Option(names = {"-t", "--convert-to"}) String targetName,
+                         @CommandLine.Option(names = {"--incremental"},
+                                 description = "Extract again only the tables changed since the existing model.") boolean incremental
     ) throws Exception {
         requireConfig(config);
         Connection source = getSourceConnection(sourceName);
 
         Path sourceWorkspace = Paths.get("./", sourceName);
+        Database previous = incremental ? readPreviousModel(sourceName, sourceWorkspace.resolve(DEFAULT_MODEL_YAML)) : null;
         FileUtils.deleteDirectory(sourceWorkspace.toFile());
         Files.createDirectory(sourceWorkspace);
 
-        Database result = SourceGeneratorFactory.sourceGenerator(source).generate(source);
+        Database result = previous == null ? modelCache.extract(source) : modelCache.extract(source, previous);
         YamlModelOutput yamlInputModel = new YamlModelOutput(DEFAULT_MODEL_YAML, sourceWorkspace);
         yamlInputModel.write(result);
         log.info("Successfully written input database yaml ({}).", yamlInputModel.getFilePath());
+        try {
+            changeMarkers.write(sourceName, result);
+        } catch (IOException e) {
+            // markers only make the next incremental extraction cheaper
+            log.warn("Can not record change markers of {}: {}", sourceName, e.getMessage());
+        }
 
         if (Optional.ofNullable(targetName).isEmpty()) {
             return;
@@ -142,6 +158,16 @@ class Cli implements Callable<Void> {
         log.info("Successfully written output database yaml ({}/model.yml).", targetWorkspace);
     }
 
+    private Database readPreviousModel(String sourceName, Path model) throws IOException {
+        if (!Files.exists(model)) {
+            log.info("No existing model ({}), extracting all tables.", model);
+            return null;
+        }
+        Database previous = new ObjectMapper(new YAMLFactory()).readValue(model.toFile(), Database.class);
+        changeMarkers.read(sourceName, previous);
+        return previous;
+    }
+
     @CommandLine.Command(name = "compile", description = "Generate DDL for target Database [bigquery, snowflake, …]", mixinStandardHelpOptions = true)
     private void compile(@CommandLine.Option(names = {"-s", "--source"}) String sourceName,
                          @CommandLine.Option(names = {"-t", "--target"}, required = true) String targetName,
@@ -180,24 +206,29 @@ class Cli implements Callable<Void> {
             translatedModels = generateTranslatedModels(source, sourceWorkspace, target, targetWorkspace);
         }
 
-        String ddl = translatedModels.stream().map(stringDatabaseEntry -> {
-            DDL modelDDL = DDLFactory.ddlForDatabaseType(stringDatabaseEntry.getValue().getDatabaseType());
-            return modelDDL.createDatabase(stringDatabaseEntry.getValue(), dropIfExist);
-        }).reduce("", (s, s2) -> s.concat("\n\n\n").stripLeading().concat(s2));
-
-        StringOutput stringOutput = new StringOutput("ddl.sql", targetWorkspace);
-        stringOutput.write(ddl);
+        // the ddl is streamed to the file, large models are never held in memory as a single script
+        Path ddlPath = targetWorkspace.resolve("ddl.sql");
+        try (Writer writer = Files.newBufferedWriter(ddlPath)) {
+            for (int i = 0; i < translatedModels.size(); i++) {
+                Database database = translatedModels.get(i).getValue();
+                if (i > 0) {
+                    writer.write("\n\n\n");
+                }
+                DDLFactory.ddlForDatabaseType(database.getDatabaseType()).createDatabase(database, dropIfExist, writer);
+            }
+        }
 
         // generate dbt models
         generateStagingModels(target, targetWorkspace);
 
-        log.info("Successfully written ddl ({}).", stringOutput.getFilePath());
+        log.info("Successfully written ddl ({}).", ddlPath);
     }
 
     @CommandLine.Command(name = "apply", description = "Get current model and compare with state of database," +
             " generate ddl for changes and apply to database. ", mixinStandardHelpOptions = true)
     private void apply(@CommandLine.Option(names = {"-s", "--source"}, required = true) String sourceName,
-                       @CommandLine.Option(names = {"-m", "--model"}, defaultValue = DEFAULT_MODEL_YAML) String model) throws Exception {
+                       @CommandLine.Option(names = {"-m", "--model"}, defaultValue = DEFAULT_MODEL_YAML) String model,
+                       @CommandLine.Option(names = {"--parallelism"}, description = "Number of independent DDL statements applied concurrently.", defaultValue = "1") int parallelism) throws Exception {
         requireConfig(config);
 
         Connection source = getSourceConnection(sourceName);
@@ -218,7 +249,8 @@ class Cli implements Callable<Void> {
         }
 
         Database expectedDatabase = databases.get(0);
-        Database actualDatabase = SourceGeneratorFactory.sourceGenerator(source).generate(source);
+        // changes are always found against the current state of the database, never a cached model
+        Database actualDatabase = modelCache.extract(source);
 
         if (expectedDatabase.getOperationLevel().equals(OperationLevelEnum.schema)) {
             Set<String> expectedSchemaList = expectedDatabase.getTables().stream().map(Table::getSchema).collect(Collectors.toSet());
@@ -241,7 +273,12 @@ class Cli implements Callable<Void> {
         }
 
         ChangeHandler handler = DDLFactory.changeHandler(source.getDbType());
-        String ddl = handler.createDDLForChanges(changes);
+        DDLExecutor executor = DDLFactory.executor(source, PooledDriverProvider.getInstance());
+        boolean concurrent = parallelism > 1 && executor.supportsConcurrentDDL();
+        List<List<String>> waves = concurrent ? handler.createDDLWavesForChanges(changes) : null;
+        String ddl = concurrent
+                ? waves.stream().flatMap(List::stream).collect(Collectors.joining("\r"))
+                : handler.createDDLForChanges(changes);
 
         Path snapshotsPath = sourceWorkspace.resolve("snapshots");
         Path applyHistory = sourceWorkspace.resolve("apply");
@@ -264,8 +301,15 @@ class Cli implements Callable<Void> {
         StringOutput stringOutput = new StringOutput(ddlHistoryName, applyHistory);
         stringOutput.write(ddl);
 
-        DDLExecutor executor = DDLFactory.executor(source, new DriverManagerDriverProvider());
-        executor.execute(ddl);
+        try {
+            if (concurrent) {
+                new WaveDDLExecutor(executor, parallelism).execute(waves);
+            } else {
+                executor.execute(ddl);
+            }
+        } finally {
+            modelCache.invalidate(source);
+        }
 
         if (config.isAutoCommit()) {
             gitCommandExecutor(sourceWorkspace.toString());
@@ -277,7 +321,9 @@ class Cli implements Callable<Void> {
     @CommandLine.Command(name = "test", description = "Run tests written on columns", mixinStandardHelpOptions = true)
     private void test(
             @CommandLine.Option(names = {"-s", "--source"}) String sourceName,
-            @CommandLine.Option(names = {"-t", "--target"}) String targetName
+            @CommandLine.Option(names = {"-t", "--target"}) String targetName,
+            @CommandLine.Option(names = {"--batch"}, description = "Run all assertions of a table in a single query.", defaultValue = "false") boolean batch,
+            @CommandLine.Option(names = {"--parallelism"}, description = "Number of tables tested concurrently.", defaultValue = "1") int parallelism
     ) throws Exception {
         requireConfig(config);
 
@@ -299,15 +345,16 @@ class Cli implements Callable<Void> {
                 .collect(Collectors.toList());
         for (Database database : collect) {
             AssertionSqlGenerator assertionSqlGenerator = AssertionSqlGeneratorFactory.generatorFor(source.get());
-            DefaultSqlExecution defaultSqlExecution = new DefaultSqlExecution(source.get(), new DriverManagerDriverProvider());
+            DefaultSqlExecution defaultSqlExecution = new DefaultSqlExecution(source.get(), PooledDriverProvider.getInstance());
 
             if (target.isEmpty()) {
-                new DefaultAssertTestEngine(assertionSqlGenerator, defaultSqlExecution, null).run(source.get(), database);
+                new DefaultAssertTestEngine(assertionSqlGenerator, defaultSqlExecution, null, batch, parallelism).run(source.get(), database);
             } else {
-                DefaultSqlExecution targetSqlExecution = new DefaultSqlExecution(target.get(), new DriverManagerDriverProvider());
-                new DefaultAssertTestEngine(assertionSqlGenerator, defaultSqlExecution, targetSqlExecution).run(source.get(), target.get(), database);
+                DefaultSqlExecution targetSqlExecution = new DefaultSqlExecution(target.get(), PooledDriverProvider.getInstance());
+                new DefaultAssertTestEngine(assertionSqlGenerator, defaultSqlExecution, targetSqlExecution, batch, parallelism).run(source.get(), target.get(), database);
             }
         }
+        PooledDriverProvider.getInstance().getMetrics().forEach(metrics -> log.debug("Connection pool usage: {}", metrics));
     }
 
     @CommandLine.Command(
@@ -434,7 +481,8 @@ class Cli implements Callable<Void> {
     private void generate(@CommandLine.Option(names = {"-s", "--source"}, required = true) String sourceName,
                           @CommandLine.Option(names = {"-t", "--target"}, required = true) String targetName,
                           @CommandLine.Option(names = {"--pyspark"}) boolean generateSpark,
-                          @CommandLine.Option(names = {"--scala"}) boolean generateScala
+                          @CommandLine.Option(names = {"--scala"}) boolean generateScala,
+                          @CommandLine.Option(names = {"--refresh-cache"}, description = "Extract the source model even when a cached one is fresh.") boolean refreshCache
     ) throws Exception {
         requireConfig(config);
 
@@ -445,8 +493,9 @@ class Cli implements Callable<Void> {
         if (!Files.exists(sourceWorkspace.toAbsolutePath()))
             Files.createDirectory(sourceWorkspace);
 
+        Database sourceDatabase = modelCache.get(source, refreshCache);
+
         if (generateSpark || !generateScala) {
-            Database sourceDatabase = SourceGeneratorFactory.sourceGenerator(source).generate(source);
             String spark_code = generateSparkTemplateCode(source, target, sourceDatabase);
             StringOutput stringOutput = new StringOutput("spark_code.py", sourceWorkspace);
             stringOutput.write(spark_code);
@@ -455,7 +504,6 @@ class Cli implements Callable<Void> {
         }
 
         if (generateScala) {
-            Database sourceDatabase = SourceGeneratorFactory.sourceGenerator(source).generate(source);
             String scala_code = generateScalaTemplateCode(source, target, sourceDatabase);
             StringOutput stringOutput = new StringOutput("scala_code.scala", sourceWorkspace);
             stringOutput.write(scala_code);
@@ -657,7 +705,8 @@ class Cli implements Callable<Void> {
 
     @CommandLine.Command(name = "diff", description = "Show difference between local model and database", mixinStandardHelpOptions = true)
     private void diff(@CommandLine.Option(names = {"-s", "--source"}) String sourceName,
-                      @CommandLine.Option(names = {"-m", "--model"}, defaultValue = DEFAULT_MODEL_YAML) String model) throws Exception {
+                      @CommandLine.Option(names = {"-m", "--model"}, defaultValue = DEFAULT_MODEL_YAML) String model,
+                      @CommandLine.Option(names = {"--refresh-cache"}, description = "Extract the database model even when a cached one is fresh.") boolean refreshCache) throws Exception {
         requireConfig(config);
         Connection sourceConnection = getSourceConnection(sourceName);
 
@@ -677,7 +726,7 @@ class Cli implements Callable<Void> {
         }
 
         Database localDatabase = databases.get(0);
-        Database targetDatabase = SourceGeneratorFactory.sourceGenerator(sourceConnection).generate(sourceConnection);
+        Database targetDatabase = modelCache.get(sourceConnection, refreshCache);
 
         Diff<List<String>, Database, Database> tester = DiffFactory.diff(localDatabase.getDatabaseType());
 
@@ -897,7 +946,8 @@ class Cli implements Callable<Void> {
                        @CommandLine.Option(names = {"-q", "--query"}, required = true) String userQueryRequest,
                        @CommandLine.Option(names = {"-l", "--limit"}, required = false, defaultValue = "200") Integer showRowLimit,
                        @CommandLine.Option(names = {"--no-limit"}, required = false, defaultValue = "false") Boolean noRowLimit,
-                       @CommandLine.Option(names = {"--output"}, required = false) Path output
+                       @CommandLine.Option(names = {"--output"}, required = false) Path output,
+                       @CommandLine.Option(names = {"--refresh-cache"}, description = "Extract the source model even when a cached one is fresh.") boolean refreshCache
     )
             throws Exception {
         requireConfig(config);
@@ -919,7 +969,7 @@ class Cli implements Callable<Void> {
             Files.createDirectories(dataDirectory);
         }
 
-        Database db = SourceGeneratorFactory.sourceGenerator(source).generate(source);
+        Database db = modelCache.get(source, refreshCache);
 
         DDL modelDDL = DDLFactory.ddlForDatabaseType(source.getDbType());
         String DDL = modelDDL.createDatabase(db, false);
@@ -0,0 +1,165 @@
+package com.adaptivescale.rosetta.cli.services;
+
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the change markers of the tables of an extracted model, and the catalog snapshot it was read at, under
+ * {@code .rosetta}, next to the model cache, rather than in the model itself: markers can move with every data change,
+ * and would otherwise rewrite model.yaml on every extraction. {@code extract --incremental} reads them back onto the
+ * existing model of the source.
+ */
+@Slf4j
+public class ChangeMarkerService {
+
+    private static final Path DEFAULT_DIRECTORY = Paths.get(".", ".rosetta", "markers");
+
+    private final Path directory;
+    private final ObjectMapper mapper = new ObjectMapper().setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    public ChangeMarkerService() {
+        this(DEFAULT_DIRECTORY);
+    }
+
+    public ChangeMarkerService(Path directory) {
+        this.directory = directory;
+    }
+
+    /**
+     * Records the markers of the tables of {@code database}, the model extracted from the source named
+     * {@code sourceName}, replacing the markers recorded before.
+     */
+    public void write(String sourceName, Database database) throws IOException {
+        Markers markers = new Markers();
+        markers.setCatalogSnapshot(database.getCatalogSnapshot());
+        if (database.getTables() != null) {
+            for (Table table : database.getTables()) {
+                if (table.getChangeMarker() != null) {
+                    markers.getTables().add(new TableMarker(table.getSchema(), table.getName(), table.getChangeMarker()));
+                }
+            }
+        }
+
+        Path file = fileFor(sourceName);
+        if (markers.getTables().isEmpty() && markers.getCatalogSnapshot() == null) {
+            Files.deleteIfExists(file);
+            return;
+        }
+        Files.createDirectories(directory);
+        Path temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+        try {
+            mapper.writeValue(temporary.toFile(), markers);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    /**
+     * Attaches the markers recorded for the source named {@code sourceName} to the tables of {@code model}. Tables
+     * left without a marker are extracted again in full.
+     */
+    public void read(String sourceName, Database model) {
+        Path file = fileFor(sourceName);
+        if (!Files.exists(file)) {
+            log.info("No change markers recorded for {} ({}), extracting all tables.", sourceName, file);
+            return;
+        }
+        Markers markers;
+        try {
+            markers = mapper.readValue(file.toFile(), Markers.class);
+        } catch (IOException e) {
+            log.warn("Can not read change markers {}, extracting all tables: {}", file, e.getMessage());
+            return;
+        }
+
+        model.setCatalogSnapshot(markers.getCatalogSnapshot());
+        Map<List<String>, String> markersByTable = new HashMap<>();
+        for (TableMarker marker : markers.getTables()) {
+            markersByTable.put(Arrays.asList(marker.getSchema(), marker.getTable()), marker.getMarker());
+        }
+        if (model.getTables() != null) {
+            for (Table table : model.getTables()) {
+                table.setChangeMarker(markersByTable.get(Arrays.asList(table.getSchema(), table.getName())));
+            }
+        }
+    }
+
+    private Path fileFor(String sourceName) {
+        return directory.resolve(sourceName + ".json");
+    }
+
+    static class Markers {
+        private Long catalogSnapshot;
+        private List<TableMarker> tables = new ArrayList<>();
+
+        public Long getCatalogSnapshot() {
+            return catalogSnapshot;
+        }
+
+        public void setCatalogSnapshot(Long catalogSnapshot) {
+            this.catalogSnapshot = catalogSnapshot;
+        }
+
+        public List<TableMarker> getTables() {
+            return tables;
+        }
+
+        public void setTables(List<TableMarker> tables) {
+            this.tables = tables;
+        }
+    }
+
+    static class TableMarker {
+        private String schema;
+        private String table;
+        private String marker;
+
+        TableMarker() {
+        }
+
+        TableMarker(String schema, String table, String marker) {
+            this.schema = schema;
+            this.table = table;
+            this.marker = marker;
+        }
+
+        public String getSchema() {
+            return schema;
+        }
+
+        public void setSchema(String schema) {
+            this.schema = schema;
+        }
+
+        public String getTable() {
+            return table;
+        }
+
+        public void setTable(String table) {
+            this.table = table;
+        }
+
+        public String getMarker() {
+            return marker;
+        }
+
+        public void setMarker(String marker) {
+            this.marker = marker;
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package com.adaptivescale.rosetta.cli.services;
+
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adataptivescale.rosetta.source.core.SourceGeneratorFactory;
+import com.adataptivescale.rosetta.source.core.interfaces.Generator;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * Keeps the models extracted from a connection on disk, in Jackson Smile, so commands that only read the database
+ * structure do not extract the whole catalog every time. A model is reused for {@link Connection#getModelCacheTtl()}
+ * seconds; with the default of 0 nothing is cached. Models are keyed by the connection settings that decide what is
+ * extracted (name, type, url, user, database, schema and table filter), never by the password.
+ */
+@Slf4j
+public class ModelCacheService {
+
+    private static final Path DEFAULT_DIRECTORY = Paths.get(".", ".rosetta", "models");
+
+    private final Path directory;
+    private final Function<Connection, Generator<Database, Connection>> generators;
+    private final ObjectMapper mapper = new ObjectMapper(new SmileFactory())
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+
+    public ModelCacheService() {
+        this(DEFAULT_DIRECTORY);
+    }
+
+    public ModelCacheService(Path directory) {
+        this(directory, SourceGeneratorFactory::sourceGenerator);
+    }
+
+    ModelCacheService(Path directory, Function<Connection, Generator<Database, Connection>> generators) {
+        this.directory = directory;
+        this.generators = generators;
+    }
+
+    /**
+     * @param refresh extract even when a cached model is still fresh
+     * @return the cached model of the connection while it is fresh, otherwise a newly extracted and cached one
+     */
+    public Database get(Connection connection, boolean refresh) throws Exception {
+        if (!refresh && connection.getModelCacheTtl() > 0) {
+            Optional<Database> cached = read(connection);
+            if (cached.isPresent()) {
+                return cached.get();
+            }
+        }
+        return extract(connection);
+    }
+
+    /**
+     * Extracts the model of the connection, replacing any cached one.
+     */
+    public Database extract(Connection connection) throws Exception {
+        return extract(connection, null);
+    }
+
+    /**
+     * Extracts the model of the connection reusing the tables of {@code previous} that did not change, replacing any
+     * cached model.
+     */
+    public Database extract(Connection connection, Database previous) throws Exception {
+        Database database = generators.apply(connection).generate(connection, previous);
+        if (connection.getModelCacheTtl() > 0) {
+            write(connection, database);
+        }
+        return database;
+    }
+
+    /**
+     * Drops the cached model of the connection, for commands that change the database.
+     */
+    public void invalidate(Connection connection) throws IOException {
+        if (Files.deleteIfExists(fileFor(connection))) {
+            log.debug("Invalidated cached model for connection {}", connection.getName());
+        }
+    }
+
+    private Optional<Database> read(Connection connection) {
+        Path file = fileFor(connection);
+        try {
+            if (!Files.exists(file)) {
+                return Optional.empty();
+            }
+            long ageMillis = System.currentTimeMillis() - Files.getLastModifiedTime(file).toMillis();
+            if (ageMillis > connection.getModelCacheTtl() * 1000) {
+                log.debug("Cached model for connection {} expired", connection.getName());
+                return Optional.empty();
+            }
+            Database database = mapper.readValue(file.toFile(), Database.class);
+            log.info("Using model of connection {} cached {} seconds ago ({}).", connection.getName(), ageMillis / 1000, file);
+            return Optional.of(database);
+        } catch (IOException e) {
+            // an unreadable cache, e.g. written by another version, is extracted again
+            log.debug("Can not read cached model {}", file, e);
+            return Optional.empty();
+        }
+    }
+
+    private void write(Connection connection, Database database) {
+        Path file = fileFor(connection);
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, file.getFileName().toString(), ".tmp");
+            mapper.writeValue(temporary.toFile(), database);
+            Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // caching is an optimization, failing to cache does not fail the command
+            log.warn("Can not cache model for connection {}: {}", connection.getName(), e.getMessage());
+        } finally {
+            // left behind only when the model could not be written or moved into place
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException e) {
+                    log.debug("Can not delete {}", temporary, e);
+                }
+            }
+        }
+    }
+
+    private Path fileFor(Connection connection) {
+        String key = String.join("\u0000", Arrays.asList(connection.getName(), connection.getDbType(),
+                connection.getUrl(), connection.getUserName(), connection.getDatabaseName(), connection.getSchemaName(),
+                String.valueOf(connection.getTables())));
+        return directory.resolve(connection.getName() + "-" + sha256(key) + ".smile");
+    }
+
+    private static String sha256(String value) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", digest[i]));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.adaptivescale.rosetta.cli.services;
+
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ChangeMarkerServiceTest {
+
+    @Test
+    public void markersAreReadBackOntoModel() throws Exception {
+        Path directory = Files.createTempDirectory("markers");
+        ChangeMarkerService service = new ChangeMarkerService(directory);
+        service.write("source", database(table("t1", "a"), table("t2", "b"), table("t3", null)));
+
+        Database model = database(table("t1", null), table("t2", "stale"), table("t4", "x"));
+        service.read("source", model);
+
+        List<Table> tables = (List<Table>) model.getTables();
+        Assertions.assertEquals("a", tables.get(0).getChangeMarker());
+        Assertions.assertEquals("b", tables.get(1).getChangeMarker());
+        Assertions.assertNull(tables.get(2).getChangeMarker());
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(List.of(directory.resolve("source.json")), files.collect(Collectors.toList()));
+        }
+    }
+
+    @Test
+    public void missingOrUnreadableMarkersLeaveModelWithoutMarkers() throws Exception {
+        Path directory = Files.createTempDirectory("markers");
+        ChangeMarkerService service = new ChangeMarkerService(directory);
+        Database model = database(table("t1", null));
+
+        service.read("source", model);
+        Assertions.assertNull(model.getTables().iterator().next().getChangeMarker());
+
+        Files.writeString(directory.resolve("source.json"), "not json");
+        service.read("source", model);
+        Assertions.assertNull(model.getTables().iterator().next().getChangeMarker());
+    }
+
+    @Test
+    public void catalogSnapshotIsReadBack() throws Exception {
+        Path directory = Files.createTempDirectory("markers");
+        ChangeMarkerService service = new ChangeMarkerService(directory);
+        Database extracted = database(table("t1", null));
+        extracted.setCatalogSnapshot(42L);
+        service.write("lake", extracted);
+
+        Database model = database(table("t1", null));
+        service.read("lake", model);
+
+        Assertions.assertEquals(42L, model.getCatalogSnapshot());
+        Assertions.assertFalse(new ObjectMapper().writeValueAsString(extracted).contains("42"));
+    }
+
+    @Test
+    public void modelWithoutMarkersRemovesRecordedOnes() throws Exception {
+        Path directory = Files.createTempDirectory("markers");
+        ChangeMarkerService service = new ChangeMarkerService(directory);
+        service.write("source", database(table("t1", "a")));
+        service.write("source", database(table("t1", null)));
+
+        Assertions.assertFalse(Files.exists(directory.resolve("source.json")));
+    }
+
+    @Test
+    public void markersAreNotSerializedWithModel() throws Exception {
+        String json = new ObjectMapper().writeValueAsString(database(table("t1", "a")));
+
+        Assertions.assertFalse(json.contains("changeMarker"));
+        Assertions.assertFalse(json.contains("\"a\""));
+    }
+
+    private static Database database(Table... tables) {
+        Database database = new Database();
+        database.setTables(List.of(tables));
+        return database;
+    }
+
+    private static Table table(String name, String marker) {
+        Table table = new Table();
+        table.setSchema("s");
+        table.setName(name);
+        table.setChangeMarker(marker);
+        return table;
+    }
+}
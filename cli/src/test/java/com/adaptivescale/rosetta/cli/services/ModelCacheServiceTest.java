@@ -0,0 +1,188 @@
+package com.adaptivescale.rosetta.cli.services;
+
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adataptivescale.rosetta.source.core.interfaces.Generator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class ModelCacheServiceTest {
+
+    private final List<Connection> extractions = new ArrayList<>();
+
+    @Test
+    public void freshModelIsReusedUntilItExpires() throws Exception {
+        Path directory = Files.createTempDirectory("models");
+        ModelCacheService service = service(directory);
+        Connection connection = connection("secret");
+
+        Database extracted = service.get(connection, false);
+        Database cached = service.get(connection, false);
+
+        Assertions.assertEquals(1, extractions.size());
+        Assertions.assertEquals(extracted.getDatabaseProductName(), cached.getDatabaseProductName());
+        Assertions.assertEquals("t1", cached.getTables().iterator().next().getName());
+
+        Path file = single(directory);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(System.currentTimeMillis() - 61_000));
+        Database expired = service.get(connection, false);
+
+        Assertions.assertEquals(2, extractions.size());
+        Assertions.assertEquals("extraction 2", expired.getDatabaseProductName());
+        Assertions.assertEquals("extraction 2", service.get(connection, false).getDatabaseProductName());
+    }
+
+    @Test
+    public void refreshAndZeroTtlExtractAgain() throws Exception {
+        Path directory = Files.createTempDirectory("models");
+        ModelCacheService service = service(directory);
+        Connection connection = connection("secret");
+
+        service.get(connection, false);
+        service.get(connection, true);
+        Assertions.assertEquals(2, extractions.size());
+
+        Connection uncached = connection("secret");
+        uncached.setModelCacheTtl(0);
+        service.get(uncached, false);
+        service.get(uncached, false);
+        Assertions.assertEquals(4, extractions.size());
+    }
+
+    @Test
+    public void keyIgnoresPasswordButNotWhatIsExtracted() throws Exception {
+        Path directory = Files.createTempDirectory("models");
+        ModelCacheService service = service(directory);
+
+        service.get(connection("secret"), false);
+        service.get(connection("rotated"), false);
+        Assertions.assertEquals(1, extractions.size());
+
+        Path file = single(directory);
+        Assertions.assertTrue(file.getFileName().toString().startsWith("source-"));
+        Assertions.assertFalse(file.getFileName().toString().contains("secret"));
+        Assertions.assertFalse(new String(Files.readAllBytes(file), StandardCharsets.ISO_8859_1)
+                .contains("secret"));
+
+        Connection otherSchema = connection("secret");
+        otherSchema.setSchemaName("archive");
+        service.get(otherSchema, false);
+        Connection otherTables = connection("secret");
+        otherTables.setTables(List.of("t1"));
+        service.get(otherTables, false);
+        Connection otherUser = connection("secret");
+        otherUser.setUserName("reader");
+        service.get(otherUser, false);
+
+        Assertions.assertEquals(4, extractions.size());
+        try (Stream<Path> files = Files.list(directory)) {
+            Assertions.assertEquals(4, files.count());
+        }
+    }
+
+    @Test
+    public void invalidateDropsCachedModel() throws Exception {
+        Path directory = Files.createTempDirectory("models");
+        ModelCacheService service = service(directory);
+        Connection connection = connection("secret");
+
+        service.get(connection, false);
+        service.invalidate(connection);
+        Assertions.assertEquals(List.of(), files(directory));
+
+        service.get(connection, false);
+        Assertions.assertEquals(2, extractions.size());
+        // nothing cached is not an error
+        service.invalidate(connection("secret"));
+        service.invalidate(connection("secret"));
+    }
+
+    @Test
+    public void unreadableCacheIsExtractedAgain() throws Exception {
+        Path directory = Files.createTempDirectory("models");
+        ModelCacheService service = service(directory);
+        Connection connection = connection("secret");
+        service.get(connection, false);
+        Path file = single(directory);
+
+        Files.writeString(file, "written by another version");
+        Database database = service.get(connection, false);
+
+        Assertions.assertEquals(2, extractions.size());
+        Assertions.assertEquals("extraction 2", database.getDatabaseProductName());
+        Assertions.assertEquals("extraction 2", service.get(connection, false).getDatabaseProductName());
+    }
+
+    @Test
+    public void failedWriteLeavesNoTemporaryFile() throws Exception {
+        Path directory = Files.createTempDirectory("models");
+        Connection connection = connection("secret");
+        // the cache file is a directory, so the model can not be moved into place
+        ModelCacheService service = service(directory);
+        service.get(connection, false);
+        Path file = single(directory);
+        Files.delete(file);
+        Files.createDirectory(file);
+        Files.writeString(file.resolve("child"), "keeps the directory from being replaced");
+
+        Database database = service.extract(connection);
+
+        Assertions.assertEquals("extraction 2", database.getDatabaseProductName());
+        Assertions.assertEquals(List.of(file), files(directory));
+    }
+
+    private ModelCacheService service(Path directory) {
+        Generator<Database, Connection> generator = new Generator<>() {
+            @Override
+            public Database generate(Connection connection) {
+                extractions.add(connection);
+                Table table = new Table();
+                table.setName("t1");
+                Database database = new Database();
+                database.setName("extraction " + extractions.size());
+                database.setTables(List.of(table));
+                return database;
+            }
+
+            @Override
+            public Database validate(Connection connection) {
+                throw new UnsupportedOperationException();
+            }
+        };
+        return new ModelCacheService(directory, connection -> generator);
+    }
+
+    private static Connection connection(String password) {
+        Connection connection = new Connection();
+        connection.setName("source");
+        connection.setDbType("postgres");
+        connection.setUrl("jdbc:postgresql://localhost:5432/db");
+        connection.setUserName("rosetta");
+        connection.setPassword(password);
+        connection.setSchemaName("public");
+        connection.setModelCacheTtl(60);
+        return connection;
+    }
+
+    private static Path single(Path directory) throws Exception {
+        List<Path> files = files(directory);
+        Assertions.assertEquals(1, files.size());
+        return files.get(0);
+    }
+
+    private static List<Path> files(Path directory) throws Exception {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.collect(Collectors.toList());
+        }
+    }
+}
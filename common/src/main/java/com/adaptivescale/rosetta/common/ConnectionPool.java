@@ -0,0 +1,349 @@
+package com.adaptivescale.rosetta.common;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.*;
+import java.util.*;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Bounded pool of physical JDBC connections for one url and set of connection properties.
+ * <p>
+ * Borrowed connections are proxies: closing them hands the physical connection back to the pool, and the statements,
+ * result sets and metadata reached through them lead back to the proxy rather than the physical connection.
+ * A returned connection has its open transaction rolled back and is closed instead of pooled again when it was
+ * closed, or when the borrower changed its session settings, which would otherwise leak to the next borrower.
+ * Connections are validated only when borrowed after being idle for the validation threshold or longer, so a
+ * connection handed from one borrower to the next costs no round trip, and are closed once they have been idle longer
+ * than the idle timeout.
+ */
+@Slf4j
+public class ConnectionPool implements AutoCloseable {
+
+    private static final int VALIDATION_TIMEOUT_SECONDS = 5;
+    private static final long VALIDATION_IDLE_MILLIS = 500;
+    // statements that change the session rather than the data, such as ALTER SESSION or SET search_path
+    private static final Pattern SESSION_STATEMENT = Pattern.compile("^\\s*(ALTER\\s+SESSION|SET|USE)\\b",
+            Pattern.CASE_INSENSITIVE);
+    private static final Set<String> SESSION_SETTERS = Set.of("setCatalog", "setSchema", "setReadOnly",
+            "setTransactionIsolation", "setHoldability", "setTypeMap", "setClientInfo", "setNetworkTimeout");
+
+    private final Driver driver;
+    private final String url;
+    private final Properties properties;
+    private final int maxSize;
+    private final long idleTimeoutMillis;
+    private final long borrowTimeoutMillis;
+    private final long validationIdleMillis;
+    private final Semaphore permits;
+    // most recently returned first, guarded by this
+    private final Deque<IdleConnection> idleConnections = new ArrayDeque<>();
+
+    private final AtomicLong created = new AtomicLong();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong validationFailures = new AtomicLong();
+    private final AtomicLong evicted = new AtomicLong();
+    private final AtomicLong discarded = new AtomicLong();
+
+    private volatile boolean closed;
+
+    public ConnectionPool(Driver driver, String url, Properties properties, int maxSize,
+                          long idleTimeoutMillis, long borrowTimeoutMillis) {
+        this(driver, url, properties, maxSize, idleTimeoutMillis, borrowTimeoutMillis, VALIDATION_IDLE_MILLIS);
+    }
+
+    ConnectionPool(Driver driver, String url, Properties properties, int maxSize,
+                   long idleTimeoutMillis, long borrowTimeoutMillis, long validationIdleMillis) {
+        this.driver = driver;
+        this.url = url;
+        this.properties = properties;
+        this.maxSize = maxSize;
+        this.idleTimeoutMillis = idleTimeoutMillis;
+        this.borrowTimeoutMillis = borrowTimeoutMillis;
+        this.validationIdleMillis = validationIdleMillis;
+        this.permits = new Semaphore(maxSize, true);
+    }
+
+    public java.sql.Connection borrow() throws SQLException {
+        if (closed) {
+            throw new SQLException("Connection pool for " + url + " is closed");
+        }
+        try {
+            if (!permits.tryAcquire(borrowTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                throw new SQLException("Timed out after " + borrowTimeoutMillis + "ms waiting for a connection to " + url
+                        + " (max pool size " + maxSize + ")");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Interrupted while waiting for a connection to " + url, e);
+        }
+
+        try {
+            java.sql.Connection physical = takeIdleConnection();
+            if (physical != null) {
+                reused.incrementAndGet();
+            } else {
+                physical = driver.connect(url, properties);
+                if (physical == null) {
+                    throw new SQLException("Driver " + driver.getClass().getName() + " does not accept url " + url);
+                }
+                created.incrementAndGet();
+            }
+            return (java.sql.Connection) Proxy.newProxyInstance(
+                    ConnectionPool.class.getClassLoader(),
+                    new Class[]{java.sql.Connection.class},
+                    new PooledConnectionHandler(physical));
+        } catch (SQLException | RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+
+    public ConnectionPoolMetrics getMetrics() {
+        int idle;
+        synchronized (this) {
+            idle = idleConnections.size();
+        }
+        return new ConnectionPoolMetrics(url, maxSize, maxSize - permits.availablePermits(), idle,
+                created.get(), reused.get(), validationFailures.get(), evicted.get(), discarded.get());
+    }
+
+    @Override
+    public void close() {
+        closed = true;
+        List<IdleConnection> toClose;
+        synchronized (this) {
+            toClose = new ArrayList<>(idleConnections);
+            idleConnections.clear();
+        }
+        toClose.forEach(it -> closeQuietly(it.connection));
+    }
+
+    private java.sql.Connection takeIdleConnection() {
+        evictIdleConnections();
+        while (true) {
+            IdleConnection idleConnection;
+            synchronized (this) {
+                idleConnection = idleConnections.pollFirst();
+            }
+            if (idleConnection == null) {
+                return null;
+            }
+            boolean recentlyReturned = System.currentTimeMillis() - idleConnection.returnedAt < validationIdleMillis;
+            if (recentlyReturned || isValid(idleConnection.connection)) {
+                return idleConnection.connection;
+            }
+            validationFailures.incrementAndGet();
+            closeQuietly(idleConnection.connection);
+        }
+    }
+
+    private void release(java.sql.Connection physical, boolean sessionChanged) {
+        try {
+            if (closed || sessionChanged || !reset(physical)) {
+                discarded.incrementAndGet();
+                closeQuietly(physical);
+                return;
+            }
+            synchronized (this) {
+                idleConnections.addFirst(new IdleConnection(physical, System.currentTimeMillis()));
+            }
+            evictIdleConnections();
+        } finally {
+            permits.release();
+        }
+    }
+
+    private void evictIdleConnections() {
+        long idleSince = System.currentTimeMillis() - idleTimeoutMillis;
+        List<IdleConnection> expired = new ArrayList<>();
+        synchronized (this) {
+            // the deque is ordered by return time, so expired connections sit at the tail
+            while (!idleConnections.isEmpty() && idleConnections.peekLast().returnedAt < idleSince) {
+                expired.add(idleConnections.pollLast());
+            }
+        }
+        for (IdleConnection idleConnection : expired) {
+            evicted.incrementAndGet();
+            closeQuietly(idleConnection.connection);
+        }
+    }
+
+    private static boolean isValid(java.sql.Connection connection) {
+        try {
+            return connection.isValid(VALIDATION_TIMEOUT_SECONDS);
+        } catch (SQLFeatureNotSupportedException | AbstractMethodError e) {
+            try {
+                return !connection.isClosed();
+            } catch (SQLException ex) {
+                return false;
+            }
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static boolean reset(java.sql.Connection connection) {
+        try {
+            if (connection.isClosed()) {
+                return false;
+            }
+            if (!connection.getAutoCommit()) {
+                connection.rollback();
+                connection.setAutoCommit(true);
+            }
+            return true;
+        } catch (SQLException e) {
+            return false;
+        }
+    }
+
+    private static void closeQuietly(AutoCloseable closeable) {
+        try {
+            closeable.close();
+        } catch (Exception e) {
+            log.debug("Can not close pooled resource.", e);
+        }
+    }
+
+    private static class IdleConnection {
+        private final java.sql.Connection connection;
+        private final long returnedAt;
+
+        private IdleConnection(java.sql.Connection connection, long returnedAt) {
+            this.connection = connection;
+            this.returnedAt = returnedAt;
+        }
+    }
+
+    /**
+     * Hands the physical connection back on close and tracks the statements created through it that are still open,
+     * so they are closed before the connection is reused.
+     */
+    private class PooledConnectionHandler implements InvocationHandler {
+        private final java.sql.Connection physical;
+        private final Set<Statement> statements = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+        private volatile boolean returned;
+        private volatile boolean sessionChanged;
+
+        private PooledConnectionHandler(java.sql.Connection physical) {
+            this.physical = physical;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "close":
+                    returnToPool();
+                    return null;
+                case "isClosed":
+                    if (returned) {
+                        return true;
+                    }
+                    break;
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "Pooled" + physical;
+            }
+            if (returned) {
+                throw new SQLException("Connection has already been returned to the pool");
+            }
+            if (SESSION_SETTERS.contains(method.getName())) {
+                sessionChanged = true;
+            }
+            noteStatement(args);
+
+            java.sql.Connection connection = (java.sql.Connection) proxy;
+            Object result = invokeOn(physical, method, args);
+            if (result instanceof Statement) {
+                return statement((Statement) result, connection);
+            }
+            if (result instanceof DatabaseMetaData) {
+                return proxy(DatabaseMetaData.class, (metaDataProxy, metaDataMethod, metaDataArgs) -> {
+                    if (metaDataMethod.getName().equals("getConnection")) {
+                        return connection;
+                    }
+                    Object metaDataResult = invokeOn(result, metaDataMethod, metaDataArgs);
+                    // metadata result sets have no statement of their own
+                    return metaDataResult instanceof ResultSet ? resultSet((ResultSet) metaDataResult, null) : metaDataResult;
+                });
+            }
+            return result;
+        }
+
+        private Statement statement(Statement physicalStatement, java.sql.Connection connection) {
+            statements.add(physicalStatement);
+            Class<? extends Statement> type = physicalStatement instanceof CallableStatement ? CallableStatement.class
+                    : physicalStatement instanceof PreparedStatement ? PreparedStatement.class : Statement.class;
+            return proxy(type, (statementProxy, method, args) -> {
+                switch (method.getName()) {
+                    case "getConnection":
+                        return connection;
+                    case "close":
+                        statements.remove(physicalStatement);
+                        break;
+                    case "equals":
+                        return statementProxy == args[0];
+                    case "hashCode":
+                        return System.identityHashCode(statementProxy);
+                }
+                noteStatement(args);
+                Object result = invokeOn(physicalStatement, method, args);
+                return result instanceof ResultSet ? resultSet((ResultSet) result, (Statement) statementProxy) : result;
+            });
+        }
+
+        private ResultSet resultSet(ResultSet physicalResultSet, Statement statement) {
+            return proxy(ResultSet.class, (resultSetProxy, method, args) -> {
+                if (method.getName().equals("getStatement")) {
+                    return statement;
+                }
+                return invokeOn(physicalResultSet, method, args);
+            });
+        }
+
+        private void noteStatement(Object[] args) {
+            if (args != null && args.length > 0 && args[0] instanceof String
+                    && SESSION_STATEMENT.matcher((String) args[0]).lookingAt()) {
+                sessionChanged = true;
+            }
+        }
+
+        private synchronized void returnToPool() {
+            if (returned) {
+                return;
+            }
+            returned = true;
+            synchronized (statements) {
+                statements.forEach(ConnectionPool::closeQuietly);
+                statements.clear();
+            }
+            if (sessionChanged) {
+                log.debug("Closing connection to {} instead of pooling it, its session settings were changed", url);
+            }
+            release(physical, sessionChanged);
+        }
+    }
+
+    private static Object invokeOn(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(ConnectionPool.class.getClassLoader(), new Class[]{type}, handler));
+    }
+}
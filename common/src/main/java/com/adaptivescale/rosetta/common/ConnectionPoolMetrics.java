@@ -0,0 +1,81 @@
+package com.adaptivescale.rosetta.common;
+
+/**
+ * Point in time counters of a {@link ConnectionPool}.
+ */
+public class ConnectionPoolMetrics {
+
+    private final String url;
+    private final int maxSize;
+    private final int active;
+    private final int idle;
+    private final long created;
+    private final long reused;
+    private final long validationFailures;
+    private final long evicted;
+    private final long discarded;
+
+    public ConnectionPoolMetrics(String url, int maxSize, int active, int idle, long created, long reused,
+                                 long validationFailures, long evicted, long discarded) {
+        this.url = url;
+        this.maxSize = maxSize;
+        this.active = active;
+        this.idle = idle;
+        this.created = created;
+        this.reused = reused;
+        this.validationFailures = validationFailures;
+        this.evicted = evicted;
+        this.discarded = discarded;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public int getActive() {
+        return active;
+    }
+
+    public int getIdle() {
+        return idle;
+    }
+
+    public long getCreated() {
+        return created;
+    }
+
+    public long getReused() {
+        return reused;
+    }
+
+    public long getValidationFailures() {
+        return validationFailures;
+    }
+
+    public long getEvicted() {
+        return evicted;
+    }
+
+    public long getDiscarded() {
+        return discarded;
+    }
+
+    @Override
+    public String toString() {
+        return "ConnectionPoolMetrics{" +
+                "url='" + url + '\'' +
+                ", maxSize=" + maxSize +
+                ", active=" + active +
+                ", idle=" + idle +
+                ", created=" + created +
+                ", reused=" + reused +
+                ", validationFailures=" + validationFailures +
+                ", evicted=" + evicted +
+                ", discarded=" + discarded +
+                '}';
+    }
+}
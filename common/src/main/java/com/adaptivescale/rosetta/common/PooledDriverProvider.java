@@ -0,0 +1,138 @@
+package com.adaptivescale.rosetta.common;
+
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.Driver;
+import java.sql.DriverPropertyInfo;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+import java.util.stream.Collectors;
+
+/**
+ * {@link JDBCDriverProvider} whose drivers hand out pooled connections.
+ * <p>
+ * Callers keep using {@code driver.connect(url, properties)} and {@code connection.close()};
+ * a pool is kept per url and connection properties, so repeated connects to the same database
+ * reuse an open session instead of paying the connection setup again.
+ * Embedded in-memory databases are never pooled, since each new connection is a fresh database there.
+ */
+@Slf4j
+public class PooledDriverProvider implements JDBCDriverProvider, AutoCloseable {
+
+    private static final int DEFAULT_MAX_POOL_SIZE = 8;
+    private static final long IDLE_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final long BORROW_TIMEOUT_MILLIS = TimeUnit.MINUTES.toMillis(5);
+    private static final List<String> UNPOOLED_URL_PREFIXES = Arrays.asList("jdbc:duckdb:", "jdbc:sqlite:", "jdbc:h2:mem:");
+
+    private static PooledDriverProvider instance = null;
+
+    private final JDBCDriverProvider driverProvider;
+    private final Map<String, ConnectionPool> pools = new ConcurrentHashMap<>();
+
+    public PooledDriverProvider(JDBCDriverProvider driverProvider) {
+        this.driverProvider = driverProvider;
+    }
+
+    /**
+     * Process wide provider backed by {@link DriverManagerDriverProvider}; its pools are closed on JVM shutdown.
+     */
+    public static synchronized PooledDriverProvider getInstance() {
+        if (instance == null) {
+            instance = new PooledDriverProvider(new DriverManagerDriverProvider());
+            Runtime.getRuntime().addShutdownHook(new Thread(instance::close));
+        }
+        return instance;
+    }
+
+    @Override
+    public Driver getDriver(Connection connection) throws SQLException {
+        Driver driver = driverProvider.getDriver(connection);
+        if (!isPoolable(connection.getUrl())) {
+            return driver;
+        }
+        int maxPoolSize = Math.max(DEFAULT_MAX_POOL_SIZE, connection.getExtractionConnections());
+        return new PooledDriver(driver, maxPoolSize);
+    }
+
+    public List<ConnectionPoolMetrics> getMetrics() {
+        return pools.values().stream().map(ConnectionPool::getMetrics).collect(Collectors.toList());
+    }
+
+    @Override
+    public void close() {
+        pools.values().forEach(pool -> {
+            log.debug("Closing connection pool: {}", pool.getMetrics());
+            pool.close();
+        });
+        pools.clear();
+    }
+
+    private static boolean isPoolable(String url) {
+        return url != null && UNPOOLED_URL_PREFIXES.stream().noneMatch(url::startsWith);
+    }
+
+    private static String poolKey(String url, Properties properties) {
+        StringBuilder key = new StringBuilder(url);
+        new TreeMap<>(properties).forEach((name, value) -> key.append('\u0000').append(name).append('=').append(value));
+        return key.toString();
+    }
+
+    private class PooledDriver implements Driver {
+        private final Driver driver;
+        private final int maxPoolSize;
+
+        private PooledDriver(Driver driver, int maxPoolSize) {
+            this.driver = driver;
+            this.maxPoolSize = maxPoolSize;
+        }
+
+        @Override
+        public java.sql.Connection connect(String url, Properties info) throws SQLException {
+            if (!isPoolable(url)) {
+                return driver.connect(url, info);
+            }
+            Properties properties = new Properties();
+            if (info != null) {
+                properties.putAll(info);
+            }
+            ConnectionPool pool = pools.computeIfAbsent(poolKey(url, properties),
+                    key -> new ConnectionPool(driver, url, properties, maxPoolSize, IDLE_TIMEOUT_MILLIS, BORROW_TIMEOUT_MILLIS));
+            return pool.borrow();
+        }
+
+        @Override
+        public boolean acceptsURL(String url) throws SQLException {
+            return driver.acceptsURL(url);
+        }
+
+        @Override
+        public DriverPropertyInfo[] getPropertyInfo(String url, Properties info) throws SQLException {
+            return driver.getPropertyInfo(url, info);
+        }
+
+        @Override
+        public int getMajorVersion() {
+            return driver.getMajorVersion();
+        }
+
+        @Override
+        public int getMinorVersion() {
+            return driver.getMinorVersion();
+        }
+
+        @Override
+        public boolean jdbcCompliant() {
+            return driver.jdbcCompliant();
+        }
+
+        @Override
+        public Logger getParentLogger() throws SQLFeatureNotSupportedException {
+            return driver.getParentLogger();
+        }
+    }
+}
@@ -5,9 +5,14 @@ import com.adaptivescale.rosetta.common.models.TranslationModel;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.*;
-import java.sql.*;
 import java.util.*;
 
+/**
+ * Type translation lookups backed by the translation matrix CSV files.
+ * Both files are read once into immutable hash indices: translations keyed by
+ * (source type, target type, lowercased source column type) with their attributes already joined.
+ * Returned {@link TranslationModel} instances are shared and must not be modified.
+ */
 @Slf4j
 public class TranslationMatrix {
 
@@ -16,15 +21,19 @@ public class TranslationMatrix {
     private static final String DEFAULT_TRANSLATION_MATRIX_FILE = "translation_matrix/translation.csv";
     private static final String DEFAULT_TRANSLATION_ATTRIBUTE_FILE = "translation_matrix/translation_attribute.csv";
     private static final String DELIMITER = ";;";
-    private static final String URL = "jdbc:h2:mem:translation;DB_CLOSE_DELAY=-1";
-    private static final String TRANSLATION_TABLE_NAME = "TRANSLATION";
-    private static final String TRANSLATION_ATTRIBUTE_TABLE_NAME = "TRANSLATION_ATTRIBUTE";
 
     private static TranslationMatrix instance = null;
 
+    // source type -> target type -> lowercased source column type -> translation
+    private final Map<String, Map<String, Map<String, TranslationModel>>> translationIndex;
+    private final Map<Integer, TranslationModel> translationsById;
+    private final Map<Integer, List<TranslationAttributeModel>> attributesByTranslationId;
+
     public TranslationMatrix() {
         try {
-            initTables();
+            this.attributesByTranslationId = loadTranslationAttributes();
+            this.translationsById = new HashMap<>();
+            this.translationIndex = loadTranslations(translationsById, attributesByTranslationId);
         } catch (IOException e) {
             throw new RuntimeException(e);
         }
@@ -37,160 +46,102 @@ public class TranslationMatrix {
         return instance;
     }
 
-    void initTables() throws IOException {
-        String translationTable = "CREATE TABLE "+ TRANSLATION_TABLE_NAME +"(id INT PRIMARY KEY AUTO_INCREMENT, " +
-                "source_type VARCHAR(255) not null, " +
-                "source_column_type VARCHAR(255) not null, " +
-                "target_type VARCHAR(255) not null, " +
-                "target_column_type VARCHAR(255) not null" +
-                ");";
-        String translationAttributesTable = "CREATE TABLE "+TRANSLATION_ATTRIBUTE_TABLE_NAME+"(id INT PRIMARY KEY AUTO_INCREMENT, " +
-                "translation_id INT not null REFERENCES "+ TRANSLATION_TABLE_NAME +"(id), " +
-                "attribute_name VARCHAR(255) not null, " +
-                "attribute_value VARCHAR(255) not null" +
-                ");";
-        execute(translationTable);
-        execute(translationAttributesTable);
-
-        String index = "CREATE INDEX source_translation_index " +
-                "ON "+ TRANSLATION_TABLE_NAME +" (source_type, source_column_type)";
-        String uniqueIndex = "CREATE UNIQUE INDEX unique_translation_index " +
-                "ON "+ TRANSLATION_TABLE_NAME +" (source_type, source_column_type, target_type)";
-        execute(index);
-        execute(uniqueIndex);
-        loadCSVData();
-    }
-
-    void loadCSVData() throws IOException {
-        String line = "";
-
-        StringBuilder dataInsertQuery = new StringBuilder();
-        StringBuilder attributesInsertQuery = new StringBuilder();
-
-        Map<Integer, List<TranslationAttributeModel>> translationAttributesMappedByTranslationId = readTranslationAttributes(attributesInsertQuery);
-        BufferedReader br = readTranslationMatrixFile();
-
-        while ((line = br.readLine()) != null)
-        {
-            String[] translation = line.split(DELIMITER);
-            TranslationModel translationModel = new TranslationModel();
-            translationModel.setId(Integer.valueOf(translation[0]));
-            translationModel.setSourceType(translation[1]);
-            translationModel.setSourceColumnType(translation[2]);
-            translationModel.setTargetType(translation[3]);
-            translationModel.setTargetColumnType(translation[4]);
-            translationModel.setAttributes(translationAttributesMappedByTranslationId.get(translationModel.getId()));
-
-            String insertStatement = translationModel.generateInsertStatement(TRANSLATION_TABLE_NAME);
-            dataInsertQuery.append(insertStatement);
+    private static Map<String, Map<String, Map<String, TranslationModel>>> loadTranslations(
+            Map<Integer, TranslationModel> translationsById,
+            Map<Integer, List<TranslationAttributeModel>> attributesByTranslationId) throws IOException {
+        Map<String, Map<String, Map<String, TranslationModel>>> index = new HashMap<>();
+        try (BufferedReader br = readTranslationMatrixFile()) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] translation = line.split(DELIMITER);
+                TranslationModel translationModel = new TranslationModel();
+                translationModel.setId(Integer.valueOf(translation[0]));
+                translationModel.setSourceType(translation[1]);
+                translationModel.setSourceColumnType(translation[2]);
+                translationModel.setTargetType(translation[3]);
+                translationModel.setTargetColumnType(translation[4]);
+                translationModel.setAttributes(attributesByTranslationId.getOrDefault(translationModel.getId(), Collections.emptyList()));
+
+                TranslationModel duplicate = index
+                        .computeIfAbsent(translationModel.getSourceType(), k -> new HashMap<>())
+                        .computeIfAbsent(translationModel.getTargetType(), k -> new HashMap<>())
+                        .putIfAbsent(translationModel.getSourceColumnType().toLowerCase(), translationModel);
+                if (duplicate != null) {
+                    throw new RuntimeException("Duplicate translation for " + translationModel + " and " + duplicate + ".");
+                }
+                if (translationsById.put(translationModel.getId(), translationModel) != null) {
+                    throw new RuntimeException("Duplicate translation id " + translationModel.getId() + ".");
+                }
+            }
         }
-        execute(dataInsertQuery.toString());
-        execute(attributesInsertQuery.toString());
-    }
 
-    void execute(String sql) {
-        try {
-            Connection connection = DriverManager.getConnection(URL);
-            Statement statement = connection.createStatement();
-            statement.execute(sql);
-            connection.close();
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
-        }
+        index.replaceAll((sourceType, byTargetType) -> {
+            byTargetType.replaceAll((targetType, byColumnType) -> Collections.unmodifiableMap(byColumnType));
+            return Collections.unmodifiableMap(byTargetType);
+        });
+        return Collections.unmodifiableMap(index);
     }
 
-    TranslationModel getSingleRecord(String query) {
-        try {
-            Connection connection = DriverManager.getConnection(URL);
-            Statement statement = connection.createStatement();
-            ResultSet resultSet = statement.executeQuery(query);
-
-            if (resultSet.next()) {
-                TranslationModel translationModel = new TranslationModel();
-                translationModel.setId(resultSet.getInt(1));
-                translationModel.setSourceType(resultSet.getString(2));
-                translationModel.setSourceColumnType(resultSet.getString(3));
-                translationModel.setTargetType(resultSet.getString(4));
-                translationModel.setTargetColumnType(resultSet.getString(5));
-                return translationModel;
+    private static Map<Integer, List<TranslationAttributeModel>> loadTranslationAttributes() throws IOException {
+        Map<Integer, List<TranslationAttributeModel>> translationAttributesMappedByTranslationId = new HashMap<>();
+        try (BufferedReader br = readTranslationAttributesFile()) {
+            String line;
+            while ((line = br.readLine()) != null) {
+                String[] translation = line.split(DELIMITER);
+                TranslationAttributeModel translationAttributeModel = new TranslationAttributeModel();
+                translationAttributeModel.setId(Integer.valueOf(translation[0]));
+                translationAttributeModel.setTranslationId(Integer.valueOf(translation[1]));
+                translationAttributeModel.setAttributeName(translation[2]);
+                translationAttributeModel.setAttributeValue(translation[3]);
+                translationAttributesMappedByTranslationId
+                        .computeIfAbsent(translationAttributeModel.getTranslationId(), k -> new ArrayList<>())
+                        .add(translationAttributeModel);
             }
-            connection.close();
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
         }
-        return null;
+        translationAttributesMappedByTranslationId.replaceAll((id, attributes) -> Collections.unmodifiableList(attributes));
+        return translationAttributesMappedByTranslationId;
     }
 
-    private List<TranslationAttributeModel> getTranslationAttributeRecords(String query) {
-        try {
-            Connection connection = DriverManager.getConnection(URL);
-            Statement statement = connection.createStatement();
-            ResultSet resultSet = statement.executeQuery(query);
-            List<TranslationAttributeModel> result = new ArrayList<>();
-
-            while (resultSet.next()) {
-                TranslationAttributeModel translationAttributeModel = new TranslationAttributeModel();
-                translationAttributeModel.setId(resultSet.getInt("id"));
-                translationAttributeModel.setTranslationId(resultSet.getInt("translation_id"));
-                translationAttributeModel.setAttributeName(resultSet.getString("attribute_name"));
-                translationAttributeModel.setAttributeValue(resultSet.getString("attribute_value"));
-
-                result.add(translationAttributeModel);
-            }
-            connection.close();
-            return result;
-        } catch (SQLException e) {
-            throw new RuntimeException(e);
+    /**
+     * Case-sensitive match on the stored source column type, the index key itself is lowercased.
+     */
+    private TranslationModel find(String sourceType, String sourceColumnType, String targetType) {
+        if (sourceColumnType == null) {
+            return null;
+        }
+        Map<String, Map<String, TranslationModel>> byTargetType = translationIndex.get(sourceType);
+        if (byTargetType == null) {
+            return null;
         }
+        Map<String, TranslationModel> byColumnType = byTargetType.get(targetType);
+        if (byColumnType == null) {
+            return null;
+        }
+        TranslationModel translationModel = byColumnType.get(sourceColumnType.toLowerCase());
+        if (translationModel == null || !translationModel.getSourceColumnType().equals(sourceColumnType)) {
+            return null;
+        }
+        return translationModel;
     }
 
     public TranslationModel findById(Integer id) {
-        String query = String.format("SELECT TOP 1 * from %s where id=%s", TRANSLATION_TABLE_NAME, id);
-        return getSingleRecord(query);
+        return translationsById.get(id);
     }
 
     public String findBySourceTypeAndSourceColumnType(String sourceType, String sourceColumnType) {
-        String query = String.format("SELECT * from %s where source_type='%s' and source_column_type='%s' and target_type='%s'", TRANSLATION_TABLE_NAME, sourceType, sourceColumnType, sourceType);
-        TranslationModel translationModel = getSingleRecord(query);
+        TranslationModel translationModel = find(sourceType, sourceColumnType, sourceType);
         return translationModel != null ? translationModel.getTargetColumnType() : sourceColumnType;
     }
 
     public TranslationModel findBySourceTypeAndSourceColumnTypeAndTargetType(String sourceType, String sourceColumnType, String targetType) {
-        String query = String.format("SELECT * from %s where source_type='%s' and source_column_type='%s' and target_type='%s'",
-                TRANSLATION_TABLE_NAME, sourceType, sourceColumnType.toLowerCase(), targetType);
-        return getSingleRecord(query);
+        return find(sourceType, sourceColumnType.toLowerCase(), targetType);
     }
 
     public List<TranslationAttributeModel> findByTranslationAttributesByTranslationIds(Integer translationId) {
-        String query = String.format("SELECT * from %s where translation_id=%s",
-                TRANSLATION_ATTRIBUTE_TABLE_NAME, translationId);
-        return getTranslationAttributeRecords(query);
-    }
-
-    private Map<Integer, List<TranslationAttributeModel>> readTranslationAttributes(StringBuilder attributesInsertQuery) throws IOException {
-        Map<Integer, List<TranslationAttributeModel>> translationAttributesMappedByTranslationId = new HashMap<>();
-        BufferedReader br = readTranslationAttributesFile();
-        String line = "";
-        while ((line = br.readLine()) != null)
-        {
-            String[] translation = line.split(DELIMITER);
-            TranslationAttributeModel translationAttributeModel = new TranslationAttributeModel();
-            translationAttributeModel.setId(Integer.valueOf(translation[0]));
-            translationAttributeModel.setTranslationId(Integer.valueOf(translation[1]));
-            translationAttributeModel.setAttributeName(translation[2]);
-            translationAttributeModel.setAttributeValue(translation[3]);
-            if (translationAttributesMappedByTranslationId.containsKey(translationAttributeModel.getTranslationId())) {
-                translationAttributesMappedByTranslationId.get(translationAttributeModel.getTranslationId()).add(translationAttributeModel);
-            } else {
-                translationAttributesMappedByTranslationId.put(translationAttributeModel.getTranslationId(), new ArrayList<>(Arrays.asList(translationAttributeModel)));
-            }
-            String insertStatement = translationAttributeModel.generateInsertStatement(TRANSLATION_ATTRIBUTE_TABLE_NAME);
-            attributesInsertQuery.append(insertStatement);
-        }
-        return translationAttributesMappedByTranslationId;
+        return attributesByTranslationId.getOrDefault(translationId, Collections.emptyList());
     }
 
-    private BufferedReader readTranslationMatrixFile() throws FileNotFoundException {
+    private static BufferedReader readTranslationMatrixFile() throws FileNotFoundException {
         //Check for the translation file from the ENV variable EXTERNAL_TRANSLATION_FILE
         String externalTranslationFile = System.getenv(EXTERNAL_TRANSLATION_FILE_ENV);
         if (externalTranslationFile != null) {
@@ -204,7 +155,7 @@ public class TranslationMatrix {
         return new BufferedReader(new InputStreamReader(resourceAsStream));
     }
 
-    private BufferedReader readTranslationAttributesFile() throws FileNotFoundException {
+    private static BufferedReader readTranslationAttributesFile() throws FileNotFoundException {
         //Check for the translation file from the ENV variable EXTERNAL_TRANSLATION_FILE
         String externalTranslationFile = System.getenv(EXTERNAL_TRANSLATION_ATTRIBUTE_FILE_ENV);
         if (externalTranslationFile != null) {
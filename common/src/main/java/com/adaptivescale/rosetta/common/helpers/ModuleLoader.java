@@ -20,37 +20,58 @@ import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
 import org.reflections.Reflections;
 
-import java.util.List;
-import java.util.Optional;
-import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Finds {@link RosettaModule} classes by type and name.
+ * Each package is scanned once; the modules found are indexed by type and name and kept for the
+ * lifetime of the process, so repeated lookups do not walk the classpath again.
+ */
 public class ModuleLoader {
 
+    private static final Map<String, Map<RosettaModuleTypes, Map<String, List<Class<?>>>>> MODULES_BY_PACKAGE = new ConcurrentHashMap<>();
+
     public static Optional<Class<?>> loadModuleByAnnotationClassValues(
             String packageName,
             RosettaModuleTypes annotationType,
             String annotationName
     ) {
-        Reflections reflections = new Reflections(packageName);
-        Set<Class<?>> typesAnnotatedWith = reflections.getTypesAnnotatedWith(RosettaModule.class, true);
-        Optional<Class<?>> classFound = typesAnnotatedWith.stream().filter(cls -> {
-            RosettaModule annotation = cls.getAnnotation(RosettaModule.class);
-            return annotation.type().equals(annotationType) && annotation.name().equals(annotationName);
-        }).reduce((a, b) -> null);
-        return classFound;
+        List<Class<?>> classes = modules(packageName)
+                .getOrDefault(annotationType, Collections.emptyMap())
+                .getOrDefault(annotationName, Collections.emptyList());
+        if (classes.size() > 1) {
+            throw new RuntimeException("Multiple modules found for type: " + annotationType + " and name: " + annotationName + ": " + classes);
+        }
+        return classes.stream().findFirst();
     }
 
     public static List<Class<?>> loadModuleByAnnotationType(
             String packageName,
             RosettaModuleTypes annotationType
     ) {
+        List<Class<?>> classList = new ArrayList<>();
+        modules(packageName)
+                .getOrDefault(annotationType, Collections.emptyMap())
+                .values()
+                .forEach(classList::addAll);
+        return classList;
+    }
+
+    private static Map<RosettaModuleTypes, Map<String, List<Class<?>>>> modules(String packageName) {
+        return MODULES_BY_PACKAGE.computeIfAbsent(packageName, ModuleLoader::scan);
+    }
+
+    private static Map<RosettaModuleTypes, Map<String, List<Class<?>>>> scan(String packageName) {
         Reflections reflections = new Reflections(packageName);
         Set<Class<?>> typesAnnotatedWith = reflections.getTypesAnnotatedWith(RosettaModule.class, true);
-        List<Class<?>> classList = typesAnnotatedWith.stream().filter(cls -> {
+        Map<RosettaModuleTypes, Map<String, List<Class<?>>>> modules = new EnumMap<>(RosettaModuleTypes.class);
+        for (Class<?> cls : typesAnnotatedWith) {
             RosettaModule annotation = cls.getAnnotation(RosettaModule.class);
-            return annotation.type().equals(annotationType);
-        }).collect(Collectors.toList());
-        return classList;
+            modules.computeIfAbsent(annotation.type(), k -> new HashMap<>())
+                    .computeIfAbsent(annotation.name(), k -> new ArrayList<>())
+                    .add(cls);
+        }
+        return modules;
     }
 }
@@ -1,6 +1,7 @@
 package com.adaptivescale.rosetta.common.models;
 
 import com.adaptivescale.rosetta.common.models.enums.OperationLevelEnum;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 
 import java.util.ArrayList;
 import java.util.Collection;
@@ -13,6 +14,9 @@ public class Database {
     private String databaseProductName;
     private String databaseType;
     private OperationLevelEnum operationLevel = OperationLevelEnum.schema;
+    // catalog version the model was extracted at, for sources with a versioned catalog such as DuckLake; kept with
+    // the change markers rather than in the model
+    private Long catalogSnapshot;
 
     public Collection<Table> getTables() {
         return tables;
@@ -65,4 +69,14 @@ public class Database {
     public void setOperationLevel(OperationLevelEnum operationLevel) {
         this.operationLevel = operationLevel;
     }
+
+    @JsonIgnore
+    public Long getCatalogSnapshot() {
+        return catalogSnapshot;
+    }
+
+    @JsonIgnore
+    public void setCatalogSnapshot(Long catalogSnapshot) {
+        this.catalogSnapshot = catalogSnapshot;
+    }
 }
@@ -1,5 +1,7 @@
 package com.adaptivescale.rosetta.common.models;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
 import java.util.Collection;
 import java.util.List;
 import java.util.Objects;
@@ -17,6 +19,10 @@ public class Table extends AbstractModel {
 
     private Collection<Column> columns;
 
+    // catalog state of the table when it was extracted, compared by incremental extraction; not part of equality and
+    // kept out of the model, as it can move with every data change
+    private String changeMarker;
+
     public String getName() {
         return name;
     }
@@ -74,6 +80,16 @@ public class Table extends AbstractModel {
         this.indices = indices;
     }
 
+    @JsonIgnore
+    public String getChangeMarker() {
+        return changeMarker;
+    }
+
+    @JsonIgnore
+    public void setChangeMarker(String changeMarker) {
+        this.changeMarker = changeMarker;
+    }
+
     @Override
     public boolean equals(Object o) {
         if (this == o) return true;
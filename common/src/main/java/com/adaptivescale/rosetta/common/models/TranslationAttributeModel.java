@@ -39,18 +39,6 @@ public class TranslationAttributeModel {
         this.attributeValue = attributeValue;
     }
 
-    public String generateInsertStatement(String tableName) {
-        StringBuilder builder = new StringBuilder();
-        builder.append("insert into ").append(tableName)
-            .append(" values (")
-            .append(id)
-            .append(", '").append(translationId).append("' ")
-            .append(", '").append(attributeName).append("' ")
-            .append(", '").append(attributeValue).append("' ")
-            .append(");");
-        return builder.toString();
-    }
-
     @Override
     public String toString() {
         return "TranslationAttributeModel{" +
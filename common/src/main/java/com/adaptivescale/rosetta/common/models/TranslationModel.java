@@ -59,19 +59,6 @@ public class TranslationModel {
         this.attributes = attributes;
     }
 
-    public String generateInsertStatement(String tableName) {
-        StringBuilder builder = new StringBuilder();
-        builder.append("insert into ").append(tableName)
-                .append(" values (")
-                .append(id)
-                .append(", '").append(sourceType).append("' ")
-                .append(", '").append(sourceColumnType).append("' ")
-                .append(", '").append(targetType).append("' ")
-                .append(", '").append(targetColumnType).append("' ")
-                .append(");");
-        return builder.toString();
-    }
-
     @Override
     public String toString() {
         return "TranslationModel{" +
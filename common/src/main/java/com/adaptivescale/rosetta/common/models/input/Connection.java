@@ -27,6 +27,11 @@ public class Connection {
     private String s3AccessKeyId;
     private String s3SecretAccessKey;
 
+    // Extraction tuning fields
+    private int extractionConnections = 1;
+    private boolean bulkExtraction = false;
+    private long modelCacheTtl = 0;
+
     public Connection() {
     }
 
@@ -142,6 +147,30 @@ public class Connection {
         this.s3SecretAccessKey = s3SecretAccessKey;
     }
 
+    public int getExtractionConnections() {
+        return extractionConnections;
+    }
+
+    public void setExtractionConnections(int extractionConnections) {
+        this.extractionConnections = extractionConnections;
+    }
+
+    public boolean isBulkExtraction() {
+        return bulkExtraction;
+    }
+
+    public void setBulkExtraction(boolean bulkExtraction) {
+        this.bulkExtraction = bulkExtraction;
+    }
+
+    public long getModelCacheTtl() {
+        return modelCacheTtl;
+    }
+
+    public void setModelCacheTtl(long modelCacheTtl) {
+        this.modelCacheTtl = modelCacheTtl;
+    }
+
     public Map<String, String> toMap() {
         ObjectMapper objectMapper = new ObjectMapper();
         return objectMapper.convertValue(this, Map.class);
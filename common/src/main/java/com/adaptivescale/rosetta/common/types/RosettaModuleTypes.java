@@ -24,5 +24,6 @@ public enum RosettaModuleTypes {
     COLUMN_EXTRACTOR,
     TABLE_EXTRACTOR,
     VIEW_EXTRACTOR,
+    CHANGE_MARKER_EXTRACTOR,
     DIFF_TESTER,
 }
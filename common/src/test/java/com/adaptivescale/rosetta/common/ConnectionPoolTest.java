@@ -0,0 +1,262 @@
+package com.adaptivescale.rosetta.common;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+
+public class ConnectionPoolTest {
+
+    private final List<FakeConnection> connections = new ArrayList<>();
+
+    @Test
+    public void borrowWaitsForFreePermit() throws Exception {
+        ConnectionPool pool = pool(2, 60_000);
+        Connection first = pool.borrow();
+        pool.borrow();
+
+        SQLException timeout = Assertions.assertThrows(SQLException.class, pool::borrow);
+        Assertions.assertTrue(timeout.getMessage().contains("max pool size 2"));
+
+        first.close();
+        pool.borrow();
+        ConnectionPoolMetrics metrics = pool.getMetrics();
+        Assertions.assertEquals(2, metrics.getCreated());
+        Assertions.assertEquals(1, metrics.getReused());
+        Assertions.assertEquals(2, metrics.getActive());
+    }
+
+    @Test
+    public void invalidIdleConnectionIsReplaced() throws Exception {
+        ConnectionPool pool = pool(1, 60_000, 0);
+        pool.borrow().close();
+        connections.get(0).valid = false;
+
+        pool.borrow();
+
+        Assertions.assertEquals(2, connections.size());
+        Assertions.assertTrue(connections.get(0).closed);
+        Assertions.assertEquals(1, pool.getMetrics().getValidationFailures());
+        Assertions.assertEquals(0, pool.getMetrics().getReused());
+    }
+
+    @Test
+    public void idleConnectionIsEvicted() throws Exception {
+        ConnectionPool pool = pool(1, 10);
+        pool.borrow().close();
+        Thread.sleep(50);
+
+        pool.borrow();
+
+        Assertions.assertEquals(2, connections.size());
+        Assertions.assertTrue(connections.get(0).closed);
+        Assertions.assertEquals(1, pool.getMetrics().getEvicted());
+    }
+
+    @Test
+    public void failedQueryKeepsConnectionPooled() throws Exception {
+        ConnectionPool pool = pool(1, 60_000);
+        try (Connection connection = pool.borrow(); Statement statement = connection.createStatement()) {
+            Assertions.assertThrows(SQLException.class, () -> statement.execute("select fail"));
+        }
+
+        pool.borrow();
+
+        Assertions.assertEquals(1, connections.size());
+        Assertions.assertEquals(0, pool.getMetrics().getDiscarded());
+        Assertions.assertEquals(1, pool.getMetrics().getReused());
+    }
+
+    @Test
+    public void brokenConnectionIsReplacedOnBorrow() throws Exception {
+        ConnectionPool pool = pool(1, 60_000, 0);
+        Connection connection = pool.borrow();
+        connections.get(0).valid = false;
+        connection.close();
+
+        Assertions.assertEquals(0, connections.get(0).validations);
+        pool.borrow();
+
+        Assertions.assertEquals(2, connections.size());
+        Assertions.assertTrue(connections.get(0).closed);
+        Assertions.assertEquals(1, connections.get(0).validations);
+        Assertions.assertEquals(1, pool.getMetrics().getValidationFailures());
+        Assertions.assertEquals(0, pool.getMetrics().getDiscarded());
+    }
+
+    @Test
+    public void recentlyReturnedConnectionIsNotValidated() throws Exception {
+        ConnectionPool pool = pool(1, 60_000, 60_000);
+        pool.borrow().close();
+        pool.borrow().close();
+        pool.borrow();
+
+        Assertions.assertEquals(1, connections.size());
+        Assertions.assertEquals(0, connections.get(0).validations);
+        Assertions.assertEquals(2, pool.getMetrics().getReused());
+    }
+
+    @Test
+    public void changedSessionIsNotHandedToNextBorrower() throws Exception {
+        ConnectionPool pool = pool(1, 60_000);
+        try (Connection connection = pool.borrow(); Statement statement = connection.createStatement()) {
+            statement.execute("alter session set MULTI_STATEMENT_COUNT = 0");
+        }
+        pool.borrow().close();
+        try (Connection connection = pool.borrow(); Statement statement = connection.prepareStatement(" SET SESSION group_concat_max_len = 1000000")) {
+            Assertions.assertSame(connection, statement.getConnection());
+        }
+        try (Connection connection = pool.borrow()) {
+            connection.setSchema("other");
+        }
+
+        // the second connection was pooled once, then discarded after SET
+        Assertions.assertEquals(3, connections.size());
+        Assertions.assertEquals(1, pool.getMetrics().getReused());
+        Assertions.assertEquals(3, pool.getMetrics().getDiscarded());
+    }
+
+    @Test
+    public void closedStatementsAreNoLongerTracked() throws Exception {
+        ConnectionPool pool = pool(1, 60_000);
+        Connection connection = pool.borrow();
+        connection.createStatement().close();
+        Statement open = connection.createStatement();
+        connection.close();
+
+        FakeConnection physical = connections.get(0);
+        Assertions.assertEquals(List.of(1, 1), physical.statementCloses);
+        Assertions.assertTrue(open.isClosed());
+    }
+
+    @Test
+    public void physicalObjectsDoNotLeak() throws Exception {
+        ConnectionPool pool = pool(1, 60_000);
+        Connection connection = pool.borrow();
+        Statement statement = connection.createStatement();
+        ResultSet resultSet = statement.executeQuery("select 1");
+        DatabaseMetaData metaData = connection.getMetaData();
+
+        Assertions.assertSame(connection, statement.getConnection());
+        Assertions.assertSame(statement, resultSet.getStatement());
+        Assertions.assertSame(connection, metaData.getConnection());
+        Assertions.assertNull(metaData.getTables(null, null, null, null).getStatement());
+    }
+
+    private ConnectionPool pool(int maxSize, long idleTimeoutMillis) {
+        return pool(maxSize, idleTimeoutMillis, 60_000);
+    }
+
+    private ConnectionPool pool(int maxSize, long idleTimeoutMillis, long validationIdleMillis) {
+        Driver driver = proxy(Driver.class, (method, args) -> {
+            if (method.equals("connect")) {
+                FakeConnection connection = new FakeConnection();
+                connections.add(connection);
+                return connection.proxy;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        return new ConnectionPool(driver, "jdbc:fake:db", new Properties(), maxSize, idleTimeoutMillis, 50,
+                validationIdleMillis);
+    }
+
+    /**
+     * Physical connection that is valid until told otherwise, and records how often each of its statements is closed.
+     */
+    private static class FakeConnection {
+        private volatile boolean valid = true;
+        private volatile boolean closed;
+        private volatile int validations;
+        private final List<Integer> statementCloses = new ArrayList<>();
+        private final Connection proxy = proxy(Connection.class, this::invoke);
+
+        private Object invoke(String method, Object[] args) throws SQLException {
+            switch (method) {
+                case "isValid":
+                    validations++;
+                    return valid && !closed;
+                case "isClosed":
+                    return closed;
+                case "close":
+                    closed = true;
+                    return null;
+                case "getAutoCommit":
+                    return true;
+                case "setSchema":
+                    return null;
+                case "createStatement":
+                case "prepareStatement":
+                    return statement();
+                case "getMetaData":
+                    Statement internal = statement();
+                    return proxy(DatabaseMetaData.class, (metaDataMethod, metaDataArgs) -> {
+                        switch (metaDataMethod) {
+                            case "getConnection":
+                                return proxy;
+                            case "getTables":
+                                return resultSet(internal);
+                            default:
+                                throw new UnsupportedOperationException(metaDataMethod);
+                        }
+                    });
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        }
+
+        private Statement statement() {
+            int index = statementCloses.size();
+            statementCloses.add(0);
+            Statement[] self = new Statement[1];
+            self[0] = proxy(PreparedStatement.class, (method, args) -> {
+                switch (method) {
+                    case "close":
+                        statementCloses.set(index, statementCloses.get(index) + 1);
+                        return null;
+                    case "isClosed":
+                        return statementCloses.get(index) > 0;
+                    case "getConnection":
+                        return proxy;
+                    case "execute":
+                        if (((String) args[0]).contains("fail")) {
+                            throw new SQLException("syntax error");
+                        }
+                        return false;
+                    case "executeQuery":
+                        return resultSet(self[0]);
+                    default:
+                        throw new UnsupportedOperationException(method);
+                }
+            });
+            return self[0];
+        }
+
+        private static ResultSet resultSet(Statement statement) {
+            return proxy(ResultSet.class, (method, args) -> {
+                if (method.equals("getStatement")) {
+                    return statement;
+                }
+                throw new UnsupportedOperationException(method);
+            });
+        }
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args) throws SQLException;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(ConnectionPoolTest.class.getClassLoader(), new Class[]{type},
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
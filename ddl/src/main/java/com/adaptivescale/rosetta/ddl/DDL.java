@@ -4,6 +4,8 @@ import com.adaptivescale.rosetta.common.models.*;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
 
+import java.io.IOException;
+import java.io.Writer;
 
 public interface DDL {
 
@@ -14,6 +16,14 @@ public interface DDL {
 
     String createDatabase(Database database, boolean dropTableIfExists);
 
+    /**
+     * Writes the same script as {@link #createDatabase(Database, boolean)} to {@code writer}. Generators that
+     * stream the script table by table override this, so it is never held in memory as a whole.
+     */
+    default void createDatabase(Database database, boolean dropTableIfExists, Writer writer) throws IOException {
+        writer.write(createDatabase(database, dropTableIfExists));
+    }
+
     String createForeignKey(ForeignKey foreignKey);
 
     String alterColumn(ColumnChange change);
@@ -0,0 +1,391 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.common.models.*;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
+import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Change finder shared by the dialects, which differ through the hooks below. By default foreign keys referencing a
+ * dropped table or column are dropped and altered foreign keys are recreated. Tables, views, columns and foreign keys
+ * are matched through {@link Matches}, and foreign keys are indexed by the column they reference, so finding changes
+ * stays linear in the model size.
+ */
+@Slf4j
+public abstract class BaseChangeFinder implements ChangeFinder {
+
+    @Override
+    public List<Change<?>> findChanges(Database expected, Database actual) {
+        List<Change<?>> changes = new ArrayList<>();
+        if (!Objects.equals(expected.getDatabaseType(), actual.getDatabaseType())) {
+            throw new RuntimeException("Can not find changes for different database types");
+        }
+
+        if (actual.getTables() == null || actual.getTables().size() == 0) {
+            Change<Database> databaseChange = ChangeFactory.databaseChange(expected, null, Change.Status.ADD);
+            changes.add(databaseChange);
+            return changes;
+        }
+
+        Map<Object, List<ForeignKey>> referencingForeignKeys = foreignKeysByReferencedColumn(actual.getTables());
+        Set<String> actualSchemas = schemasOf(actual.getTables());
+        Matches<Table> tables = Matches.of(expected.getTables(), actual.getTables(), this::tableKey,
+                (table, count) -> new RuntimeException(String.format("Found %d table with name '%s' and schema '%s'",
+                        count, table.getName(), table.getSchema())));
+
+        tables.compare((expectedTable, table) -> {
+            if (table == null) {
+                List<Change<?>> tableChanges = new ArrayList<>();
+                if (matchesBySchema() && !actualSchemas.contains(expectedTable.getSchema())) {
+                    Change<Table> tableSchemaChange = ChangeFactory.tableSchemaChange(expectedTable, null, Change.Status.ADD);
+                    tableChanges.add(tableSchemaChange);
+                }
+                Change<Table> tableChange = ChangeFactory.tableChange(expectedTable, null, Change.Status.ADD);
+                tableChanges.add(tableChange);
+
+                if (tracksForeignKeyDependencies()) {
+                    tableChanges.addAll(findChangesForForeignKeys(foreignKeysOf(Collections.singletonList(expectedTable)), null));
+                }
+                return tableChanges;
+            }
+            //change in table
+            return findChangesInTable(expectedTable, table, referencingForeignKeys);
+        }).forEach(changes::addAll);
+
+        //mark all for deletion
+        for (Table actualTable : tables.unmatched()) {
+
+            //check if table columns are reference by any foreign keys
+            if (tracksForeignKeyDependencies()) {
+                for (Column column : actualTable.getColumns()) {
+                    changes.addAll(dropForeignKeysThatAreReferencedToColumn(column, actualTable, referencingForeignKeys));
+                }
+            }
+
+            Change<Table> tableChange = ChangeFactory.tableChange(null, actualTable, Change.Status.DROP);
+            changes.add(tableChange);
+        }
+
+        if (comparesViews()) {
+            viewChanges(expected, actual, changes);
+        }
+
+        // a foreign key referencing several dropped columns is reported once per column
+        List<Change<?>> result = tracksForeignKeyDependencies() ? filterDuplicates(changes) : changes;
+        log.info("Found {} changes", result.size());
+        return result;
+    }
+
+    /**
+     * @return whether tables are told apart by schema as well as by name; when they are, adding a table to a
+     * schema the database does not have yet also adds the schema
+     */
+    protected boolean matchesBySchema() {
+        return true;
+    }
+
+    protected boolean comparesViews() {
+        return false;
+    }
+
+    /**
+     * @return whether foreign keys follow the tables and columns they depend on: the foreign keys of an added table
+     * are added, the ones on or referencing a dropped table or column or a dropped primary key are dropped, and an
+     * altered foreign key is dropped and added again. Otherwise foreign keys only change when they differ
+     * themselves, and an altered one is reported as altered
+     */
+    protected boolean tracksForeignKeyDependencies() {
+        return true;
+    }
+
+    /**
+     * @return whether a changed primary key alters the table; otherwise it has to be part of {@link #sameColumn}
+     */
+    protected boolean altersPrimaryKeyOnTable() {
+        return true;
+    }
+
+    /**
+     * Compares the column attributes that can be altered in place; primary keys are handled on the table.
+     */
+    protected boolean sameColumn(Column expected, Column actual) {
+        return Objects.equals(expected.isNullable(), actual.isNullable())
+                && Objects.equals(expected.isAutoincrement(), actual.isAutoincrement())
+                && Objects.equals(expected.getTypeName(), actualTypeName(actual))
+                && Objects.equals(expected.getPrecision(), actual.getPrecision())
+                && Objects.equals(expected.getScale(), actual.getScale())
+                && Objects.equals(expected.getOrdinalPosition(), actual.getOrdinalPosition())
+                && Objects.equals(expected.getColumnDisplaySize(), actual.getColumnDisplaySize())
+                && Objects.equals(expected.getPrimaryKeySequenceId(), actual.getPrimaryKeySequenceId());
+    }
+
+    /**
+     * @return the type name of a column read from the database, comparable with the type names of the model
+     */
+    protected String actualTypeName(Column actual) {
+        return actual.getTypeName();
+    }
+
+    /**
+     * Finds the changes between two matched tables. May be called concurrently for different tables.
+     */
+    protected List<Change<?>> findChangesInTable(Table expected, Table actual, Map<Object, List<ForeignKey>> referencingForeignKeys) {
+        return findChangesInColumnsForTable(expected, actual, referencingForeignKeys);
+    }
+
+    private Object tableKey(Table table) {
+        return matchesBySchema() ? Matches.schemaAndName(table.getSchema(), table.getName()) : table.getName();
+    }
+
+    private void viewChanges(Database expected, Database actual, List<Change<?>> changes) {
+        // Backwards compatibility
+        if (actual.getViews() == null) {
+            return;
+        }
+        // View changes
+        Map<Object, List<ForeignKey>> referencingForeignKeys = foreignKeysByReferencedColumn(actual.getViews());
+        Matches<View> views = Matches.of(expected.getViews(), actual.getViews(),
+                view -> Matches.schemaAndName(view.getSchema(), view.getName()),
+                (view, count) -> new RuntimeException(String.format("Found %d view with name '%s' and schema '%s'",
+                        count, view.getName(), view.getSchema())));
+
+        views.compare((expectedView, view) -> {
+            if (view == null) {
+                return ChangeFactory.viewChange(expectedView, null, Change.Status.ADD);
+            }
+            //change in view - TODO -currently using table function as they identical - split in future
+            List<Change<?>> changesFromView = findChangesInColumnsForTable(expectedView, view, referencingForeignKeys);
+            return changesFromView.isEmpty() ? null : ChangeFactory.viewChange(expectedView, null, Change.Status.ALTER);
+        }).stream().filter(Objects::nonNull).forEach(changes::add);
+
+        //mark all for deletion
+        for (View actualView : views.unmatched()) {
+            Change<View> viewChange = ChangeFactory.viewChange(null, actualView, Change.Status.DROP);
+            changes.add(viewChange);
+        }
+    }
+
+    protected List<Change<?>> findChangesInColumnsForTable(Table expected, Table actual, Map<Object, List<ForeignKey>> referencingForeignKeys) {
+
+        List<Change<?>> changes = new ArrayList<>();
+        Matches<Column> columns = Matches.of(expected.getColumns(), actual.getColumns(), Column::getName,
+                (column, count) -> new RuntimeException(String.format("Found %d column with name '%s' in table '%s'.'%s'",
+                        count, actual.getName(), actual.getName(), actual.getSchema())));
+
+        for (int i = 0; i < columns.size(); i++) {
+            Column expectedColumn = columns.expected(i);
+            Column actualColumn = columns.actual(i);
+            if (actualColumn == null) {
+                Change<Column> columnChange = ChangeFactory.columnChange(expectedColumn, null, Change.Status.ADD, expected);
+                changes.add(columnChange);
+
+                //check if the column has fk
+                List<ForeignKey> foreignKeys = expectedColumn.getForeignKeys();
+                if (foreignKeys != null) {
+                    foreignKeys.stream().map(fk -> ChangeFactory.foreignKeyChange(fk, null, Change.Status.ADD)).forEach(changes::add);
+                }
+
+                if (expectedColumn.isPrimaryKey()) {
+                    //mark a change in the table to create PK for table
+                    Change<Table> tableChange = ChangeFactory.tableChange(expected, actual, Change.Status.ALTER);
+                    changes.add(tableChange);
+                }
+                continue;
+            }
+
+            if (!sameColumn(expectedColumn, actualColumn)) {
+                Change<Column> columnChange = ChangeFactory.columnChange(expectedColumn, actualColumn, Change.Status.ALTER, expected);
+                changes.add(columnChange);
+            }
+
+            // changes for primary keep handle in table bcs there can be multiple column involved
+            if (altersPrimaryKeyOnTable() && !Objects.equals(expectedColumn.isPrimaryKey(), actualColumn.isPrimaryKey())) {
+
+                if (actualColumn.isPrimaryKey() && tracksForeignKeyDependencies()) {
+                    changes.addAll(dropForeignKeysThatAreReferencedToColumn(actualColumn, actual, referencingForeignKeys));
+                }
+
+                Change<Table> tableChange = ChangeFactory.tableChange(expected, actual, Change.Status.ALTER);
+                changes.add(tableChange);
+            }
+
+            changes.addAll(findChangesForForeignKeys(expectedColumn.getForeignKeys(), actualColumn.getForeignKeys()));
+        }
+
+        for (Column actualColumn : columns.unmatched()) {
+
+            if (tracksForeignKeyDependencies()) {
+                if (actualColumn.getForeignKeys() != null) {
+                    List<Change<ForeignKey>> collect = actualColumn.getForeignKeys().stream().map(foreignKey -> ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP)).collect(Collectors.toList());
+                    changes.addAll(collect);
+                }
+
+                changes.addAll(dropForeignKeysThatAreReferencedToColumn(actualColumn, actual, referencingForeignKeys));
+            }
+
+            Change<Column> columnChange = ChangeFactory.columnChange(null, actualColumn, Change.Status.DROP, expected);
+            changes.add(columnChange);
+        }
+
+        return changes;
+    }
+
+    private List<Change<?>> findChangesForForeignKeys(List<ForeignKey> expectedForeignKeyList, List<ForeignKey> actualForeignKeyList) {
+
+        List<Change<?>> changes = new ArrayList<>();
+        if (expectedForeignKeyList == null && actualForeignKeyList == null) {
+            return changes;
+        }
+
+        if (actualForeignKeyList == null) {
+            for (ForeignKey foreignKey : expectedForeignKeyList) {
+                Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(foreignKey, null, Change.Status.ADD);
+                changes.add(foreignKeyChange);
+            }
+            return changes;
+        }
+
+        if (expectedForeignKeyList == null) {
+            for (ForeignKey foreignKey : actualForeignKeyList) {
+                Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP);
+                changes.add(foreignKeyChange);
+            }
+            return changes;
+        }
+
+        Matches<ForeignKey> foreignKeys = Matches.of(expectedForeignKeyList, actualForeignKeyList, ForeignKey::getName,
+                (foreignKey, count) -> new RuntimeException(String.format("Found %d foreign keys with name '%s' in column '%s' table '%s.%s'",
+                        count, foreignKey.getName(), foreignKey.getColumnName(), foreignKey.getTableName(), foreignKey.getSchema())));
+
+        for (int i = 0; i < foreignKeys.size(); i++) {
+            ForeignKey foreignKey = foreignKeys.expected(i);
+            ForeignKey actualForeignKey = foreignKeys.actual(i);
+            if (actualForeignKey == null) {
+                Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(foreignKey, null, Change.Status.ADD);
+                changes.add(foreignKeyChange);
+                continue;
+            }
+
+            boolean same = Objects.equals(foreignKey.getName(), actualForeignKey.getName())
+                    && Objects.equals(foreignKey.getSchema(), actualForeignKey.getSchema())
+                    && Objects.equals(foreignKey.getTableName(), actualForeignKey.getTableName())
+                    && Objects.equals(foreignKey.getColumnName(), actualForeignKey.getColumnName())
+                    && Objects.equals(foreignKey.getDeleteRule(), actualForeignKey.getDeleteRule())
+                    && Objects.equals(foreignKey.getPrimaryTableSchema(), actualForeignKey.getPrimaryTableSchema())
+                    && Objects.equals(foreignKey.getPrimaryTableName(), actualForeignKey.getPrimaryTableName())
+                    && Objects.equals(foreignKey.getPrimaryColumnName(), actualForeignKey.getPrimaryColumnName());
+
+            if (!same && tracksForeignKeyDependencies()) {
+                changes.add(ChangeFactory.foreignKeyChange(foreignKey, actualForeignKey, Change.Status.DROP));
+                changes.add(ChangeFactory.foreignKeyChange(foreignKey, actualForeignKey, Change.Status.ADD));
+            } else if (!same) {
+                changes.add(ChangeFactory.foreignKeyChange(foreignKey, actualForeignKey, Change.Status.ALTER));
+            }
+        }
+
+        for (ForeignKey actualForeignKey : foreignKeys.unmatched()) {
+            Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, actualForeignKey, Change.Status.DROP);
+            changes.add(foreignKeyChange);
+        }
+
+        return changes;
+    }
+
+    private List<Change<?>> filterDuplicates(List<Change<?>> changes) {
+        Set<String> foreignKeysFound = new HashSet<>();
+
+        return changes.stream().filter(change -> {
+
+            String id = null;
+            Object object = change.getActual() != null ? change.getActual() : change.getExpected();
+            if (object instanceof ForeignKey) {
+                id = "FOREIGN_KEY->" + change.getStatus() + "->" + ((ForeignKey) object).getSchema() + "->" +
+                        ((ForeignKey) object).getTableName() + "->" + ((ForeignKey) object).getColumnName() + "->" +
+                        ((ForeignKey) object).getName();
+            }
+
+            if (object instanceof Index) {
+                id = "INDEX->" + change.getStatus() + "->" + ((Index) object).getSchema() + "->" + ((Index) object).getTableName() + "->" + ((Index) object).getName();
+            }
+
+            if (object instanceof Column) {
+                Table table = ((ColumnChange) change).getTable();
+                id = "COLUMN->" + change.getStatus() + "->" + table.getSchema() + "->" + table.getName() + "->" + ((Column) object).getName();
+            }
+
+            if (object instanceof Table) {
+                id = "TABLE->" + change.getStatus() + "->" + change.getType() + "->" + ((Table) object).getSchema() + "->" + ((Table) object).getName();
+            }
+
+            if (object instanceof Database) {
+                id = "DATABASE->" + change.getStatus() + "->" + ((Database) object).getDatabaseType();
+            }
+
+            boolean contains = foreignKeysFound.contains(id);
+            if (contains) {
+                return false;
+            }
+
+            foreignKeysFound.add(id);
+            return true;
+        }).collect(Collectors.toList());
+    }
+
+    private List<Change<ForeignKey>> dropForeignKeysThatAreReferencedToColumn(Column columnToDrop, Table columnTable,
+                                                                             Map<Object, List<ForeignKey>> referencingForeignKeys) {
+        List<ForeignKey> foreignKeys = referencingForeignKeys.get(
+                referencedColumnKey(columnTable.getSchema(), columnTable.getName(), columnToDrop.getName()));
+        if (foreignKeys == null) {
+            return Collections.emptyList();
+        }
+
+        List<Change<ForeignKey>> foreignKeysToDrop = new ArrayList<>(foreignKeys.size());
+        for (ForeignKey foreignKey : foreignKeys) {
+            Change<ForeignKey> foreignKeyChange = ChangeFactory.foreignKeyChange(null, foreignKey, Change.Status.DROP);
+            foreignKeysToDrop.add(foreignKeyChange);
+        }
+        return foreignKeysToDrop;
+    }
+
+    /**
+     * Groups all foreign keys of the given tables by the schema, table and column they reference, keeping their order.
+     */
+    private static Map<Object, List<ForeignKey>> foreignKeysByReferencedColumn(Collection<? extends Table> tables) {
+        Map<Object, List<ForeignKey>> foreignKeys = new HashMap<>();
+        for (ForeignKey foreignKey : foreignKeysOf(tables)) {
+            Object key = referencedColumnKey(foreignKey.getPrimaryTableSchema(), foreignKey.getPrimaryTableName(), foreignKey.getPrimaryColumnName());
+            foreignKeys.computeIfAbsent(key, k -> new ArrayList<>()).add(foreignKey);
+        }
+        return foreignKeys;
+    }
+
+    private static Object referencedColumnKey(String schema, String table, String column) {
+        return Arrays.asList(schema, table, column);
+    }
+
+    private static List<ForeignKey> foreignKeysOf(Collection<? extends Table> tables) {
+        List<ForeignKey> foreignKeys = new ArrayList<>();
+        for (Table table : tables) {
+            for (Column column : table.getColumns()) {
+                if (column.getForeignKeys() != null) {
+                    foreignKeys.addAll(column.getForeignKeys());
+                }
+            }
+        }
+        return foreignKeys;
+    }
+
+    private static Set<String> schemasOf(Collection<Table> tables) {
+        Set<String> schemas = new HashSet<>();
+        for (Table table : tables) {
+            if (table.getSchema() != null) {
+                schemas.add(table.getSchema());
+            }
+        }
+        return schemas;
+    }
+}
@@ -8,6 +8,12 @@ public interface ChangeHandler {
 
     String createDDLForChanges(List<Change<?>> changes);
 
+    /**
+     * Creates the DDL for the changes as waves of statements. The statements of a wave are independent of each
+     * other and can be executed concurrently once every earlier wave has been applied.
+     */
+    List<List<String>> createDDLWavesForChanges(List<Change<?>> changes);
+
     String onDatabaseChange(DatabaseChange databaseChange);
 
     String onTableChange(TableChange change);
@@ -27,32 +27,54 @@ public class ChangeHandlerImplementation implements ChangeHandler {
 
         List<String> ddlStatements = new ArrayList<>();
         for (Change<?> change : changes) {
-            switch (change.getType()) {
-                case DATABASE:
-                    ddlStatements.add(onDatabaseChange((DatabaseChange) change));
-                    break;
-                case TABLE_SCHEMA:
-                    ddlStatements.add(onTableSchemaChange((TableSchemaChange) change));
-                    break;
-                case TABLE:
-                    ddlStatements.add(onTableChange((TableChange) change));
-                    break;
-                case COLUMN:
-                    ddlStatements.add(onColumnChange((ColumnChange) change));
-                    break;
-                case FOREIGN_KEY:
-                    ddlStatements.add(onForeignKeyChange((ForeignKeyChange) change));
-                    break;
-                case INDEX:
-                    ddlStatements.add(onIndexChange((IndexChange) change));
-                case VIEW:
-                    ddlStatements.add(onViewChange((ViewChange) change));
-            }
+            ddlStatements.add(createDDLForChange(change));
         }
 
         return String.join("\r", ddlStatements);
     }
 
+    @Override
+    public List<List<String>> createDDLWavesForChanges(List<Change<?>> changes) {
+        List<List<Change<?>>> waves = new ChangeScheduler(changeComparator).schedule(changes);
+        log.info("Scheduled {} changes in {} waves", changes.size(), waves.size());
+
+        List<List<String>> ddlWaves = new ArrayList<>(waves.size());
+        for (List<Change<?>> wave : waves) {
+            List<String> ddlStatements = new ArrayList<>(wave.size());
+            for (Change<?> change : wave) {
+                String ddlStatement = createDDLForChange(change);
+                if (ddlStatement != null && !ddlStatement.isBlank()) {
+                    ddlStatements.add(ddlStatement);
+                }
+            }
+            if (!ddlStatements.isEmpty()) {
+                ddlWaves.add(ddlStatements);
+            }
+        }
+        return ddlWaves;
+    }
+
+    private String createDDLForChange(Change<?> change) {
+        switch (change.getType()) {
+            case DATABASE:
+                return onDatabaseChange((DatabaseChange) change);
+            case TABLE_SCHEMA:
+                return onTableSchemaChange((TableSchemaChange) change);
+            case TABLE:
+                return onTableChange((TableChange) change);
+            case COLUMN:
+                return onColumnChange((ColumnChange) change);
+            case FOREIGN_KEY:
+                return onForeignKeyChange((ForeignKeyChange) change);
+            case INDEX:
+                return onIndexChange((IndexChange) change);
+            case VIEW:
+                return onViewChange((ViewChange) change);
+            default:
+                throw new RuntimeException("Change type " + change.getType() + " not supported");
+        }
+    }
+
     @Override
     public String onDatabaseChange(DatabaseChange databaseChange) {
         switch (databaseChange.getStatus()) {
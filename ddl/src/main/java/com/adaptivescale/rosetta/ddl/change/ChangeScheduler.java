@@ -0,0 +1,150 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
+
+import java.util.*;
+
+/**
+ * Arranges changes into waves, where the changes of one wave do not depend on each other and can be applied
+ * concurrently, and every wave depends on the waves before it.
+ * <p>
+ * Changes are applied in phases: database and schemas, then dropped foreign keys and views, then tables,
+ * columns and indices, then added or altered foreign keys, then added or altered views. Within a phase the
+ * changes of the same table form a chain applied one after another, ordered by the dialect's change comparator;
+ * foreign key changes chain every table they touch, so two foreign keys sharing a table never run together.
+ * The view changes of a phase form a single chain in model order, as a view may select from another.
+ * The number of waves is the sum of the longest chain of every phase.
+ */
+public class ChangeScheduler {
+
+    private static final int DATABASE_PHASE = 0;
+    private static final int DROP_REFERENCES_PHASE = 1;
+    private static final int TABLES_PHASE = 2;
+    private static final int ADD_REFERENCES_PHASE = 3;
+    private static final int VIEWS_PHASE = 4;
+
+    private final Comparator<Change<?>> changeComparator;
+
+    public ChangeScheduler(Comparator<Change<?>> changeComparator) {
+        this.changeComparator = changeComparator;
+    }
+
+    public List<List<Change<?>>> schedule(List<Change<?>> changes) {
+        List<List<Change<?>>> changesByPhase = new ArrayList<>();
+        for (int phase = DATABASE_PHASE; phase <= VIEWS_PHASE; phase++) {
+            changesByPhase.add(new ArrayList<>());
+        }
+        for (Change<?> change : changes) {
+            changesByPhase.get(phaseOf(change)).add(change);
+        }
+
+        List<List<Change<?>>> waves = new ArrayList<>();
+        for (List<Change<?>> phaseChanges : changesByPhase) {
+            TableGroups groups = new TableGroups(phaseChanges);
+            Map<Object, List<Change<?>>> chains = new LinkedHashMap<>();
+            for (Change<?> change : phaseChanges) {
+                chains.computeIfAbsent(groups.keyOf(change), k -> new ArrayList<>()).add(change);
+            }
+
+            int depth = 0;
+            for (List<Change<?>> chain : chains.values()) {
+                if (changeComparator != null) {
+                    chain.sort(changeComparator);
+                }
+                depth = Math.max(depth, chain.size());
+            }
+            for (int step = 0; step < depth; step++) {
+                List<Change<?>> wave = new ArrayList<>();
+                for (List<Change<?>> chain : chains.values()) {
+                    if (step < chain.size()) {
+                        wave.add(chain.get(step));
+                    }
+                }
+                waves.add(wave);
+            }
+        }
+        return waves;
+    }
+
+    private static int phaseOf(Change<?> change) {
+        switch (change.getType()) {
+            case DATABASE:
+            case TABLE_SCHEMA:
+                return DATABASE_PHASE;
+            case FOREIGN_KEY:
+                return change.getStatus() == Change.Status.DROP ? DROP_REFERENCES_PHASE : ADD_REFERENCES_PHASE;
+            case VIEW:
+                return change.getStatus() == Change.Status.DROP ? DROP_REFERENCES_PHASE : VIEWS_PHASE;
+            default:
+                return TABLES_PHASE;
+        }
+    }
+
+    /**
+     * Tables touched by the changes of one phase, merged into groups when a foreign key change touches more than one.
+     */
+    private static class TableGroups {
+        private final Map<Object, Object> parents = new HashMap<>();
+
+        private TableGroups(List<Change<?>> changes) {
+            for (Change<?> change : changes) {
+                if (change.getType() == Change.Type.FOREIGN_KEY) {
+                    ForeignKey foreignKey = (ForeignKey) subject(change);
+                    union(tableKey(foreignKey.getSchema(), foreignKey.getTableName()),
+                            tableKey(foreignKey.getPrimaryTableSchema(), foreignKey.getPrimaryTableName()));
+                }
+            }
+        }
+
+        private Object keyOf(Change<?> change) {
+            Object subject = subject(change);
+            switch (change.getType()) {
+                case TABLE:
+                    return find(tableKey(((Table) subject).getSchema(), ((Table) subject).getName()));
+                case COLUMN:
+                    Table table = ((ColumnChange) change).getTable();
+                    return find(tableKey(table.getSchema(), table.getName()));
+                case FOREIGN_KEY:
+                    return find(tableKey(((ForeignKey) subject).getSchema(), ((ForeignKey) subject).getTableName()));
+                case INDEX:
+                    return find(tableKey(((Index) subject).getSchema(), ((Index) subject).getTableName()));
+                default:
+                    // database, schema and view changes are applied one by one
+                    return change.getType();
+            }
+        }
+
+        private Object find(Object key) {
+            Object root = key;
+            for (Object parent = parents.get(root); parent != null; parent = parents.get(root)) {
+                root = parent;
+            }
+            // point the whole path at the root so later lookups are short
+            for (Object node = key; !node.equals(root); ) {
+                Object next = parents.put(node, root);
+                node = next;
+            }
+            return root;
+        }
+
+        private void union(Object first, Object second) {
+            Object firstRoot = find(first);
+            Object secondRoot = find(second);
+            if (!firstRoot.equals(secondRoot)) {
+                parents.put(firstRoot, secondRoot);
+            }
+        }
+
+        private static Object subject(Change<?> change) {
+            return change.getExpected() != null ? change.getExpected() : change.getActual();
+        }
+
+        private static Object tableKey(String schema, String table) {
+            return Arrays.asList(schema, table);
+        }
+    }
+}
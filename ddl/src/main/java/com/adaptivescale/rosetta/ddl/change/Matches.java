@@ -0,0 +1,102 @@
+package com.adaptivescale.rosetta.ddl.change;
+
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Pairs expected model elements with actual ones by key, the way every {@link ChangeFinder} compares models:
+ * an expected element matches the single not yet matched actual element with the same key, and finding more
+ * than one is an error. The actual elements are indexed once, so matching is linear in the size of both sides.
+ *
+ * @param <T> type of the matched elements
+ */
+final class Matches<T> {
+
+    // below this many pairs the fork/join overhead outweighs comparing on the calling thread
+    private static final int PARALLEL_THRESHOLD = 256;
+
+    private final List<T> expected;
+    private final List<T> actual;
+    private final List<T> unmatched;
+
+    private Matches(List<T> expected, List<T> actual, List<T> unmatched) {
+        this.expected = expected;
+        this.actual = actual;
+        this.unmatched = unmatched;
+    }
+
+    /**
+     * @param duplicate creates the exception thrown when an expected element has several actual candidates
+     */
+    static <T> Matches<T> of(Collection<? extends T> expected, Collection<? extends T> actual, Function<? super T, ?> key,
+                             BiFunction<? super T, Integer, RuntimeException> duplicate) {
+        Map<Object, List<T>> actualByKey = new HashMap<>();
+        for (T element : actual) {
+            actualByKey.computeIfAbsent(key.apply(element), k -> new ArrayList<>(1)).add(element);
+        }
+
+        List<T> expectedElements = new ArrayList<>(expected.size());
+        List<T> actualElements = new ArrayList<>(expected.size());
+        Set<T> matched = Collections.newSetFromMap(new IdentityHashMap<>());
+        for (T element : expected) {
+            List<T> candidates = actualByKey.get(key.apply(element));
+            T match = null;
+            if (candidates != null && candidates.size() > 1) {
+                throw duplicate.apply(element, candidates.size());
+            }
+            if (candidates != null && candidates.size() == 1) {
+                match = candidates.remove(0);
+                matched.add(match);
+            }
+            expectedElements.add(element);
+            actualElements.add(match);
+        }
+
+        List<T> unmatched = actual.stream().filter(element -> !matched.contains(element)).collect(Collectors.toList());
+        return new Matches<>(expectedElements, actualElements, unmatched);
+    }
+
+    /**
+     * Applies {@code comparison} to every expected element and its match, or null when nothing matched.
+     * Large models are compared in parallel; the results keep the order of the expected elements.
+     */
+    <R> List<R> compare(BiFunction<T, T, R> comparison) {
+        IntStream indices = IntStream.range(0, expected.size());
+        if (expected.size() >= PARALLEL_THRESHOLD) {
+            indices = indices.parallel();
+        }
+        return indices.mapToObj(i -> comparison.apply(expected.get(i), actual.get(i))).collect(Collectors.toList());
+    }
+
+    int size() {
+        return expected.size();
+    }
+
+    T expected(int index) {
+        return expected.get(index);
+    }
+
+    /**
+     * @return the actual element matched by the expected element at {@code index}, or null
+     */
+    T actual(int index) {
+        return actual.get(index);
+    }
+
+    /**
+     * @return actual elements no expected element matched, in their original order
+     */
+    List<T> unmatched() {
+        return unmatched;
+    }
+
+    /**
+     * Key of a schema-qualified object such as a table or view.
+     */
+    static Object schemaAndName(String schema, String name) {
+        return Arrays.asList(schema, name);
+    }
+}
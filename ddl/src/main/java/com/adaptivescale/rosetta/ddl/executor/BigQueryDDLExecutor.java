@@ -34,8 +34,13 @@ public class BigQueryDDLExecutor implements DDLExecutor {
         transaction.append(query);
         transaction.append("COMMIT TRANSACTION;");
 
-        java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
-        jdbcConnection.createStatement().execute(query);
-        jdbcConnection.close();
+        try (java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties)) {
+            jdbcConnection.createStatement().execute(query);
+        }
+    }
+
+    @Override
+    public boolean supportsConcurrentDDL() {
+        return true;
     }
 }
@@ -5,4 +5,11 @@ import java.sql.SQLException;
 
 public interface DDLExecutor {
      void execute(String query) throws SQLException;
+
+     /**
+      * @return whether {@link #execute(String)} may be called concurrently with DDL touching different tables
+      */
+     default boolean supportsConcurrentDDL() {
+          return false;
+     }
 }
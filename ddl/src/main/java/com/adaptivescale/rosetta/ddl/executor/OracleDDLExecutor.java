@@ -5,11 +5,10 @@ import com.adaptivescale.rosetta.common.JDBCUtils;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.utils.SQLStatementSplitter;
 
 import java.sql.Driver;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
 import java.util.Properties;
 
 @RosettaModule(
@@ -18,6 +17,8 @@ import java.util.Properties;
 )
 public class OracleDDLExecutor implements DDLExecutor {
 
+    private static final SQLStatementSplitter SPLITTER = SQLStatementSplitter.standard().withTerminatedBlocks();
+
     private final Connection connection;
     private final JDBCDriverProvider driverProvider;
 
@@ -30,28 +31,8 @@ public class OracleDDLExecutor implements DDLExecutor {
     public void execute(String query) throws SQLException {
         Driver driver = driverProvider.getDriver(connection);
         Properties properties = JDBCUtils.setJDBCAuth(connection);
-        java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
-
-        // Postgres supports transaction - wrapping the ddl in  transaction
-        StringBuilder transaction = new StringBuilder();
-        transaction.append(query);
-
-        List<String> queryParts = parseQuery(query);
-        for (String queryPart : queryParts) {
-            jdbcConnection.createStatement().executeUpdate(queryPart);
-        }
-        jdbcConnection.close();
-    }
-
-    private List<String> parseQuery(String query) {
-        String sanitizedQuery = query.replaceAll("\r", "").replaceAll("\n\n", "\n");
-        String[] split = sanitizedQuery.split(";");
-        List<String> queryParts = new ArrayList<>();
-        for (String s : split) {
-            if (!s.trim().isEmpty()){
-                queryParts.add(s);
-            }
+        try (java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties)) {
+            StatementBatch.execute(jdbcConnection, SPLITTER.statements(query));
         }
-        return queryParts;
     }
 }
@@ -35,8 +35,13 @@ public class PostgresDDLExecutor implements DDLExecutor {
         transaction.append(query);
         transaction.append("commit;");
 
-        java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
-        jdbcConnection.createStatement().executeUpdate(transaction.toString());
-        jdbcConnection.close();
+        try (java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties)) {
+            jdbcConnection.createStatement().executeUpdate(transaction.toString());
+        }
+    }
+
+    @Override
+    public boolean supportsConcurrentDDL() {
+        return true;
     }
 }
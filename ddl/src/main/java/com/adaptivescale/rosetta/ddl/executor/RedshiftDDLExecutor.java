@@ -34,8 +34,8 @@ public class RedshiftDDLExecutor implements DDLExecutor {
         transaction.append(query);
         transaction.append("commit;");
 
-        java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
-        jdbcConnection.createStatement().executeUpdate(transaction.toString());
-        jdbcConnection.close();
+        try (java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties)) {
+            jdbcConnection.createStatement().executeUpdate(transaction.toString());
+        }
     }
 }
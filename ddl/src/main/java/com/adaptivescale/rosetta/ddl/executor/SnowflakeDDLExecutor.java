@@ -32,9 +32,14 @@ public class SnowflakeDDLExecutor implements DDLExecutor {
         Driver driver = driverProvider.getDriver(connection);
         Properties properties = JDBCUtils.setJDBCAuth(connection);
 
-        java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
-        jdbcConnection.createStatement().execute("alter session set MULTI_STATEMENT_COUNT = 0;");
-        jdbcConnection.createStatement().executeUpdate(query);
-        jdbcConnection.close();
+        try (java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties)) {
+            jdbcConnection.createStatement().execute("alter session set MULTI_STATEMENT_COUNT = 0;");
+            jdbcConnection.createStatement().executeUpdate(query);
+        }
+    }
+
+    @Override
+    public boolean supportsConcurrentDDL() {
+        return true;
     }
 }
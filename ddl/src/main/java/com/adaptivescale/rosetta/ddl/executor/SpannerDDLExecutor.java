@@ -5,18 +5,36 @@ import com.adaptivescale.rosetta.common.JDBCUtils;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adaptivescale.rosetta.ddl.utils.SQLStatementSplitter;
+import lombok.extern.slf4j.Slf4j;
 
+import java.sql.BatchUpdateException;
 import java.sql.Driver;
 import java.sql.SQLException;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Properties;
+import java.sql.Statement;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
+/**
+ * Applies DDL to Spanner as a single DDL batch. Spanner runs every DDL statement as a long-running schema
+ * change, so the statements are buffered between {@code START BATCH DDL} and {@code RUN BATCH} and submitted
+ * as one schema change operation. A batch that can not be queued completely is aborted, so nothing of it is applied.
+ */
+@Slf4j
 @RosettaModule(
         name = "spanner",
         type = RosettaModuleTypes.DDL_EXECUTOR
 )
 public class SpannerDDLExecutor implements DDLExecutor {
+    private static final SQLStatementSplitter SPLITTER = SQLStatementSplitter.standard().withBacktickQuotes();
+    private static final Pattern CREATE_TABLE = Pattern.compile("^\\s*CREATE\\s+TABLE\\s+(?:IF\\s+NOT\\s+EXISTS\\s+)?([`\\w.]+)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern DROP_TABLE = Pattern.compile("^\\s*DROP\\s+TABLE\\s+(?:IF\\s+EXISTS\\s+)?([`\\w.]+)",
+            Pattern.CASE_INSENSITIVE);
+    private static final Pattern INTERLEAVE_PARENT = Pattern.compile("INTERLEAVE\\s+IN\\s+PARENT\\s+([`\\w.]+)",
+            Pattern.CASE_INSENSITIVE);
+
     private final Connection connection;
     private final JDBCDriverProvider driverProvider;
 
@@ -25,36 +43,115 @@ public class SpannerDDLExecutor implements DDLExecutor {
         this.driverProvider = driverProvider;
     }
 
-    /**
-     * Sanitized query for Spanner and separates into statements
-     * @param query {@link String}
-     * @return {@link List<String>} query statements list
-     */
-    private List<String> parseQuery(String query) {
-        String sanitizedQuery = query.replaceAll("\r", "").replaceAll(";", ";\n");
-        String[] split = sanitizedQuery.split(";");
-        List<String> queryParts = new ArrayList<>();
-        for (String s : split) {
-            if(!s.trim().isEmpty()){
-                queryParts.add(s);
-            }
-        }
-        return queryParts;
-    }
-
     @Override
     public void execute(String query) throws SQLException {
 
         Driver driver = driverProvider.getDriver(connection);
         Properties properties = JDBCUtils.setJDBCAuth(connection);
 
-        java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
         // Spanner does not allow multiple DDL statements in single query
-        List<String> queryParts = parseQuery(query);
-        for (String queryPart : queryParts) {
-            jdbcConnection.createStatement().executeUpdate(queryPart);
+        List<String> queryParts = parentsFirst(SPLITTER.split(query));
+        if (queryParts.isEmpty()) {
+            return;
         }
-        jdbcConnection.close();
 
+        try (java.sql.Connection jdbcConnection = driver.connect(connection.getUrl(), properties);
+             Statement statement = jdbcConnection.createStatement()) {
+            statement.execute("START BATCH DDL");
+            boolean queued = false;
+            try {
+                for (int i = 0; i < queryParts.size(); i++) {
+                    statement.execute(queryParts.get(i));
+                    log.info("Queued DDL statement {}/{}: {}", i + 1, queryParts.size(), summary(queryParts.get(i)));
+                }
+                queued = true;
+            } finally {
+                if (!queued) {
+                    abortBatch(statement);
+                }
+            }
+
+            log.info("Running DDL batch of {} statements", queryParts.size());
+            long start = System.currentTimeMillis();
+            try {
+                statement.execute("RUN BATCH");
+            } catch (BatchUpdateException e) {
+                int applied = e.getUpdateCounts() == null ? 0 : e.getUpdateCounts().length;
+                log.error("DDL batch failed after {}/{} statements. Failed statement: {}", applied, queryParts.size(),
+                        applied < queryParts.size() ? summary(queryParts.get(applied)) : "unknown");
+                throw e;
+            }
+            log.info("Applied DDL batch of {} statements in {} ms", queryParts.size(), System.currentTimeMillis() - start);
+        }
+
+    }
+
+    // a failure to abort is only logged, so it does not hide the failure that made the batch incomplete
+    private static void abortBatch(Statement statement) {
+        try {
+            statement.execute("ABORT BATCH");
+            log.info("Aborted DDL batch, no statement of it was applied");
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Can not abort DDL batch.", e);
+        }
+    }
+
+    /**
+     * Moves the creation of every interleaved parent table (together with a drop of the same table right before it)
+     * ahead of its first child. Other statements keep their order.
+     */
+    static List<String> parentsFirst(List<String> statements) {
+        // statements grouped into units, a unit being a CREATE TABLE with the DROP TABLE of the same table preceding it
+        List<List<String>> units = new ArrayList<>();
+        Map<String, Integer> createUnitByTable = new HashMap<>();
+        for (int i = 0; i < statements.size(); i++) {
+            String createdTable = tableName(CREATE_TABLE, statements.get(i));
+            List<String> previous = units.isEmpty() ? null : units.get(units.size() - 1);
+            if (createdTable != null && previous != null && previous.size() == 1
+                    && createdTable.equals(tableName(DROP_TABLE, previous.get(0)))) {
+                previous.add(statements.get(i));
+            } else {
+                units.add(new ArrayList<>(List.of(statements.get(i))));
+            }
+            if (createdTable != null) {
+                createUnitByTable.putIfAbsent(createdTable, units.size() - 1);
+            }
+        }
+
+        List<String> ordered = new ArrayList<>(statements.size());
+        boolean[] emitted = new boolean[units.size()];
+        for (int i = 0; i < units.size(); i++) {
+            emit(i, units, createUnitByTable, emitted, ordered);
+        }
+        return ordered;
+    }
+
+    private static void emit(int unit, List<List<String>> units, Map<String, Integer> createUnitByTable, boolean[] emitted,
+                             List<String> ordered) {
+        if (emitted[unit]) {
+            return;
+        }
+        // marked before visiting the parent so a cycle of parents cannot recurse forever
+        emitted[unit] = true;
+        List<String> statements = units.get(unit);
+        String parent = tableName(INTERLEAVE_PARENT, statements.get(statements.size() - 1));
+        Integer parentUnit = parent == null ? null : createUnitByTable.get(parent);
+        if (parentUnit != null) {
+            emit(parentUnit, units, createUnitByTable, emitted, ordered);
+        }
+        ordered.addAll(statements);
+    }
+
+    private static String tableName(Pattern pattern, String statement) {
+        Matcher matcher = pattern.matcher(statement);
+        if (!matcher.find()) {
+            return null;
+        }
+        return matcher.group(1).replace("`", "").toLowerCase(Locale.ROOT);
+    }
+
+    private static String summary(String statement) {
+        String singleLine = statement.trim().replaceAll("\\s+", " ");
+        return singleLine.length() > 120 ? singleLine.substring(0, 117) + "..." : singleLine;
     }
 }
@@ -0,0 +1,138 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Executes DDL statements one at a time through a single {@link Statement}, sending them to the database in JDBC
+ * batches when the driver supports batch updates, so that a script costs one round-trip per batch instead of one per
+ * statement.
+ * <p>
+ * When a batch fails and the update counts tell which of its statements were not applied, those are executed one by
+ * one, so the error is raised by the statement that caused it. When they do not tell, nothing is executed again, as
+ * that could apply a statement twice, and the error of the batch is raised. Any other failure of a batch is raised as
+ * well, since drivers may have applied part of it before failing. Only a driver that reports batches of DDL as not
+ * supported, so that certainly nothing of the batch ran, gets the rest of the script one statement at a time.
+ */
+@Slf4j
+final class StatementBatch {
+
+    // statements sent per round-trip; bounds what has to be retried one by one when a batch fails
+    static final int BATCH_SIZE = 50;
+
+    private final Statement statement;
+    private final List<String> batch = new ArrayList<>(BATCH_SIZE);
+    private boolean batched;
+    private int executed = 0;
+    private int roundTrips = 0;
+
+    private StatementBatch(Statement statement, boolean batched) {
+        this.statement = statement;
+        this.batched = batched;
+    }
+
+    static void execute(Connection connection, Iterable<String> statements) throws SQLException {
+        boolean batched = connection.getMetaData().supportsBatchUpdates();
+        try (Statement statement = connection.createStatement()) {
+            StatementBatch execution = new StatementBatch(statement, batched);
+            for (String sql : statements) {
+                execution.add(sql);
+            }
+            execution.flush();
+            log.info("Executed {} DDL statements in {} round-trips ({} saved by batching)", execution.executed,
+                    execution.roundTrips, execution.executed - execution.roundTrips);
+        }
+    }
+
+    private void add(String sql) throws SQLException {
+        if (!batched) {
+            executeOne(sql);
+            return;
+        }
+        statement.addBatch(sql);
+        batch.add(sql);
+        if (batch.size() == BATCH_SIZE) {
+            flush();
+        }
+    }
+
+    private void flush() throws SQLException {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            roundTrips++;
+            statement.executeBatch();
+            executed += batch.size();
+        } catch (BatchUpdateException e) {
+            statement.clearBatch();
+            List<Integer> notApplied = notApplied(e.getUpdateCounts(), batch.size());
+            if (notApplied == null) {
+                log.error("DDL batch failed and the driver does not report which of its statements were applied:\n{}",
+                        String.join(";\n", batch));
+                throw e;
+            }
+            log.warn("DDL batch failed with {}/{} statements not applied, executing those one by one: {}",
+                    notApplied.size(), batch.size(), e.getMessage());
+            executed += batch.size() - notApplied.size();
+            for (int index : notApplied) {
+                executeOne(batch.get(index));
+            }
+        } catch (SQLException e) {
+            statement.clearBatch();
+            if (!isUnsupported(e)) {
+                log.error("DDL batch failed, some of its statements may have been applied:\n{}", String.join(";\n", batch));
+                throw e;
+            }
+            log.warn("Driver does not support DDL batches, executing the rest of the script one statement at a time: {}",
+                    e.getMessage());
+            batched = false;
+            for (String sql : batch) {
+                executeOne(sql);
+            }
+        } finally {
+            batch.clear();
+        }
+    }
+
+    // SQLState class 0A is "feature not supported", which drivers raise before executing anything
+    static boolean isUnsupported(SQLException e) {
+        return e instanceof SQLFeatureNotSupportedException || (e.getSQLState() != null && e.getSQLState().startsWith("0A"));
+    }
+
+    private void executeOne(String sql) throws SQLException {
+        roundTrips++;
+        statement.executeUpdate(sql);
+        executed++;
+    }
+
+    /**
+     * Drivers either stop at the failed statement, returning the counts of the statements before it, or mark every
+     * failed statement and carry on.
+     *
+     * @return indexes of the statements of the batch that were not applied, or null when the update counts do not
+     * tell, as when there are none or every statement is marked failed
+     */
+    static List<Integer> notApplied(int[] updateCounts, int batchSize) {
+        if (updateCounts == null || updateCounts.length == 0) {
+            return null;
+        }
+        List<Integer> notApplied = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            if (i >= updateCounts.length || updateCounts[i] == Statement.EXECUTE_FAILED) {
+                notApplied.add(i);
+            }
+        }
+        if (notApplied.isEmpty() || notApplied.size() == batchSize) {
+            return null;
+        }
+        return notApplied;
+    }
+}
@@ -0,0 +1,85 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Applies waves of DDL, as created by
+ * {@link com.adaptivescale.rosetta.ddl.change.ChangeHandler#createDDLWavesForChanges}, one wave after another.
+ * The statements of a wave are executed concurrently when the {@link DDLExecutor} supports it, each call taking
+ * its own connection from the executor's driver provider. Unlike a single script, the waves are not applied in
+ * one transaction: a failure stops before the next wave and leaves the earlier waves applied.
+ */
+@Slf4j
+public class WaveDDLExecutor {
+
+    private final DDLExecutor executor;
+    private final int parallelism;
+
+    public WaveDDLExecutor(DDLExecutor executor, int parallelism) {
+        this.executor = executor;
+        this.parallelism = executor.supportsConcurrentDDL() ? Math.max(1, parallelism) : 1;
+    }
+
+    public void execute(List<List<String>> waves) throws SQLException {
+        if (parallelism == 1) {
+            for (List<String> wave : waves) {
+                executor.execute(String.join("\r", wave));
+            }
+            return;
+        }
+
+        ExecutorService executorService = Executors.newFixedThreadPool(parallelism);
+        try {
+            for (int i = 0; i < waves.size(); i++) {
+                long start = System.currentTimeMillis();
+                executeWave(executorService, waves.get(i));
+                log.info("Applied DDL wave {}/{} ({} statements) in {} ms", i + 1, waves.size(), waves.get(i).size(),
+                        System.currentTimeMillis() - start);
+            }
+        } finally {
+            executorService.shutdownNow();
+        }
+    }
+
+    private void executeWave(ExecutorService executorService, List<String> wave) throws SQLException {
+        List<Future<Void>> futures = new ArrayList<>(wave.size());
+        for (String statement : wave) {
+            futures.add(executorService.submit(() -> {
+                executor.execute(statement);
+                return null;
+            }));
+        }
+
+        SQLException failure = null;
+        for (Future<Void> future : futures) {
+            try {
+                future.get();
+            } catch (ExecutionException e) {
+                // statements already running finish on their own; the first failure is reported once they are done
+                if (failure == null) {
+                    failure = e.getCause() instanceof SQLException ? (SQLException) e.getCause() : new SQLException(e.getCause());
+                    futures.forEach(it -> it.cancel(false));
+                } else {
+                    failure.addSuppressed(e.getCause());
+                }
+            } catch (CancellationException e) {
+                // not started because an earlier statement of the wave failed
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new SQLException(e);
+            }
+        }
+        if (failure != null) {
+            throw failure;
+        }
+    }
+}
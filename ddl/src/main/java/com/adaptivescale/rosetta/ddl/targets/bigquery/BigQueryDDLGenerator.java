@@ -10,8 +10,11 @@ import com.adaptivescale.rosetta.ddl.DDL;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
 import com.adaptivescale.rosetta.ddl.targets.ColumnSQLDecoratorFactory;
+import com.adaptivescale.rosetta.ddl.utils.DDLWriter;
 import com.adaptivescale.rosetta.ddl.utils.TemplateEngine;
 import lombok.extern.slf4j.Slf4j;
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -76,25 +79,20 @@ public class BigQueryDDLGenerator implements DDL {
     }
 
     public String createDatabase(Database database, boolean dropTableIfExists) {
-        StringBuilder stringBuilder = new StringBuilder();
+        return DDLWriter.toString(writer -> createDatabase(database, dropTableIfExists, writer));
+    }
+
+    @Override
+    public void createDatabase(Database database, boolean dropTableIfExists, Writer writer) throws IOException {
+        DDLWriter ddl = new DDLWriter(writer);
 
         Set<String> schemas = database.getTables().stream().map(Table::getSchema).filter(s -> s != null && !s.isEmpty()).collect(Collectors.toSet());
         if (!schemas.isEmpty()) {
-            stringBuilder.append(
-                    schemas
-                            .stream()
-                            .map(this::createSchema)
-                            .collect(Collectors.joining())
-            );
-            stringBuilder.append("\r");
+            ddl.write(schemas.stream().map(this::createSchema).collect(Collectors.joining()));
+            ddl.write("\r");
         }
 
-        stringBuilder.append(database.getTables()
-                .stream()
-                .map(table -> createTable(table, dropTableIfExists))
-                .collect(Collectors.joining("\r\r")));
-
-        return stringBuilder.toString();
+        ddl.writeJoined(database.getTables(), table -> createTable(table, dropTableIfExists), "\r\r");
     }
 
     @Override
@@ -10,9 +10,12 @@ import com.adaptivescale.rosetta.ddl.DDL;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
 import com.adaptivescale.rosetta.ddl.targets.ColumnSQLDecoratorFactory;
+import com.adaptivescale.rosetta.ddl.utils.DDLWriter;
 import com.adaptivescale.rosetta.ddl.utils.TemplateEngine;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.DatabaseMetaData;
 import java.util.*;
 import java.util.stream.Collectors;
@@ -88,35 +91,25 @@ public class DB2DDLGenerator implements DDL {
 
     @Override
     public String createDatabase(Database database, boolean dropTableIfExists) {
-        StringBuilder stringBuilder = new StringBuilder();
+        return DDLWriter.toString(writer -> createDatabase(database, dropTableIfExists, writer));
+    }
+
+    @Override
+    public void createDatabase(Database database, boolean dropTableIfExists, Writer writer) throws IOException {
+        DDLWriter ddl = new DDLWriter(writer);
 
         Set<String> schemas = database.getTables().stream().map(Table::getSchema).filter(s -> s != null && !s.isEmpty()).collect(Collectors.toSet());
         if (!schemas.isEmpty()) {
-            stringBuilder.append(
-                    schemas
-                            .stream()
-                            .map(this::createSchema)
-                            .collect(Collectors.joining())
-            );
-            stringBuilder.append("\r");
+            ddl.write(schemas.stream().map(this::createSchema).collect(Collectors.joining()));
+            ddl.write("\r");
         }
 
-        stringBuilder.append(database.getTables()
-            .stream()
-            .map(table -> createTable(table, dropTableIfExists))
-            .collect(Collectors.joining("\r")));
+        ddl.writeJoined(database.getTables(), table -> createTable(table, dropTableIfExists), "\r");
 
-        stringBuilder.append("\r");
+        ddl.write("\r");
 
         //Create ForeignKeys
-        stringBuilder.append(database.getTables()
-            .stream()
-            .map(table -> foreignKeys(table))
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .collect(Collectors.joining()));
-
-        return stringBuilder.toString();
+        ddl.writeJoined(database.getTables(), table -> foreignKeys(table).orElse(null), "");
     }
 
     @Override
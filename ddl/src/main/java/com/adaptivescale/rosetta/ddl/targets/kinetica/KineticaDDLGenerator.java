@@ -12,9 +12,12 @@ import com.adaptivescale.rosetta.ddl.DDL;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
 import com.adaptivescale.rosetta.ddl.targets.ColumnSQLDecoratorFactory;
+import com.adaptivescale.rosetta.ddl.utils.DDLWriter;
 import com.adaptivescale.rosetta.ddl.utils.TemplateEngine;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -114,45 +117,26 @@ public class KineticaDDLGenerator implements DDL {
 
     @Override
     public String createDatabase(Database database, boolean dropTableIfExists) {
-        StringBuilder stringBuilder = new StringBuilder();
+        return DDLWriter.toString(writer -> createDatabase(database, dropTableIfExists, writer));
+    }
+
+    @Override
+    public void createDatabase(Database database, boolean dropTableIfExists, Writer writer) throws IOException {
+        DDLWriter ddl = new DDLWriter(writer);
 
         Set<String> schemas = database.getTables().stream().map(Table::getSchema).filter(s -> s != null && !s.isEmpty()).collect(Collectors.toSet());
         if (!schemas.isEmpty()) {
-            stringBuilder.append(
-                schemas
-                    .stream()
-                    .filter(s -> !RESERVED_SCHEMA_NAMES.contains(s))
-                    .map(this::createSchema)
-                    .collect(Collectors.joining())
-            );
-            stringBuilder.append("\r");
+            ddl.write(schemas.stream().filter(s -> !RESERVED_SCHEMA_NAMES.contains(s)).map(this::createSchema).collect(Collectors.joining()));
+            ddl.write("\r");
         }
 
-        stringBuilder.append(database.getTables()
-            .stream()
-            .map(table -> createTable(table, dropTableIfExists))
-            .collect(Collectors.joining("\r\r")));
+        ddl.writeJoined(database.getTables(), table -> createTable(table, dropTableIfExists), "\r\r");
 
-        stringBuilder.append(database.getViews()
-             .stream()
-             .map(view -> createView(view, dropTableIfExists))
-             .collect(Collectors.joining("\r\r")));
+        ddl.writeJoined(database.getViews(), view -> createView(view, dropTableIfExists), "\r\r");
 
         //TODO: Check if we can enable foreign keys in Kinetica
         //Disable temporarily the foreign keys in Kinetica
-//        String foreignKeys = database
-//            .getTables()
-//            .stream()
-//            .map(this::foreignKeys)
-//            .filter(Optional::isPresent)
-//            .map(Optional::get)
-//            .collect(Collectors.joining("\r"));
-//
-//        if (!foreignKeys.isEmpty()) {
-//            stringBuilder.append("\r").append(foreignKeys).append("\r");
-//        }
-
-        return stringBuilder.toString();
+//        ddl.writeJoined(database.getTables(), table -> foreignKeys(table).orElse(null), "\r", "\r", "\r");
     }
 
     @Override
@@ -10,8 +10,11 @@ import com.adaptivescale.rosetta.ddl.DDL;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
 import com.adaptivescale.rosetta.ddl.targets.ColumnSQLDecoratorFactory;
+import com.adaptivescale.rosetta.ddl.utils.DDLWriter;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.sql.DatabaseMetaData;
 import java.util.List;
 import java.util.Objects;
@@ -78,37 +81,22 @@ public class MySqlDDLGenerator implements DDL {
 
     @Override
     public String createDatabase(Database database, boolean dropTableIfExists) {
-        StringBuilder stringBuilder = new StringBuilder();
+        return DDLWriter.toString(writer -> createDatabase(database, dropTableIfExists, writer));
+    }
+
+    @Override
+    public void createDatabase(Database database, boolean dropTableIfExists, Writer writer) throws IOException {
+        DDLWriter ddl = new DDLWriter(writer);
 
         Set<String> schemas = database.getTables().stream().map(Table::getSchema).filter(s -> s != null && !s.isEmpty()).collect(Collectors.toSet());
         if (!schemas.isEmpty()) {
-            stringBuilder.append(
-                    schemas
-                            .stream()
-                            .map(schema -> "CREATE SCHEMA IF NOT EXISTS `" + schema + "`")
-                            .collect(Collectors.joining(";\r\r"))
-
-            );
-            stringBuilder.append(";\r");
+            ddl.write(schemas.stream().map(schema -> "CREATE SCHEMA IF NOT EXISTS `" + schema + "`").collect(Collectors.joining(";\r\r")));
+            ddl.write(";\r");
         }
 
-        stringBuilder.append(database.getTables()
-                .stream()
-                .map(table -> createTable(table, dropTableIfExists))
-                .collect(Collectors.joining("\r\r")));
+        ddl.writeJoined(database.getTables(), table -> createTable(table, dropTableIfExists), "\r\r");
 
-        String foreignKeys = database
-                .getTables()
-                .stream()
-                .map(this::foreignKeys)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .collect(Collectors.joining());
-
-        if (!foreignKeys.isEmpty()) {
-            stringBuilder.append("\r").append(foreignKeys).append("\r");
-        }
-        return stringBuilder.toString();
+        ddl.writeJoined(database.getTables(), table -> foreignKeys(table).orElse(null), "", "\r", "\r");
     }
 
     @Override
@@ -7,9 +7,12 @@ import com.adaptivescale.rosetta.ddl.DDL;
 import com.adaptivescale.rosetta.ddl.change.model.ColumnChange;
 import com.adaptivescale.rosetta.ddl.change.model.ForeignKeyChange;
 import com.adaptivescale.rosetta.ddl.targets.ColumnSQLDecoratorFactory;
+import com.adaptivescale.rosetta.ddl.utils.DDLWriter;
 import com.adaptivescale.rosetta.ddl.utils.TemplateEngine;
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.Writer;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -87,7 +90,12 @@ public class SpannerDDLGenerator implements DDL {
 
     @Override
     public String createDatabase(Database database, boolean dropTableIfExists) {
-        StringBuilder stringBuilder = new StringBuilder();
+        return DDLWriter.toString(writer -> createDatabase(database, dropTableIfExists, writer));
+    }
+
+    @Override
+    public void createDatabase(Database database, boolean dropTableIfExists, Writer writer) throws IOException {
+        DDLWriter ddl = new DDLWriter(writer);
 
         Set<String> schemas = database.getTables().stream().map(Table::getSchema).filter(s -> s != null && !s.isEmpty()).collect(Collectors.toSet());
         if (!schemas.isEmpty()) {
@@ -112,43 +120,16 @@ public class SpannerDDLGenerator implements DDL {
                 .map(Interleave::getTableName)
                 .orElse(null), nullsFirst(naturalOrder()))));
 
-        stringBuilder.append(tablesToCreate
-            .stream()
-            .map(table -> createTable(table, dropTableIfExists))
-            .collect(Collectors.joining("\r\r")));
+        ddl.writeJoined(tablesToCreate, table -> createTable(table, dropTableIfExists), "\r\r");
 
-        String foreignKeys = database
-            .getTables()
-            .stream()
-            .map(this::foreignKeys)
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .collect(Collectors.joining());
+        ddl.writeJoined(database.getTables(), table -> foreignKeys(table).orElse(null), "", "\r", "\r");
 
-        if (!foreignKeys.isEmpty()) {
-            stringBuilder.append("\r").append(foreignKeys).append("\r");
-        }
-
-        String indices = database
-            .getTables()
-            .stream()
-            .map(this::createIndicesForTable)
-            .filter(Optional::isPresent)
-            .map(Optional::get)
-            .collect(Collectors.joining());
-
-        if (!indices.isEmpty()) {
-            stringBuilder.append("\r").append(indices).append("\r");
-        }
+        ddl.writeJoined(database.getTables(), table -> createIndicesForTable(table).orElse(null), "", "\r", "\r");
 
         if (database.getViews() != null && !database.getViews().isEmpty()) {
-            stringBuilder.append("\r").append(database.getViews()
-                    .stream()
-                    .map(view -> createView(view, dropTableIfExists))
-                    .collect(Collectors.joining("\r\r")));
+            ddl.write("\r");
+            ddl.writeJoined(database.getViews(), view -> createView(view, dropTableIfExists), "\r\r");
         }
-
-        return stringBuilder.toString();
     }
 
     @Override
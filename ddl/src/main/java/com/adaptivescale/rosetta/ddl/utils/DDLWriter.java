@@ -0,0 +1,97 @@
+package com.adaptivescale.rosetta.ddl.utils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Writes a DDL script to a {@link Writer} as it is generated, so a script for a large model never has to be held
+ * in memory as a whole. Elements such as tables are rendered in chunks, in parallel for large models, and written
+ * in their original order.
+ */
+public class DDLWriter {
+
+    // rendered DDL of at most this many elements is held in memory before it is written
+    private static final int CHUNK_SIZE = 256;
+
+    private final Writer writer;
+
+    public DDLWriter(Writer writer) {
+        this.writer = writer;
+    }
+
+    public DDLWriter write(String ddl) throws IOException {
+        writer.write(ddl);
+        return this;
+    }
+
+    /**
+     * Writes the same as {@code elements.stream().map(renderer).collect(Collectors.joining(delimiter))} would
+     * produce. Elements rendered to null are skipped, like an empty {@link java.util.Optional} that is filtered out.
+     */
+    public <T> DDLWriter writeJoined(Collection<T> elements, Function<? super T, String> renderer, String delimiter)
+            throws IOException {
+        return writeJoined(elements, renderer, delimiter, "", "");
+    }
+
+    /**
+     * Like {@link #writeJoined(Collection, Function, String)}, enclosing the output in {@code prefix} and {@code suffix}
+     * only when anything at all is written.
+     */
+    public <T> DDLWriter writeJoined(Collection<T> elements, Function<? super T, String> renderer, String delimiter,
+                                     String prefix, String suffix) throws IOException {
+        List<T> list = elements instanceof List ? (List<T>) elements : new ArrayList<>(elements);
+        boolean parallel = list.size() >= CHUNK_SIZE;
+        boolean first = true;
+        boolean started = false;
+        for (int from = 0; from < list.size(); from += CHUNK_SIZE) {
+            List<T> chunk = list.subList(from, Math.min(from + CHUNK_SIZE, list.size()));
+            Stream<T> stream = parallel ? chunk.parallelStream() : chunk.stream();
+            List<String> rendered = stream.map(renderer).collect(Collectors.toList());
+
+            for (String ddl : rendered) {
+                if (ddl == null) {
+                    continue;
+                }
+                String separator = first ? "" : delimiter;
+                first = false;
+                if (!started && (separator.length() > 0 || ddl.length() > 0)) {
+                    writer.write(prefix);
+                    started = true;
+                }
+                writer.write(separator);
+                writer.write(ddl);
+            }
+        }
+        if (started) {
+            writer.write(suffix);
+        }
+        return this;
+    }
+
+    /**
+     * Collects a script written by {@code script} into a string, for callers that need the whole script at once.
+     */
+    public static String toString(Script script) {
+        StringWriter writer = new StringWriter();
+        try {
+            script.writeTo(writer);
+        } catch (IOException e) {
+            // a StringWriter does not throw
+            throw new UncheckedIOException(e);
+        }
+        return writer.toString();
+    }
+
+    @FunctionalInterface
+    public interface Script {
+        void writeTo(Writer writer) throws IOException;
+    }
+}
@@ -0,0 +1,336 @@
+package com.adaptivescale.rosetta.ddl.utils;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * Splits a SQL script into statements in a single pass over the script, for executors whose driver accepts only one
+ * statement at a time. A {@code ;} ends a statement unless it is inside a string literal, a quoted identifier or a
+ * comment. Dialects enable further quoting and procedural blocks with the {@code with...} methods.
+ * <p>
+ * Statements are returned trimmed and without their terminating {@code ;}; statements holding nothing but comments
+ * are skipped. Splitters are immutable and can be shared.
+ */
+public final class SQLStatementSplitter {
+
+    private static final SQLStatementSplitter STANDARD = new SQLStatementSplitter(false, false, false, false);
+
+    private final boolean backtickQuotes;
+    private final boolean dollarQuotes;
+    private final boolean blocks;
+    private final boolean terminatedBlocks;
+
+    private SQLStatementSplitter(boolean backtickQuotes, boolean dollarQuotes, boolean blocks, boolean terminatedBlocks) {
+        this.backtickQuotes = backtickQuotes;
+        this.dollarQuotes = dollarQuotes;
+        this.blocks = blocks;
+        this.terminatedBlocks = terminatedBlocks;
+    }
+
+    /**
+     * Single quoted literals, double quoted identifiers, {@code --} and {@code /* *}{@code /} comments.
+     */
+    public static SQLStatementSplitter standard() {
+        return STANDARD;
+    }
+
+    /**
+     * Also quotes identifiers with backticks and reads backslash escapes inside quotes, as in Spanner, BigQuery and
+     * MySQL.
+     */
+    public SQLStatementSplitter withBacktickQuotes() {
+        return new SQLStatementSplitter(true, dollarQuotes, blocks, terminatedBlocks);
+    }
+
+    /**
+     * Also reads {@code $$...$$} and {@code $tag$...$tag$} as literals, as in Postgres function bodies.
+     */
+    public SQLStatementSplitter withDollarQuotes() {
+        return new SQLStatementSplitter(backtickQuotes, true, blocks, terminatedBlocks);
+    }
+
+    /**
+     * Keeps procedural units ({@code BEGIN}, {@code DECLARE} and {@code CREATE} of procedures, functions, triggers,
+     * packages and type bodies) together up to the {@code ;} after the {@code END} closing their outermost block, or
+     * up to a line holding just {@code /}. A unit without a block, such as a function that just returns an
+     * expression, ends at its first {@code ;}.
+     */
+    public SQLStatementSplitter withBlocks() {
+        return new SQLStatementSplitter(backtickQuotes, dollarQuotes, true, false);
+    }
+
+    /**
+     * Like {@link #withBlocks()}, keeping the {@code ;} after the last {@code END} as Oracle requires for PL/SQL, and
+     * reading the {@code IS}/{@code AS} bodies of PL/SQL subprograms, packages and type bodies as blocks, so a package
+     * body holding several procedures stays one statement.
+     */
+    public SQLStatementSplitter withTerminatedBlocks() {
+        return new SQLStatementSplitter(backtickQuotes, dollarQuotes, true, true);
+    }
+
+    /**
+     * @return the statements of {@code script}, split as they are iterated
+     */
+    public Iterable<String> statements(String script) {
+        return () -> new Statements(script);
+    }
+
+    public List<String> split(String script) {
+        List<String> statements = new ArrayList<>();
+        statements(script).forEach(statements::add);
+        return statements;
+    }
+
+    private final class Statements implements Iterator<String> {
+        private final String script;
+        private int position = 0;
+        private String next;
+
+        private Statements(String script) {
+            this.script = script == null ? "" : script;
+        }
+
+        @Override
+        public boolean hasNext() {
+            while (next == null && position < script.length()) {
+                next = readStatement();
+            }
+            return next != null;
+        }
+
+        @Override
+        public String next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            String statement = next;
+            next = null;
+            return statement;
+        }
+
+        /**
+         * Reads from the current position up to the end of the next statement.
+         *
+         * @return the statement, or null when it holds nothing but whitespace and comments
+         */
+        private String readStatement() {
+            int start = position;
+            boolean hasContent = false;
+            boolean blankLine = true;
+            // procedural unit state: the header (1 before the first word, 2 after CREATE, 0 once decided),
+            // whether the statement is a unit, its open blocks (true for a declaration section still waiting for
+            // its BEGIN), whether a PL/SQL subprogram waits for its IS/AS and whether a block was closed
+            int header = blocks ? 1 : 0;
+            boolean inUnit = false;
+            Deque<Boolean> open = new ArrayDeque<>();
+            boolean awaitingBody = false;
+            boolean unitClosed = false;
+
+            int length = script.length();
+            while (position < length) {
+                char c = script.charAt(position);
+                char following = position + 1 < length ? script.charAt(position + 1) : 0;
+
+                if (c == '\n') {
+                    blankLine = true;
+                    position++;
+                    continue;
+                }
+                if (Character.isWhitespace(c)) {
+                    position++;
+                    continue;
+                }
+                if (c == '-' && following == '-') {
+                    position = skipPast("\n", position + 2);
+                    blankLine = true;
+                    continue;
+                }
+                if (c == '/' && following == '*') {
+                    position = skipPast("*/", position + 2);
+                    continue;
+                }
+                if (blocks && c == '/' && blankLine && restOfLineIsBlank(position + 1)) {
+                    String statement = statement(start, position, hasContent);
+                    position = skipPast("\n", position + 1);
+                    return statement;
+                }
+                blankLine = false;
+
+                if (c == ';') {
+                    if (!inUnit || open.isEmpty()) {
+                        int end = inUnit && unitClosed && terminatedBlocks ? position + 1 : position;
+                        position++;
+                        return statement(start, end, hasContent);
+                    }
+                    // a subprogram declared without a body, as in a package specification
+                    awaitingBody = false;
+                }
+
+                hasContent = true;
+                if (c == '\'' || c == '"' || c == '`' && backtickQuotes) {
+                    position = skipQuoted(c, position + 1, backtickQuotes);
+                } else if (c == '$' && dollarQuotes && dollarTagEnd(position) > 0) {
+                    int tagEnd = dollarTagEnd(position);
+                    position = skipPast(script.substring(position, tagEnd), tagEnd);
+                } else if (isWordStart(c)) {
+                    int wordStart = position;
+                    position = wordEnd(position);
+                    if (!blocks) {
+                        continue;
+                    }
+                    if (header > 0) {
+                        // decides from the leading words whether the statement is a procedural unit
+                        if (isWord(wordStart, "CREATE")) {
+                            header = 2;
+                        } else if (header == 2 && (isWord(wordStart, "OR") || isWord(wordStart, "REPLACE")
+                                || isWord(wordStart, "EDITIONABLE") || isWord(wordStart, "NONEDITIONABLE"))) {
+                            // modifiers between CREATE and the object type
+                        } else {
+                            // DECLARE GLOBAL TEMPORARY TABLE is a plain statement in DB2
+                            inUnit = isWord(wordStart, "DECLARE") && !isWord(skipWhitespace(position), "GLOBAL")
+                                    || isWord(wordStart, "BEGIN")
+                                    || header == 2 && (isSubprogram(wordStart, position) || isWord(wordStart, "TRIGGER"));
+                            header = 0;
+                        }
+                    }
+                    if (!inUnit) {
+                        continue;
+                    }
+                    if (isWord(wordStart, "BEGIN")) {
+                        // the BEGIN of a declaration section continues its block
+                        if (Boolean.TRUE.equals(open.peek())) {
+                            open.pop();
+                        }
+                        open.push(false);
+                    } else if (isWord(wordStart, "CASE")) {
+                        open.push(false);
+                    } else if (isWord(wordStart, "DECLARE") && open.isEmpty()) {
+                        open.push(true);
+                    } else if (terminatedBlocks && isSubprogram(wordStart, position)) {
+                        awaitingBody = true;
+                    } else if (awaitingBody && (isWord(wordStart, "IS")
+                            || isWord(wordStart, "AS") && !isWord(skipWhitespace(position), "RESULT"))) {
+                        open.push(true);
+                        awaitingBody = false;
+                    } else if (isWord(wordStart, "END")) {
+                        int closed = skipWhitespace(position);
+                        // END IF, END LOOP and the like close constructs that are not counted
+                        if (isWord(closed, "IF") || isWord(closed, "LOOP") || isWord(closed, "WHILE")
+                                || isWord(closed, "REPEAT") || isWord(closed, "FOR")) {
+                            position = wordEnd(closed);
+                        } else {
+                            if (isWord(closed, "CASE")) {
+                                position = wordEnd(closed);
+                            }
+                            if (!open.isEmpty()) {
+                                open.pop();
+                            }
+                            unitClosed = true;
+                        }
+                    }
+                } else {
+                    position++;
+                }
+            }
+            return statement(start, length, hasContent);
+        }
+
+        private String statement(int start, int end, boolean hasContent) {
+            return hasContent ? script.substring(start, end).trim() : null;
+        }
+
+        /**
+         * @return the position after the closing quote, or the end of the script for an unterminated quote
+         */
+        private int skipQuoted(char quote, int from, boolean backslashEscapes) {
+            int length = script.length();
+            for (int i = from; i < length; i++) {
+                char c = script.charAt(i);
+                if (backslashEscapes && c == '\\') {
+                    i++;
+                } else if (c == quote) {
+                    // a doubled quote reads as a quote that closes and another that opens right away
+                    return i + 1;
+                }
+            }
+            return length;
+        }
+
+        private int skipPast(String terminator, int from) {
+            int index = script.indexOf(terminator, from);
+            return index < 0 ? script.length() : index + terminator.length();
+        }
+
+        private boolean restOfLineIsBlank(int from) {
+            for (int i = from; i < script.length() && script.charAt(i) != '\n'; i++) {
+                if (!Character.isWhitespace(script.charAt(i))) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * @return the position after a {@code $tag$} opening at {@code from}, or -1 when there is none
+         */
+        private int dollarTagEnd(int from) {
+            // $1 and the like are parameters, and a $ inside an identifier belongs to the identifier
+            if (from > 0 && isWordPart(script.charAt(from - 1))) {
+                return -1;
+            }
+            for (int i = from + 1; i < script.length(); i++) {
+                char c = script.charAt(i);
+                if (c == '$') {
+                    return i + 1;
+                }
+                if (!(i == from + 1 ? isWordStart(c) : isWordPart(c))) {
+                    return -1;
+                }
+            }
+            return -1;
+        }
+
+        private int wordEnd(int from) {
+            int i = from;
+            while (i < script.length() && isWordPart(script.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        private int skipWhitespace(int from) {
+            int i = from;
+            while (i < script.length() && Character.isWhitespace(script.charAt(i))) {
+                i++;
+            }
+            return i;
+        }
+
+        /**
+         * @return whether the word at {@code from}, ending at {@code end}, starts a procedure, function, package or
+         * type body
+         */
+        private boolean isSubprogram(int from, int end) {
+            return isWord(from, "PROCEDURE") || isWord(from, "FUNCTION") || isWord(from, "PACKAGE")
+                    || isWord(from, "TYPE") && isWord(skipWhitespace(end), "BODY");
+        }
+
+        private boolean isWord(int from, String word) {
+            int end = from + word.length();
+            return script.regionMatches(true, from, word, 0, word.length())
+                    && (end == script.length() || !isWordPart(script.charAt(end)));
+        }
+    }
+
+    private static boolean isWordStart(char c) {
+        return Character.isLetter(c) || c == '_';
+    }
+
+    private static boolean isWordPart(char c) {
+        return Character.isLetterOrDigit(c) || c == '_' || c == '$' || c == '#';
+    }
+}
@@ -23,7 +23,6 @@ import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
 import java.util.Map;
 
 public class TemplateEngine {
-    private static TemplateEngine instance = null;
     private org.thymeleaf.TemplateEngine engine = null;
     private TemplateEngine() {
         ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
@@ -36,10 +35,12 @@ public class TemplateEngine {
     }
 
     public static TemplateEngine get() {
-        if(TemplateEngine.instance == null) {
-            TemplateEngine.instance = new TemplateEngine();
-        }
-        return TemplateEngine.instance;
+        return Holder.INSTANCE;
+    }
+
+    // created on first use; class initialization makes that safe when DDL is rendered from several threads
+    private static class Holder {
+        private static final TemplateEngine INSTANCE = new TemplateEngine();
     }
 
     public static String process(String templateName, Map<String, Object> variables) {
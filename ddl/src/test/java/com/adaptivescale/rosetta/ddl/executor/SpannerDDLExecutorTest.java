@@ -0,0 +1,136 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+public class SpannerDDLExecutorTest {
+
+    private static final String CREATE_SINGERS = "CREATE TABLE Singers (SingerId INT64) PRIMARY KEY (SingerId)";
+    private static final String CREATE_ALBUMS = "CREATE TABLE Albums (SingerId INT64, AlbumId INT64) PRIMARY KEY (SingerId, AlbumId),\n"
+            + "  INTERLEAVE IN PARENT Singers ON DELETE CASCADE";
+    private static final String CREATE_SONGS = "CREATE TABLE `Songs` (SingerId INT64, AlbumId INT64, TrackId INT64) "
+            + "PRIMARY KEY (SingerId, AlbumId, TrackId), INTERLEAVE IN PARENT `Albums`";
+
+    private final List<String> executed = new ArrayList<>();
+
+    @Test
+    public void batchIsQueuedAndRun() throws Exception {
+        executor("").execute("ALTER TABLE Singers ADD COLUMN Name STRING(MAX);\nDROP TABLE Venues;");
+
+        Assertions.assertEquals(List.of("START BATCH DDL", "ALTER TABLE Singers ADD COLUMN Name STRING(MAX)",
+                "DROP TABLE Venues", "RUN BATCH"), executed);
+    }
+
+    @Test
+    public void batchIsAbortedWhenAStatementCanNotBeQueued() {
+        SQLException thrown = Assertions.assertThrows(SQLException.class,
+                () -> executor("DROP TABLE Venues").execute("ALTER TABLE Singers ADD COLUMN Name STRING(MAX);\n"
+                        + "DROP TABLE Venues;\nDROP TABLE Singers;"));
+
+        Assertions.assertEquals("cannot queue DROP TABLE Venues", thrown.getMessage());
+        Assertions.assertEquals(List.of("START BATCH DDL", "ALTER TABLE Singers ADD COLUMN Name STRING(MAX)",
+                "DROP TABLE Venues", "ABORT BATCH"), executed);
+    }
+
+    @Test
+    public void parentCreatedBeforeChild() {
+        Assertions.assertEquals(List.of(CREATE_SINGERS, CREATE_ALBUMS),
+                SpannerDDLExecutor.parentsFirst(List.of(CREATE_ALBUMS, CREATE_SINGERS)));
+    }
+
+    @Test
+    public void everyLevelOfInterleavingCreatedParentsFirst() {
+        String createIndex = "CREATE INDEX SongsByName ON Songs(SongName)";
+
+        Assertions.assertEquals(List.of(CREATE_SINGERS, CREATE_ALBUMS, CREATE_SONGS, createIndex),
+                SpannerDDLExecutor.parentsFirst(List.of(CREATE_SONGS, createIndex, CREATE_ALBUMS, CREATE_SINGERS)));
+        Assertions.assertEquals(List.of(CREATE_SINGERS, CREATE_ALBUMS, CREATE_SONGS),
+                SpannerDDLExecutor.parentsFirst(List.of(CREATE_ALBUMS, CREATE_SONGS, CREATE_SINGERS)));
+    }
+
+    @Test
+    public void dropMovesWithRecreatedParent() {
+        String dropSingers = "DROP TABLE Singers";
+        String alterColumn = "ALTER TABLE Venues ALTER COLUMN Name STRING(MAX)";
+
+        Assertions.assertEquals(List.of(alterColumn, dropSingers, CREATE_SINGERS, CREATE_ALBUMS),
+                SpannerDDLExecutor.parentsFirst(List.of(alterColumn, CREATE_ALBUMS, dropSingers, CREATE_SINGERS)));
+    }
+
+    @Test
+    public void statementsWithoutInterleavingKeepTheirOrder() {
+        List<String> statements = List.of("DROP TABLE Venues", CREATE_SINGERS,
+                "CREATE TABLE Venues (VenueId INT64) PRIMARY KEY (VenueId)", "ALTER TABLE Singers ADD COLUMN Name STRING(MAX)");
+
+        Assertions.assertEquals(statements, SpannerDDLExecutor.parentsFirst(statements));
+    }
+
+    @Test
+    public void parentOutsideTheScriptIsIgnored() {
+        Assertions.assertEquals(List.of(CREATE_SONGS), SpannerDDLExecutor.parentsFirst(List.of(CREATE_SONGS)));
+    }
+
+    @Test
+    public void cycleOfParentsKeepsEveryStatement() {
+        String createA = "CREATE TABLE A (Id INT64) PRIMARY KEY (Id), INTERLEAVE IN PARENT B";
+        String createB = "CREATE TABLE B (Id INT64) PRIMARY KEY (Id), INTERLEAVE IN PARENT A";
+
+        Assertions.assertEquals(List.of(createB, createA), SpannerDDLExecutor.parentsFirst(List.of(createA, createB)));
+    }
+
+    /**
+     * Executor on a connection whose statement records every statement and fails the one equal to {@code failing}.
+     */
+    private SpannerDDLExecutor executor(String failing) {
+        Statement statement = proxy(Statement.class, (method, args) -> {
+            switch (method) {
+                case "execute":
+                    executed.add((String) args[0]);
+                    if (args[0].equals(failing)) {
+                        throw new SQLException("cannot queue " + failing);
+                    }
+                    return false;
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        });
+        java.sql.Connection jdbcConnection = proxy(java.sql.Connection.class, (method, args) -> {
+            switch (method) {
+                case "createStatement":
+                    return statement;
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        });
+        Driver driver = proxy(Driver.class, (method, args) -> {
+            if (method.equals("connect")) {
+                return jdbcConnection;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        Connection connection = new Connection();
+        connection.setUrl("jdbc:cloudspanner:/projects/p/instances/i/databases/d");
+        return new SpannerDDLExecutor(connection, it -> driver);
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args) throws SQLException;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(SpannerDDLExecutorTest.class.getClassLoader(), new Class[]{type},
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
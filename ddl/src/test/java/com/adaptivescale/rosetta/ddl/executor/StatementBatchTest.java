@@ -0,0 +1,221 @@
+package com.adaptivescale.rosetta.ddl.executor;
+
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.BatchUpdateException;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.sql.SQLFeatureNotSupportedException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class StatementBatchTest {
+
+    @Test
+    public void executesInBatches() throws SQLException {
+        FakeDriver driver = new FakeDriver(Mode.STOPS_AT_FAILURE, Set.of());
+        StatementBatch.execute(driver.connection(true), statements(StatementBatch.BATCH_SIZE * 2 + 1));
+
+        Assertions.assertEquals(3, driver.batches);
+        Assertions.assertEquals(0, driver.updates);
+        Assertions.assertEquals(statements(StatementBatch.BATCH_SIZE * 2 + 1), driver.applied);
+    }
+
+    @Test
+    public void executesOneByOneWithoutBatchSupport() throws SQLException {
+        FakeDriver driver = new FakeDriver(Mode.STOPS_AT_FAILURE, Set.of());
+        StatementBatch.execute(driver.connection(false), statements(3));
+
+        Assertions.assertEquals(0, driver.batches);
+        Assertions.assertEquals(statements(3), driver.applied);
+    }
+
+    @Test
+    public void retriesStatementsNotAppliedWhenDriverStops() {
+        FakeDriver driver = new FakeDriver(Mode.STOPS_AT_FAILURE, Set.of("s2"));
+        SQLException e = Assertions.assertThrows(SQLException.class,
+                () -> StatementBatch.execute(driver.connection(true), statements(4)));
+
+        // s0 and s1 are not executed again, and the error is the one of s2 on its own
+        Assertions.assertEquals("failed s2", e.getMessage());
+        Assertions.assertEquals(List.of("s0", "s1"), driver.applied);
+        Assertions.assertEquals(1, driver.updates);
+    }
+
+    @Test
+    public void retriesOnlyStatementsMarkedFailed() throws SQLException {
+        FakeDriver driver = new FakeDriver(Mode.MARKS_FAILURES, Set.of("s1"));
+        driver.failOnlyInBatch = true;
+        StatementBatch.execute(driver.connection(true), statements(3));
+
+        Assertions.assertEquals(List.of("s0", "s2", "s1"), driver.applied);
+        Assertions.assertEquals(1, driver.updates);
+    }
+
+    @Test
+    public void doesNotReplayWhenCountsDoNotTell() {
+        FakeDriver driver = new FakeDriver(Mode.MARKS_ALL_FAILED, Set.of("s1"));
+        BatchUpdateException e = Assertions.assertThrows(BatchUpdateException.class,
+                () -> StatementBatch.execute(driver.connection(true), statements(3)));
+
+        Assertions.assertEquals("failed s1", e.getMessage());
+        Assertions.assertEquals(0, driver.updates);
+    }
+
+    @Test
+    public void continuesUnbatchedWhenDriverRefusesBatches() throws SQLException {
+        FakeDriver driver = new FakeDriver(Mode.REFUSES_BATCHES, Set.of());
+        StatementBatch.execute(driver.connection(true), statements(StatementBatch.BATCH_SIZE + 5));
+
+        Assertions.assertEquals(1, driver.batches);
+        Assertions.assertEquals(StatementBatch.BATCH_SIZE + 5, driver.updates);
+        Assertions.assertEquals(statements(StatementBatch.BATCH_SIZE + 5), driver.applied);
+    }
+
+    @Test
+    public void doesNotReplayBatchThatFailedPartway() {
+        FakeDriver driver = new FakeDriver(Mode.FAILS_PARTWAY, Set.of("s2"));
+        SQLException e = Assertions.assertThrows(SQLException.class,
+                () -> StatementBatch.execute(driver.connection(true), statements(4)));
+
+        // s0 and s1 were applied before the connection failed, so neither is executed again
+        Assertions.assertEquals("connection lost at s2", e.getMessage());
+        Assertions.assertEquals(List.of("s0", "s1"), driver.applied);
+        Assertions.assertEquals(0, driver.updates);
+    }
+
+    @Test
+    public void isUnsupported() {
+        Assertions.assertTrue(StatementBatch.isUnsupported(new SQLFeatureNotSupportedException("no batches")));
+        Assertions.assertTrue(StatementBatch.isUnsupported(new SQLException("no batches", "0A000")));
+        Assertions.assertFalse(StatementBatch.isUnsupported(new SQLException("connection lost", "08006")));
+        Assertions.assertFalse(StatementBatch.isUnsupported(new SQLException("failed")));
+    }
+
+    @Test
+    public void notApplied() {
+        Assertions.assertNull(StatementBatch.notApplied(null, 3));
+        Assertions.assertNull(StatementBatch.notApplied(new int[0], 3));
+        Assertions.assertNull(StatementBatch.notApplied(new int[]{0, 0, 0}, 3));
+        Assertions.assertNull(StatementBatch.notApplied(new int[]{Statement.EXECUTE_FAILED, Statement.EXECUTE_FAILED}, 2));
+        Assertions.assertEquals(List.of(1, 2), StatementBatch.notApplied(new int[]{0}, 3));
+        Assertions.assertEquals(List.of(1), StatementBatch.notApplied(new int[]{0, Statement.EXECUTE_FAILED, 0}, 3));
+    }
+
+    private static List<String> statements(int count) {
+        return IntStream.range(0, count).mapToObj(i -> "s" + i).collect(Collectors.toList());
+    }
+
+    private enum Mode { STOPS_AT_FAILURE, MARKS_FAILURES, MARKS_ALL_FAILED, REFUSES_BATCHES, FAILS_PARTWAY }
+
+    /**
+     * Records the statements a {@link Statement} applies, failing the ones in {@code failing}.
+     */
+    private static class FakeDriver {
+        private final Mode mode;
+        private final Set<String> failing;
+        private final List<String> applied = new ArrayList<>();
+        private final List<String> batch = new ArrayList<>();
+        private boolean failOnlyInBatch = false;
+        private int batches = 0;
+        private int updates = 0;
+
+        private FakeDriver(Mode mode, Set<String> failing) {
+            this.mode = mode;
+            this.failing = failing;
+        }
+
+        private Connection connection(boolean supportsBatchUpdates) {
+            DatabaseMetaData metaData = proxy(DatabaseMetaData.class, (method, args) -> {
+                if (method.equals("supportsBatchUpdates")) {
+                    return supportsBatchUpdates;
+                }
+                throw new UnsupportedOperationException(method);
+            });
+            Statement statement = proxy(Statement.class, this::statement);
+            return proxy(Connection.class, (method, args) -> {
+                switch (method) {
+                    case "getMetaData":
+                        return metaData;
+                    case "createStatement":
+                        return statement;
+                    default:
+                        throw new UnsupportedOperationException(method);
+                }
+            });
+        }
+
+        private Object statement(String method, Object[] args) throws SQLException {
+            switch (method) {
+                case "addBatch":
+                    batch.add((String) args[0]);
+                    return null;
+                case "clearBatch":
+                    batch.clear();
+                    return null;
+                case "close":
+                    return null;
+                case "executeUpdate":
+                    updates++;
+                    if (failing.contains((String) args[0]) && !failOnlyInBatch) {
+                        throw new SQLException("failed " + args[0]);
+                    }
+                    applied.add((String) args[0]);
+                    return 0;
+                case "executeBatch":
+                    batches++;
+                    return executeBatch();
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        }
+
+        private int[] executeBatch() throws SQLException {
+            if (mode == Mode.REFUSES_BATCHES) {
+                throw new SQLFeatureNotSupportedException("DDL is not supported in batches");
+            }
+            int[] counts = new int[batch.size()];
+            String failure = null;
+            for (int i = 0; i < batch.size(); i++) {
+                String sql = batch.get(i);
+                if (!failing.contains(sql)) {
+                    applied.add(sql);
+                    continue;
+                }
+                if (mode == Mode.FAILS_PARTWAY) {
+                    throw new SQLException("connection lost at " + sql, "08006");
+                }
+                failure = "failed " + sql;
+                if (mode == Mode.STOPS_AT_FAILURE) {
+                    throw new BatchUpdateException(failure, Arrays.copyOf(counts, i));
+                }
+                counts[i] = Statement.EXECUTE_FAILED;
+            }
+            batch.clear();
+            if (failure != null) {
+                if (mode == Mode.MARKS_ALL_FAILED) {
+                    Arrays.fill(counts, Statement.EXECUTE_FAILED);
+                }
+                throw new BatchUpdateException(failure, counts);
+            }
+            return counts;
+        }
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args) throws SQLException;
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(StatementBatchTest.class.getClassLoader(), new Class[]{type},
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
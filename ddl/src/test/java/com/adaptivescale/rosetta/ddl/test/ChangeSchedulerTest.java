@@ -0,0 +1,87 @@
+package com.adaptivescale.rosetta.ddl.test;
+
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.View;
+import com.adaptivescale.rosetta.ddl.change.ChangeScheduler;
+import com.adaptivescale.rosetta.ddl.change.DefaultChangeFinder;
+import com.adaptivescale.rosetta.ddl.change.model.Change;
+import com.adaptivescale.rosetta.ddl.change.model.ChangeFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class ChangeSchedulerTest {
+
+    private static final Path resourceDirectory = Paths.get("src", "test", "resources", "changes");
+
+    @Test
+    public void noChanges() throws IOException {
+        List<List<Change<?>>> waves = new ChangeScheduler(null).schedule(findChanges("no_changes"));
+        Assertions.assertEquals(0, waves.size());
+    }
+
+    @Test
+    public void foreignKeysDroppedBeforeAdded() throws IOException {
+        List<Change<?>> changes = findChanges("foreign_keys");
+        List<List<Change<?>>> waves = new ChangeScheduler(null).schedule(changes);
+
+        List<Change<?>> scheduled = waves.stream().flatMap(List::stream).collect(Collectors.toList());
+        Assertions.assertEquals(changes.size(), scheduled.size());
+        Assertions.assertTrue(scheduled.containsAll(changes));
+
+        Assertions.assertEquals(Change.Status.DROP, waves.get(0).get(0).getStatus());
+        for (List<Change<?>> wave : waves.subList(1, waves.size())) {
+            Assertions.assertTrue(wave.stream().noneMatch(change -> change.getStatus().equals(Change.Status.DROP)));
+        }
+    }
+
+    @Test
+    public void columnsOfSameTableInSeparateWaves() throws IOException {
+        List<Change<?>> changes = findChanges("add_column");
+        changes.addAll(findChanges("drop_column"));
+        List<List<Change<?>>> waves = new ChangeScheduler(null).schedule(changes);
+
+        Assertions.assertEquals(2, waves.size());
+        Assertions.assertEquals(1, waves.get(0).size());
+        Assertions.assertEquals(1, waves.get(1).size());
+    }
+
+    @Test
+    public void viewsAppliedInModelOrder() {
+        // v2 selects from v1 and v3 from v2, so none of them can be created alongside another
+        List<Change<?>> changes = new ArrayList<>();
+        changes.add(ChangeFactory.viewChange(view("v1", "SELECT * FROM t"), null, Change.Status.ADD));
+        changes.add(ChangeFactory.viewChange(view("v2", "SELECT * FROM v1"), null, Change.Status.ADD));
+        changes.add(ChangeFactory.viewChange(view("v3", "SELECT * FROM v2"), view("v3", "SELECT 1"), Change.Status.ALTER));
+        changes.add(ChangeFactory.viewChange(null, view("old1", "SELECT 1"), Change.Status.DROP));
+        changes.add(ChangeFactory.viewChange(null, view("old2", "SELECT * FROM old1"), Change.Status.DROP));
+        List<List<Change<?>>> waves = new ChangeScheduler(null).schedule(changes);
+
+        Assertions.assertEquals(5, waves.size());
+        Assertions.assertEquals(List.of(changes.get(3)), waves.get(0));
+        Assertions.assertEquals(List.of(changes.get(4)), waves.get(1));
+        Assertions.assertEquals(List.of(changes.get(0)), waves.get(2));
+        Assertions.assertEquals(List.of(changes.get(1)), waves.get(3));
+        Assertions.assertEquals(List.of(changes.get(2)), waves.get(4));
+    }
+
+    private static View view(String name, String code) {
+        View view = new View();
+        view.setName(name);
+        view.setSchema("public");
+        view.setCode(code);
+        return view;
+    }
+
+    private List<Change<?>> findChanges(String testType) throws IOException {
+        Database actual = Utils.getDatabase(resourceDirectory.resolve(testType), "actual_model.yaml");
+        Database expected = Utils.getDatabase(resourceDirectory.resolve(testType), "expected_model.yaml");
+        return new DefaultChangeFinder().findChanges(expected, actual);
+    }
+}
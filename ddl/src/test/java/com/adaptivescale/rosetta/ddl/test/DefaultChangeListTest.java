@@ -1,6 +1,7 @@
 package com.adaptivescale.rosetta.ddl.test;
 
 import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
 import com.adaptivescale.rosetta.ddl.change.model.Change;
 import com.adaptivescale.rosetta.ddl.change.DefaultChangeFinder;
 import org.junit.jupiter.api.Assertions;
@@ -10,6 +11,7 @@ import java.io.IOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class DefaultChangeListTest {
 
@@ -71,6 +73,44 @@ public class DefaultChangeListTest {
     }
 
 
+    @Test
+    public void multipleForeignKeysOnColumn() throws IOException {
+        // the key only in the model comes before the one kept, the key only in the database after it
+        List<Change<?>> changes = findChanges("multiple_foreign_keys_on_column");
+        Assertions.assertEquals(2, changes.size());
+        Assertions.assertEquals(List.of(Change.Status.ADD, Change.Status.DROP),
+                changes.stream().map(Change::getStatus).collect(Collectors.toList()));
+        Assertions.assertEquals("TEAMPLAYERS_FK_NEW", ((ForeignKey) changes.get(0).getExpected()).getName());
+        Assertions.assertEquals("TEAMPLAYERS_FK_OLD", ((ForeignKey) changes.get(1).getActual()).getName());
+    }
+
+    @Test
+    public void primaryKeyOnColumnAlter() throws IOException {
+        List<Change<?>> changes = findChanges("primary_key_column_change");
+        Assertions.assertEquals(1, changes.size());
+        Change<?> change = changes.get(0);
+        Assertions.assertEquals(Change.Type.COLUMN, change.getType());
+        Assertions.assertEquals(Change.Status.ALTER, change.getStatus());
+    }
+
+    @Test
+    public void dropReferencedColumnKeepsForeignKey() throws IOException {
+        List<Change<?>> changes = findChanges("drop_referenced_column");
+        Assertions.assertEquals(1, changes.size());
+        Change<?> change = changes.get(0);
+        Assertions.assertEquals(Change.Type.COLUMN, change.getType());
+        Assertions.assertEquals(Change.Status.DROP, change.getStatus());
+    }
+
+    @Test
+    public void viewAddAlterDrop() throws IOException {
+        List<Change<?>> changes = findChanges("views");
+        Assertions.assertEquals(3, changes.size());
+        Assertions.assertTrue(changes.stream().allMatch(change -> change.getType() == Change.Type.VIEW));
+        Assertions.assertEquals(List.of(Change.Status.ALTER, Change.Status.ADD, Change.Status.DROP),
+                changes.stream().map(Change::getStatus).collect(Collectors.toList()));
+    }
+
     private List<Change<?>> findChanges(String testType) throws IOException {
         Database actual = Utils.getDatabase(resourceDirectory.resolve(testType), "actual_model.yaml");
         Database expected = Utils.getDatabase(resourceDirectory.resolve(testType), "expected_model.yaml");
@@ -1,6 +1,7 @@
 package com.adaptivescale.rosetta.ddl.test;
 
 import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.ddl.change.*;
 import com.adaptivescale.rosetta.ddl.change.comparator.PostgresForeignKeyChangeComparator;
 import com.adaptivescale.rosetta.ddl.change.model.Change;
@@ -9,9 +10,12 @@ import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 
 import java.io.IOException;
+import java.io.StringWriter;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 public class PostgresDDLTest {
 
@@ -27,6 +31,29 @@ public class PostgresDDLTest {
                 "\r", ddl.replaceAll("(?m)^[ \t]*\r?\n", ""));
     }
 
+    @Test
+    public void createLargeDBStreamed() throws IOException {
+        PostgresDDLGenerator generator = new PostgresDDLGenerator();
+        Database database = Utils.getDatabase(resourceDirectory.resolve("clean_database"), "expected_model.yaml");
+        Table template = database.getTables().iterator().next();
+        List<Table> tables = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            Table table = new Table();
+            table.setName("TABLE_" + i);
+            table.setSchema(template.getSchema());
+            table.setColumns(template.getColumns());
+            tables.add(table);
+        }
+        database.setTables(tables);
+
+        StringWriter writer = new StringWriter();
+        generator.createDatabase(database, false, writer);
+
+        String tablesInOrder = tables.stream().map(table -> generator.createTable(table, false)).collect(Collectors.joining("\r\r"));
+        Assertions.assertTrue(writer.toString().contains(tablesInOrder));
+        Assertions.assertEquals(generator.createDatabase(database, false), writer.toString());
+    }
+
     @Test
     public void addTable() throws IOException {
         String ddl = generateDDL("add_table");
@@ -297,6 +324,53 @@ public class PostgresDDLTest {
         Assertions.assertEquals("ALTER TABLE \"TEST\".\"TEAMPLAYERS\" DROP CONSTRAINT \"TEAMPLAYERS_FK\";\n", ddl.replaceAll("(?m)^[ \t]*\r?\n", ""));
     }
 
+    @Test
+    public void multipleForeignKeysOnColumn() throws IOException {
+        // the key only in the model comes before the one kept, the key only in the database after it
+        String ddl = generateDDL("multiple_foreign_keys_on_column");
+        Assertions.assertEquals("ALTER TABLE \"TEAMPLAYERS\" DROP CONSTRAINT \"TEAMPLAYERS_FK_OLD\";\n" +
+                "ALTER TABLE \"TEAMPLAYERS\" ADD CONSTRAINT TEAMPLAYERS_FK_NEW FOREIGN KEY (\"TEAMID\") REFERENCES \"TEAM\"(\"ID\") ON DELETE NO ACTION;\n", ddl.replaceAll("(?m)^[ \t]*\r?\n", ""));
+    }
+
+    @Test
+    public void sameTableInTwoSchemas() throws IOException {
+        String ddl = generateDDL("same_table_in_two_schemas");
+        Assertions.assertEquals("ALTER TABLE \"A\".\"PLAYER\" ADD COLUMN \"TEAMID\" NUMBER;\n", ddl.replaceAll("(?m)^[ \t]*\r?\n", ""));
+    }
+
+    @Test
+    public void duplicateTableIsRejected() throws IOException {
+        Database expected = Utils.getDatabase(resourceDirectory.resolve("same_table_in_two_schemas"), "expected_model.yaml");
+        Database actual = Utils.getDatabase(resourceDirectory.resolve("same_table_in_two_schemas"), "actual_model.yaml");
+        actual.getTables().forEach(table -> table.setSchema("A"));
+
+        RuntimeException exception = Assertions.assertThrows(RuntimeException.class,
+                () -> new PostgresChangeFinder().findChanges(expected, actual));
+        Assertions.assertEquals("Found 2 table with name 'PLAYER' and schema 'A'", exception.getMessage());
+    }
+
+    @Test
+    public void addManyTablesInModelOrder() throws IOException {
+        Database actual = Utils.getDatabase(resourceDirectory.resolve("clean_database"), "expected_model.yaml");
+        Database expected = Utils.getDatabase(resourceDirectory.resolve("clean_database"), "expected_model.yaml");
+        Table template = expected.getTables().iterator().next();
+        List<Table> tables = new ArrayList<>(expected.getTables());
+        for (int i = 0; i < 1000; i++) {
+            Table table = new Table();
+            table.setName("TABLE_" + i);
+            table.setSchema(template.getSchema());
+            table.setColumns(template.getColumns());
+            tables.add(table);
+        }
+        expected.setTables(tables);
+
+        List<Change<?>> changes = new PostgresChangeFinder().findChanges(expected, actual);
+
+        Assertions.assertEquals(tables.subList(actual.getTables().size(), tables.size()),
+                changes.stream().map(Change::getExpected).collect(Collectors.toList()));
+        Assertions.assertTrue(changes.stream().allMatch(change -> change.getStatus() == Change.Status.ADD));
+    }
+
     private String generateDDL(String testType) throws IOException {
         Database actual = Utils.getDatabase(resourceDirectory.resolve(testType), "actual_model.yaml");
         Database expected = Utils.getDatabase(resourceDirectory.resolve(testType), "expected_model.yaml");
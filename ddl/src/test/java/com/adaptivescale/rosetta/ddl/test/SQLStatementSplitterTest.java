@@ -0,0 +1,214 @@
+package com.adaptivescale.rosetta.ddl.test;
+
+import com.adaptivescale.rosetta.ddl.utils.SQLStatementSplitter;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Disabled;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+public class SQLStatementSplitterTest {
+
+    @Test
+    public void generatedScript() {
+        List<String> statements = SQLStatementSplitter.standard().split("CREATE SCHEMA IF NOT EXISTS \"ROSETTA\";\n\r" +
+                "CREATE TABLE \"ROSETTA\".\"PLAYER\"(\"Name\" VARCHAR(100));\n\r\r" +
+                "ALTER TABLE \"ROSETTA\".\"PLAYER\" ADD CONSTRAINT PLAYER_FK FOREIGN KEY (\"Name\") REFERENCES \"TEAM\"(\"Name\") ;\n");
+        Assertions.assertEquals(List.of(
+                "CREATE SCHEMA IF NOT EXISTS \"ROSETTA\"",
+                "CREATE TABLE \"ROSETTA\".\"PLAYER\"(\"Name\" VARCHAR(100))",
+                "ALTER TABLE \"ROSETTA\".\"PLAYER\" ADD CONSTRAINT PLAYER_FK FOREIGN KEY (\"Name\") REFERENCES \"TEAM\"(\"Name\")"),
+                statements);
+    }
+
+    @Test
+    public void semicolonsInLiteralsAndComments() {
+        List<String> statements = SQLStatementSplitter.standard().split(
+                "-- drop; then create\n" +
+                "CREATE VIEW \"a;b\" AS SELECT 'x;''y' AS c /* ; */ FROM t;\n" +
+                "/* only a comment; */;;\n" +
+                "DROP TABLE t");
+        Assertions.assertEquals(List.of(
+                "-- drop; then create\nCREATE VIEW \"a;b\" AS SELECT 'x;''y' AS c /* ; */ FROM t",
+                "DROP TABLE t"), statements);
+    }
+
+    @Test
+    public void backtickQuotes() {
+        List<String> statements = SQLStatementSplitter.standard().withBacktickQuotes()
+                .split("CREATE TABLE `a;b` (c STRING(10) DEFAULT ('it\\'s;')) PRIMARY KEY (c);CREATE INDEX i ON `a;b`(c);");
+        Assertions.assertEquals(List.of(
+                "CREATE TABLE `a;b` (c STRING(10) DEFAULT ('it\\'s;')) PRIMARY KEY (c)",
+                "CREATE INDEX i ON `a;b`(c)"), statements);
+    }
+
+    @Test
+    public void dollarQuotes() {
+        List<String> statements = SQLStatementSplitter.standard().withDollarQuotes()
+                .split("CREATE FUNCTION f() RETURNS int AS $body$ BEGIN RETURN 1; END; $body$ LANGUAGE plpgsql;SELECT $1;");
+        Assertions.assertEquals(List.of(
+                "CREATE FUNCTION f() RETURNS int AS $body$ BEGIN RETURN 1; END; $body$ LANGUAGE plpgsql",
+                "SELECT $1"), statements);
+    }
+
+    @Test
+    public void terminatedBlocks() {
+        List<String> statements = SQLStatementSplitter.standard().withTerminatedBlocks().split(
+                "CREATE OR REPLACE TRIGGER trg BEFORE INSERT ON t FOR EACH ROW\n" +
+                "BEGIN\n" +
+                "  IF :new.id IS NULL THEN\n" +
+                "    :new.id := CASE WHEN 1 = 1 THEN 1 END;\n" +
+                "  END IF;\n" +
+                "END;\n" +
+                "CREATE TABLE t2 (id NUMBER);\n" +
+                "CREATE PACKAGE p AS\n" +
+                "  PROCEDURE a;\n" +
+                "END p;\n" +
+                "BEGIN NULL; END;\n" +
+                "/\n" +
+                "DROP TABLE t3\n" +
+                "/\n");
+        Assertions.assertEquals(List.of(
+                "CREATE OR REPLACE TRIGGER trg BEFORE INSERT ON t FOR EACH ROW\nBEGIN\n  IF :new.id IS NULL THEN\n" +
+                        "    :new.id := CASE WHEN 1 = 1 THEN 1 END;\n  END IF;\nEND;",
+                "CREATE TABLE t2 (id NUMBER)",
+                "CREATE PACKAGE p AS\n  PROCEDURE a;\nEND p;",
+                "BEGIN NULL; END;",
+                "DROP TABLE t3"), statements);
+    }
+
+    @Test
+    public void blocks() {
+        List<String> statements = SQLStatementSplitter.standard().withBlocks()
+                .split("CREATE PROCEDURE p() BEGIN DECLARE x INT; SET x = 1; END;CREATE TABLE t (x INT);");
+        Assertions.assertEquals(List.of(
+                "CREATE PROCEDURE p() BEGIN DECLARE x INT; SET x = 1; END",
+                "CREATE TABLE t (x INT)"), statements);
+    }
+
+    @Test
+    public void packageBodyWithSeveralProcedures() {
+        List<String> statements = SQLStatementSplitter.standard().withTerminatedBlocks().split(
+                "CREATE OR REPLACE PACKAGE BODY p AS\n" +
+                "  PROCEDURE a IS\n" +
+                "  BEGIN\n" +
+                "    NULL;\n" +
+                "  END a;\n" +
+                "  FUNCTION b(x NUMBER) RETURN NUMBER IS\n" +
+                "    y NUMBER;\n" +
+                "    CURSOR c IS SELECT id AS y FROM t;\n" +
+                "  BEGIN\n" +
+                "    RETURN CASE WHEN x IS NULL THEN 0 ELSE x END;\n" +
+                "  END b;\n" +
+                "END p;\n" +
+                "CREATE PROCEDURE q IS\n" +
+                "  PROCEDURE inner_q IS BEGIN NULL; END inner_q;\n" +
+                "BEGIN\n" +
+                "  inner_q;\n" +
+                "END q;\n" +
+                "DROP TABLE t");
+        Assertions.assertEquals(List.of(
+                "CREATE OR REPLACE PACKAGE BODY p AS\n  PROCEDURE a IS\n  BEGIN\n    NULL;\n  END a;\n" +
+                        "  FUNCTION b(x NUMBER) RETURN NUMBER IS\n    y NUMBER;\n    CURSOR c IS SELECT id AS y FROM t;\n" +
+                        "  BEGIN\n    RETURN CASE WHEN x IS NULL THEN 0 ELSE x END;\n  END b;\nEND p;",
+                "CREATE PROCEDURE q IS\n  PROCEDURE inner_q IS BEGIN NULL; END inner_q;\nBEGIN\n  inner_q;\nEND q;",
+                "DROP TABLE t"), statements);
+    }
+
+    @Test
+    public void typeBodyAndTriggerWithDeclarations() {
+        List<String> statements = SQLStatementSplitter.standard().withTerminatedBlocks().split(
+                "CREATE TYPE BODY t AS\n" +
+                "  CONSTRUCTOR FUNCTION t RETURN SELF AS RESULT IS BEGIN RETURN; END;\n" +
+                "  MEMBER PROCEDURE m IS BEGIN NULL; END;\n" +
+                "END;\n" +
+                "CREATE TRIGGER trg BEFORE INSERT ON t FOR EACH ROW\n" +
+                "DECLARE\n" +
+                "  n NUMBER;\n" +
+                "BEGIN\n" +
+                "  n := 1;\n" +
+                "END;\n");
+        Assertions.assertEquals(List.of(
+                "CREATE TYPE BODY t AS\n  CONSTRUCTOR FUNCTION t RETURN SELF AS RESULT IS BEGIN RETURN; END;\n" +
+                        "  MEMBER PROCEDURE m IS BEGIN NULL; END;\nEND;",
+                "CREATE TRIGGER trg BEFORE INSERT ON t FOR EACH ROW\nDECLARE\n  n NUMBER;\nBEGIN\n  n := 1;\nEND;"),
+                statements);
+    }
+
+    @Test
+    public void unitsWithoutBlock() {
+        List<String> statements = SQLStatementSplitter.standard().withBlocks().split(
+                "CREATE FUNCTION f() RETURNS INT RETURN 1;\n" +
+                "CREATE TRIGGER trg BEFORE INSERT ON t FOR EACH ROW SET NEW.x = 1;\n" +
+                "CREATE TRIGGER trg2 BEFORE UPDATE ON t FOR EACH ROW BEGIN\n" +
+                "  CASE WHEN NEW.x > 1 THEN SET NEW.x = 1; ELSE SET NEW.x = 0; END CASE;\n" +
+                "END;\n" +
+                "DECLARE GLOBAL TEMPORARY TABLE tmp (x INT);\n" +
+                "CREATE TABLE t (x INT);");
+        Assertions.assertEquals(List.of(
+                "CREATE FUNCTION f() RETURNS INT RETURN 1",
+                "CREATE TRIGGER trg BEFORE INSERT ON t FOR EACH ROW SET NEW.x = 1",
+                "CREATE TRIGGER trg2 BEFORE UPDATE ON t FOR EACH ROW BEGIN\n" +
+                        "  CASE WHEN NEW.x > 1 THEN SET NEW.x = 1; ELSE SET NEW.x = 0; END CASE;\nEND",
+                "DECLARE GLOBAL TEMPORARY TABLE tmp (x INT)",
+                "CREATE TABLE t (x INT)"), statements);
+    }
+
+    @Test
+    public void largeScript() {
+        String script = largeScript(20_000);
+        List<String> statements = SQLStatementSplitter.standard().split(script);
+
+        Assertions.assertEquals(20_000, statements.size());
+        Assertions.assertEquals(script.substring(0, script.indexOf(';')), statements.get(0));
+        Assertions.assertTrue(statements.get(19_999).startsWith("CREATE TABLE \"ROSETTA\".\"TABLE_19999\""));
+    }
+
+    /**
+     * Compares the splitter with the replaceAll and split(";") the executors used before, on the script of
+     * {@link #largeScript(int)}. Prints the median of several warm runs of each.
+     */
+    @Test
+    @Disabled("benchmark, run by hand")
+    public void largeScriptBenchmark() {
+        String script = largeScript(20_000);
+        System.out.printf("script of %d bytes: splitter %.1f ms, replaceAll and split %.1f ms%n", script.length(),
+                medianMillis(() -> SQLStatementSplitter.standard().split(script)),
+                medianMillis(() -> {
+                    List<String> parts = new ArrayList<>();
+                    for (String part : script.replaceAll("\r", "").replaceAll("\n\n", "\n").split(";")) {
+                        if (!part.trim().isEmpty()) {
+                            parts.add(part);
+                        }
+                    }
+                    return parts;
+                }));
+    }
+
+    private static double medianMillis(Supplier<List<String>> split) {
+        for (int i = 0; i < 20; i++) {
+            split.get();
+        }
+        long[] nanos = new long[21];
+        for (int i = 0; i < nanos.length; i++) {
+            long start = System.nanoTime();
+            Assertions.assertEquals(20_000, split.get().size());
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return nanos[nanos.length / 2] / 1_000_000.0;
+    }
+
+    // about 125 bytes per statement, in the shape the DDL generators write them
+    private static String largeScript(int tables) {
+        StringBuilder script = new StringBuilder();
+        for (int i = 0; i < tables; i++) {
+            script.append("CREATE TABLE \"ROSETTA\".\"TABLE_").append(i).append("\"(\"ID\" NUMBER NOT NULL , ")
+                    .append("\"NAME\" VARCHAR(100), \"CREATED\" TIMESTAMP, PRIMARY KEY (\"ID\"));\n\r");
+        }
+        return script.toString();
+    }
+}
@@ -0,0 +1,84 @@
+package com.adaptivescale.rosetta.diff;
+
+/**
+ * One difference between a local model and a target database, as found by {@link DefaultTester#findChanges}.
+ * The human-readable message is only formatted when {@link #getMessage()} is called.
+ */
+public class Change {
+
+    private final ChangeType type;
+    private final String table;
+    private final String column;
+    private final String name;
+    private final String property;
+    private final Object localValue;
+    private final Object targetValue;
+
+    Change(ChangeType type, String table, String column, String name, String property, Object localValue, Object targetValue) {
+        this.type = type;
+        this.table = table;
+        this.column = column;
+        this.name = name;
+        this.property = property;
+        this.localValue = localValue;
+        this.targetValue = targetValue;
+    }
+
+    static Change ofTable(ChangeType type, String table) {
+        return new Change(type, table, null, null, null, null, null);
+    }
+
+    static Change ofColumn(ChangeType type, String table, String column) {
+        return new Change(type, table, column, null, null, null, null);
+    }
+
+    static Change ofNamed(ChangeType type, String table, String column, String name) {
+        return new Change(type, table, column, name, null, null, null);
+    }
+
+    public ChangeType getType() {
+        return type;
+    }
+
+    /**
+     * @return name of the table or view the change belongs to
+     */
+    public String getTable() {
+        return table;
+    }
+
+    public String getColumn() {
+        return column;
+    }
+
+    /**
+     * @return name of the changed foreign key or index
+     */
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @return the property that differs, for {@link ChangeType#COLUMN_CHANGED} and {@link ChangeType#FOREIGN_KEY_CHANGED}
+     */
+    public String getProperty() {
+        return property;
+    }
+
+    public Object getLocalValue() {
+        return localValue;
+    }
+
+    public Object getTargetValue() {
+        return targetValue;
+    }
+
+    public String getMessage() {
+        return type.format(this);
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+}
@@ -0,0 +1,56 @@
+package com.adaptivescale.rosetta.diff;
+
+import java.util.function.Function;
+
+public enum ChangeType {
+
+    TABLE_COLUMNS_CHANGED("Table Changed: Table '%s' columns changed in the target database.", ChangeType::table),
+    TABLE_REMOVED("Table '%s' exists in the model, but it does not exist in the target database.", ChangeType::table),
+    TABLE_ADDED("Table '%s' does not exist in the model, but it exists in the target database.", ChangeType::table),
+
+    COLUMN_CHANGED("Column Changed: Column '%s' in table '%s' changed '%s'. New value: '%s', old value: '%s'",
+            change -> new Object[]{change.getColumn(), change.getTable(), change.getProperty(), change.getLocalValue(), change.getTargetValue()}),
+    COLUMN_REMOVED("Column '%s' in table '%s' exists in the model, but it does not exist in the target database.", ChangeType::column),
+    COLUMN_ADDED("Column '%s' in table '%s' does not exist in the model, but it exists in the target database.", ChangeType::column),
+
+    FOREIGN_KEY_CHANGED("Foreign Key Changed: FK '%s' on Column '%s' in table '%s' changed '%s'. New value: '%s', old value: '%s'",
+            change -> new Object[]{change.getName(), change.getColumn(), change.getTable(), change.getProperty(), change.getLocalValue(), change.getTargetValue()}),
+    FOREIGN_KEY_REMOVED("ForeignKey '%s' on Column '%s' in table '%s' exists in the model, but it does not exist in the target database.", ChangeType::named),
+    FOREIGN_KEY_ADDED("ForeignKey '%s' on Column '%s' in table '%s' does not exist in the model, but it exists in the target database.", ChangeType::named),
+
+    INDEX_CHANGED("Index Changed: Index '%s'", ChangeType::named),
+    INDEX_REMOVED("Index '%s' exists in the model, but it does not exist in the target database.", ChangeType::named),
+    INDEX_ADDED("Index '%s' does not exist in the model, but it exists in the target database.", ChangeType::named),
+
+    VIEW_COLUMNS_CHANGED("View Changed: View '%s' columns changed", ChangeType::table),
+    VIEW_REMOVED("View '%s' exists in the model, but it does not exist in the target database.", ChangeType::table),
+    VIEW_ADDED("View '%s' does not exist in the model, but it exists in the target database.", ChangeType::table),
+
+    INTERLEAVED_CHANGED("Interleaved Changed: Table '%s'", ChangeType::table),
+    INTERLEAVED_REMOVED("Interleaved '%s' table exists in the model, but it does not exist in the target database.", ChangeType::table),
+    INTERLEAVED_ADDED("Interleaved '%s' table does not exist in the model, but it exists in the target database.", ChangeType::table);
+
+    private final String format;
+    private final Function<Change, Object[]> arguments;
+
+    ChangeType(String format, Function<Change, Object[]> arguments) {
+        this.format = format;
+        this.arguments = arguments;
+    }
+
+    String format(Change change) {
+        return String.format(format, arguments.apply(change));
+    }
+
+    private static Object[] table(Change change) {
+        return new Object[]{change.getTable()};
+    }
+
+    private static Object[] column(Change change) {
+        return new Object[]{change.getColumn(), change.getTable()};
+    }
+
+    private static Object[] named(Change change) {
+        return new Object[]{change.getName(), change.getColumn(), change.getTable()};
+    }
+}
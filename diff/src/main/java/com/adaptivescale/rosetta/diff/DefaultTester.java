@@ -3,458 +3,239 @@ package com.adaptivescale.rosetta.diff;
 import com.adaptivescale.rosetta.common.models.*;
 
 import java.util.*;
-import java.util.stream.Collectors;
-
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Compares a local model with a target database. Target tables, views, columns, foreign keys and indices are
+ * looked up through name-keyed maps built once per collection, so a diff is linear in the size of both models.
+ * {@link #findChanges} returns structured {@link Change}s; {@link #find} formats them into the messages printed
+ * by the diff command.
+ */
 public class DefaultTester implements Diff<List<String>, Database, Database> {
 
-    private static final String TABLE_COLUMNS_CHANGED_FORMAT = "Table Changed: Table '%s' columns changed in the target database.";
-    private static final String TABLE_REMOVED_FORMAT = "Table '%s' exists in the model, but it does not exist in the target database.";
-    private static final String TABLE_ADDED_FORMAT = "Table '%s' does not exist in the model, but it exists in the target database.";
-
-    private static final String COLUMN_CHANGED_FORMAT = "Column Changed: Column '%s' in table '%s' changed '%s'. New value: '%s', old value: '%s'";
-    private static final String COLUMN_REMOVED_FORMAT = "Column '%s' in table '%s' exists in the model, but it does not exist in the target database.";
-    private static final String COLUMN_ADDED_FORMAT = "Column '%s' in table '%s' does not exist in the model, but it exists in the target database.";
-
-    private static final String COLUMN_FOREIGN_KEY_CHANGED = "Foreign Key Changed: FK '%s' on Column '%s' in table '%s' changed '%s'. New value: '%s', old value: '%s'";
-    private static final String COLUMN_FOREIGN_KEY_REMOVED = "ForeignKey '%s' on Column '%s' in table '%s' exists in the model, but it does not exist in the target database.";
-    private static final String COLUMN_FOREIGN_KEY_ADDED = "ForeignKey '%s' on Column '%s' in table '%s' does not exist in the model, but it exists in the target database.";
-
-    private static final String INDEX_CHANGED_FORMAT = "Index Changed: Index '%s'";
-    private static final String INDEX_REMOVED_FORMAT = "Index '%s' exists in the model, but it does not exist in the target database.";
-    private static final String INDEX_ADDED_FORMAT = "Index '%s' does not exist in the model, but it exists in the target database.";
-
-    private static final String VIEW_COLUMNS_CHANGED_FORMAT = "View Changed: View '%s' columns changed";
-    private static final String VIEW_REMOVED_FORMAT = "View '%s' exists in the model, but it does not exist in the target database.";
-    private static final String VIEW_ADDED_FORMAT = "View '%s' does not exist in the model, but it exists in the target database.";
-
-    private static final String INTERLEAVED_CHANGED_FORMAT = "Interleaved Changed: Table '%s'";
-    private static final String INTERLEAVED_REMOVED_FORMAT = "Interleaved '%s' table exists in the model, but it does not exist in the target database.";
-    private static final String INTERLEAVED_ADDED_FORMAT = "Interleaved '%s' table does not exist in the model, but it exists in the target database.";
-
-
     @Override
     public List<String> find(Database localValue, Database targetValue) {
+        List<Change> changes = findChanges(localValue, targetValue);
+        List<String> messages = new ArrayList<>(changes.size());
+        for (Change change : changes) {
+            messages.add(change.getMessage());
+        }
+        return messages;
+    }
 
-        List<String> changes = new ArrayList<>();
+    public List<Change> findChanges(Database localValue, Database targetValue) {
+        List<Change> changes = new ArrayList<>();
 
         //do we need to check for root properties if are changed
-        for (Table table : localValue.getTables()) {
-            List<String> columnsChangesLogs = new ArrayList<>();
-            Optional<Table> targetTable = getTable(table.getName(), targetValue);
-            if (targetTable.isEmpty()) {
+        Collection<Table> localTables = orEmpty(localValue.getTables());
+        Map<String, Table> targetTables = byName(targetValue.getTables(), Table::getName);
+        for (Table table : localTables) {
+            Table targetTable = targetTables.get(table.getName());
+            if (targetTable == null) {
                 //this table is removed
-                changes.add(String.format(TABLE_REMOVED_FORMAT, table.getName()));
+                changes.add(Change.ofTable(ChangeType.TABLE_REMOVED, table.getName()));
                 continue;
             }
 
-            List<String> tableInterleaveChanges = checkForInterleaveChanges(table, targetTable.get());
-            changes.addAll(tableInterleaveChanges);
-
-            Collection<Column> columns = table.getColumns();
-            for (Column localColumn : columns) {
-                Optional<Column> targetColumn = getColumn(localColumn.getName(), targetTable.get());
-                if (targetColumn.isEmpty()) {
-                    //this column was removed
-                    columnsChangesLogs.add(String.format(COLUMN_REMOVED_FORMAT, localColumn.getName(), table.getName()));
-                    continue;
-                }
-
-                if (!Objects.equals(localColumn.getDescription(), targetColumn.get().getDescription())) {
-                    String description = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Description", localColumn.getDescription(),
-                            targetColumn.get().getDescription());
-                    columnsChangesLogs.add(description);
-                }
-
-                if (!Objects.equals(localColumn.getColumnDisplaySize(), targetColumn.get().getColumnDisplaySize())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Display Size", localColumn.getColumnDisplaySize(),
-                            targetColumn.get().getColumnDisplaySize());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getLabel(), targetColumn.get().getLabel())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Label", localColumn.getLabel(),
-                            targetColumn.get().getLabel());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getOrdinalPosition(), targetColumn.get().getOrdinalPosition())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Ordinal Position", localColumn.getOrdinalPosition(),
-                            targetColumn.get().getOrdinalPosition());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getPrecision(), targetColumn.get().getPrecision())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Precision", localColumn.getPrecision(),
-                            targetColumn.get().getPrecision());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getTypeName(), targetColumn.get().getTypeName())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Type Name", localColumn.getTypeName(),
-                            targetColumn.get().getTypeName());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.isAutoincrement(), targetColumn.get().isAutoincrement())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Autoincrement", localColumn.isAutoincrement(),
-                            targetColumn.get().isAutoincrement());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.isPrimaryKey(), targetColumn.get().isPrimaryKey())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Primary key", localColumn.isPrimaryKey(),
-                            targetColumn.get().isPrimaryKey());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.isNullable(), targetColumn.get().isNullable())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Nullable", localColumn.isNullable(),
-                            targetColumn.get().isNullable());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getColumnProperties(), targetColumn.get().getColumnProperties())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            table.getName(), "Column Properties", localColumn.columnPropertiesAsString(),
-                            targetColumn.get().columnPropertiesAsString());
-                    columnsChangesLogs.add(result);
-                }
-
-                columnsChangesLogs.addAll(sameForeignKeys(localColumn.getForeignKeys(), targetColumn.get().getForeignKeys()));
-            }
-
-            //check what columns are added, by filtering what is not in local model
-            Set<String> localColumnsName = columns.stream().map(Column::getName).collect(Collectors.toSet());
-            List<Column> addedColumns = targetTable
-                    .get()
-                    .getColumns()
-                    .stream()
-                    .filter(column -> !localColumnsName.contains(column.getName()))
-                    .collect(Collectors.toList());
-
-            addedColumns.forEach(column -> columnsChangesLogs.add(String.format(COLUMN_ADDED_FORMAT, column.getName(), table.getName())));
-            if (columnsChangesLogs.size() > 0) {
-                changes.add(String.format(TABLE_COLUMNS_CHANGED_FORMAT, table.getName()));
-                changes.addAll(columnsChangesLogs);
-            }
-
-            changes.addAll(sameIndices(table.getIndices(), targetTable.get().getIndices()));
+            checkForInterleaveChanges(table, targetTable, changes);
+            compareColumns(table, targetTable, true, ChangeType.TABLE_COLUMNS_CHANGED, changes);
+            compareIndices(table.getIndices(), targetTable.getIndices(), changes);
         }
-
-        Set<String> localTablesName = localValue.getTables().stream().map(Table::getName).collect(Collectors.toSet());
-        List<Table> tablesAdded = targetValue
-                .getTables()
-                .stream()
-                .filter(table -> !localTablesName.contains(table.getName()))
-                .collect(Collectors.toList());
-        tablesAdded.forEach(table -> changes.add(String.format(TABLE_ADDED_FORMAT, table.getName())));
+        addedByName(localTables, targetValue.getTables(), Table::getName,
+                table -> changes.add(Change.ofTable(ChangeType.TABLE_ADDED, table.getName())));
 
         // Check views for changes
         testViews(localValue, targetValue, changes);
         return changes;
     }
 
-    private List<String> checkForInterleaveChanges(Table localTable, Table targetTable) {
-        List<String> changes = new ArrayList<>();
+    private void checkForInterleaveChanges(Table localTable, Table targetTable, List<Change> changes) {
         if (localTable.getInterleave() != null && targetTable.getInterleave() == null) {
-            changes.add(String.format(INTERLEAVED_REMOVED_FORMAT, localTable.getName()));
+            changes.add(Change.ofTable(ChangeType.INTERLEAVED_REMOVED, localTable.getName()));
         }
         if (localTable.getInterleave() == null && targetTable.getInterleave() != null) {
-            changes.add(String.format(INTERLEAVED_ADDED_FORMAT, localTable.getName()));
+            changes.add(Change.ofTable(ChangeType.INTERLEAVED_ADDED, localTable.getName()));
         }
 
         if (localTable.getInterleave() != null &&
             targetTable.getInterleave() != null &&
             !localTable.getInterleave().equals(targetTable.getInterleave())) {
-            changes.add(String.format(INTERLEAVED_CHANGED_FORMAT, localTable.getName()));
+            changes.add(Change.ofTable(ChangeType.INTERLEAVED_CHANGED, localTable.getName()));
         }
-
-        return changes;
     }
 
-    private void testViews(Database localValue, Database targetValue, List<String> changes) {
-        Collection<View> localViews = Optional.ofNullable(localValue.getViews())
-            .orElse(Collections.emptyList());
+    private void testViews(Database localValue, Database targetValue, List<Change> changes) {
+        Collection<View> localViews = orEmpty(localValue.getViews());
+        Map<String, View> targetViews = byName(targetValue.getViews(), View::getName);
 
         //do we need to check for root properties if are changed
         for (View view : localViews) {
-            List<String> columnsChangesLogs = new ArrayList<>();
-            Optional<View> targetView = getView(view.getName(), targetValue);
-            if (targetView.isEmpty()) {
+            View targetView = targetViews.get(view.getName());
+            if (targetView == null) {
                 //this view is removed
-                changes.add(String.format(VIEW_REMOVED_FORMAT, view.getName()));
+                changes.add(Change.ofTable(ChangeType.VIEW_REMOVED, view.getName()));
                 continue;
             }
 
-            Collection<Column> columns = view.getColumns();
-            for (Column localColumn : columns) {
-                Optional<Column> targetColumn = getColumn(localColumn.getName(), targetView.get());
-                if (targetColumn.isEmpty()) {
-                    //this column was removed
-                    columnsChangesLogs.add(String.format(COLUMN_REMOVED_FORMAT, localColumn.getName(), view.getName()));
-                    continue;
-                }
-
-                if (!Objects.equals(localColumn.getDescription(), targetColumn.get().getDescription())) {
-                    String description = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            view.getName(), "Description", localColumn.getDescription(),
-                            targetColumn.get().getDescription());
-                    columnsChangesLogs.add(description);
-                }
-
-                if (!Objects.equals(localColumn.getColumnDisplaySize(), targetColumn.get().getColumnDisplaySize())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            view.getName(), "Display Size", localColumn.getColumnDisplaySize(),
-                            targetColumn.get().getColumnDisplaySize());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getLabel(), targetColumn.get().getLabel())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            view.getName(), "Label", localColumn.getLabel(),
-                            targetColumn.get().getLabel());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getOrdinalPosition(), targetColumn.get().getOrdinalPosition())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            view.getName(), "Ordinal Position", localColumn.getOrdinalPosition(),
-                            targetColumn.get().getOrdinalPosition());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getPrecision(), targetColumn.get().getPrecision())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            view.getName(), "Precision", localColumn.getPrecision(),
-                            targetColumn.get().getPrecision());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.getTypeName(), targetColumn.get().getTypeName())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            view.getName(), "Type Name", localColumn.getTypeName(),
-                            targetColumn.get().getTypeName());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.isAutoincrement(), targetColumn.get().isAutoincrement())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            view.getName(), "Autoincrement", localColumn.isAutoincrement(),
-                            targetColumn.get().isAutoincrement());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.isPrimaryKey(), targetColumn.get().isPrimaryKey())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            view.getName(), "Primary key", localColumn.isPrimaryKey(),
-                            targetColumn.get().isPrimaryKey());
-                    columnsChangesLogs.add(result);
-                }
-
-                if (!Objects.equals(localColumn.isNullable(), targetColumn.get().isNullable())) {
-                    String result = String.format(COLUMN_CHANGED_FORMAT, localColumn.getName(),
-                            view.getName(), "Nullable", localColumn.isNullable(),
-                            targetColumn.get().isNullable());
-                    columnsChangesLogs.add(result);
-                }
+            compareColumns(view, targetView, false, ChangeType.VIEW_COLUMNS_CHANGED, changes);
+            compareIndices(view.getIndices(), targetView.getIndices(), changes);
+        }
+        addedByName(localViews, targetValue.getViews(), View::getName,
+                view -> changes.add(Change.ofTable(ChangeType.VIEW_ADDED, view.getName())));
+    }
 
-                columnsChangesLogs.addAll(sameForeignKeys(localColumn.getForeignKeys(), targetColumn.get().getForeignKeys()));
+    /**
+     * Adds the column changes of a table or view, preceded by a single {@code header} change when there are any.
+     */
+    private void compareColumns(Table table, Table targetTable, boolean compareProperties, ChangeType header,
+                                List<Change> changes) {
+        List<Change> columnChanges = new ArrayList<>();
+        Collection<Column> columns = orEmpty(table.getColumns());
+        Map<String, Column> targetColumns = byName(targetTable.getColumns(), Column::getName);
+        for (Column localColumn : columns) {
+            Column targetColumn = targetColumns.get(localColumn.getName());
+            if (targetColumn == null) {
+                //this column was removed
+                columnChanges.add(Change.ofColumn(ChangeType.COLUMN_REMOVED, table.getName(), localColumn.getName()));
+                continue;
             }
+            compareColumn(table.getName(), localColumn, targetColumn, compareProperties, columnChanges);
+            compareForeignKeys(localColumn.getForeignKeys(), targetColumn.getForeignKeys(), columnChanges);
+        }
 
-            //check what columns are added, by filtering what is not in local model
-            Set<String> localColumnsName = columns.stream().map(Column::getName).collect(Collectors.toSet());
-            List<Column> addedColumns = targetView
-                    .get()
-                    .getColumns()
-                    .stream()
-                    .filter(column -> !localColumnsName.contains(column.getName()))
-                    .collect(Collectors.toList());
-
-            addedColumns.forEach(column -> columnsChangesLogs.add(String.format(COLUMN_ADDED_FORMAT, column.getName(), view.getName())));
-            if (columnsChangesLogs.size() > 0) {
-                changes.add(String.format(VIEW_COLUMNS_CHANGED_FORMAT, view.getName()));
-                changes.addAll(columnsChangesLogs);
-            }
+        //check what columns are added, by filtering what is not in local model
+        addedByName(columns, targetTable.getColumns(), Column::getName,
+                column -> columnChanges.add(Change.ofColumn(ChangeType.COLUMN_ADDED, table.getName(), column.getName())));
+        if (!columnChanges.isEmpty()) {
+            changes.add(Change.ofTable(header, table.getName()));
+            changes.addAll(columnChanges);
+        }
+    }
 
-            changes.addAll(sameIndices(view.getIndices(), targetView.get().getIndices()));
+    private void compareColumn(String tableName, Column local, Column target, boolean compareProperties, List<Change> changes) {
+        columnChanged(tableName, local, "Description", local.getDescription(), target.getDescription(), changes);
+        columnChanged(tableName, local, "Display Size", local.getColumnDisplaySize(), target.getColumnDisplaySize(), changes);
+        columnChanged(tableName, local, "Label", local.getLabel(), target.getLabel(), changes);
+        columnChanged(tableName, local, "Ordinal Position", local.getOrdinalPosition(), target.getOrdinalPosition(), changes);
+        columnChanged(tableName, local, "Precision", local.getPrecision(), target.getPrecision(), changes);
+        columnChanged(tableName, local, "Type Name", local.getTypeName(), target.getTypeName(), changes);
+        columnChanged(tableName, local, "Autoincrement", local.isAutoincrement(), target.isAutoincrement(), changes);
+        columnChanged(tableName, local, "Primary key", local.isPrimaryKey(), target.isPrimaryKey(), changes);
+        columnChanged(tableName, local, "Nullable", local.isNullable(), target.isNullable(), changes);
+        if (compareProperties && !sameColumnProperties(local.getColumnProperties(), target.getColumnProperties())) {
+            changes.add(new Change(ChangeType.COLUMN_CHANGED, tableName, local.getName(), null, "Column Properties",
+                    local.columnPropertiesAsString(), target.columnPropertiesAsString()));
         }
-        Set<String> localViewName = localViews.stream().map(View::getName).collect(Collectors.toSet());
-        List<View> viewsAdded = targetValue
-                .getViews()
-                .stream()
-                .filter(view -> !localViewName.contains(view.getName()))
-                .collect(Collectors.toList());
-        viewsAdded.forEach(view -> changes.add(String.format(VIEW_ADDED_FORMAT, view.getName())));
     }
 
+    private static void columnChanged(String tableName, Column column, String property, Object localValue, Object targetValue,
+                                      List<Change> changes) {
+        if (!Objects.equals(localValue, targetValue)) {
+            changes.add(new Change(ChangeType.COLUMN_CHANGED, tableName, column.getName(), null, property, localValue, targetValue));
+        }
+    }
 
-    private List<String> sameIndices(List<Index> localIndices, List<Index> targetIndices) {
-        List<String> changeLogs = new ArrayList<>();
+    protected boolean sameColumnProperties(List<ColumnProperties> localProperties, List<ColumnProperties> targetProperties) {
+        return Objects.equals(localProperties, targetProperties);
+    }
 
+    private void compareIndices(List<Index> localIndices, List<Index> targetIndices, List<Change> changes) {
         if (localIndices == targetIndices) {
-            return changeLogs;
-        }
-        if (localIndices == null) {
-            localIndices = new ArrayList<>();
+            return;
         }
 
-        if (targetIndices == null) {
-            targetIndices = new ArrayList<>();
-        }
-
-        for (Index localIndex : localIndices) {
-            Optional<Index> targetIndex = getIndexByName(targetIndices, localIndex);
-            if (targetIndex.isEmpty()) {
-                // foreign key is removed
-                String change = String.format(INDEX_REMOVED_FORMAT,
-                    localIndex.getName(),
-                    localIndex.getColumnNames(),
-                    localIndex.getTableName());
-                changeLogs.add(change);
+        Collection<Index> locals = orEmpty(localIndices);
+        Map<String, Index> targets = byName(targetIndices, Index::getName);
+        for (Index localIndex : locals) {
+            Index targetIndex = targets.get(localIndex.getName());
+            if (targetIndex == null) {
+                changes.add(Change.ofNamed(ChangeType.INDEX_REMOVED, localIndex.getTableName(), null, localIndex.getName()));
                 continue;
             }
 
-            if (!Objects.equals(localIndex, targetIndex.get())) {
-                String change = String.format(INDEX_CHANGED_FORMAT,
-                        localIndex.getName(),
-                        localIndex.getColumnNames(),
-                        localIndex.getTableName());
-
-                changeLogs.add(change);
+            if (!Objects.equals(localIndex, targetIndex)) {
+                changes.add(Change.ofNamed(ChangeType.INDEX_CHANGED, localIndex.getTableName(), null, localIndex.getName()));
             }
         }
 
-        Set<String> localIndicesNames = localIndices.stream().map(Index::getName).collect(Collectors.toSet());
-        targetIndices
-            .stream()
-            .filter(index -> !localIndicesNames.contains(index.getName()))
-            .forEach(index -> {
-                String change = String.format(INDEX_ADDED_FORMAT,
-                        index.getName(),
-                        index.getColumnNames(),
-                        index.getTableName());
-                changeLogs.add(change);
-            });
-
-        return changeLogs;
+        addedByName(locals, targetIndices, Index::getName,
+                index -> changes.add(Change.ofNamed(ChangeType.INDEX_ADDED, index.getTableName(), null, index.getName())));
     }
 
-    private List<String> sameForeignKeys(List<ForeignKey> localForeignKeys, List<ForeignKey> targetForeignKeys) {
-
-        List<String> changeLogs = new ArrayList<>();
-
+    protected void compareForeignKeys(List<ForeignKey> localForeignKeys, List<ForeignKey> targetForeignKeys, List<Change> changes) {
         if (localForeignKeys == targetForeignKeys) {
-            return changeLogs;
-        }
-        if (localForeignKeys == null) {
-            localForeignKeys = new ArrayList<>();
+            return;
         }
 
-        if (targetForeignKeys == null) {
-            targetForeignKeys = new ArrayList<>();
-        }
-
-        for (ForeignKey localForeignKey : localForeignKeys) {
-            Optional<ForeignKey> targetForeignKey = getForeignKeyByName(targetForeignKeys, localForeignKey);
-            if (targetForeignKey.isEmpty()) {
+        Collection<ForeignKey> locals = orEmpty(localForeignKeys);
+        Map<String, ForeignKey> targets = byName(targetForeignKeys, ForeignKey::getName);
+        for (ForeignKey localForeignKey : locals) {
+            ForeignKey targetForeignKey = targets.get(localForeignKey.getName());
+            if (targetForeignKey == null) {
                 // foreign key is removed
-                String change = String.format(COLUMN_FOREIGN_KEY_REMOVED,
-                        localForeignKey.getName(),
-                        localForeignKey.getColumnName(),
-                        localForeignKey.getTableName());
-                changeLogs.add(change);
+                changes.add(Change.ofNamed(ChangeType.FOREIGN_KEY_REMOVED, localForeignKey.getTableName(),
+                        localForeignKey.getColumnName(), localForeignKey.getName()));
                 continue;
             }
 
-            if (!Objects.equals(localForeignKey.getDeleteRule(), targetForeignKey.get().getDeleteRule())) {
-                String change = String.format(COLUMN_FOREIGN_KEY_CHANGED,
-                        localForeignKey.getName(),
-                        localForeignKey.getColumnName(),
-                        localForeignKey.getTableName(),
-                        "Delete Rule",
-                        localForeignKey.getDeleteRule(),
-                        targetForeignKey.get().getDeleteRule());
-
-                changeLogs.add(change);
-            }
-
-            if (!Objects.equals(localForeignKey.getPrimaryColumnName(), targetForeignKey.get().getPrimaryColumnName())) {
-                String change = String.format(COLUMN_FOREIGN_KEY_CHANGED,
-                        localForeignKey.getName(),
-                        localForeignKey.getColumnName(),
-                        localForeignKey.getTableName(),
-                        "Primary Key Column Name",
-                        localForeignKey.getPrimaryColumnName(),
-                        targetForeignKey.get().getPrimaryColumnName());
-
-                changeLogs.add(change);
-            }
-
-            if (!Objects.equals(localForeignKey.getPrimaryTableName(), targetForeignKey.get().getPrimaryTableName())) {
-                String change = String.format(COLUMN_FOREIGN_KEY_CHANGED,
-                        localForeignKey.getName(),
-                        localForeignKey.getColumnName(),
-                        localForeignKey.getTableName(),
-                        "Primary Key Table Name", localForeignKey.getPrimaryTableName(),
-                        targetForeignKey.get().getPrimaryTableName());
-
-                changeLogs.add(change);
-            }
-
-            if (!Objects.equals(localForeignKey.getPrimaryTableSchema(), targetForeignKey.get().getPrimaryTableSchema())) {
-                String change = String.format(COLUMN_FOREIGN_KEY_CHANGED,
-                        localForeignKey.getName(),
-                        localForeignKey.getColumnName(),
-                        localForeignKey.getTableName(),
-                        "Primary Key Schema Name",
-                        localForeignKey.getPrimaryTableSchema(),
-                        targetForeignKey.get().getPrimaryTableSchema());
-
-                changeLogs.add(change);
-            }
+            foreignKeyChanged(localForeignKey, "Delete Rule",
+                    localForeignKey.getDeleteRule(), targetForeignKey.getDeleteRule(), changes);
+            foreignKeyChanged(localForeignKey, "Primary Key Column Name",
+                    localForeignKey.getPrimaryColumnName(), targetForeignKey.getPrimaryColumnName(), changes);
+            foreignKeyChanged(localForeignKey, "Primary Key Table Name",
+                    localForeignKey.getPrimaryTableName(), targetForeignKey.getPrimaryTableName(), changes);
+            foreignKeyChanged(localForeignKey, "Primary Key Schema Name",
+                    localForeignKey.getPrimaryTableSchema(), targetForeignKey.getPrimaryTableSchema(), changes);
         }
 
-        Set<String> localFKNames = localForeignKeys.stream().map(ForeignKey::getName).collect(Collectors.toSet());
-        targetForeignKeys
-                .stream()
-                .filter(foreignKey -> !localFKNames.contains(foreignKey.getName()))
-                .forEach(foreignKey -> {
-                    String change = String.format(COLUMN_FOREIGN_KEY_ADDED,
-                            foreignKey.getName(),
-                            foreignKey.getColumnName(),
-                            foreignKey.getTableName());
-                    changeLogs.add(change);
-                });
-
-        return changeLogs;
-    }
-
-    private Optional<ForeignKey> getForeignKeyByName(List<ForeignKey> targetForeignKeys, ForeignKey localForeignKey) {
-        return targetForeignKeys.stream().filter(foreignKey -> Objects.equals(localForeignKey.getName(), foreignKey.getName())).findFirst();
+        addedByName(locals, targetForeignKeys, ForeignKey::getName,
+                foreignKey -> changes.add(Change.ofNamed(ChangeType.FOREIGN_KEY_ADDED, foreignKey.getTableName(),
+                        foreignKey.getColumnName(), foreignKey.getName())));
     }
 
-    private Optional<Index> getIndexByName(List<Index> targetIndices, Index localIndex) {
-        return targetIndices.stream().filter(index -> Objects.equals(localIndex.getName(), index.getName())).findFirst();
+    private static void foreignKeyChanged(ForeignKey foreignKey, String property, Object localValue, Object targetValue,
+                                          List<Change> changes) {
+        if (!Objects.equals(localValue, targetValue)) {
+            changes.add(new Change(ChangeType.FOREIGN_KEY_CHANGED, foreignKey.getTableName(), foreignKey.getColumnName(),
+                    foreignKey.getName(), property, localValue, targetValue));
+        }
     }
 
-    private Optional<Column> getColumn(String columnName, Table targetTable) {
-        return targetTable.getColumns().stream().filter(targetColumn -> targetColumn.getName().equals(columnName)).findFirst();
+    /**
+     * Indexes {@code values} by name, keeping the first element when a name repeats.
+     */
+    private static <T> Map<String, T> byName(Collection<T> values, Function<T, String> name) {
+        if (values == null || values.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<String, T> byName = new HashMap<>(values.size() * 4 / 3 + 1);
+        for (T value : values) {
+            byName.putIfAbsent(name.apply(value), value);
+        }
+        return byName;
     }
 
-    private Optional<Table> getTable(String tableName, Database targetValue) {
-        return targetValue.getTables().stream().filter(targetTable -> targetTable.getName().equals(tableName)).findFirst();
+    /**
+     * Passes every target element whose name does not occur among the local elements to {@code added}, in target order.
+     */
+    private static <T> void addedByName(Collection<? extends T> locals, Collection<? extends T> targets, Function<T, String> name,
+                                        Consumer<T> added) {
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        Set<String> localNames = new HashSet<>(locals.size() * 4 / 3 + 1);
+        for (T local : locals) {
+            localNames.add(name.apply(local));
+        }
+        for (T target : targets) {
+            if (!localNames.contains(name.apply(target))) {
+                added.accept(target);
+            }
+        }
     }
 
-    private Optional<View> getView(String viewName, Database targetValue) {
-        return targetValue.getViews().stream().filter(targetView -> targetView.getName().equals(viewName)).findFirst();
+    private static <T> Collection<T> orEmpty(Collection<T> values) {
+        return values == null ? Collections.emptyList() : values;
     }
 }
@@ -0,0 +1,214 @@
+package com.adaptivescale.rosetta.diff;
+
+import com.adaptivescale.rosetta.common.models.*;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class DefaultTesterTest {
+
+    @Test
+    public void noChanges() {
+        Assertions.assertEquals(List.of(), new DefaultTester().find(database(table("actor", column("id", "int"))),
+                database(table("actor", column("id", "int")))));
+    }
+
+    @Test
+    public void tableChanges() {
+        Database local = database(table("actor", column("id", "int")), table("film", column("id", "int")));
+        Database target = database(table("actor", column("id", "int")), table("payment", column("id", "int")),
+                table("rental", column("id", "int")));
+
+        List<Change> changes = new DefaultTester().findChanges(local, target);
+
+        Assertions.assertEquals(List.of(
+                "Table 'film' exists in the model, but it does not exist in the target database.",
+                "Table 'payment' does not exist in the model, but it exists in the target database.",
+                "Table 'rental' does not exist in the model, but it exists in the target database."
+        ), new DefaultTester().find(local, target));
+        Assertions.assertEquals(List.of(ChangeType.TABLE_REMOVED, ChangeType.TABLE_ADDED, ChangeType.TABLE_ADDED), types(changes));
+        Assertions.assertEquals("film", changes.get(0).getTable());
+        Assertions.assertNull(changes.get(0).getColumn());
+    }
+
+    @Test
+    public void columnChanges() {
+        Column nullable = column("last_name", "varchar");
+        nullable.setNullable(true);
+        Database local = database(table("actor", column("id", "int"), column("first_name", "varchar"),
+                column("last_name", "varchar")));
+        Database target = database(table("actor", column("id", "bigint"), nullable, column("email", "varchar")));
+
+        List<Change> changes = new DefaultTester().findChanges(local, target);
+
+        Assertions.assertEquals(List.of(
+                "Table Changed: Table 'actor' columns changed in the target database.",
+                "Column Changed: Column 'id' in table 'actor' changed 'Type Name'. New value: 'int', old value: 'bigint'",
+                "Column 'first_name' in table 'actor' exists in the model, but it does not exist in the target database.",
+                "Column Changed: Column 'last_name' in table 'actor' changed 'Nullable'. New value: 'false', old value: 'true'",
+                "Column 'email' in table 'actor' does not exist in the model, but it exists in the target database."
+        ), new DefaultTester().find(local, target));
+        Assertions.assertEquals(List.of(ChangeType.TABLE_COLUMNS_CHANGED, ChangeType.COLUMN_CHANGED, ChangeType.COLUMN_REMOVED,
+                ChangeType.COLUMN_CHANGED, ChangeType.COLUMN_ADDED), types(changes));
+
+        Change typeName = changes.get(1);
+        Assertions.assertEquals("actor", typeName.getTable());
+        Assertions.assertEquals("id", typeName.getColumn());
+        Assertions.assertEquals("Type Name", typeName.getProperty());
+        Assertions.assertEquals("int", typeName.getLocalValue());
+        Assertions.assertEquals("bigint", typeName.getTargetValue());
+        Assertions.assertEquals(false, changes.get(3).getLocalValue());
+        Assertions.assertEquals("first_name", changes.get(2).getColumn());
+    }
+
+    @Test
+    public void columnPropertiesAreComparedForTablesOnly() {
+        Column withProperties = column("id", "int");
+        ColumnProperties properties = new ColumnProperties();
+        properties.setName("shard_key");
+        withProperties.setColumnProperties(List.of(properties));
+        Database local = database(table("actor", column("id", "int")));
+        local.setViews(List.of(view("actor_view", column("id", "int"))));
+        Database target = database(table("actor", withProperties));
+        target.setViews(List.of(view("actor_view", withProperties)));
+
+        List<Change> changes = new DefaultTester().findChanges(local, target);
+
+        Assertions.assertEquals(List.of(ChangeType.TABLE_COLUMNS_CHANGED, ChangeType.COLUMN_CHANGED), types(changes));
+        Assertions.assertEquals("Column Properties", changes.get(1).getProperty());
+    }
+
+    @Test
+    public void viewChanges() {
+        Database local = database(table("actor", column("id", "int")));
+        local.setViews(List.of(view("actor_info", column("id", "int"), column("name", "varchar")), view("old_view", column("id", "int"))));
+        Database target = database(table("actor", column("id", "int")));
+        target.setViews(List.of(view("actor_info", column("id", "bigint"), column("name", "varchar")), view("new_view", column("id", "int"))));
+
+        List<Change> changes = new DefaultTester().findChanges(local, target);
+
+        Assertions.assertEquals(List.of(
+                "View Changed: View 'actor_info' columns changed",
+                "Column Changed: Column 'id' in table 'actor_info' changed 'Type Name'. New value: 'int', old value: 'bigint'",
+                "View 'old_view' exists in the model, but it does not exist in the target database.",
+                "View 'new_view' does not exist in the model, but it exists in the target database."
+        ), new DefaultTester().find(local, target));
+        Assertions.assertEquals(List.of(ChangeType.VIEW_COLUMNS_CHANGED, ChangeType.COLUMN_CHANGED, ChangeType.VIEW_REMOVED,
+                ChangeType.VIEW_ADDED), types(changes));
+        Assertions.assertEquals("actor_info", changes.get(1).getTable());
+    }
+
+    @Test
+    public void foreignKeyChanges() {
+        Column local = column("actor_id", "int");
+        local.setForeignKeys(List.of(foreignKey("fk_actor", "actor", "CASCADE"), foreignKey("fk_removed", "actor", "CASCADE")));
+        Column target = column("actor_id", "int");
+        target.setForeignKeys(List.of(foreignKey("fk_actor", "person", "RESTRICT"), foreignKey("fk_added", "actor", "CASCADE")));
+
+        List<Change> changes = new DefaultTester().findChanges(database(table("film_actor", local)),
+                database(table("film_actor", target)));
+
+        Assertions.assertEquals(List.of(
+                "Table Changed: Table 'film_actor' columns changed in the target database.",
+                "Foreign Key Changed: FK 'fk_actor' on Column 'actor_id' in table 'film_actor' changed 'Delete Rule'. New value: 'CASCADE', old value: 'RESTRICT'",
+                "Foreign Key Changed: FK 'fk_actor' on Column 'actor_id' in table 'film_actor' changed 'Primary Key Table Name'. New value: 'actor', old value: 'person'",
+                "ForeignKey 'fk_removed' on Column 'actor_id' in table 'film_actor' exists in the model, but it does not exist in the target database.",
+                "ForeignKey 'fk_added' on Column 'actor_id' in table 'film_actor' does not exist in the model, but it exists in the target database."
+        ), messages(changes));
+        Assertions.assertEquals(List.of(ChangeType.TABLE_COLUMNS_CHANGED, ChangeType.FOREIGN_KEY_CHANGED, ChangeType.FOREIGN_KEY_CHANGED,
+                ChangeType.FOREIGN_KEY_REMOVED, ChangeType.FOREIGN_KEY_ADDED), types(changes));
+
+        Change deleteRule = changes.get(1);
+        Assertions.assertEquals("fk_actor", deleteRule.getName());
+        Assertions.assertEquals("actor_id", deleteRule.getColumn());
+        Assertions.assertEquals("film_actor", deleteRule.getTable());
+        Assertions.assertEquals("Delete Rule", deleteRule.getProperty());
+        Assertions.assertEquals("CASCADE", deleteRule.getLocalValue());
+        Assertions.assertEquals("RESTRICT", deleteRule.getTargetValue());
+        Assertions.assertEquals("fk_added", changes.get(4).getName());
+    }
+
+    @Test
+    public void indexAndInterleaveChanges() {
+        Table local = table("album", column("id", "int"));
+        local.setIndices(List.of(index("album", "ix_removed", true), index("album", "ix_changed", true)));
+        local.setInterleave(interleave("singer"));
+        Table target = table("album", column("id", "int"));
+        target.setIndices(List.of(index("album", "ix_changed", false), index("album", "ix_added", true)));
+
+        List<Change> changes = new DefaultTester().findChanges(database(local), database(target));
+
+        Assertions.assertEquals(List.of(
+                "Interleaved 'album' table exists in the model, but it does not exist in the target database.",
+                "Index 'ix_removed' exists in the model, but it does not exist in the target database.",
+                "Index Changed: Index 'ix_changed'",
+                "Index 'ix_added' does not exist in the model, but it exists in the target database."
+        ), messages(changes));
+        Assertions.assertEquals(List.of(ChangeType.INTERLEAVED_REMOVED, ChangeType.INDEX_REMOVED, ChangeType.INDEX_CHANGED,
+                ChangeType.INDEX_ADDED), types(changes));
+        Assertions.assertEquals("ix_changed", changes.get(2).getName());
+    }
+
+    private static List<ChangeType> types(List<Change> changes) {
+        return changes.stream().map(Change::getType).collect(Collectors.toList());
+    }
+
+    private static List<String> messages(List<Change> changes) {
+        return changes.stream().map(Change::getMessage).collect(Collectors.toList());
+    }
+
+    private static Database database(Table... tables) {
+        Database database = new Database();
+        database.setTables(List.of(tables));
+        return database;
+    }
+
+    private static Table table(String name, Column... columns) {
+        Table table = new Table();
+        table.setName(name);
+        table.setColumns(new ArrayList<>(List.of(columns)));
+        return table;
+    }
+
+    private static View view(String name, Column... columns) {
+        View view = new View();
+        view.setName(name);
+        view.setColumns(new ArrayList<>(List.of(columns)));
+        return view;
+    }
+
+    private static Column column(String name, String typeName) {
+        Column column = new Column();
+        column.setName(name);
+        column.setTypeName(typeName);
+        return column;
+    }
+
+    private static ForeignKey foreignKey(String name, String primaryTable, String deleteRule) {
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName(name);
+        foreignKey.setTableName("film_actor");
+        foreignKey.setColumnName("actor_id");
+        foreignKey.setPrimaryTableName(primaryTable);
+        foreignKey.setPrimaryColumnName("id");
+        foreignKey.setDeleteRule(deleteRule);
+        return foreignKey;
+    }
+
+    private static Index index(String table, String name, boolean nonUnique) {
+        Index index = new Index();
+        index.setTableName(table);
+        index.setName(name);
+        index.setNonUnique(nonUnique);
+        return index;
+    }
+
+    private static Interleave interleave(String parent) {
+        Interleave interleave = new Interleave();
+        interleave.setParentName(parent);
+        return interleave;
+    }
+}
@@ -8,12 +8,14 @@ public class QueryDataResponse {
     private Double responseTime;
     private String query;
     private List<Map<String, Object>> records;
+    private Long rowCount;
 
     public QueryDataResponse() {
         this.schema = null;
         this.responseTime = null;
         this.query = null;
         this.records = null;
+        this.rowCount = null;
     }
 
     public String getSchema() {
@@ -47,4 +49,12 @@ public class QueryDataResponse {
     public void setRecords(List<Map<String, Object>> records) {
         this.records = records;
     }
+
+    public Long getRowCount() {
+        return rowCount;
+    }
+
+    public void setRowCount(Long rowCount) {
+        this.rowCount = rowCount;
+    }
 }
@@ -1,9 +1,8 @@
 package queryhelper.service;
 
-import com.adaptivescale.rosetta.common.DriverManagerDriverProvider;
+import com.adaptivescale.rosetta.common.PooledDriverProvider;
 import com.adaptivescale.rosetta.common.JDBCUtils;
 import com.adaptivescale.rosetta.common.models.input.Connection;
-import com.adataptivescale.rosetta.source.common.QueryHelper;
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import dev.langchain4j.model.openai.OpenAiChatModel;
@@ -12,15 +11,15 @@ import net.sf.jsqlparser.statement.select.Select;
 import queryhelper.pojo.GenericResponse;
 import queryhelper.pojo.QueryDataResponse;
 import queryhelper.pojo.QueryRequest;
+import queryhelper.utils.ArrowUtils;
 import queryhelper.utils.ErrorUtils;
 import queryhelper.utils.FileUtils;
 import queryhelper.utils.PromptUtils;
 
-import java.io.BufferedReader;
-import java.io.FileReader;
 import java.io.IOException;
 import java.nio.file.Path;
 import java.sql.Driver;
+import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.text.SimpleDateFormat;
@@ -29,6 +28,9 @@ import java.util.*;
 
 public class AIService {
     private final static String AI_MODEL = "gpt-3.5-turbo";
+    // lines of the CSV file, header included, shown in the table preview
+    private final static int PREVIEW_ROWS = 15;
+    private final static int FETCH_SIZE = 1000;
 
     public static GenericResponse generateQuery(String userQueryRequest, String apiKey, String aiModel, String databaseDDL, Connection source, Integer showRowLimit, Path dataDirectory, Path outputFileName) {
 
@@ -37,6 +39,11 @@ public class AIService {
         QueryRequest queryRequest = new QueryRequest();
         queryRequest.setQuery(userQueryRequest);
 
+        if (outputFileName != null && outputFileName.toString().toLowerCase().endsWith(".parquet")) {
+            // writing Parquet takes the Hadoop libraries; Arrow files convert to Parquet in one call with pyarrow or duckdb
+            throw new RuntimeException("Parquet output is not supported, write the result to an .arrow file instead.");
+        }
+
         String query;
         query = generateAIOutput(apiKey, aiModel, queryRequest, source, databaseDDL);
 
@@ -47,42 +54,71 @@ public class AIService {
             errorResponse.setStatusCode(200);
         }
 
-        List<Map<String, Object>> records = executeQueryAndGetRecords(query, source, showRowLimit);
-        data.setRecords(records);
+        Path outputFile = outputFilePath(queryRequest.getQuery(), dataDirectory, outputFileName);
+        List<String[]> preview = new ArrayList<>(PREVIEW_ROWS);
+        long rowCount = executeQueryToFile(query, source, showRowLimit, outputFile, preview);
+        data.setRowCount(rowCount);
 
         response.setData(data);
         response.setStatusCode(200);
 
-
-        QueryDataResponse queryDataResponse = (QueryDataResponse) response.getData();
-        String csvFile = createCSVFile(queryDataResponse, queryRequest.getQuery(), dataDirectory, outputFileName);
-
-        String table = generateTablePreview(csvFile, 15);
+        String table = generateTablePreview(preview);
 
         response.setMessage(
                 query + "\n" +
-                        "Your response is saved to a CSV file named '" + csvFile + "'!" + "\n" +
+                        "Your response is saved to a " + (isArrowFile(outputFile) ? "Arrow" : "CSV") + " file named '" + outputFile + "'!" + "\n" +
                         "Table Output:" +"\n" +
                         table +
                         "..." + "\n" +
-                        "Total rows: " + data.getRecords().size()
+                        "Total rows: " + rowCount
         );
 
         return response;
     }
 
-    private static List<Map<String, Object>> executeQueryAndGetRecords(String query, Connection source, Integer showRowLimit) {
+    /**
+     * Streams the result of the query to {@code outputFile} in one pass, keeping the first lines for the preview.
+     * Files ending in .arrow or .feather are written in the Arrow IPC format, any other file as CSV.
+     *
+     * @return number of rows in the result
+     */
+    private static long executeQueryToFile(String query, Connection source, Integer showRowLimit, Path outputFile, List<String[]> preview) {
         try {
-            DriverManagerDriverProvider driverManagerDriverProvider = new DriverManagerDriverProvider();
-            Driver driver = driverManagerDriverProvider.getDriver(source);
+            Driver driver = PooledDriverProvider.getInstance().getDriver(source);
             Properties properties = JDBCUtils.setJDBCAuth(source);
-            java.sql.Connection jdbcConnection = driver.connect(source.getUrl(), properties);
-            Statement statement = jdbcConnection.createStatement();
-            statement.setMaxRows(showRowLimit);
-            List<Map<String, Object>> select = QueryHelper.select(statement, query);
-            return select;
+            try (java.sql.Connection jdbcConnection = driver.connect(source.getUrl(), properties)) {
+                // Postgres and others only fetch rows in batches from a cursor outside auto-commit
+                disableAutoCommit(jdbcConnection);
+                try (Statement statement = jdbcConnection.createStatement()) {
+                    statement.setMaxRows(showRowLimit);
+                    // MySQL Connector/J streams row by row only with this fetch size, otherwise it reads the whole result
+                    statement.setFetchSize("mysql".equalsIgnoreCase(source.getDbType()) ? Integer.MIN_VALUE : FETCH_SIZE);
+                    try (ResultSet resultSet = statement.executeQuery(query)) {
+                        if (isArrowFile(outputFile)) {
+                            return ArrowUtils.writeArrow(resultSet, outputFile, preview, PREVIEW_ROWS);
+                        }
+                        return FileUtils.writeCSV(resultSet, outputFile, preview, PREVIEW_ROWS);
+                    }
+                }
+            }
         } catch (SQLException e) {
             throw new RuntimeException(e);
+        } catch (IOException e) {
+            GenericResponse genericResponse = isArrowFile(outputFile) ? ErrorUtils.arrowFileError(e) : ErrorUtils.csvFileError(e);
+            throw new RuntimeException(genericResponse.getMessage());
+        }
+    }
+
+    private static boolean isArrowFile(Path file) {
+        String fileName = file.getFileName().toString().toLowerCase();
+        return fileName.endsWith(".arrow") || fileName.endsWith(".feather");
+    }
+
+    private static void disableAutoCommit(java.sql.Connection jdbcConnection) {
+        try {
+            jdbcConnection.setAutoCommit(false);
+        } catch (SQLException e) {
+            // drivers without transactions fetch the way they always do
         }
     }
 
@@ -99,25 +135,13 @@ public class AIService {
         return isSelectStatement;
     }
 
-    private static String createCSVFile(QueryDataResponse queryDataResponse, String csvFileName, Path dataDirectory, Path outputFileName) {
-        try {
-            if (outputFileName == null) {
-                String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-                String fileName = csvFileName.replaceAll("\\s+", "_") + "_" + timestamp + ".csv";
-                Path csvFilePath = dataDirectory.resolve(fileName);
-                FileUtils.convertToCSV(csvFilePath.toString(), queryDataResponse.getRecords());
-
-                return csvFilePath.toString();
-            }
-
-            Path csvFilePath = dataDirectory.resolve(outputFileName.toString());
-            FileUtils.convertToCSV(csvFilePath.toString(), queryDataResponse.getRecords());
-            return csvFilePath.toString();
-
-        } catch (Exception e) {
-            GenericResponse genericResponse = ErrorUtils.csvFileError(e);
-            throw new RuntimeException(genericResponse.getMessage());
+    private static Path outputFilePath(String csvFileName, Path dataDirectory, Path outputFileName) {
+        if (outputFileName == null) {
+            String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
+            String fileName = csvFileName.replaceAll("\\s+", "_") + "_" + timestamp + ".csv";
+            return dataDirectory.resolve(fileName);
         }
+        return dataDirectory.resolve(outputFileName.toString());
     }
 
     public static String generateAIOutput(String apiKey, String aiModel, QueryRequest queryRequest, Connection source, String databaseDDL) {
@@ -151,20 +175,7 @@ public class AIService {
 
         return query;
     }
-    private static String generateTablePreview(String csvFile, int rowLimit) {
-        List<String[]> rows = new ArrayList<>();
-        try (BufferedReader reader = new BufferedReader(new FileReader(csvFile))) {
-            String line;
-            int rowCount = 0;
-            while ((line = reader.readLine()) != null && rowCount < rowLimit) {
-                String[] columns = line.split(",");
-                rows.add(columns);
-                rowCount++;
-            }
-        } catch (IOException e) {
-            throw new RuntimeException("Error reading CSV file", e);
-        }
-
+    private static String generateTablePreview(List<String[]> rows) {
         if (rows.isEmpty()) {
             return "No data available to display.";
         }
@@ -0,0 +1,142 @@
+package queryhelper.utils;
+
+import org.apache.arrow.adapter.jdbc.ArrowVectorIterator;
+import org.apache.arrow.adapter.jdbc.JdbcFieldInfo;
+import org.apache.arrow.adapter.jdbc.JdbcToArrow;
+import org.apache.arrow.adapter.jdbc.JdbcToArrowConfig;
+import org.apache.arrow.adapter.jdbc.JdbcToArrowConfigBuilder;
+import org.apache.arrow.adapter.jdbc.JdbcToArrowUtils;
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.FieldVector;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileWriter;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+
+import java.io.IOException;
+import java.math.RoundingMode;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.sql.JDBCType;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.List;
+
+public class ArrowUtils {
+
+    // rows held in the column vectors before they are written as one record batch
+    private static final int BATCH_SIZE = 8192;
+    // widest decimal a 128 bit Arrow decimal holds
+    private static final int MAX_DECIMAL_PRECISION = 38;
+
+    /**
+     * Writes the rows of {@code resultSet} to an Arrow IPC file (Feather v2) in record batches, with column types taken
+     * from the result set metadata, so decimals and timestamps keep their precision. Only one batch is held in memory
+     * at a time. The header and the first rows, {@code previewRows} lines in total, are added to {@code preview}.
+     * <p>
+     * Decimal values are never rounded: one with fewer fractional digits than its column declares is padded with
+     * zeros, one that only fits with digits dropped fails the write. Decimal columns without a usable precision
+     * (NUMERIC without arguments, Oracle NUMBER, or wider than an Arrow decimal) are written as text, so no digits are
+     * lost to a guessed scale.
+     *
+     * @return number of rows written
+     * @throws SQLException also when a decimal value does not fit the precision and scale of its column
+     */
+    public static long writeArrow(ResultSet resultSet, Path fileName, List<String[]> preview, int previewRows)
+            throws SQLException, IOException {
+        long rows = 0;
+        try (BufferAllocator allocator = new RootAllocator()) {
+            Calendar calendar = JdbcToArrowUtils.getUtcCalendar();
+            JdbcToArrowConfig config = new JdbcToArrowConfigBuilder(allocator, calendar)
+                    .setTargetBatchSize(BATCH_SIZE)
+                    .setReuseVectorSchemaRoot(true)
+                    .setBigDecimalRoundingMode(RoundingMode.UNNECESSARY)
+                    .setJdbcToArrowTypeConverter(field -> isUnconstrainedDecimal(field)
+                            ? new ArrowType.Utf8()
+                            : JdbcToArrowUtils.getArrowTypeFromJdbcType(field, calendar))
+                    .build();
+
+            try (ArrowVectorIterator batches = JdbcToArrow.sqlToArrowVectorIterator(resultSet, config);
+                 FileChannel channel = FileChannel.open(fileName, StandardOpenOption.CREATE,
+                         StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                // the iterator fills the same root for every batch, so the writer is bound to it once; an empty result
+                // still comes as one batch without rows, which keeps the schema in the file
+                VectorSchemaRoot root = nextBatch(batches, resultSet);
+                try (ArrowFileWriter writer = new ArrowFileWriter(root, null, channel)) {
+                    writer.start();
+                    while (true) {
+                        writer.writeBatch();
+                        addPreview(root, preview, previewRows);
+                        rows += root.getRowCount();
+                        if (!batches.hasNext()) {
+                            break;
+                        }
+                        nextBatch(batches, resultSet);
+                    }
+                    writer.end();
+                } finally {
+                    root.close();
+                }
+            }
+        }
+        return rows;
+    }
+
+    private static VectorSchemaRoot nextBatch(ArrowVectorIterator batches, ResultSet resultSet) throws SQLException {
+        try {
+            return batches.next();
+        } catch (RuntimeException e) {
+            // thrown by BigDecimal.setScale for dropped fractional digits, by the decimal vector for too many digits
+            for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+                if (cause instanceof ArithmeticException || (cause instanceof UnsupportedOperationException
+                        && String.valueOf(cause.getMessage()).startsWith("BigDecimal"))) {
+                    throw new SQLException("A decimal value does not fit the precision and scale of its column ("
+                            + decimalColumns(resultSet.getMetaData()) + "), cast the column to a wider type in the query",
+                            e);
+                }
+            }
+            throw e;
+        }
+    }
+
+    private static String decimalColumns(ResultSetMetaData metaData) throws SQLException {
+        List<String> columns = new ArrayList<>();
+        for (int i = 1; i <= metaData.getColumnCount(); i++) {
+            int type = metaData.getColumnType(i);
+            if (type == Types.DECIMAL || type == Types.NUMERIC) {
+                columns.add(String.format("%s %s(%d,%d)", metaData.getColumnLabel(i), JDBCType.valueOf(type).getName(),
+                        metaData.getPrecision(i), metaData.getScale(i)));
+            }
+        }
+        return String.join(", ", columns);
+    }
+
+    private static boolean isUnconstrainedDecimal(JdbcFieldInfo field) {
+        return (field.getJdbcType() == Types.DECIMAL || field.getJdbcType() == Types.NUMERIC)
+                && (field.getPrecision() <= 0 || field.getPrecision() > MAX_DECIMAL_PRECISION || field.getScale() < 0);
+    }
+
+    private static void addPreview(VectorSchemaRoot root, List<String[]> preview, int previewRows) {
+        List<FieldVector> vectors = root.getFieldVectors();
+        if (preview.isEmpty() && previewRows > 0) {
+            String[] header = new String[vectors.size()];
+            for (int c = 0; c < vectors.size(); c++) {
+                header[c] = vectors.get(c).getName();
+            }
+            preview.add(header);
+        }
+        for (int r = 0; r < root.getRowCount() && preview.size() < previewRows; r++) {
+            String[] row = new String[vectors.size()];
+            for (int c = 0; c < vectors.size(); c++) {
+                Object value = vectors.get(c).getObject(r);
+                row[c] = value == null ? "" : value.toString();
+            }
+            preview.add(row);
+        }
+    }
+}
@@ -17,6 +17,10 @@ public class ErrorUtils {
         return genericErrorResponse(e, "There was an error while creating the csv file!");
     }
 
+    public static GenericResponse arrowFileError(Exception e) {
+        return genericErrorResponse(e, "There was an error while creating the arrow file!");
+    }
+
     public static GenericResponse openAIError(Exception e) {
         if (e.getCause() instanceof OpenAiHttpException) { // When API key is wrong (currently the only supported exception by langchain)
             Gson gson = new Gson();
@@ -1,11 +1,15 @@
 package queryhelper.utils;
 
+import com.adataptivescale.rosetta.source.common.RecordMapper;
+
 import java.io.*;
 import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.SQLException;
 import java.util.*;
 import java.util.stream.Collectors;
-import java.io.FileWriter;
-import java.io.IOException;
 
 public class FileUtils {
 
@@ -20,25 +24,63 @@ public class FileUtils {
         }
     }
 
-    public static void convertToCSV(String fileName, List<Map<String, Object>> list) {
-        try (FileWriter csvWriter = new FileWriter(fileName)) {
-            if (!list.isEmpty()) {
-                Set<String> headers = list.get(0).keySet();
-                StringBuilder csvContent = new StringBuilder();
-                csvContent.append(String.join(",", headers)).append("\n");
-
-                for (Map<String, Object> map : list) {
-                    for (String header : headers) {
-                        csvContent.append(map.getOrDefault(header, "")).append(",");
-                    }
-                    csvContent.setLength(csvContent.length() - 1);
-                    csvContent.append("\n");
+    /**
+     * Writes the rows of {@code resultSet} to a CSV file as they are read, so memory use does not grow with the
+     * number of rows. The header and the first rows, {@code previewRows} lines in total, are added to {@code preview}
+     * as they are written.
+     *
+     * @return number of rows written, without the header
+     */
+    public static long writeCSV(ResultSet resultSet, Path fileName, List<String[]> preview, int previewRows)
+            throws SQLException, IOException {
+        RecordMapper mapper = RecordMapper.usingColumnLabels(resultSet.getMetaData());
+        String[] header = mapper.keys();
+        long rows = 0;
+
+        try (BufferedWriter csvWriter = Files.newBufferedWriter(fileName, StandardCharsets.UTF_8)) {
+            writeCSVLine(csvWriter, header);
+            if (preview.size() < previewRows) {
+                preview.add(header);
+            }
+
+            while (resultSet.next()) {
+                Object[] values = mapper.values(resultSet);
+                String[] row = new String[values.length];
+                for (int c = 0; c < values.length; c++) {
+                    row[c] = values[c] == null ? "" : values[c].toString();
                 }
-                csvWriter.write(csvContent.toString());
+                writeCSVLine(csvWriter, row);
+                if (preview.size() < previewRows) {
+                    preview.add(row);
+                }
+                rows++;
+            }
+        }
+        return rows;
+    }
+
+    private static void writeCSVLine(Writer csvWriter, String[] fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                csvWriter.write(',');
+            }
+            csvWriter.write(escapeCSV(fields[i]));
+        }
+        csvWriter.write('\n');
+    }
+
+    /**
+     * Quotes a CSV field as RFC 4180 requires: fields holding a comma, a quote or a line break are enclosed in quotes,
+     * with the quotes inside doubled.
+     */
+    public static String escapeCSV(String field) {
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + field.replace("\"", "\"\"") + '"';
             }
-        } catch (IOException e) {
-            e.printStackTrace();
         }
+        return field;
     }
 
 }
@@ -0,0 +1,183 @@
+package com.adaptivescale;
+
+import org.apache.arrow.memory.BufferAllocator;
+import org.apache.arrow.memory.RootAllocator;
+import org.apache.arrow.vector.VectorSchemaRoot;
+import org.apache.arrow.vector.ipc.ArrowFileReader;
+import org.apache.arrow.vector.types.pojo.ArrowType;
+import org.junit.jupiter.api.Test;
+import queryhelper.utils.ArrowUtils;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ArrowUtilsTest {
+
+    @Test
+    void testWriteArrowDecimals() throws Exception {
+        // AMOUNT is NUMERIC(10,2) holding a value with one fractional digit, TOTAL is a NUMERIC without precision
+        Object[][] rows = {
+                {1, new BigDecimal("1.25"), new BigDecimal("12345678901234567890.123456789")},
+                {2, null, null},
+                {3, new BigDecimal("2.5"), new BigDecimal("-0.000000000000000000000000000000000000000001")}
+        };
+        Path file = Files.createTempFile("query", ".arrow");
+        List<String[]> preview = new ArrayList<>();
+
+        long count = ArrowUtils.writeArrow(resultSet(new String[]{"ID", "AMOUNT", "TOTAL"},
+                new int[]{Types.INTEGER, Types.NUMERIC, Types.NUMERIC}, new int[]{10, 10, 0}, new int[]{0, 2, 0}, rows),
+                file, preview, 4);
+
+        assertEquals(3L, count);
+        assertEquals(4, preview.size());
+        assertArrayEquals(new String[]{"ID", "AMOUNT", "TOTAL"}, preview.get(0));
+        assertArrayEquals(new String[]{"1", "1.25", "12345678901234567890.123456789"}, preview.get(1));
+        assertArrayEquals(new String[]{"2", "", ""}, preview.get(2));
+        assertArrayEquals(new String[]{"3", "2.50", "-1E-42"}, preview.get(3));
+
+        try (BufferAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(file);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertEquals(new ArrowType.Decimal(10, 2, 128), root.getSchema().findField("AMOUNT").getType());
+            assertEquals(new ArrowType.Utf8(), root.getSchema().findField("TOTAL").getType());
+            assertTrue(reader.loadNextBatch());
+            assertEquals(new BigDecimal("1.25"), root.getVector("AMOUNT").getObject(0));
+            assertEquals(new BigDecimal("2.50"), root.getVector("AMOUNT").getObject(2));
+            assertEquals("12345678901234567890.123456789", root.getVector("TOTAL").getObject(0).toString());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    void testWriteArrowDecimalsAreNotRounded() throws Exception {
+        Path file = Files.createTempFile("query", ".arrow");
+        Object[][] fractional = {{1, new BigDecimal("1.25")}, {2, new BigDecimal("1.005")}};
+        Object[][] integral = {{1, new BigDecimal("123456789.5")}};
+
+        for (Object[][] rows : new Object[][][]{fractional, integral}) {
+            SQLException thrown = assertThrows(SQLException.class, () -> ArrowUtils.writeArrow(resultSet(
+                    new String[]{"ID", "AMOUNT"}, new int[]{Types.INTEGER, Types.NUMERIC}, new int[]{10, 10},
+                    new int[]{0, 2}, rows), file, new ArrayList<>(), 4));
+
+            assertTrue(thrown.getMessage().contains("(AMOUNT NUMERIC(10,2))"), thrown.getMessage());
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    void testWriteArrowBatches() throws Exception {
+        Object[][] rows = new Object[20000][];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new Object[]{i};
+        }
+        Path file = Files.createTempFile("query", ".arrow");
+        List<String[]> preview = new ArrayList<>();
+
+        long count = ArrowUtils.writeArrow(resultSet(new String[]{"ID"}, new int[]{Types.INTEGER}, new int[]{10},
+                new int[]{0}, rows), file, preview, 3);
+
+        assertEquals(20000L, count);
+        assertEquals(3, preview.size());
+        assertArrayEquals(new String[]{"1"}, preview.get(2));
+
+        long read = 0;
+        int batches = 0;
+        try (BufferAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(file);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+            while (reader.loadNextBatch()) {
+                VectorSchemaRoot root = reader.getVectorSchemaRoot();
+                assertEquals(Integer.valueOf((int) read), root.getVector("ID").getObject(0));
+                read += root.getRowCount();
+                batches++;
+            }
+        }
+        assertEquals(20000L, read);
+        assertEquals(3, batches);
+        Files.delete(file);
+    }
+
+    @Test
+    void testWriteArrowEmpty() throws Exception {
+        Path file = Files.createTempFile("query", ".arrow");
+        List<String[]> preview = new ArrayList<>();
+
+        long count = ArrowUtils.writeArrow(resultSet(new String[]{"ID"}, new int[]{Types.INTEGER}, new int[]{10},
+                new int[]{0}, new Object[0][]), file, preview, 3);
+
+        assertEquals(0L, count);
+        assertEquals(1, preview.size());
+        long read = 0;
+        try (BufferAllocator allocator = new RootAllocator();
+             FileChannel channel = FileChannel.open(file);
+             ArrowFileReader reader = new ArrowFileReader(channel, allocator)) {
+            VectorSchemaRoot root = reader.getVectorSchemaRoot();
+            assertEquals(new ArrowType.Int(32, true), root.getSchema().findField("ID").getType());
+            while (reader.loadNextBatch()) {
+                read += root.getRowCount();
+            }
+        }
+        assertEquals(0L, read);
+        Files.delete(file);
+    }
+
+    private static ResultSet resultSet(String[] labels, int[] types, int[] precisions, int[] scales, Object[][] rows) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(ArrowUtilsTest.class.getClassLoader(),
+                new Class[]{ResultSetMetaData.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return labels.length;
+                        case "getColumnLabel":
+                        case "getColumnName":
+                            return labels[(int) args[0] - 1];
+                        case "getColumnType":
+                            return types[(int) args[0] - 1];
+                        case "getPrecision":
+                            return precisions[(int) args[0] - 1];
+                        case "getScale":
+                            return scales[(int) args[0] - 1];
+                        case "isNullable":
+                            return ResultSetMetaData.columnNullable;
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        int[] position = {-1};
+        Object[] last = {null};
+        return (ResultSet) Proxy.newProxyInstance(ArrowUtilsTest.class.getClassLoader(),
+                new Class[]{ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMetaData":
+                            return metaData;
+                        case "next":
+                            return ++position[0] < rows.length;
+                        case "wasNull":
+                            return last[0] == null;
+                        case "getObject":
+                        case "getBigDecimal":
+                            last[0] = rows[position[0]][(int) args[0] - 1];
+                            return last[0];
+                        case "getInt":
+                            last[0] = rows[position[0]][(int) args[0] - 1];
+                            return last[0] == null ? 0 : last[0];
+                        case "getString":
+                            last[0] = rows[position[0]][(int) args[0] - 1];
+                            return last[0] == null ? null : last[0].toString();
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
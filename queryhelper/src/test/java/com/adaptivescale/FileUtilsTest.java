@@ -0,0 +1,82 @@
+package com.adaptivescale;
+
+import org.junit.jupiter.api.Test;
+import queryhelper.utils.FileUtils;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class FileUtilsTest {
+
+    @Test
+    void testEscapeCSV() {
+        assertEquals("plain", FileUtils.escapeCSV("plain"));
+        assertEquals("\"a,b\"", FileUtils.escapeCSV("a,b"));
+        assertEquals("\"say \"\"hi\"\"\"", FileUtils.escapeCSV("say \"hi\""));
+        assertEquals("\"two\nlines\"", FileUtils.escapeCSV("two\nlines"));
+    }
+
+    @Test
+    void testWriteCSV() throws Exception {
+        // 2020-12-31 is in the first week of 2021, which a week-based year pattern would print as 2021-12-31
+        Object[][] rows = {
+                {1, "first, with comma", Date.valueOf("2020-12-31")},
+                {2, null, null},
+                {3, "third", Date.valueOf("2021-01-01")}
+        };
+        Path file = Files.createTempFile("query", ".csv");
+        List<String[]> preview = new ArrayList<>();
+
+        long count = FileUtils.writeCSV(resultSet(new String[]{"ID", "Name", "Created"},
+                new String[]{"INTEGER", "VARCHAR", "DATE"}, rows), file, preview, 3);
+
+        assertEquals(3L, count);
+        assertEquals("id,name,created\n" +
+                "1,\"first, with comma\",2020-12-31\n" +
+                "2,,\n" +
+                "3,third,2021-01-01\n", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertEquals(3, preview.size());
+        assertArrayEquals(new String[]{"id", "name", "created"}, preview.get(0));
+        assertArrayEquals(new String[]{"2", "", ""}, preview.get(2));
+        Files.delete(file);
+    }
+
+    private static ResultSet resultSet(String[] labels, String[] types, Object[][] rows) {
+        ResultSetMetaData metaData = (ResultSetMetaData) Proxy.newProxyInstance(FileUtilsTest.class.getClassLoader(),
+                new Class[]{ResultSetMetaData.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getColumnCount":
+                            return labels.length;
+                        case "getColumnLabel":
+                            return labels[(int) args[0] - 1];
+                        case "getColumnTypeName":
+                            return types[(int) args[0] - 1];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        int[] position = {-1};
+        return (ResultSet) Proxy.newProxyInstance(FileUtilsTest.class.getClassLoader(),
+                new Class[]{ResultSet.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "getMetaData":
+                            return metaData;
+                        case "next":
+                            return ++position[0] < rows.length;
+                        case "getObject":
+                            return rows[position[0]][(int) args[0] - 1];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+}
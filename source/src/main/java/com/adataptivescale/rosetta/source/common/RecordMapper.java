@@ -0,0 +1,111 @@
+package com.adataptivescale.rosetta.source.common;
+
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Maps the rows of a result set to records. The keys and the way each column is read are decided once from the
+ * {@link ResultSetMetaData}, instead of for every cell. Mappers are immutable and can be shared between threads.
+ */
+public final class RecordMapper {
+
+    private static final PropertyNamingStrategies.NamingBase KEY_NAMING = new PropertyNamingStrategies.LowerCaseStrategy();
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd");
+
+    private final String[] keys;
+    private final ColumnReader[] readers;
+
+    private RecordMapper(String[] keys, ColumnReader[] readers) {
+        this.keys = keys;
+        this.readers = readers;
+    }
+
+    /**
+     * Keys records by the lower-cased column names.
+     */
+    public static RecordMapper usingColumnNames(ResultSetMetaData metaData) throws SQLException {
+        return compile(metaData, false);
+    }
+
+    /**
+     * Keys records by the lower-cased column labels, which differ from the names for aliased columns.
+     */
+    public static RecordMapper usingColumnLabels(ResultSetMetaData metaData) throws SQLException {
+        return compile(metaData, true);
+    }
+
+    private static RecordMapper compile(ResultSetMetaData metaData, boolean labels) throws SQLException {
+        int columnCount = metaData.getColumnCount();
+        String[] keys = new String[columnCount];
+        ColumnReader[] readers = new ColumnReader[columnCount];
+        for (int c = 1; c <= columnCount; c++) {
+            keys[c - 1] = KEY_NAMING.translate(labels ? metaData.getColumnLabel(c) : metaData.getColumnName(c));
+            readers[c - 1] = "DATE".equals(metaData.getColumnTypeName(c)) ? RecordMapper::readDate : ResultSet::getObject;
+        }
+        return new RecordMapper(keys, readers);
+    }
+
+    /**
+     * @return the keys of the records, in column order
+     */
+    public String[] keys() {
+        return keys.clone();
+    }
+
+    /**
+     * @return the current row of {@code resultSet} keyed by column
+     */
+    public Map<String, Object> map(ResultSet resultSet) throws SQLException {
+        Map<String, Object> record = new HashMap<>((int) (keys.length / 0.75f) + 1);
+        for (int c = 0; c < readers.length; c++) {
+            record.put(keys[c], readers[c].read(resultSet, c + 1));
+        }
+        return record;
+    }
+
+    /**
+     * @return the values of the current row of {@code resultSet}, in column order
+     */
+    public Object[] values(ResultSet resultSet) throws SQLException {
+        Object[] values = new Object[readers.length];
+        for (int c = 0; c < readers.length; c++) {
+            values[c] = readers[c].read(resultSet, c + 1);
+        }
+        return values;
+    }
+
+    // DATE columns are formatted as yyyy-MM-dd in the default time zone, whatever the driver returns for them
+    private static Object readDate(ResultSet resultSet, int column) throws SQLException {
+        Object value = resultSet.getObject(column);
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof java.sql.Date) {
+            return ((java.sql.Date) value).toLocalDate().format(DATE_FORMAT);
+        }
+        if (value instanceof LocalDate) {
+            return ((LocalDate) value).format(DATE_FORMAT);
+        }
+        if (value instanceof java.util.Date) {
+            return DATE_FORMAT.format(((java.util.Date) value).toInstant().atZone(ZoneId.systemDefault()));
+        }
+        if (value instanceof Number) {
+            return DATE_FORMAT.format(Instant.ofEpochMilli(((Number) value).longValue()).atZone(ZoneId.systemDefault()));
+        }
+        return value.toString();
+    }
+
+    @FunctionalInterface
+    private interface ColumnReader {
+        Object read(ResultSet resultSet, int column) throws SQLException;
+    }
+}
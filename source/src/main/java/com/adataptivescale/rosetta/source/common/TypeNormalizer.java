@@ -0,0 +1,58 @@
+package com.adataptivescale.rosetta.source.common;
+
+import com.adaptivescale.rosetta.common.TranslationMatrix;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Normalizes the type names read by the column extractors through the {@link TranslationMatrix}, remembering the
+ * result for each (database type, raw type name). A catalog holds a few dozen distinct type names, so each is looked
+ * up once instead of once per column. The cache is bounded; past the bound new type names are looked up every time.
+ */
+public class TypeNormalizer {
+
+    private static final int MAX_SIZE = 1024;
+    private static final TypeNormalizer INSTANCE = new TypeNormalizer();
+
+    private final Map<List<String>, String> normalized = new ConcurrentHashMap<>();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public static TypeNormalizer getInstance() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return the type name {@code rawTypeName} of {@code dbType} translates to within the same database type, or
+     * {@code rawTypeName} when the translation matrix has no entry for it
+     */
+    public String normalize(String dbType, String rawTypeName) {
+        if (rawTypeName == null) {
+            return TranslationMatrix.getInstance().findBySourceTypeAndSourceColumnType(dbType, null);
+        }
+        List<String> key = Arrays.asList(dbType, rawTypeName);
+        String typeName = normalized.get(key);
+        if (typeName != null) {
+            hits.increment();
+            return typeName;
+        }
+        misses.increment();
+        typeName = TranslationMatrix.getInstance().findBySourceTypeAndSourceColumnType(dbType, rawTypeName);
+        if (normalized.size() < MAX_SIZE) {
+            normalized.put(key, typeName);
+        }
+        return typeName;
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+}
@@ -6,56 +6,131 @@ import com.adaptivescale.rosetta.common.models.Database;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.models.View;
 import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adataptivescale.rosetta.source.common.TypeNormalizer;
+import com.adataptivescale.rosetta.source.core.interfaces.ChangeMarkerExtractor;
 import com.adataptivescale.rosetta.source.core.interfaces.ColumnExtractor;
+import com.adataptivescale.rosetta.source.core.interfaces.ConnectionFactory;
 import com.adataptivescale.rosetta.source.core.interfaces.Generator;
 import com.adataptivescale.rosetta.source.core.interfaces.TableExtractor;
 import com.adataptivescale.rosetta.source.core.interfaces.ViewExtractor;
 
+import lombok.extern.slf4j.Slf4j;
+
 import java.sql.*;
 import java.util.*;
 
+@Slf4j
 public class DefaultGenerator implements Generator<Database, Connection> {
     private final TableExtractor tableExtractor;
     private final ViewExtractor viewExtractor;
     private final ColumnExtractor columnsExtractor;
+    private final ChangeMarkerExtractor changeMarkerExtractor;
     private final JDBCDriverProvider driverProvider;
 
-    DefaultGenerator(TableExtractor tableExtractor, ViewExtractor viewExtractor,
-                     ColumnExtractor columnsExtractor, JDBCDriverProvider driverProvider) {
+    DefaultGenerator(TableExtractor tableExtractor, ViewExtractor viewExtractor, ColumnExtractor columnsExtractor,
+                     ChangeMarkerExtractor changeMarkerExtractor, JDBCDriverProvider driverProvider) {
         this.tableExtractor = tableExtractor;
         this.viewExtractor = viewExtractor;
         this.columnsExtractor = columnsExtractor;
+        this.changeMarkerExtractor = changeMarkerExtractor;
         this.driverProvider = driverProvider;
     }
 
     @Override
     public Database generate(Connection connection) throws Exception {
+        return extract(connection, Collections.emptyMap());
+    }
+
+    /**
+     * Extracts columns only for the tables whose change marker differs from the one in {@code previous}, or that are
+     * not in it, and takes the other tables from {@code previous} as they are. Views are always extracted. Without
+     * change markers for the database the whole model is extracted.
+     */
+    @Override
+    public Database generate(Connection connection, Database previous) throws Exception {
+        Map<List<String>, Table> previousTables = new HashMap<>();
+        if (previous != null && previous.getTables() != null) {
+            for (Table table : previous.getTables()) {
+                previousTables.put(Arrays.asList(table.getSchema(), table.getName()), table);
+            }
+        }
+        return extract(connection, previousTables);
+    }
+
+    private Database extract(Connection connection, Map<List<String>, Table> previousTables) throws Exception {
         Driver driver = driverProvider.getDriver(connection);
         Properties properties = JDBCUtils.setJDBCAuth(connection);
-        java.sql.Connection connect = driver.connect(connection.getUrl(), properties);
+        try (java.sql.Connection connect = driver.connect(connection.getUrl(), properties)) {
+            // extractors open further connections through the same driver provider as this one
+            ConnectionFactory connectionFactory = () -> driver.connect(connection.getUrl(), properties);
+            ColumnExtractor columnExtractor = columnExtractorFor(connection, connectionFactory);
 
-        Collection<Table> tables = (Collection<Table>) tableExtractor.extract(connection, connect);
-        columnsExtractor.extract(connect, tables);
+            Collection<Table> extracted = (Collection<Table>) tableExtractor.extract(connection, connect, connectionFactory);
+            // markers are recorded on every extraction so that the next one can be incremental
+            Map<List<String>, String> markers = changeMarkersOf(extracted, connect);
 
-        Collection<View> views = (Collection<View>) viewExtractor.extract(connection, connect);
-        columnsExtractor.extract(connect, views);
+            List<Table> tables = new ArrayList<>(extracted.size());
+            List<Table> changed = new ArrayList<>();
+            for (Table table : extracted) {
+                List<String> key = Arrays.asList(table.getSchema(), table.getName());
+                String marker = markers.get(key);
+                Table previousTable = previousTables.get(key);
+                if (marker != null && previousTable != null && marker.equals(previousTable.getChangeMarker())) {
+                    tables.add(previousTable);
+                    continue;
+                }
+                table.setChangeMarker(marker);
+                changed.add(table);
+                tables.add(table);
+            }
+            columnExtractor.extract(connect, changed);
+            if (!previousTables.isEmpty()) {
+                log.info("Incremental extraction: {} unchanged tables reused, {} tables extracted.",
+                        tables.size() - changed.size(), changed.size());
+            }
+
+            Collection<View> views = (Collection<View>) viewExtractor.extract(connection, connect, connectionFactory);
+            columnExtractor.extract(connect, views);
+
+            TypeNormalizer typeNormalizer = TypeNormalizer.getInstance();
+            log.debug("Type names normalized: {} cache hits, {} misses.", typeNormalizer.getHits(), typeNormalizer.getMisses());
+
+            Database database = new Database();
+            database.setName(connect.getMetaData().getDatabaseProductName());
+            database.setTables(tables);
+            database.setViews(views);
+            database.setDatabaseType(connection.getDbType());
+            return database;
+        }
+    }
+
+    private Map<List<String>, String> changeMarkersOf(Collection<Table> tables, java.sql.Connection connect) {
+        try {
+            Map<List<String>, String> markers = (Map<List<String>, String>) changeMarkerExtractor.extract(tables, connect);
+            return markers;
+        } catch (Exception e) {
+            // the catalog views behind markers can need privileges extraction does not, so fall back to a full extraction
+            log.warn("Can not read change markers, tables will be extracted in full: {}", e.getMessage());
+            return Collections.emptyMap();
+        }
+    }
 
-        Database database = new Database();
-        database.setName(connect.getMetaData().getDatabaseProductName());
-        database.setTables(tables);
-        database.setViews(views);
-        database.setDatabaseType(connection.getDbType());
-        connect.close();
-        return database;
+    private ColumnExtractor columnExtractorFor(Connection connection, ConnectionFactory connectionFactory) {
+        if (connection.getExtractionConnections() <= 1) {
+            return columnsExtractor;
+        }
+        return new PartitionedColumnExtractor(columnsExtractor, connection.getExtractionConnections(),
+                connection.isBulkExtraction(), connectionFactory);
     }
 
     @Override
     public Database validate(Connection connection) throws Exception {
         Driver driver = driverProvider.getDriver(connection);
         Properties properties = JDBCUtils.setJDBCAuth(connection);
-        java.sql.Connection connect = driver.connect(connection.getUrl(), properties);
-        Database database = new Database();
-        database.setName(connect.getMetaData().getDatabaseProductName());
-        return database;
+        try (java.sql.Connection connect = driver.connect(connection.getUrl(), properties)) {
+            Database database = new Database();
+            database.setName(connect.getMetaData().getDatabaseProductName());
+            return database;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,299 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.View;
+import lombok.extern.slf4j.Slf4j;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Reads tables, columns and views straight from the DuckLake metadata tables of an attached lake, with one query per
+ * kind of object instead of a metadata lookup per table. Only the rows of the current snapshot are read, those
+ * with no {@code end_snapshot}.
+ * <p>
+ * Given the tables of a model read at an earlier snapshot, only the tables with a table or column row that began or
+ * ended after that snapshot are read again, so the work follows the change set rather than the size of the lake.
+ */
+@Slf4j
+class DuckLakeCatalogReader {
+
+    private static final Pattern DECIMAL = Pattern.compile("decimal\\((\\d+)\\s*,\\s*(\\d+)\\)");
+
+    // DuckLake type names and the names DuckDB reports for them
+    private static final Map<String, String> DUCKDB_TYPES = new HashMap<>();
+    // precision DuckDB reports for numeric types, in bits for binary types
+    private static final Map<String, Integer> PRECISIONS = new HashMap<>();
+
+    static {
+        DUCKDB_TYPES.put("boolean", "BOOLEAN");
+        DUCKDB_TYPES.put("int8", "TINYINT");
+        DUCKDB_TYPES.put("int16", "SMALLINT");
+        DUCKDB_TYPES.put("int32", "INTEGER");
+        DUCKDB_TYPES.put("int64", "BIGINT");
+        DUCKDB_TYPES.put("int128", "HUGEINT");
+        DUCKDB_TYPES.put("uint8", "UTINYINT");
+        DUCKDB_TYPES.put("uint16", "USMALLINT");
+        DUCKDB_TYPES.put("uint32", "UINTEGER");
+        DUCKDB_TYPES.put("uint64", "UBIGINT");
+        DUCKDB_TYPES.put("uint128", "UHUGEINT");
+        DUCKDB_TYPES.put("float32", "FLOAT");
+        DUCKDB_TYPES.put("float64", "DOUBLE");
+        DUCKDB_TYPES.put("date", "DATE");
+        DUCKDB_TYPES.put("time", "TIME");
+        DUCKDB_TYPES.put("timetz", "TIME WITH TIME ZONE");
+        DUCKDB_TYPES.put("timestamp", "TIMESTAMP");
+        DUCKDB_TYPES.put("timestamptz", "TIMESTAMP WITH TIME ZONE");
+        DUCKDB_TYPES.put("timestamp_s", "TIMESTAMP_S");
+        DUCKDB_TYPES.put("timestamp_ms", "TIMESTAMP_MS");
+        DUCKDB_TYPES.put("timestamp_ns", "TIMESTAMP_NS");
+        DUCKDB_TYPES.put("interval", "INTERVAL");
+        DUCKDB_TYPES.put("varchar", "VARCHAR");
+        DUCKDB_TYPES.put("blob", "BLOB");
+        DUCKDB_TYPES.put("uuid", "UUID");
+        DUCKDB_TYPES.put("json", "JSON");
+
+        PRECISIONS.put("int8", 8);
+        PRECISIONS.put("int16", 16);
+        PRECISIONS.put("int32", 32);
+        PRECISIONS.put("int64", 64);
+        PRECISIONS.put("int128", 128);
+        PRECISIONS.put("uint8", 8);
+        PRECISIONS.put("uint16", 16);
+        PRECISIONS.put("uint32", 32);
+        PRECISIONS.put("uint64", 64);
+        PRECISIONS.put("uint128", 128);
+        PRECISIONS.put("float32", 24);
+        PRECISIONS.put("float64", 53);
+    }
+
+    private final java.sql.Connection jdbc;
+    private final String metadata;
+
+    /**
+     * @param catalog name the lake is attached as; its metadata is attached by DuckLake as __ducklake_metadata_&lt;catalog&gt;
+     */
+    DuckLakeCatalogReader(java.sql.Connection jdbc, String catalog) {
+        this.jdbc = jdbc;
+        this.metadata = "\"__ducklake_metadata_" + catalog.replace("\"", "\"\"") + "\".main";
+    }
+
+    long currentSnapshot() throws SQLException {
+        try (PreparedStatement ps = jdbc.prepareStatement("SELECT max(snapshot_id) FROM " + metadata + ".ducklake_snapshot");
+             ResultSet rs = ps.executeQuery()) {
+            return rs.next() ? rs.getLong(1) : 0;
+        }
+    }
+
+    /**
+     * @param names tables to read, all tables of the schema when empty
+     */
+    List<Table> readTables(String schema, Collection<String> names) throws SQLException {
+        String sql = "SELECT t.table_id, t.table_name FROM " + metadata + ".ducklake_table t " +
+                "JOIN " + metadata + ".ducklake_schema s ON t.schema_id = s.schema_id AND s.end_snapshot IS NULL " +
+                "WHERE t.end_snapshot IS NULL AND s.schema_name = ? ORDER BY t.table_name";
+
+        Map<Long, Table> tablesById = new LinkedHashMap<>();
+        try (PreparedStatement ps = jdbc.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString("table_name");
+                    if (names.isEmpty() || names.contains(name)) {
+                        tablesById.put(rs.getLong("table_id"), table(schema, name));
+                    }
+                }
+            }
+        }
+
+        if (!tablesById.isEmpty()) {
+            readColumns(tablesById);
+        } else {
+            log.warn("DuckLake metadata has no user tables; ensure ducklakeMetadataDb is the same file your DataLake uses and that the catalog has been persisted.");
+        }
+        return new ArrayList<>(tablesById.values());
+    }
+
+    /**
+     * Applies the changes made after {@code snapshot} to {@code previousTables}, the tables of the schema as they were
+     * at that snapshot: tables dropped or renamed since are removed, and tables created or altered since are read
+     * again. The others are kept as they are.
+     *
+     * @param names tables to read, all tables of the schema when empty
+     */
+    List<Table> readTablesChangedSince(long snapshot, String schema, Collection<String> names,
+                                       Collection<Table> previousTables) throws SQLException {
+        // the schema row is matched whatever its snapshots, so tables of a dropped schema are seen as dropped too
+        String sql = "SELECT t.table_id, t.table_name, t.end_snapshot FROM " + metadata + ".ducklake_table t " +
+                "JOIN " + metadata + ".ducklake_schema s ON t.schema_id = s.schema_id " +
+                "WHERE s.schema_name = ? AND (t.end_snapshot IS NULL OR t.end_snapshot > ?) AND t.table_id IN (" +
+                "SELECT table_id FROM " + metadata + ".ducklake_table WHERE begin_snapshot > ? OR end_snapshot > ? " +
+                "UNION SELECT table_id FROM " + metadata + ".ducklake_column WHERE begin_snapshot > ? OR end_snapshot > ?)";
+
+        Map<String, Table> tablesByName = new HashMap<>();
+        for (Table table : previousTables) {
+            if (schema.equals(table.getSchema())) {
+                tablesByName.put(table.getName(), table);
+            }
+        }
+        Map<Long, Table> changed = new LinkedHashMap<>();
+        List<String> removed = new ArrayList<>();
+        try (PreparedStatement ps = jdbc.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            for (int i = 2; i <= 6; i++) {
+                ps.setLong(i, snapshot);
+            }
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString("table_name");
+                    if (rs.getObject("end_snapshot") != null) {
+                        // a version that ended after the snapshot, the table was dropped or renamed
+                        removed.add(name);
+                    } else if (names.isEmpty() || names.contains(name)) {
+                        changed.put(rs.getLong("table_id"), table(schema, name));
+                    }
+                }
+            }
+        }
+        removed.forEach(tablesByName::remove);
+        for (Table table : changed.values()) {
+            tablesByName.put(table.getName(), table);
+        }
+
+        if (!changed.isEmpty()) {
+            readColumns(changed);
+        }
+        log.info("DuckLake incremental extraction since snapshot {}: {} tables read, {} dropped, {} reused.",
+                snapshot, changed.size(), removed.size(), tablesByName.size() - changed.size());
+
+        List<Table> tables = new ArrayList<>(tablesByName.values());
+        tables.sort(Comparator.comparing(Table::getName));
+        return tables;
+    }
+
+    List<View> readViews(String schema, Collection<String> names) throws SQLException {
+        String sql = "SELECT v.view_name, v.sql FROM " + metadata + ".ducklake_view v " +
+                "JOIN " + metadata + ".ducklake_schema s ON v.schema_id = s.schema_id AND s.end_snapshot IS NULL " +
+                "WHERE v.end_snapshot IS NULL AND s.schema_name = ? ORDER BY v.view_name";
+        List<View> views = new ArrayList<>();
+        try (PreparedStatement ps = jdbc.prepareStatement(sql)) {
+            ps.setString(1, schema);
+            try (ResultSet rs = ps.executeQuery()) {
+                while (rs.next()) {
+                    String name = rs.getString("view_name");
+                    if (!names.isEmpty() && !names.contains(name)) continue;
+                    View view = new View();
+                    view.setName(name);
+                    view.setSchema(schema);
+                    view.setType("VIEW");
+                    view.setCode(rs.getString("sql"));
+                    views.add(view);
+                }
+            }
+        }
+        return views;
+    }
+
+    /**
+     * Reads the columns of the tables in {@code tablesById} only, filtering the query by their ids.
+     */
+    private void readColumns(Map<Long, Table> tablesById) throws SQLException {
+        String sql = "SELECT table_id, column_id, column_name, column_type, nulls_allowed, parent_column " +
+                "FROM " + metadata + ".ducklake_column WHERE end_snapshot IS NULL AND table_id IN (" +
+                tablesById.keySet().stream().map(String::valueOf).collect(Collectors.joining(", ")) + ")" +
+                " ORDER BY table_id, column_order";
+
+        // nested types are stored as child columns, rendered into the type of their top level column; column ids are
+        // only unique within a table, so children are keyed by table and parent column
+        Map<List<Long>, List<DuckLakeColumn>> childrenByParent = new HashMap<>();
+        List<DuckLakeColumn> topLevel = new ArrayList<>();
+        try (PreparedStatement ps = jdbc.prepareStatement(sql);
+             ResultSet rs = ps.executeQuery()) {
+            while (rs.next()) {
+                DuckLakeColumn column = new DuckLakeColumn(rs.getLong("table_id"), rs.getLong("column_id"),
+                        rs.getString("column_name"), rs.getString("column_type"), rs.getBoolean("nulls_allowed"));
+                long parent = rs.getLong("parent_column");
+                if (rs.wasNull()) {
+                    topLevel.add(column);
+                } else {
+                    childrenByParent.computeIfAbsent(Arrays.asList(column.tableId, parent), k -> new ArrayList<>()).add(column);
+                }
+            }
+        }
+
+        for (DuckLakeColumn duckLakeColumn : topLevel) {
+            Table table = tablesById.get(duckLakeColumn.tableId);
+            if (table == null) continue;
+            String type = duckLakeColumn.type.toLowerCase();
+
+            Column column = new Column();
+            column.setName(duckLakeColumn.name);
+            column.setTypeName(duckDbTypeName(duckLakeColumn, childrenByParent));
+            column.setNullable(duckLakeColumn.nullable);
+            Matcher decimal = DECIMAL.matcher(type);
+            if (decimal.matches()) {
+                column.setPrecision(Integer.parseInt(decimal.group(1)));
+                column.setScale(Integer.parseInt(decimal.group(2)));
+            } else {
+                column.setPrecision(PRECISIONS.getOrDefault(type, 0));
+                column.setScale(0);
+            }
+            column.setColumnDisplaySize(column.getPrecision());
+            table.getColumns().add(column);
+        }
+    }
+
+    private static Table table(String schema, String name) {
+        Table table = new Table();
+        table.setName(name);
+        table.setSchema(schema);
+        table.setType("BASE TABLE");
+        table.setColumns(new ArrayList<>());
+        return table;
+    }
+
+    private static String duckDbTypeName(DuckLakeColumn column, Map<List<Long>, List<DuckLakeColumn>> childrenByParent) {
+        String type = column.type.toLowerCase();
+        List<DuckLakeColumn> children = childrenByParent.getOrDefault(Arrays.asList(column.tableId, column.id),
+                Collections.emptyList());
+        switch (type) {
+            case "list":
+                return children.isEmpty() ? "LIST" : duckDbTypeName(children.get(0), childrenByParent) + "[]";
+            case "struct":
+                return children.stream()
+                        .map(child -> child.name + " " + duckDbTypeName(child, childrenByParent))
+                        .collect(Collectors.joining(", ", "STRUCT(", ")"));
+            case "map":
+                return children.stream()
+                        .map(child -> duckDbTypeName(child, childrenByParent))
+                        .collect(Collectors.joining(", ", "MAP(", ")"));
+            default:
+                if (DECIMAL.matcher(type).matches()) {
+                    return type.toUpperCase().replaceAll("\\s+", "");
+                }
+                return DUCKDB_TYPES.getOrDefault(type, column.type.toUpperCase());
+        }
+    }
+
+    private static class DuckLakeColumn {
+        private final long tableId;
+        private final long id;
+        private final String name;
+        private final String type;
+        private final boolean nullable;
+
+        private DuckLakeColumn(long tableId, long id, String name, String type, boolean nullable) {
+            this.tableId = tableId;
+            this.id = id;
+            this.name = name;
+            this.type = type;
+            this.nullable = nullable;
+        }
+    }
+}
@@ -31,6 +31,16 @@ public class DuckLakeGenerator implements Generator<Database, Connection> {
 
     @Override
     public Database generate(Connection connection) throws Exception {
+        return generate(connection, null);
+    }
+
+    /**
+     * Reads the model straight from the DuckLake metadata tables, falling back to extracting it through DuckDB when
+     * they can not be read. When {@code previous} was read at an earlier snapshot of the catalog, only the tables
+     * changed since that snapshot are read, and {@code previous} is returned as it is when the catalog did not move.
+     */
+    @Override
+    public Database generate(Connection connection, Database previous) throws Exception {
         validateDuckLakeConfig(connection);
 
         String duckdbUrl = buildDuckDbUrl(connection); // MUST be in-memory or session db, never metadata db
@@ -41,49 +51,16 @@ public class DuckLakeGenerator implements Generator<Database, Connection> {
 
             // Ensure extractor connection config points to correct catalog/schema
             Connection duckdbConnection = createDuckDbConnection(connection, duckdbUrl, catalog);
-
-            TableExtractor tableExtractor = loadDuckDbTableExtractor(duckdbConnection);
-            ViewExtractor viewExtractor   = loadDuckDbViewExtractor(duckdbConnection);
             ColumnExtractor colExtractor  = loadDuckDbColumnExtractor(duckdbConnection);
 
-            Collection<Table> allTables;
-            try {
-                allTables = listTablesFromDuckLakeMetadata(jdbc, catalog, duckdbConnection.getSchemaName());
-            } catch (Exception e) {
-                log.warn("DuckLake metadata listing failed, attempting fallbacks", e);
-                allTables = List.of();
-            }
-            if (allTables.isEmpty()) {
-                try {
-                    allTables = (Collection<Table>) tableExtractor.extract(duckdbConnection, jdbc);
-                    if (allTables.isEmpty()) {
-                        allTables = listTablesFallback(jdbc, catalog, duckdbConnection.getSchemaName());
-                    }
-                } catch (Exception e) {
-                    log.warn("Table extractor failed, falling back to information_schema: {}", e.getMessage());
-                    allTables = listTablesFallback(jdbc, catalog, duckdbConnection.getSchemaName());
-                }
-            }
-
-            Collection<Table> tables = filterDuckLakeMetadataTables(allTables);
-            log.info("Extracted {} user tables from {}.{}", tables.size(), catalog, duckdbConnection.getSchemaName());
-
-            colExtractor.extract(jdbc, tables);
-
-            Collection<View> views;
+            Database database;
             try {
-                views = (Collection<View>) viewExtractor.extract(duckdbConnection, jdbc);
-            } catch (Exception e) {
-                log.warn("View extractor failed; continuing with empty view set: {}", e.getMessage());
-                views = List.of();
+                database = readFromDuckLakeMetadata(jdbc, catalog, duckdbConnection, colExtractor, previous);
+            } catch (SQLException e) {
+                log.warn("Reading DuckLake metadata failed, extracting through DuckDB: {}", e.getMessage());
+                database = extractThroughDuckDb(jdbc, catalog, duckdbConnection, colExtractor);
             }
-            log.info("Extracted {} views", views.size());
-            colExtractor.extract(jdbc, views);
-
-            Database database = new Database();
             database.setName("ducklake:" + catalog);
-            database.setTables(tables);
-            database.setViews(views);
             database.setDatabaseType(connection.getDbType());
             return database;
         } finally {
@@ -107,6 +84,88 @@ public class DuckLakeGenerator implements Generator<Database, Connection> {
         }
     }
 
+    private Database readFromDuckLakeMetadata(java.sql.Connection jdbc, String catalog, Connection duckdbConnection,
+                                              ColumnExtractor colExtractor, Database previous) throws Exception {
+        DuckLakeCatalogReader reader = new DuckLakeCatalogReader(jdbc, catalog);
+        String schema = duckdbConnection.getSchemaName();
+        Collection<String> names = duckdbConnection.getTables() == null ? List.of() : duckdbConnection.getTables();
+
+        long snapshot = reader.currentSnapshot();
+        Long previousSnapshot = previous == null ? null : previous.getCatalogSnapshot();
+        if (previousSnapshot != null && previousSnapshot == snapshot) {
+            log.info("DuckLake catalog {} is still at snapshot {}, reusing the existing model.", catalog, snapshot);
+            return previous;
+        }
+
+        Collection<Table> tables;
+        if (previousSnapshot != null && previousSnapshot < snapshot && previous.getTables() != null) {
+            tables = reader.readTablesChangedSince(previousSnapshot, schema, names, previous.getTables());
+        } else {
+            tables = reader.readTables(schema, names);
+        }
+        log.info("Extracted {} user tables from {}.{} at snapshot {}", tables.size(), catalog, schema, snapshot);
+
+        // view columns come from binding the view query, which only DuckDB can do
+        Collection<View> views = reader.readViews(schema, names);
+        try {
+            colExtractor.extract(jdbc, views);
+        } catch (Exception e) {
+            log.warn("View column extraction failed; continuing without view columns: {}", e.getMessage());
+        }
+        log.info("Extracted {} views", views.size());
+
+        Database database = new Database();
+        database.setTables(tables);
+        database.setViews(views);
+        database.setCatalogSnapshot(snapshot);
+        return database;
+    }
+
+    private Database extractThroughDuckDb(java.sql.Connection jdbc, String catalog, Connection duckdbConnection,
+                                          ColumnExtractor colExtractor) throws Exception {
+        TableExtractor tableExtractor = loadDuckDbTableExtractor(duckdbConnection);
+        ViewExtractor viewExtractor   = loadDuckDbViewExtractor(duckdbConnection);
+
+        Collection<Table> allTables;
+        try {
+            allTables = listTablesFromDuckLakeMetadata(jdbc, catalog, duckdbConnection.getSchemaName());
+        } catch (Exception e) {
+            log.warn("DuckLake metadata listing failed, attempting fallbacks", e);
+            allTables = List.of();
+        }
+        if (allTables.isEmpty()) {
+            try {
+                allTables = (Collection<Table>) tableExtractor.extract(duckdbConnection, jdbc);
+                if (allTables.isEmpty()) {
+                    allTables = listTablesFallback(jdbc, catalog, duckdbConnection.getSchemaName());
+                }
+            } catch (Exception e) {
+                log.warn("Table extractor failed, falling back to information_schema: {}", e.getMessage());
+                allTables = listTablesFallback(jdbc, catalog, duckdbConnection.getSchemaName());
+            }
+        }
+
+        Collection<Table> tables = filterDuckLakeMetadataTables(allTables);
+        log.info("Extracted {} user tables from {}.{}", tables.size(), catalog, duckdbConnection.getSchemaName());
+
+        colExtractor.extract(jdbc, tables);
+
+        Collection<View> views;
+        try {
+            views = (Collection<View>) viewExtractor.extract(duckdbConnection, jdbc);
+        } catch (Exception e) {
+            log.warn("View extractor failed; continuing with empty view set: {}", e.getMessage());
+            views = List.of();
+        }
+        log.info("Extracted {} views", views.size());
+        colExtractor.extract(jdbc, views);
+
+        Database database = new Database();
+        database.setTables(tables);
+        database.setViews(views);
+        return database;
+    }
+
     /** Allowed for catalog/schema identifiers to prevent SQL injection. */
     private static final java.util.regex.Pattern SAFE_IDENTIFIER = java.util.regex.Pattern.compile("^[a-zA-Z0-9_]+$");
 
@@ -0,0 +1,96 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adataptivescale.rosetta.source.core.interfaces.ConnectionFactory;
+
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads units of extraction work over several connections. Every worker takes units from a shared queue, one at a
+ * time, so a worker that gets small units takes more of them. The first worker uses the caller's connection, the
+ * others each open their own from a {@link ConnectionFactory} and close it when the queue is empty.
+ */
+public final class ParallelExtraction {
+
+    private ParallelExtraction() {
+    }
+
+    public interface Task<T> {
+        void run(Connection connection, T unit) throws Exception;
+    }
+
+    /**
+     * Runs {@code task} for every unit on up to {@code parallelism} connections. Without a connection factory, with a
+     * parallelism of one or with a single unit, everything runs on the caller's thread and connection. The first
+     * failure stops the workers and is rethrown as the task threw it, once every worker has finished.
+     */
+    public static <T> void forEach(List<T> units, int parallelism, Connection connection,
+                                   ConnectionFactory connectionFactory, Task<T> task) throws Exception {
+        int workers = Math.min(parallelism, units.size());
+        if (connectionFactory == null || workers <= 1) {
+            for (T unit : units) {
+                task.run(connection, unit);
+            }
+            return;
+        }
+
+        Queue<T> pending = new ConcurrentLinkedQueue<>(units);
+        ExecutorService executor = Executors.newFixedThreadPool(workers);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            futures.add(executor.submit(() -> {
+                runPending(pending, connection, task);
+                return null;
+            }));
+            for (int i = 1; i < workers; i++) {
+                futures.add(executor.submit(() -> {
+                    try (Connection workerConnection = connectionFactory.connect()) {
+                        runPending(pending, workerConnection, task);
+                    }
+                    return null;
+                }));
+            }
+            for (Future<Void> future : futures) {
+                try {
+                    future.get();
+                } catch (ExecutionException e) {
+                    stop(executor, pending);
+                    Throwable cause = e.getCause();
+                    throw cause instanceof Exception ? (Exception) cause : e;
+                } catch (InterruptedException e) {
+                    pending.clear();
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    // the caller's connection is handed back only once no worker uses it anymore
+    private static void stop(ExecutorService executor, Queue<?> pending) {
+        pending.clear();
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(Long.MAX_VALUE, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static <T> void runPending(Queue<T> pending, Connection connection, Task<T> task) throws Exception {
+        T unit;
+        while ((unit = pending.poll()) != null) {
+            task.run(connection, unit);
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adataptivescale.rosetta.source.core.interfaces.ColumnExtractor;
+import com.adataptivescale.rosetta.source.core.interfaces.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.*;
+
+/**
+ * Runs a {@link ColumnExtractor} over disjoint partitions of the tables, each partition on its own JDBC connection.
+ * Tables are grouped by schema before partitioning so a worker stays within as few schemas as possible.
+ * When the delegate loads whole schemas at once, schemas are never split across partitions.
+ * The delegate writes columns, keys and indices directly into the {@link Table} instances, so there is nothing
+ * left to merge once every partition has finished.
+ */
+@Slf4j
+class PartitionedColumnExtractor implements ColumnExtractor<java.sql.Connection, Collection<Table>> {
+
+    private final ColumnExtractor columnExtractor;
+    private final ConnectionFactory connectionFactory;
+    private final int parallelism;
+    private final boolean keepSchemasWhole;
+
+    PartitionedColumnExtractor(ColumnExtractor columnExtractor, int parallelism, boolean keepSchemasWhole,
+                               ConnectionFactory connectionFactory) {
+        this.columnExtractor = columnExtractor;
+        this.parallelism = parallelism;
+        this.keepSchemasWhole = keepSchemasWhole;
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public void extract(java.sql.Connection connection, Collection<Table> tables) throws Exception {
+        List<List<Table>> partitions = keepSchemasWhole ? partitionBySchema(tables, parallelism) : partition(tables, parallelism);
+        if (partitions.size() <= 1) {
+            columnExtractor.extract(connection, tables);
+            return;
+        }
+
+        log.info("Extracting columns for {} tables using {} connections", tables.size(), partitions.size());
+        ParallelExtraction.forEach(partitions, partitions.size(), connection, connectionFactory,
+                (workerConnection, partition) -> columnExtractor.extract(workerConnection, partition));
+    }
+
+    static List<List<Table>> partition(Collection<Table> tables, int parallelism) {
+        Map<String, List<Table>> tablesBySchema = groupBySchema(tables);
+        List<Table> ordered = new ArrayList<>(tables.size());
+        tablesBySchema.values().forEach(ordered::addAll);
+
+        int partitionCount = Math.max(1, Math.min(parallelism, ordered.size()));
+        int partitionSize = (ordered.size() + partitionCount - 1) / partitionCount;
+
+        List<List<Table>> partitions = new ArrayList<>();
+        for (int start = 0; start < ordered.size(); start += partitionSize) {
+            partitions.add(ordered.subList(start, Math.min(start + partitionSize, ordered.size())));
+        }
+        return partitions;
+    }
+
+    /**
+     * Distributes whole schemas over at most {@code parallelism} partitions, largest schema first onto the
+     * currently smallest partition.
+     */
+    static List<List<Table>> partitionBySchema(Collection<Table> tables, int parallelism) {
+        List<List<Table>> schemas = new ArrayList<>(groupBySchema(tables).values());
+        schemas.sort(Comparator.comparingInt((List<Table> it) -> it.size()).reversed());
+
+        int partitionCount = Math.max(1, Math.min(parallelism, schemas.size()));
+        List<List<Table>> partitions = new ArrayList<>();
+        for (int i = 0; i < partitionCount; i++) {
+            partitions.add(new ArrayList<>());
+        }
+        for (List<Table> schema : schemas) {
+            partitions.stream().min(Comparator.comparingInt(List::size)).get().addAll(schema);
+        }
+        return partitions;
+    }
+
+    private static Map<String, List<Table>> groupBySchema(Collection<Table> tables) {
+        Map<String, List<Table>> tablesBySchema = new LinkedHashMap<>();
+        for (Table table : tables) {
+            tablesBySchema.computeIfAbsent(String.valueOf(table.getSchema()), k -> new ArrayList<>()).add(table);
+        }
+        return tablesBySchema;
+    }
+}
@@ -3,12 +3,14 @@ package com.adataptivescale.rosetta.source.core;
 import com.adaptivescale.rosetta.common.JDBCDriverProvider;
 import com.adaptivescale.rosetta.common.helpers.ModuleLoader;
 import com.adaptivescale.rosetta.common.models.Database;
-import com.adaptivescale.rosetta.common.DriverManagerDriverProvider;
+import com.adaptivescale.rosetta.common.PooledDriverProvider;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
 import com.adataptivescale.rosetta.source.core.extractors.column.*;
+import com.adataptivescale.rosetta.source.core.extractors.marker.DefaultChangeMarkerExtractor;
 import com.adataptivescale.rosetta.source.core.extractors.table.DefaultTablesExtractor;
 import com.adataptivescale.rosetta.source.core.extractors.view.DefaultViewExtractor;
+import com.adataptivescale.rosetta.source.core.interfaces.ChangeMarkerExtractor;
 import com.adataptivescale.rosetta.source.core.interfaces.Generator;
 import com.adataptivescale.rosetta.source.core.interfaces.TableExtractor;
 import com.adataptivescale.rosetta.source.core.interfaces.ViewExtractor;
@@ -20,7 +22,7 @@ import java.util.Optional;
 @Slf4j
 public class SourceGeneratorFactory {
     public static Generator<Database, Connection> sourceGenerator(Connection connection) {
-        return sourceGenerator(connection, new DriverManagerDriverProvider());
+        return sourceGenerator(connection, PooledDriverProvider.getInstance());
     }
 
     private static ColumnsExtractor loadColumnExtractor(Connection connection) {
@@ -66,6 +68,20 @@ public class SourceGeneratorFactory {
         }
     }
 
+    private static ChangeMarkerExtractor loadChangeMarkerExtractor(Connection connection) {
+        Optional<Class<?>> changeMarkerExtractorModule = ModuleLoader.loadModuleByAnnotationClassValues(
+                DefaultChangeMarkerExtractor.class.getPackageName(), RosettaModuleTypes.CHANGE_MARKER_EXTRACTOR, connection.getDbType());
+        if(changeMarkerExtractorModule.isEmpty()) {
+            log.debug("Change markers not supported for database type: {}, tables are always extracted in full.", connection.getDbType());
+            return new DefaultChangeMarkerExtractor();
+        }
+        try {
+            return (ChangeMarkerExtractor) changeMarkerExtractorModule.get().getDeclaredConstructor().newInstance();
+        } catch (InstantiationException | IllegalAccessException | InvocationTargetException | NoSuchMethodException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
     public static Generator<Database, Connection> sourceGenerator(Connection connection, JDBCDriverProvider driverProvider) {
         // Check if this is a DuckLake connection
         if ("ducklake".equalsIgnoreCase(connection.getDbType())) {
@@ -76,6 +92,7 @@ public class SourceGeneratorFactory {
         TableExtractor tablesExtractor = loadTableExtractor(connection);
         ViewExtractor viewExtractor = loadViewExtractor(connection);
         ColumnsExtractor columnsExtractor = loadColumnExtractor(connection);
-        return new DefaultGenerator(tablesExtractor, viewExtractor, columnsExtractor, driverProvider);
+        ChangeMarkerExtractor changeMarkerExtractor = loadChangeMarkerExtractor(connection);
+        return new DefaultGenerator(tablesExtractor, viewExtractor, columnsExtractor, changeMarkerExtractor, driverProvider);
     }
 }
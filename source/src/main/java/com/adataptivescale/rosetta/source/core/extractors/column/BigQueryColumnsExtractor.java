@@ -16,11 +16,11 @@
 
 package com.adataptivescale.rosetta.source.core.extractors.column;
 
-import com.adaptivescale.rosetta.common.TranslationMatrix;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adataptivescale.rosetta.source.common.TypeNormalizer;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -41,7 +41,7 @@ public class BigQueryColumnsExtractor extends ColumnsExtractor {
         column.setName(resultSet.getString("COLUMN_NAME"));
 
         String columnType = String.valueOf(resultSet.getString("TYPE_NAME"));
-        column.setTypeName(TranslationMatrix.getInstance().findBySourceTypeAndSourceColumnType("bigquery", columnType));
+        column.setTypeName(TypeNormalizer.getInstance().normalize("bigquery", columnType));
 
         column.setNullable(resultSet.getBoolean("IS_NULLABLE"));
         column.setColumnDisplaySize(resultSet.getInt("COLUMN_SIZE"));
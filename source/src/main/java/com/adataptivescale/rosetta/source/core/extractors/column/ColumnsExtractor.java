@@ -38,6 +38,11 @@ public class ColumnsExtractor implements ColumnExtractor<java.sql.Connection, Co
 
     @Override
     public void extract(java.sql.Connection connection, Collection<Table> tables) throws Exception {
+        if (this.connection.isBulkExtraction() && supportsBulkExtraction()) {
+            extractBySchema(connection, tables);
+            return;
+        }
+
         for (Table table : tables) {
             Collection<Column> columns = new ArrayList<>();
             Map<String, Integer> primaryKeysData = extractPrimaryKeys(connection, table);
@@ -69,6 +74,68 @@ public class ColumnsExtractor implements ColumnExtractor<java.sql.Connection, Co
         }
     }
 
+    /**
+     * Whether this extractor can load columns, keys and indices for a whole schema at once.
+     * Drivers that do not accept a null table name in {@link java.sql.DatabaseMetaData} key lookups
+     * have to override the *ForSchema methods before enabling this.
+     */
+    protected boolean supportsBulkExtraction() {
+        return false;
+    }
+
+    /**
+     * Bulk mode: one columns, primary key, foreign key and index lookup per schema instead of per table.
+     * Rows are grouped by table in memory and attached to the matching {@link Table}.
+     */
+    protected void extractBySchema(java.sql.Connection connection, Collection<Table> tables) throws SQLException {
+        Map<String, Map<String, Table>> tablesBySchema = new LinkedHashMap<>();
+        for (Table table : tables) {
+            tablesBySchema.computeIfAbsent(table.getSchema(), k -> new HashMap<>()).put(table.getName(), table);
+        }
+
+        for (Map.Entry<String, Map<String, Table>> entry : tablesBySchema.entrySet()) {
+            String schema = entry.getKey();
+            Map<String, Table> tablesByName = entry.getValue();
+
+            Map<String, Map<String, Integer>> primaryKeysByTable = extractPrimaryKeysForSchema(connection, schema);
+            Map<String, Map<String, List<ForeignKey>>> foreignKeysByTable = extractForeignKeysForSchema(connection, schema);
+            Map<String, List<Index>> indicesByTable = extractIndicesForSchema(connection, schema);
+
+            try (ResultSet resultSet = connection.getMetaData().getColumns(this.connection.getDatabaseName(), schema, null, null)) {
+                while (resultSet.next()) {
+                    // schema is a pattern for getColumns, so make sure the row belongs to the exact schema
+                    if (!Objects.equals(schema, schemaOf(resultSet, "TABLE_SCHEM", "TABLE_CAT"))) {
+                        continue;
+                    }
+                    Table table = tablesByName.get(resultSet.getString("TABLE_NAME"));
+                    if (table == null) {
+                        continue;
+                    }
+
+                    Column column = new Column();
+                    extract(resultSet, column);
+                    Map<String, Integer> primaryKeysData = primaryKeysByTable.getOrDefault(table.getName(), Collections.emptyMap());
+                    if (primaryKeysData.containsKey(column.getName())) {
+                        column.setPrimaryKey(true);
+                        column.setPrimaryKeySequenceId(primaryKeysData.get(column.getName()));
+                    }
+                    Map<String, List<ForeignKey>> foreignKeys = foreignKeysByTable.getOrDefault(table.getName(), Collections.emptyMap());
+                    if (foreignKeys.containsKey(column.getName())) {
+                        column.setForeignKeys(foreignKeys.get(column.getName()));
+                    }
+                    if (table.getColumns() == null) {
+                        table.setColumns(new ArrayList<>());
+                    }
+                    table.getColumns().add(column);
+                }
+            }
+
+            for (Table table : tablesByName.values()) {
+                table.setIndices(indicesByTable.getOrDefault(table.getName(), new ArrayList<>()));
+            }
+        }
+    }
+
     protected void extract(ResultSet resultSet, Column column) throws SQLException {
         column.setName(resultSet.getString("COLUMN_NAME"));
         column.setTypeName(String.valueOf(resultSet.getString("TYPE_NAME")));
@@ -78,40 +145,20 @@ public class ColumnsExtractor implements ColumnExtractor<java.sql.Connection, Co
         column.setPrecision(resultSet.getInt("COLUMN_SIZE"));
     }
 
-    private Map<String, List<ForeignKey>> extractForeignKeys(java.sql.Connection connection, Table table) throws SQLException {
+    /**
+     * @return foreign keys of the table mapped by column name
+     */
+    protected Map<String, List<ForeignKey>> extractForeignKeys(java.sql.Connection connection, Table table) throws SQLException {
         ResultSet exportedKeys = connection.getMetaData().getImportedKeys(this.connection.getDatabaseName(), table.getSchema(), table.getName());
         Map<String, Set<ForeignKey>> result = new HashMap<>();
 
         while (exportedKeys.next()) {
-            ForeignKey foreignKey = new ForeignKey();
-            foreignKey.setName(exportedKeys.getString("FK_NAME"));
-            String fkTableSchema = exportedKeys.getString("FKTABLE_SCHEM");
-            if (fkTableSchema == null) {
-                fkTableSchema = exportedKeys.getString("FKTABLE_CAT");
-            }
-            foreignKey.setSchema(fkTableSchema);
-            foreignKey.setTableName(exportedKeys.getString("FKTABLE_NAME"));
-            foreignKey.setColumnName(exportedKeys.getString("FKCOLUMN_NAME"));
-            foreignKey.setDeleteRule(exportedKeys.getString("DELETE_RULE"));
-
-            String pkTableScehma = exportedKeys.getString("PKTABLE_SCHEM");
-            if (pkTableScehma == null) {
-                pkTableScehma = exportedKeys.getString("PKTABLE_CAT");
-            }
-            foreignKey.setPrimaryTableSchema(pkTableScehma);
-            foreignKey.setPrimaryTableName(exportedKeys.getString("PKTABLE_NAME"));
-            foreignKey.setPrimaryColumnName(exportedKeys.getString("PKCOLUMN_NAME"));
-
+            ForeignKey foreignKey = mapForeignKey(exportedKeys);
             Set<ForeignKey> foreignKeys = result.computeIfAbsent(foreignKey.getColumnName(), k -> new HashSet<>());
             foreignKeys.add(foreignKey);
         }
 
-        return result.entrySet()
-            .stream()
-            .collect(Collectors.toMap(
-                    Map.Entry::getKey,
-                    entry -> new ArrayList<>(entry.getValue())
-            ));
+        return toForeignKeyLists(result);
     }
 
     private Map<String, Integer> extractPrimaryKeys(java.sql.Connection connection, Table table) throws SQLException {
@@ -132,22 +179,103 @@ public class ColumnsExtractor implements ColumnExtractor<java.sql.Connection, Co
         while (exportedKeys.next()) {
             String indexName = exportedKeys.getString("INDEX_NAME");
             Index index = indicesMappedByName.getOrDefault(indexName, new Index());
-
-            index.setName(exportedKeys.getString("INDEX_NAME"));
-            index.setSchema(exportedKeys.getString("TABLE_SCHEM"));
-            index.setTableName(exportedKeys.getString("TABLE_NAME"));
-            index.addColumn(exportedKeys.getString("COLUMN_NAME"));
-            index.setIndexQualifier(exportedKeys.getString("INDEX_QUALIFIER"));
-            index.setType(exportedKeys.getShort("TYPE"));
-            index.setCardinality(exportedKeys.getInt("CARDINALITY"));
-            index.setFilterCondition(exportedKeys.getString("FILTER_CONDITION"));
-            index.setNonUnique(exportedKeys.getBoolean("NON_UNIQUE"));
-            index.setAscOrDesc(exportedKeys.getString("ASC_OR_DESC"));
-
+            mapIndex(exportedKeys, index);
             indicesMappedByName.put(indexName, index);
         }
 
         result.put(table.getName(), new ArrayList<Index>(indicesMappedByName.values()));
         return result;
     }
+
+    /**
+     * @return primary key sequence ids mapped by column name, mapped by table name
+     */
+    protected Map<String, Map<String, Integer>> extractPrimaryKeysForSchema(java.sql.Connection connection, String schema) throws SQLException {
+        Map<String, Map<String, Integer>> result = new HashMap<>();
+        try (ResultSet primaryKeys = connection.getMetaData().getPrimaryKeys(this.connection.getDatabaseName(), schema, null)) {
+            while (primaryKeys.next()) {
+                result.computeIfAbsent(primaryKeys.getString("TABLE_NAME"), k -> new HashMap<>())
+                        .put(primaryKeys.getString("COLUMN_NAME"), primaryKeys.getInt("KEY_SEQ"));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return foreign keys mapped by column name, mapped by table name
+     */
+    protected Map<String, Map<String, List<ForeignKey>>> extractForeignKeysForSchema(java.sql.Connection connection, String schema) throws SQLException {
+        Map<String, Map<String, Set<ForeignKey>>> result = new HashMap<>();
+        try (ResultSet importedKeys = connection.getMetaData().getImportedKeys(this.connection.getDatabaseName(), schema, null)) {
+            while (importedKeys.next()) {
+                ForeignKey foreignKey = mapForeignKey(importedKeys);
+                result.computeIfAbsent(foreignKey.getTableName(), k -> new HashMap<>())
+                        .computeIfAbsent(foreignKey.getColumnName(), k -> new HashSet<>())
+                        .add(foreignKey);
+            }
+        }
+        return result.entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> toForeignKeyLists(entry.getValue())));
+    }
+
+    /**
+     * @return indices mapped by table name
+     */
+    protected Map<String, List<Index>> extractIndicesForSchema(java.sql.Connection connection, String schema) throws SQLException {
+        Map<String, Map<String, Index>> indicesByTable = new HashMap<>();
+        try (ResultSet indexInfo = connection.getMetaData().getIndexInfo(this.connection.getDatabaseName(), schema, null, false, false)) {
+            while (indexInfo.next()) {
+                Index index = indicesByTable.computeIfAbsent(indexInfo.getString("TABLE_NAME"), k -> new HashMap<>())
+                        .computeIfAbsent(indexInfo.getString("INDEX_NAME"), k -> new Index());
+                mapIndex(indexInfo, index);
+            }
+        }
+        return indicesByTable.entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> new ArrayList<>(entry.getValue().values())));
+    }
+
+    protected ForeignKey mapForeignKey(ResultSet resultSet) throws SQLException {
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName(resultSet.getString("FK_NAME"));
+        foreignKey.setSchema(schemaOf(resultSet, "FKTABLE_SCHEM", "FKTABLE_CAT"));
+        foreignKey.setTableName(resultSet.getString("FKTABLE_NAME"));
+        foreignKey.setColumnName(resultSet.getString("FKCOLUMN_NAME"));
+        foreignKey.setDeleteRule(resultSet.getString("DELETE_RULE"));
+        foreignKey.setPrimaryTableSchema(schemaOf(resultSet, "PKTABLE_SCHEM", "PKTABLE_CAT"));
+        foreignKey.setPrimaryTableName(resultSet.getString("PKTABLE_NAME"));
+        foreignKey.setPrimaryColumnName(resultSet.getString("PKCOLUMN_NAME"));
+        return foreignKey;
+    }
+
+    protected void mapIndex(ResultSet resultSet, Index index) throws SQLException {
+        index.setName(resultSet.getString("INDEX_NAME"));
+        index.setSchema(resultSet.getString("TABLE_SCHEM"));
+        index.setTableName(resultSet.getString("TABLE_NAME"));
+        index.addColumn(resultSet.getString("COLUMN_NAME"));
+        index.setIndexQualifier(resultSet.getString("INDEX_QUALIFIER"));
+        index.setType(resultSet.getShort("TYPE"));
+        index.setCardinality(resultSet.getInt("CARDINALITY"));
+        index.setFilterCondition(resultSet.getString("FILTER_CONDITION"));
+        index.setNonUnique(resultSet.getBoolean("NON_UNIQUE"));
+        index.setAscOrDesc(resultSet.getString("ASC_OR_DESC"));
+    }
+
+    private static String schemaOf(ResultSet resultSet, String schemaColumn, String catalogColumn) throws SQLException {
+        String schema = resultSet.getString(schemaColumn);
+        if (schema == null) {
+            schema = resultSet.getString(catalogColumn);
+        }
+        return schema;
+    }
+
+    private static Map<String, List<ForeignKey>> toForeignKeyLists(Map<String, Set<ForeignKey>> foreignKeysByColumn) {
+        return foreignKeysByColumn.entrySet()
+            .stream()
+            .collect(Collectors.toMap(
+                    Map.Entry::getKey,
+                    entry -> new ArrayList<>(entry.getValue())
+            ));
+    }
 }
@@ -60,7 +60,8 @@ public class DB2ColumnsExtractor extends ColumnsExtractor {
         column.setPrecision(resultSet.getInt("COLUMN_SIZE"));
     }
 
-    private Map<String, List<ForeignKey>> extractForeignKeys(java.sql.Connection connection, Table table) throws SQLException {
+    @Override
+    protected Map<String, List<ForeignKey>> extractForeignKeys(java.sql.Connection connection, Table table) throws SQLException {
         ResultSet exportedKeys = connection.getMetaData().getImportedKeys(null, table.getSchema(), table.getName());
         Map<String, Set<ForeignKey>> result = new HashMap<>();
 
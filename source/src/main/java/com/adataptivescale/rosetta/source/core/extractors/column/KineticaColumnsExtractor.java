@@ -16,7 +16,6 @@
 
 package com.adataptivescale.rosetta.source.core.extractors.column;
 
-import com.adaptivescale.rosetta.common.TranslationMatrix;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.ColumnProperties;
@@ -24,18 +23,20 @@ import com.adaptivescale.rosetta.common.models.ForeignKey;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adataptivescale.rosetta.source.common.TypeNormalizer;
 import org.apache.commons.lang3.StringUtils;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.Set;
 import java.util.stream.Collectors;
 
@@ -45,7 +46,10 @@ import java.util.stream.Collectors;
 )
 public class KineticaColumnsExtractor extends ColumnsExtractor {
 
-    private static final List<String> KINETICA_PROPERTIES = Arrays.asList("DICT", "INIT_WITH_NOW", "INIT_WITH_UUID", "IPV4", "SHARD_KEY", "TEXT_SEARCH");
+    private static final Set<String> KINETICA_PROPERTIES = new HashSet<>(Arrays.asList("DICT", "INIT_WITH_NOW", "INIT_WITH_UUID", "IPV4", "SHARD_KEY", "TEXT_SEARCH"));
+
+    private static final String SCHEMA_FOREIGN_KEYS_QUERY = "select constraint_name as FK_NAME, schema_name as FKTABLE_SCHEM, table_name as FKTABLE_NAME, fk_column_name as FKCOLUMN_NAME, parent_schema_name as PKTABLE_SCHEM, parent_table_name as PKTABLE_NAME, pk_column_name as PKCOLUMN_NAME from ki_catalog.ki_fk_constraints " +
+            "where schema_name = ? and fk_column_name is not null";
 
     public KineticaColumnsExtractor(Connection connection) {
         super(connection);
@@ -56,37 +60,45 @@ public class KineticaColumnsExtractor extends ColumnsExtractor {
         column.setName(resultSet.getString("COLUMN_NAME"));
 
         String columnType = String.valueOf(resultSet.getString("TYPE_NAME"));
-        column.setTypeName(TranslationMatrix.getInstance().findBySourceTypeAndSourceColumnType("kinetica", columnType));
+        column.setTypeName(TypeNormalizer.getInstance().normalize("kinetica", columnType));
 
         column.setNullable(resultSet.getString("IS_NULLABLE").equals("YES"));
         column.setColumnDisplaySize(resultSet.getInt("COLUMN_SIZE"));
         column.setScale(resultSet.getInt("DECIMAL_DIGITS"));
         column.setPrecision(resultSet.getInt("COLUMN_SIZE"));
+        column.setColumnProperties(parseColumnProperties(resultSet.getString("REMARKS")));
+    }
 
-        String[] columnProperties = Optional.ofNullable(resultSet.getString("REMARKS"))
-            .map(it -> it.replace("[", ""))
-            .map(it -> it.replace("]", ""))
-            .map(it -> it.split(","))
-            .orElse(new String[0]);
-
+    // REMARKS holds the column properties as a list, e.g. [char8, dict, shard_key]
+    private List<ColumnProperties> parseColumnProperties(String remarks) {
         List<ColumnProperties> columnPropertiesList = new ArrayList<>();
-        for (String columnProperty : columnProperties) {
+        if (remarks == null) {
+            return columnPropertiesList;
+        }
+        for (String columnProperty : StringUtils.split(StringUtils.remove(StringUtils.remove(remarks, '['), ']'), ',')) {
             String trimmedProperty = StringUtils.trim(columnProperty);
-            if (KINETICA_PROPERTIES.stream().anyMatch(trimmedProperty.toLowerCase()::equalsIgnoreCase)) {
-                ColumnProperties cp = new ColumnProperties(trimmedProperty, null);
-                columnPropertiesList.add(cp);
+            if (KINETICA_PROPERTIES.contains(trimmedProperty.toUpperCase())) {
+                columnPropertiesList.add(new ColumnProperties(trimmedProperty, null));
             }
         }
-
-        column.setColumnProperties(columnPropertiesList);
+        return columnPropertiesList;
     }
 
     @Override
     public void extract(java.sql.Connection connection, Collection<Table> tables) throws Exception {
         super.extract(connection, tables);
 
+        // one ki_fk_constraints query per schema, however many tables it holds
+        Map<String, Map<String, Map<String, List<ForeignKey>>>> foreignKeysBySchema = new HashMap<>();
         for (Table table : tables) {
-            Map<String, List<ForeignKey>> foreignKeys = extractForeignKeys(connection, table);
+            if (!foreignKeysBySchema.containsKey(table.getSchema())) {
+                foreignKeysBySchema.put(table.getSchema(), extractForeignKeysForSchema(connection, table.getSchema()));
+            }
+            Map<String, List<ForeignKey>> foreignKeys = foreignKeysBySchema.get(table.getSchema())
+                    .getOrDefault(table.getName(), Collections.emptyMap());
+            if (foreignKeys.isEmpty() || table.getColumns() == null) {
+                continue;
+            }
             table.getColumns().forEach(column -> {
                 if (foreignKeys.containsKey(column.getName())) {
                     column.setForeignKeys(foreignKeys.get(column.getName()));
@@ -95,41 +107,46 @@ public class KineticaColumnsExtractor extends ColumnsExtractor {
         }
     }
 
-    private ResultSet fetchForeignKeys(java.sql.Connection connection, Table table) throws SQLException {
-        String query = String.format(
-                "select constraint_name as FK_NAME, schema_name as FKTABLE_SCHEM, table_name as FKTABLE_NAME, fk_column_name as FKCOLUMN_NAME, parent_schema_name as PKTABLE_SCHEM, parent_table_name as PKTABLE_NAME, pk_column_name as PKCOLUMN_NAME from ki_catalog.ki_fk_constraints " +
-                        "where schema_name = '%s' and table_name = '%s' and fk_column_name is not null;", table.getSchema(), table.getName());
-        ResultSet resultSet = connection.createStatement().executeQuery(query);
-        return resultSet;
+    // foreign keys are attached from ki_catalog once all columns are extracted, so the per table lookup is skipped
+    @Override
+    protected Map<String, List<ForeignKey>> extractForeignKeys(java.sql.Connection connection, Table table) {
+        return Collections.emptyMap();
     }
 
-    private Map<String, List<ForeignKey>> extractForeignKeys(java.sql.Connection connection, Table table) throws SQLException {
-        ResultSet exportedKeys = fetchForeignKeys(connection, table);
-        Map<String, Set<ForeignKey>> result = new HashMap<>();
-
-        while (exportedKeys.next()) {
-            ForeignKey foreignKey = new ForeignKey();
-            String pkTableSchema = exportedKeys.getString("PKTABLE_SCHEM");
-            String fkTableSchema = exportedKeys.getString("FKTABLE_SCHEM");
-
-            foreignKey.setName(exportedKeys.getString("FK_NAME"));
-            foreignKey.setSchema(fkTableSchema);
-            foreignKey.setTableName(exportedKeys.getString("FKTABLE_NAME"));
-            foreignKey.setColumnName(exportedKeys.getString("FKCOLUMN_NAME"));
-
-            foreignKey.setPrimaryTableSchema(pkTableSchema);
-            foreignKey.setPrimaryTableName(exportedKeys.getString("PKTABLE_NAME"));
-            foreignKey.setPrimaryColumnName(exportedKeys.getString("PKCOLUMN_NAME"));
-
-            Set<ForeignKey> foreignKeys = result.computeIfAbsent(foreignKey.getColumnName(), k -> new HashSet<>());
-            foreignKeys.add(foreignKey);
+    /**
+     * @return foreign keys mapped by column name, mapped by table name
+     */
+    @Override
+    protected Map<String, Map<String, List<ForeignKey>>> extractForeignKeysForSchema(java.sql.Connection connection, String schema) throws SQLException {
+        Map<String, Map<String, Set<ForeignKey>>> result = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(SCHEMA_FOREIGN_KEYS_QUERY)) {
+            statement.setString(1, schema);
+            try (ResultSet exportedKeys = statement.executeQuery()) {
+                while (exportedKeys.next()) {
+                    ForeignKey foreignKey = new ForeignKey();
+                    foreignKey.setName(exportedKeys.getString("FK_NAME"));
+                    foreignKey.setSchema(exportedKeys.getString("FKTABLE_SCHEM"));
+                    foreignKey.setTableName(exportedKeys.getString("FKTABLE_NAME"));
+                    foreignKey.setColumnName(exportedKeys.getString("FKCOLUMN_NAME"));
+
+                    foreignKey.setPrimaryTableSchema(exportedKeys.getString("PKTABLE_SCHEM"));
+                    foreignKey.setPrimaryTableName(exportedKeys.getString("PKTABLE_NAME"));
+                    foreignKey.setPrimaryColumnName(exportedKeys.getString("PKCOLUMN_NAME"));
+
+                    result.computeIfAbsent(foreignKey.getTableName(), k -> new HashMap<>())
+                            .computeIfAbsent(foreignKey.getColumnName(), k -> new HashSet<>())
+                            .add(foreignKey);
+                }
+            }
         }
 
         return result.entrySet()
                 .stream()
                 .collect(Collectors.toMap(
                         Map.Entry::getKey,
-                        entry -> new ArrayList<>(entry.getValue())
+                        entry -> entry.getValue().entrySet()
+                                .stream()
+                                .collect(Collectors.toMap(Map.Entry::getKey, it -> new ArrayList<>(it.getValue())))
                 ));
     }
 }
@@ -16,14 +16,19 @@
 
 package com.adataptivescale.rosetta.source.core.extractors.column;
 
-import com.adaptivescale.rosetta.common.TranslationMatrix;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
+import com.adaptivescale.rosetta.common.models.Index;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adataptivescale.rosetta.source.common.TypeNormalizer;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.*;
+import java.util.stream.Collectors;
 
 @RosettaModule(
         name = "mysql",
@@ -31,16 +36,97 @@ import java.sql.SQLException;
 )
 public class MySQLColumnsExtractor extends ColumnsExtractor {
 
+  // Connector/J refuses a null table name for key and index lookups, so bulk mode reads information_schema directly.
+  // Column aliases follow java.sql.DatabaseMetaData so the shared row mappers can be reused.
+  private static final String SCHEMA_PRIMARY_KEYS_QUERY = "SELECT TABLE_NAME, COLUMN_NAME, ORDINAL_POSITION AS KEY_SEQ " +
+          "FROM information_schema.KEY_COLUMN_USAGE " +
+          "WHERE TABLE_SCHEMA = ? AND CONSTRAINT_NAME = 'PRIMARY'";
+
+  private static final String SCHEMA_FOREIGN_KEYS_QUERY = "SELECT K.CONSTRAINT_NAME AS FK_NAME, " +
+          "NULL AS FKTABLE_SCHEM, K.TABLE_SCHEMA AS FKTABLE_CAT, K.TABLE_NAME AS FKTABLE_NAME, K.COLUMN_NAME AS FKCOLUMN_NAME, " +
+          "NULL AS PKTABLE_SCHEM, K.REFERENCED_TABLE_SCHEMA AS PKTABLE_CAT, K.REFERENCED_TABLE_NAME AS PKTABLE_NAME, " +
+          "K.REFERENCED_COLUMN_NAME AS PKCOLUMN_NAME, " +
+          "CASE R.DELETE_RULE WHEN 'CASCADE' THEN 0 WHEN 'RESTRICT' THEN 1 WHEN 'SET NULL' THEN 2 " +
+          "WHEN 'SET DEFAULT' THEN 4 ELSE 3 END AS DELETE_RULE " +
+          "FROM information_schema.KEY_COLUMN_USAGE K " +
+          "JOIN information_schema.REFERENTIAL_CONSTRAINTS R " +
+          "ON R.CONSTRAINT_SCHEMA = K.CONSTRAINT_SCHEMA AND R.CONSTRAINT_NAME = K.CONSTRAINT_NAME AND R.TABLE_NAME = K.TABLE_NAME " +
+          "WHERE K.TABLE_SCHEMA = ? AND K.REFERENCED_TABLE_NAME IS NOT NULL " +
+          "ORDER BY K.TABLE_NAME, K.CONSTRAINT_NAME, K.ORDINAL_POSITION";
+
+  private static final String SCHEMA_INDICES_QUERY = "SELECT TABLE_NAME, NULL AS TABLE_SCHEM, NON_UNIQUE, " +
+          "INDEX_SCHEMA AS INDEX_QUALIFIER, INDEX_NAME, " +
+          "CASE INDEX_TYPE WHEN 'HASH' THEN 2 ELSE 3 END AS TYPE, " +
+          "COLUMN_NAME, COLLATION AS ASC_OR_DESC, CARDINALITY, NULL AS FILTER_CONDITION " +
+          "FROM information_schema.STATISTICS " +
+          "WHERE TABLE_SCHEMA = ? " +
+          "ORDER BY TABLE_NAME, NON_UNIQUE, INDEX_NAME, SEQ_IN_INDEX";
+
   public MySQLColumnsExtractor(Connection connection) {
     super(connection);
   }
 
+  @Override
+  protected boolean supportsBulkExtraction() {
+    return true;
+  }
+
+  @Override
+  protected Map<String, Map<String, Integer>> extractPrimaryKeysForSchema(java.sql.Connection connection, String schema) throws SQLException {
+    Map<String, Map<String, Integer>> result = new HashMap<>();
+    try (PreparedStatement statement = connection.prepareStatement(SCHEMA_PRIMARY_KEYS_QUERY)) {
+      statement.setString(1, schema);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          result.computeIfAbsent(resultSet.getString("TABLE_NAME"), k -> new HashMap<>())
+                  .put(resultSet.getString("COLUMN_NAME"), resultSet.getInt("KEY_SEQ"));
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  protected Map<String, Map<String, List<ForeignKey>>> extractForeignKeysForSchema(java.sql.Connection connection, String schema) throws SQLException {
+    Map<String, Map<String, List<ForeignKey>>> result = new HashMap<>();
+    try (PreparedStatement statement = connection.prepareStatement(SCHEMA_FOREIGN_KEYS_QUERY)) {
+      statement.setString(1, schema);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          ForeignKey foreignKey = mapForeignKey(resultSet);
+          result.computeIfAbsent(foreignKey.getTableName(), k -> new HashMap<>())
+                  .computeIfAbsent(foreignKey.getColumnName(), k -> new ArrayList<>())
+                  .add(foreignKey);
+        }
+      }
+    }
+    return result;
+  }
+
+  @Override
+  protected Map<String, List<Index>> extractIndicesForSchema(java.sql.Connection connection, String schema) throws SQLException {
+    Map<String, Map<String, Index>> indicesByTable = new HashMap<>();
+    try (PreparedStatement statement = connection.prepareStatement(SCHEMA_INDICES_QUERY)) {
+      statement.setString(1, schema);
+      try (ResultSet resultSet = statement.executeQuery()) {
+        while (resultSet.next()) {
+          Index index = indicesByTable.computeIfAbsent(resultSet.getString("TABLE_NAME"), k -> new LinkedHashMap<>())
+                  .computeIfAbsent(resultSet.getString("INDEX_NAME"), k -> new Index());
+          mapIndex(resultSet, index);
+        }
+      }
+    }
+    return indicesByTable.entrySet()
+            .stream()
+            .collect(Collectors.toMap(Map.Entry::getKey, entry -> new ArrayList<>(entry.getValue().values())));
+  }
+
   @Override
   protected void extract(ResultSet resultSet, Column column) throws SQLException {
     column.setName(resultSet.getString("COLUMN_NAME"));
 
     String columnType = String.valueOf(resultSet.getString("TYPE_NAME"));
-    column.setTypeName(TranslationMatrix.getInstance().findBySourceTypeAndSourceColumnType("mysql", columnType));
+    column.setTypeName(TypeNormalizer.getInstance().normalize("mysql", columnType));
 
     column.setNullable(resultSet.getString("IS_NULLABLE").equals("YES"));
     column.setColumnDisplaySize(resultSet.getInt("COLUMN_SIZE"));
@@ -1,13 +1,20 @@
 package com.adataptivescale.rosetta.source.core.extractors.column;
 
-import com.adaptivescale.rosetta.common.TranslationMatrix;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Index;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adataptivescale.rosetta.source.common.TypeNormalizer;
 
+import java.sql.PreparedStatement;
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
 
 
 @RosettaModule(
@@ -15,16 +22,59 @@ import java.sql.SQLException;
         type = RosettaModuleTypes.COLUMN_EXTRACTOR
 )
 public class PostgresColumnsExtractor extends ColumnsExtractor{
+
+    // Same shape as the pgjdbc getIndexInfo query, but for every table in the schema at once
+    private static final String SCHEMA_INDICES_QUERY = "SELECT n.nspname AS TABLE_SCHEM, ct.relname AS TABLE_NAME, " +
+            "NOT i.indisunique AS NON_UNIQUE, NULL AS INDEX_QUALIFIER, ci.relname AS INDEX_NAME, " +
+            "CASE i.indisclustered WHEN true THEN 1 ELSE CASE am.amname WHEN 'hash' THEN 2 ELSE 3 END END AS TYPE, " +
+            "k.n AS ORDINAL_POSITION, " +
+            "trim(both '\"' from pg_catalog.pg_get_indexdef(ci.oid, k.n, false)) AS COLUMN_NAME, " +
+            "CASE am.amname WHEN 'btree' THEN CASE i.indoption[k.n - 1] & 1::smallint WHEN 1 THEN 'D' ELSE 'A' END ELSE NULL END AS ASC_OR_DESC, " +
+            "ci.reltuples AS CARDINALITY, " +
+            "pg_catalog.pg_get_expr(i.indpred, i.indrelid) AS FILTER_CONDITION " +
+            "FROM pg_catalog.pg_class ct " +
+            "JOIN pg_catalog.pg_namespace n ON ct.relnamespace = n.oid " +
+            "JOIN pg_catalog.pg_index i ON ct.oid = i.indrelid " +
+            "JOIN pg_catalog.pg_class ci ON ci.oid = i.indexrelid " +
+            "JOIN pg_catalog.pg_am am ON ci.relam = am.oid " +
+            "CROSS JOIN LATERAL generate_series(1, i.indnatts) AS k(n) " +
+            "WHERE n.nspname = ? " +
+            "ORDER BY TABLE_NAME, NON_UNIQUE, TYPE, INDEX_NAME, ORDINAL_POSITION";
+
     public PostgresColumnsExtractor(Connection connection) {
         super(connection);
     }
 
+    @Override
+    protected boolean supportsBulkExtraction() {
+        return true;
+    }
+
+    // pgjdbc getIndexInfo requires a table name, so indices for the whole schema come from pg_catalog
+    @Override
+    protected Map<String, List<Index>> extractIndicesForSchema(java.sql.Connection connection, String schema) throws SQLException {
+        Map<String, Map<String, Index>> indicesByTable = new LinkedHashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(SCHEMA_INDICES_QUERY)) {
+            statement.setString(1, schema);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    Index index = indicesByTable.computeIfAbsent(resultSet.getString("TABLE_NAME"), k -> new LinkedHashMap<>())
+                            .computeIfAbsent(resultSet.getString("INDEX_NAME"), k -> new Index());
+                    mapIndex(resultSet, index);
+                }
+            }
+        }
+        return indicesByTable.entrySet()
+                .stream()
+                .collect(Collectors.toMap(Map.Entry::getKey, entry -> new ArrayList<>(entry.getValue().values())));
+    }
+
     @Override
     protected void extract(ResultSet resultSet, Column column) throws SQLException {
         column.setName(resultSet.getString("COLUMN_NAME"));
 
         String columnType = String.valueOf(resultSet.getString("TYPE_NAME"));
-        column.setTypeName(TranslationMatrix.getInstance().findBySourceTypeAndSourceColumnType("postgres", columnType));
+        column.setTypeName(TypeNormalizer.getInstance().normalize("postgres", columnType));
 
         column.setNullable(resultSet.getBoolean("IS_NULLABLE"));
         column.setColumnDisplaySize(resultSet.getInt("COLUMN_SIZE"));
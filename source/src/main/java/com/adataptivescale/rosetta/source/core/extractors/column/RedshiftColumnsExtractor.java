@@ -1,13 +1,17 @@
 package com.adataptivescale.rosetta.source.core.extractors.column;
 
-import com.adaptivescale.rosetta.common.TranslationMatrix;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Index;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adataptivescale.rosetta.source.common.TypeNormalizer;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 
 
 @RosettaModule(
@@ -20,12 +24,23 @@ public class RedshiftColumnsExtractor extends ColumnsExtractor {
         super(connection);
     }
 
+    @Override
+    protected boolean supportsBulkExtraction() {
+        return true;
+    }
+
+    // Redshift has no indices, and its driver requires a table name for getIndexInfo
+    @Override
+    protected Map<String, List<Index>> extractIndicesForSchema(java.sql.Connection connection, String schema) {
+        return Collections.emptyMap();
+    }
+
     @Override
     protected void extract(ResultSet resultSet, Column column) throws SQLException {
         column.setName(resultSet.getString("COLUMN_NAME"));
 
         String columnType = String.valueOf(resultSet.getString("TYPE_NAME"));
-        column.setTypeName(TranslationMatrix.getInstance().findBySourceTypeAndSourceColumnType("redshift", columnType));
+        column.setTypeName(TypeNormalizer.getInstance().normalize("redshift", columnType));
 
         column.setAutoincrement(is_autoincrement(resultSet));
         column.setNullable(resultSet.getBoolean("IS_NULLABLE"));
@@ -16,11 +16,11 @@
 
 package com.adataptivescale.rosetta.source.core.extractors.column;
 
-import com.adaptivescale.rosetta.common.TranslationMatrix;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adataptivescale.rosetta.source.common.TypeNormalizer;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -41,7 +41,7 @@ public class SAPIQColumnsExtractor extends ColumnsExtractor{
 
         String columnType = resultSet.getString("TYPE_NAME");
         if (columnType != null) {
-            column.setTypeName(TranslationMatrix.getInstance().findBySourceTypeAndSourceColumnType("sapiq", columnType));
+            column.setTypeName(TypeNormalizer.getInstance().normalize("sapiq", columnType));
         }
 
         String nullableStr = resultSet.getString("IS_NULLABLE");
@@ -16,11 +16,11 @@
 
 package com.adataptivescale.rosetta.source.core.extractors.column;
 
-import com.adaptivescale.rosetta.common.TranslationMatrix;
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+import com.adataptivescale.rosetta.source.common.TypeNormalizer;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
@@ -34,13 +34,18 @@ public class SnowflakeColumnsExtractor extends ColumnsExtractor {
     super(connection);
   }
 
+  @Override
+  protected boolean supportsBulkExtraction() {
+    return true;
+  }
+
   // is_nullable => is returned "YES" for true and "NO" for false instead of boolean by snowflake jdbc driver
   @Override
   protected void extract(ResultSet resultSet, Column column) throws SQLException {
     column.setName(resultSet.getString("COLUMN_NAME"));
 
     String columnType = String.valueOf(resultSet.getString("TYPE_NAME"));
-    column.setTypeName(TranslationMatrix.getInstance().findBySourceTypeAndSourceColumnType("snowflake", columnType));
+    column.setTypeName(TypeNormalizer.getInstance().normalize("snowflake", columnType));
 
     column.setNullable("YES".equals(resultSet.getObject("IS_NULLABLE")));
     column.setColumnDisplaySize(resultSet.getInt("COLUMN_SIZE"));
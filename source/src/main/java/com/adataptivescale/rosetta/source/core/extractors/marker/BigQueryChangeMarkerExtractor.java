@@ -0,0 +1,36 @@
+package com.adataptivescale.rosetta.source.core.extractors.marker;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.HashMap;
+import java.util.Map;
+
+@RosettaModule(
+        name = "bigquery",
+        type = RosettaModuleTypes.CHANGE_MARKER_EXTRACTOR
+)
+public class BigQueryChangeMarkerExtractor extends DefaultChangeMarkerExtractor {
+
+    @Override
+    protected String query() {
+        // the dataset is part of the table reference and can not be a parameter
+        return "select table_id as TABLE_NAME, cast(last_modified_time as string) as CHANGE_MARKER from %s.__TABLES__ where type = 1";
+    }
+
+    // last_modified_time also moves when data is loaded, which only makes a table be extracted again without need
+    @Override
+    protected Map<String, String> extractForSchema(java.sql.Connection connection, String schema) throws SQLException {
+        Map<String, String> markers = new HashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(String.format(query(), schema))) {
+            while (resultSet.next()) {
+                markers.put(resultSet.getString("TABLE_NAME"), resultSet.getString("CHANGE_MARKER"));
+            }
+        }
+        return markers;
+    }
+}
@@ -0,0 +1,57 @@
+package com.adataptivescale.rosetta.source.core.extractors.marker;
+
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adataptivescale.rosetta.source.core.interfaces.ChangeMarkerExtractor;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.*;
+
+/**
+ * Reads a change marker for every table, a value read from the catalog that changes whenever the structure of the
+ * table changes, so incremental extraction only extracts again the tables whose marker moved. Markers are keyed by
+ * {@code [schema, table name]}. The default is for databases without such a marker and returns no markers, which
+ * makes the extraction a full one.
+ */
+public class DefaultChangeMarkerExtractor implements ChangeMarkerExtractor<Map<List<String>, String>, Collection<Table>, java.sql.Connection> {
+
+    @Override
+    public Map<List<String>, String> extract(Collection<Table> tables, java.sql.Connection connection) throws Exception {
+        Map<List<String>, String> markers = new HashMap<>();
+        if (query() == null) {
+            return markers;
+        }
+        Set<String> schemas = new LinkedHashSet<>();
+        for (Table table : tables) {
+            schemas.add(table.getSchema());
+        }
+        for (String schema : schemas) {
+            for (Map.Entry<String, String> marker : extractForSchema(connection, schema).entrySet()) {
+                markers.put(Arrays.asList(schema, marker.getKey()), marker.getValue());
+            }
+        }
+        return markers;
+    }
+
+    /**
+     * @return a query with the schema as its only parameter, selecting TABLE_NAME and CHANGE_MARKER of every table
+     * in the schema, or null when the database has no change markers
+     */
+    protected String query() {
+        return null;
+    }
+
+    protected Map<String, String> extractForSchema(java.sql.Connection connection, String schema) throws SQLException {
+        Map<String, String> markers = new HashMap<>();
+        try (PreparedStatement statement = connection.prepareStatement(query())) {
+            statement.setString(1, schema);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    markers.put(resultSet.getString("TABLE_NAME"), resultSet.getString("CHANGE_MARKER"));
+                }
+            }
+        }
+        return markers;
+    }
+}
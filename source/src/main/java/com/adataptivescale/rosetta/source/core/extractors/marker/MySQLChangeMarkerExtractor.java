@@ -0,0 +1,45 @@
+package com.adataptivescale.rosetta.source.core.extractors.marker;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+
+@RosettaModule(
+        name = "mysql",
+        type = RosettaModuleTypes.CHANGE_MARKER_EXTRACTOR
+)
+public class MySQLChangeMarkerExtractor extends DefaultChangeMarkerExtractor {
+
+    // information_schema.TABLES has no LAST_ALTERED and CREATE_TIME does not move on every ALTER TABLE,
+    // so the marker is a hash of the catalog rows describing the columns, indices and foreign keys of the table
+    private static final String QUERY = "SELECT t.TABLE_NAME, MD5(CONCAT_WS('|', " +
+            "(SELECT GROUP_CONCAT(CONCAT_WS(',', c.COLUMN_NAME, c.COLUMN_TYPE, c.IS_NULLABLE, c.COLUMN_DEFAULT, " +
+            "c.EXTRA, c.COLUMN_COMMENT, c.ORDINAL_POSITION) ORDER BY c.ORDINAL_POSITION SEPARATOR ';') " +
+            "FROM information_schema.COLUMNS c WHERE c.TABLE_SCHEMA = t.TABLE_SCHEMA AND c.TABLE_NAME = t.TABLE_NAME), " +
+            "(SELECT GROUP_CONCAT(CONCAT_WS(',', s.INDEX_NAME, s.NON_UNIQUE, s.SEQ_IN_INDEX, s.COLUMN_NAME, s.COLLATION) " +
+            "ORDER BY s.INDEX_NAME, s.SEQ_IN_INDEX SEPARATOR ';') " +
+            "FROM information_schema.STATISTICS s WHERE s.TABLE_SCHEMA = t.TABLE_SCHEMA AND s.TABLE_NAME = t.TABLE_NAME), " +
+            "(SELECT GROUP_CONCAT(CONCAT_WS(',', k.CONSTRAINT_NAME, k.COLUMN_NAME, k.ORDINAL_POSITION, " +
+            "k.REFERENCED_TABLE_SCHEMA, k.REFERENCED_TABLE_NAME, k.REFERENCED_COLUMN_NAME) " +
+            "ORDER BY k.CONSTRAINT_NAME, k.ORDINAL_POSITION SEPARATOR ';') " +
+            "FROM information_schema.KEY_COLUMN_USAGE k WHERE k.TABLE_SCHEMA = t.TABLE_SCHEMA AND k.TABLE_NAME = t.TABLE_NAME), " +
+            "t.TABLE_COMMENT, t.CREATE_TIME)) AS CHANGE_MARKER " +
+            "FROM information_schema.TABLES t WHERE t.TABLE_SCHEMA = ? AND t.TABLE_TYPE = 'BASE TABLE'";
+
+    @Override
+    protected String query() {
+        return QUERY;
+    }
+
+    @Override
+    protected Map<String, String> extractForSchema(java.sql.Connection connection, String schema) throws SQLException {
+        // the default limit of 1024 bytes would truncate the concatenated rows of wide tables
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET SESSION group_concat_max_len = 1048576");
+        }
+        return super.extractForSchema(connection, schema);
+    }
+}
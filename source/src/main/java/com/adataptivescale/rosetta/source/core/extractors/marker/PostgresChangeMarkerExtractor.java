@@ -0,0 +1,31 @@
+package com.adataptivescale.rosetta.source.core.extractors.marker;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+
+@RosettaModule(
+        name = "postgres",
+        type = RosettaModuleTypes.CHANGE_MARKER_EXTRACTOR
+)
+public class PostgresChangeMarkerExtractor extends DefaultChangeMarkerExtractor {
+
+    // pg_catalog keeps no modification time, so the marker is a hash of the catalog rows of the table:
+    // its columns, constraints, indices and comment
+    private static final String QUERY = "SELECT c.relname AS TABLE_NAME, md5(concat_ws('|', " +
+            "(SELECT string_agg(concat_ws(',', a.attnum, a.attname, pg_catalog.format_type(a.atttypid, a.atttypmod), " +
+            "a.attnotnull, pg_catalog.pg_get_expr(d.adbin, d.adrelid), pg_catalog.col_description(c.oid, a.attnum)), ';' ORDER BY a.attnum) " +
+            "FROM pg_catalog.pg_attribute a LEFT JOIN pg_catalog.pg_attrdef d ON d.adrelid = a.attrelid AND d.adnum = a.attnum " +
+            "WHERE a.attrelid = c.oid AND a.attnum > 0 AND NOT a.attisdropped), " +
+            "(SELECT string_agg(concat_ws(',', co.conname, pg_catalog.pg_get_constraintdef(co.oid)), ';' ORDER BY co.conname) " +
+            "FROM pg_catalog.pg_constraint co WHERE co.conrelid = c.oid), " +
+            "(SELECT string_agg(pg_catalog.pg_get_indexdef(i.indexrelid), ';' ORDER BY i.indexrelid) " +
+            "FROM pg_catalog.pg_index i WHERE i.indrelid = c.oid), " +
+            "pg_catalog.obj_description(c.oid, 'pg_class'))) AS CHANGE_MARKER " +
+            "FROM pg_catalog.pg_class c JOIN pg_catalog.pg_namespace n ON n.oid = c.relnamespace " +
+            "WHERE n.nspname = ? AND c.relkind IN ('r', 'p')";
+
+    @Override
+    protected String query() {
+        return QUERY;
+    }
+}
@@ -0,0 +1,18 @@
+package com.adataptivescale.rosetta.source.core.extractors.marker;
+
+import com.adaptivescale.rosetta.common.annotations.RosettaModule;
+import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
+
+@RosettaModule(
+        name = "snowflake",
+        type = RosettaModuleTypes.CHANGE_MARKER_EXTRACTOR
+)
+public class SnowflakeChangeMarkerExtractor extends DefaultChangeMarkerExtractor {
+
+    // LAST_ALTERED also moves on DML, which only makes a table be extracted again without need
+    @Override
+    protected String query() {
+        return "SELECT TABLE_NAME, TO_VARCHAR(LAST_ALTERED, 'YYYY-MM-DD HH24:MI:SS.FF9 TZHTZM') AS CHANGE_MARKER " +
+                "FROM INFORMATION_SCHEMA.TABLES WHERE TABLE_SCHEMA = ? AND TABLE_TYPE = 'BASE TABLE'";
+    }
+}
@@ -4,16 +4,14 @@ import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
-import com.adataptivescale.rosetta.source.common.QueryHelper;
+import com.adataptivescale.rosetta.source.core.ParallelExtraction;
+import com.adataptivescale.rosetta.source.core.interfaces.ConnectionFactory;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
-import java.util.Collection;
-import java.util.List;
-import java.util.Map;
-import java.util.Optional;
+import java.util.*;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -23,26 +21,40 @@ import java.util.regex.Pattern;
         type = RosettaModuleTypes.TABLE_EXTRACTOR
 )
 public class KineticaTablesExtractor extends DefaultTablesExtractor {
+
+    // the PARTITION BY and PARTITIONS block of the DDL returned by SHOW
+    private static final Pattern PARTITIONS_PATTERN = Pattern.compile(
+            "(PARTITION BY\\s+\\w+\\s*\\(.*?\\)\\s*PARTITIONS\\s*\\(.*?\\))(?:\\s*TIER STRATEGY|;)", Pattern.DOTALL);
+    private static final String TIER_STRATEGY = "TIER STRATEGY";
+
     @Override
     public Collection<Table> extract(Connection target, java.sql.Connection connection) throws SQLException {
+        return extract(target, connection, null);
+    }
+
+    @Override
+    public Collection<Table> extract(Connection target, java.sql.Connection connection,
+                                     ConnectionFactory connectionFactory) throws SQLException {
         Collection<Table> tables = super.extract(target, connection);
-        attachTablePartitions(tables, connection);
-        attachTableTierStrategy(tables, connection);
+        attachTableDetails(target, tables, connection, connectionFactory);
         attachTableType(tables, connection);
         return tables;
     }
 
     private void attachTableType(Collection<Table> tables, java.sql.Connection connection) {
+        Map<List<String>, Table> tablesByName = new HashMap<>();
+        for (Table table : tables) {
+            tablesByName.putIfAbsent(Arrays.asList(table.getSchema(), table.getName()), table);
+        }
+
         try (Statement statement = connection.createStatement();
              ResultSet resultSet = statement.executeQuery("SELECT object_name, schema_name, shard_kind, persistence FROM ki_catalog.ki_objects;")) {
 
             while (resultSet.next()) {
-                String object_schema = resultSet.getString("schema_name");
-                String object_name = resultSet.getString("object_name");
-                Optional<Table> found_table = tables.stream().filter(table -> table.getSchema().equals(object_schema) && table.getName().equals(object_name)).findFirst();
-                if (found_table.isPresent()) {
-                    found_table.get().addProperty("shard_kind", resultSet.getString("shard_kind"));
-                    found_table.get().addProperty("persistence", resultSet.getString("persistence"));
+                Table table = tablesByName.get(Arrays.asList(resultSet.getString("schema_name"), resultSet.getString("object_name")));
+                if (table != null) {
+                    table.addProperty("shard_kind", resultSet.getString("shard_kind"));
+                    table.addProperty("persistence", resultSet.getString("persistence"));
                 }
             }
         } catch (SQLException e) {
@@ -51,29 +63,38 @@ public class KineticaTablesExtractor extends DefaultTablesExtractor {
         }
     }
 
-    private void attachTablePartitions(Collection<Table> tables, java.sql.Connection connection) {
-        for (Table table : tables) {
-            String queryTemplate = "SHOW %s.%s;";
-            try (Statement statement = connection.createStatement()) {
-                String query = String.format(queryTemplate, table.getSchema(), table.getName());
-                ResultSet resultSet = statement.executeQuery(query);
-                List<Map<String, Object>> records = QueryHelper.mapRecords(resultSet);
-
-                if (!records.isEmpty()) {
-                    table.addProperty("partitions", extractPartitions(records.get(0).get("ddl").toString()));
-                }
+    /**
+     * Attaches the partitions and tier strategy of every table from a single SHOW of the table. With more than one
+     * extraction connection configured, tables are spread over that many connections.
+     */
+    private void attachTableDetails(Connection target, Collection<Table> tables, java.sql.Connection connection,
+                                    ConnectionFactory connectionFactory) throws SQLException {
+        try {
+            ParallelExtraction.forEach(new ArrayList<>(tables), target.getExtractionConnections(), connection,
+                    connectionFactory, (workerConnection, table) -> attachTableDetails(table, workerConnection));
+        } catch (SQLException | RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new SQLException(e);
+        }
+    }
 
-            } catch (SQLException e) {
-                log.warn("Failed attaching partitions for table {}.{} due to: {}", table.getSchema(), table.getName(), e.getMessage());
+    private void attachTableDetails(Table table, java.sql.Connection connection) {
+        String query = String.format("SHOW %s.%s;", table.getSchema(), table.getName());
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            String ddl = resultSet.next() ? resultSet.getString("ddl") : null;
+            if (ddl != null) {
+                table.addProperty("partitions", extractPartitions(ddl));
+                table.addProperty("tier_strategy", extractTierStrategy(ddl));
             }
+        } catch (SQLException e) {
+            log.warn("Failed attaching partitions and tier strategy for table {}.{} due to: {}", table.getSchema(), table.getName(), e.getMessage());
         }
     }
 
     private String extractPartitions(String ddl) {
-        // Regular expression pattern to match the PARTITION BY and PARTITIONS block
-        String patternString = "(PARTITION BY\\s+\\w+\\s*\\(.*?\\)\\s*PARTITIONS\\s*\\(.*?\\))(?:\\s*TIER STRATEGY|;)";
-        Pattern pattern = Pattern.compile(patternString, Pattern.DOTALL);
-        Matcher matcher = pattern.matcher(ddl);
+        Matcher matcher = PARTITIONS_PATTERN.matcher(ddl);
 
         if (matcher.find()) {
             return matcher.group(1).trim();
@@ -82,30 +103,11 @@ public class KineticaTablesExtractor extends DefaultTablesExtractor {
         return null;
     }
 
-    private void attachTableTierStrategy(Collection<Table> tables, java.sql.Connection connection) {
-        for (Table table : tables) {
-            String queryTemplate = "SHOW %s.%s;";
-            try (Statement statement = connection.createStatement()) {
-                String query = String.format(queryTemplate, table.getSchema(), table.getName());
-                ResultSet resultSet = statement.executeQuery(query);
-                List<Map<String, Object>> records = QueryHelper.mapRecords(resultSet);
-
-                if (!records.isEmpty()) {
-                    table.addProperty("tier_strategy", extractTierStrategy(records.get(0).get("ddl").toString()));
-                }
-
-            } catch (SQLException e) {
-                log.warn("Skipping extracting tier strategy due to error: {}", e.getMessage());
-            }
-        }
-    }
-
     private String extractTierStrategy(String ddl) {
-        String tierStart = "TIER STRATEGY";
-        int startIdx = ddl.indexOf(tierStart);
+        int startIdx = ddl.indexOf(TIER_STRATEGY);
 
         if (startIdx != -1) {
-            startIdx += tierStart.length();
+            startIdx += TIER_STRATEGY.length();
             int endIdx = startIdx;
             int openParens = 0;
 
@@ -124,7 +126,7 @@ public class KineticaTablesExtractor extends DefaultTablesExtractor {
                 endIdx++;
             }
 
-            return tierStart + " " + ddl.substring(startIdx, endIdx).trim();
+            return TIER_STRATEGY + " " + ddl.substring(startIdx, endIdx).trim();
         }
 
         return null;
@@ -18,42 +18,114 @@ package com.adataptivescale.rosetta.source.core.extractors.view;
 
 import com.adaptivescale.rosetta.common.annotations.RosettaModule;
 import com.adaptivescale.rosetta.common.models.View;
+import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.common.types.RosettaModuleTypes;
-import com.adataptivescale.rosetta.source.common.QueryHelper;
+import com.adataptivescale.rosetta.source.core.ParallelExtraction;
+import com.adataptivescale.rosetta.source.core.interfaces.ConnectionFactory;
+import lombok.extern.slf4j.Slf4j;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.sql.Statement;
 import java.util.*;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 import java.util.stream.Collectors;
 
+/**
+ * Attaches the DDL of BigQuery views from INFORMATION_SCHEMA. When the JDBC url sets a {@code Location}, the views of
+ * every dataset in that region come from the region-level INFORMATION_SCHEMA in a single job. Datasets left without
+ * DDL, those of other regions or all of them when that job fails, are queried each on its own, on up to
+ * {@link Connection#getExtractionConnections()} connections at once.
+ */
+@Slf4j
 @RosettaModule(
         name = "bigquery",
         type = RosettaModuleTypes.VIEW_EXTRACTOR
 )
-public class BigQueryViewExtractor extends DefaultViewExtractor{
+public class BigQueryViewExtractor extends DefaultViewExtractor {
+
+    private static final Pattern LOCATION = Pattern.compile("(?i)(?:^|;)\\s*Location\\s*=\\s*([^;]+)");
+    private static final String REGION_VIEWS_QUERY = "select table_schema, table_name, ddl from `region-%s`.INFORMATION_SCHEMA.TABLES where table_type='VIEW'";
+    private static final String DATASET_VIEWS_QUERY = "select table_schema, table_name, ddl from %s.INFORMATION_SCHEMA.TABLES where table_type='VIEW'";
+
     @Override
-    protected void attachViewDDL(Collection<View> views, java.sql.Connection connection) throws SQLException {
-        HashMap<String, List<View>> viewsBySchema = new HashMap<>();
+    public Collection<View> extract(Connection target, java.sql.Connection connection) throws Exception {
+        return extract(target, connection, null);
+    }
+
+    @Override
+    public Collection<View> extract(Connection target, java.sql.Connection connection,
+                                    ConnectionFactory connectionFactory) throws Exception {
+        Collection<View> views = extractViews(target, connection);
+        if (views.isEmpty()) {
+            return views;
+        }
+
+        Map<List<String>, View> viewsByName = new HashMap<>();
         for (View view : views) {
-            viewsBySchema.computeIfAbsent(view.getSchema(), k->new ArrayList<View>()).add(view);
-        }
-        for (String schemaName : viewsBySchema.keySet()) {
-            Statement statement = connection.createStatement();
-            String query = String.format("select * from %s.INFORMATION_SCHEMA.TABLES where table_type='VIEW'", schemaName);
-            ResultSet resultSet = statement.executeQuery(query);
-            List<Map<String, Object>> records = QueryHelper.mapRecords(resultSet);
-            for (Map<String, Object> record : records) {
-                Optional<View> tmpTable = viewsBySchema.get(schemaName).stream()
-                        .filter(view -> view.getName().equals(record.get("table_name"))).findAny();
-                String[] ddls = record.get("ddl").toString().split("\n");
-                String ddl = Arrays.stream(Arrays.copyOfRange(ddls, 1, ddls.length)).collect(Collectors.joining(" "));
-                if(ddl.endsWith(";")) {
-                    ddl= ddl.substring(0, ddl.length()-2);
+            viewsByName.put(Arrays.asList(view.getSchema(), view.getName()), view);
+        }
+
+        Optional<String> location = locationOf(target.getUrl());
+        if (location.isPresent()) {
+            try {
+                attachViewDDL(String.format(REGION_VIEWS_QUERY, location.get().toLowerCase()), viewsByName, connection);
+            } catch (SQLException e) {
+                log.warn("Could not read views from region-{}.INFORMATION_SCHEMA, querying each dataset instead: {}",
+                        location.get(), e.getMessage());
+            }
+        }
+
+        // datasets outside the region of the connection are not in its region-level INFORMATION_SCHEMA
+        List<String> datasets = views.stream().filter(view -> view.getCode() == null).map(View::getSchema)
+                .distinct().collect(Collectors.toList());
+        if (!datasets.isEmpty()) {
+            attachViewDDLByDataset(target, datasets, viewsByName, connection, connectionFactory);
+        }
+        return views;
+    }
+
+    private void attachViewDDLByDataset(Connection target, List<String> datasets, Map<List<String>, View> viewsByName,
+                                        java.sql.Connection connection, ConnectionFactory connectionFactory) throws Exception {
+        if (connectionFactory != null && target.getExtractionConnections() > 1 && datasets.size() > 1) {
+            log.info("Extracting view DDL of {} datasets using {} connections", datasets.size(),
+                    Math.min(target.getExtractionConnections(), datasets.size()));
+        }
+        // a BigQuery job per dataset, each connection running one at a time
+        ParallelExtraction.forEach(datasets, target.getExtractionConnections(), connection, connectionFactory,
+                (workerConnection, dataset) -> attachViewDDL(String.format(DATASET_VIEWS_QUERY, dataset), viewsByName,
+                        workerConnection));
+    }
+
+    private void attachViewDDL(String query, Map<List<String>, View> viewsByName, java.sql.Connection connection) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery(query)) {
+            while (resultSet.next()) {
+                View view = viewsByName.get(Arrays.asList(resultSet.getString("table_schema"), resultSet.getString("table_name")));
+                String ddl = resultSet.getString("ddl");
+                if (view != null && ddl != null) {
+                    view.setCode(viewCode(ddl));
                 }
-                String finalDdl = ddl;
-                tmpTable.ifPresent(table -> table.setCode(finalDdl));
             }
         }
     }
+
+    // the view query is the DDL without its CREATE VIEW line
+    private static String viewCode(String ddl) {
+        String[] ddls = ddl.split("\n");
+        String code = Arrays.stream(Arrays.copyOfRange(ddls, 1, ddls.length)).collect(Collectors.joining(" "));
+        if (code.endsWith(";")) {
+            code = code.substring(0, code.length() - 2);
+        }
+        return code;
+    }
+
+    static Optional<String> locationOf(String url) {
+        if (url == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = LOCATION.matcher(url);
+        return matcher.find() ? Optional.of(matcher.group(1).trim()) : Optional.empty();
+    }
 }
@@ -0,0 +1,12 @@
+package com.adataptivescale.rosetta.source.core.interfaces;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Opens further connections to the database being extracted, for extractors that spread their queries over several
+ * connections.
+ */
+public interface ConnectionFactory {
+    Connection connect() throws SQLException;
+}
@@ -4,4 +4,12 @@ public interface Generator<V, E> {
 
     V generate(E inputSource) throws Exception;
     V validate(E inputSource) throws Exception;
+
+    /**
+     * Generates the model again, reusing what has not changed since {@code previous} was generated. Generators that
+     * can not tell what changed generate the whole model.
+     */
+    default V generate(E inputSource, V previous) throws Exception {
+        return generate(inputSource);
+    }
 }
@@ -4,4 +4,11 @@ package com.adataptivescale.rosetta.source.core.interfaces;
 public interface TableExtractor<V,E,U> {
 
      V extract(E param1, U param2) throws Exception;
+
+     /**
+      * Extracts with {@code connectionFactory} at hand for extractors that can use more than one connection.
+      */
+     default V extract(E param1, U param2, ConnectionFactory connectionFactory) throws Exception {
+          return extract(param1, param2);
+     }
 }
@@ -0,0 +1,139 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.JDBCDriverProvider;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adataptivescale.rosetta.source.core.interfaces.ChangeMarkerExtractor;
+import com.adataptivescale.rosetta.source.core.interfaces.ColumnExtractor;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.DatabaseMetaData;
+import java.sql.Driver;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class DefaultGeneratorTest {
+
+    private final List<Collection<Table>> columnExtractions = new ArrayList<>();
+
+    @Test
+    public void reusesTablesWithUnchangedMarkers() throws Exception {
+        Database previous = new Database();
+        Table unchanged = table("t1", "a");
+        previous.setTables(List.of(unchanged, table("t2", "b1"), table("dropped", "d")));
+
+        Database database = generator(markers("t1", "a", "t2", "b2", "t3", "c")).generate(new Connection(), previous);
+
+        List<Table> tables = new ArrayList<>(database.getTables());
+        Assertions.assertEquals(List.of("t1", "t2", "t3"), names(tables));
+        Assertions.assertSame(unchanged, tables.get(0));
+        Assertions.assertEquals("b2", tables.get(1).getChangeMarker());
+        Assertions.assertEquals("c", tables.get(2).getChangeMarker());
+        Assertions.assertEquals(List.of("t2", "t3"), names(columnExtractions.get(0)));
+    }
+
+    @Test
+    public void extractsEverythingWithoutPrevious() throws Exception {
+        Database database = generator(markers("t1", "a", "t2", "b", "t3", "c")).generate(new Connection());
+
+        Assertions.assertEquals(List.of("t1", "t2", "t3"), names(database.getTables()));
+        Assertions.assertEquals(List.of("a", "b", "c"),
+                database.getTables().stream().map(Table::getChangeMarker).collect(Collectors.toList()));
+        Assertions.assertEquals(List.of("t1", "t2", "t3"), names(columnExtractions.get(0)));
+    }
+
+    @Test
+    public void extractsEverythingWhenMarkersFail() throws Exception {
+        Database previous = new Database();
+        previous.setTables(List.of(table("t1", "a")));
+        ChangeMarkerExtractor<Map<List<String>, String>, Collection<Table>, java.sql.Connection> failing = (tables, connection) -> {
+            throw new SQLException("permission denied");
+        };
+
+        Database database = generator(failing).generate(new Connection(), previous);
+
+        Assertions.assertEquals(List.of("t1", "t2", "t3"), names(columnExtractions.get(0)));
+        Assertions.assertTrue(database.getTables().stream().allMatch(table -> table.getChangeMarker() == null));
+    }
+
+    @Test
+    public void extractsTablesWithoutMarker() throws Exception {
+        Database previous = new Database();
+        previous.setTables(List.of(table("t1", null), table("t2", "b")));
+
+        generator(markers("t2", "b")).generate(new Connection(), previous);
+
+        // t1 has no marker now nor before, and t3 is new
+        Assertions.assertEquals(List.of("t1", "t3"), names(columnExtractions.get(0)));
+    }
+
+    private DefaultGenerator generator(ChangeMarkerExtractor<Map<List<String>, String>, Collection<Table>, java.sql.Connection> markers) {
+        ColumnExtractor<java.sql.Connection, Collection<Table>> columns = (connection, tables) -> columnExtractions.add(tables);
+        return new DefaultGenerator((target, connection) -> List.of(table("t1", null), table("t2", null), table("t3", null)),
+                (target, connection) -> new ArrayList<>(), columns, markers, driverProvider());
+    }
+
+    private static ChangeMarkerExtractor<Map<List<String>, String>, Collection<Table>, java.sql.Connection> markers(String... tableMarkers) {
+        Map<List<String>, String> markers = new HashMap<>();
+        for (int i = 0; i < tableMarkers.length; i += 2) {
+            markers.put(Arrays.asList("s", tableMarkers[i]), tableMarkers[i + 1]);
+        }
+        return (tables, connection) -> markers;
+    }
+
+    private static Table table(String name, String marker) {
+        Table table = new Table();
+        table.setSchema("s");
+        table.setName(name);
+        table.setChangeMarker(marker);
+        return table;
+    }
+
+    private static List<String> names(Collection<? extends Table> tables) {
+        return tables.stream().map(Table::getName).collect(Collectors.toList());
+    }
+
+    private static JDBCDriverProvider driverProvider() {
+        DatabaseMetaData metaData = proxy(DatabaseMetaData.class, (method, args) -> {
+            if (method.equals("getDatabaseProductName")) {
+                return "Fake";
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        java.sql.Connection connection = proxy(java.sql.Connection.class, (method, args) -> {
+            switch (method) {
+                case "getMetaData":
+                    return metaData;
+                case "close":
+                    return null;
+                default:
+                    throw new UnsupportedOperationException(method);
+            }
+        });
+        Driver driver = proxy(Driver.class, (method, args) -> {
+            if (method.equals("connect")) {
+                return connection;
+            }
+            throw new UnsupportedOperationException(method);
+        });
+        return target -> driver;
+    }
+
+    private interface Handler {
+        Object invoke(String method, Object[] args);
+    }
+
+    private static <T> T proxy(Class<T> type, Handler handler) {
+        return type.cast(Proxy.newProxyInstance(DefaultGeneratorTest.class.getClassLoader(), new Class[]{type},
+                (proxy, method, args) -> handler.invoke(method.getName(), args)));
+    }
+}
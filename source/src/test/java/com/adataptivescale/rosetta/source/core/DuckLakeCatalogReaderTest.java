@@ -0,0 +1,178 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.View;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Collectors;
+
+public class DuckLakeCatalogReaderTest {
+
+    private static final String METADATA = "\"__ducklake_metadata_lake\".main";
+
+    @Test
+    public void readsTablesChangedSinceSnapshot() throws Exception {
+        Path directory = Files.createTempDirectory("ducklake");
+        try (Connection connection = DriverManager.getConnection("jdbc:duckdb:");
+             Statement statement = connection.createStatement()) {
+            statement.execute("INSTALL ducklake");
+            statement.execute("LOAD ducklake");
+            statement.execute(String.format("ATTACH 'ducklake:%s' AS lake (DATA_PATH '%s')",
+                    directory.resolve("metadata.ducklake"), directory.resolve("data")));
+            statement.execute("CREATE TABLE lake.main.customers (id INTEGER NOT NULL, name VARCHAR, balance DECIMAL(10, 2))");
+            statement.execute("CREATE TABLE lake.main.orders (id BIGINT, tags VARCHAR[], address STRUCT(city VARCHAR, zip INTEGER))");
+            statement.execute("CREATE TABLE lake.main.obsolete (id INTEGER)");
+            statement.execute("CREATE VIEW lake.main.rich_customers AS SELECT * FROM lake.main.customers WHERE balance > 100");
+
+            DuckLakeCatalogReader reader = new DuckLakeCatalogReader(connection, "lake");
+            long snapshot = reader.currentSnapshot();
+            List<Table> tables = reader.readTables("main", List.of());
+
+            Assertions.assertEquals(List.of("customers", "obsolete", "orders"), names(tables));
+            List<Column> customers = new ArrayList<>(tables.get(0).getColumns());
+            Assertions.assertEquals(List.of("INTEGER", "VARCHAR", "DECIMAL(10,2)"), typeNames(customers));
+            Assertions.assertFalse(customers.get(0).isNullable());
+            Assertions.assertEquals(32, customers.get(0).getPrecision());
+            Assertions.assertEquals(10, customers.get(2).getPrecision());
+            Assertions.assertEquals(2, customers.get(2).getScale());
+            Assertions.assertEquals(List.of("BIGINT", "VARCHAR[]", "STRUCT(city VARCHAR, zip INTEGER)"),
+                    typeNames(tables.get(2).getColumns()));
+            Assertions.assertEquals(List.of("orders"), names(reader.readTables("main", List.of("orders"))));
+
+            Assertions.assertTrue(reader.readTablesChangedSince(snapshot, "main", List.of(), tables).containsAll(tables));
+
+            statement.execute("ALTER TABLE lake.main.customers ADD COLUMN email VARCHAR");
+            statement.execute("DROP TABLE lake.main.obsolete");
+            statement.execute("CREATE TABLE lake.main.payments (id INTEGER)");
+            Assertions.assertTrue(reader.currentSnapshot() > snapshot);
+
+            List<Table> changed = reader.readTablesChangedSince(snapshot, "main", List.of(), tables);
+
+            Assertions.assertEquals(List.of("customers", "orders", "payments"), names(changed));
+            Assertions.assertSame(tables.get(2), changed.get(1));
+            Assertions.assertEquals(List.of("INTEGER", "VARCHAR", "DECIMAL(10,2)", "VARCHAR"),
+                    typeNames(changed.get(0).getColumns()));
+
+            List<View> views = reader.readViews("main", List.of());
+            Assertions.assertEquals(1, views.size());
+            Assertions.assertEquals("rich_customers", views.get(0).getName());
+            Assertions.assertTrue(views.get(0).getCode().contains("balance > 100"));
+        }
+    }
+
+    @Test
+    public void nestedColumnsStayWithTheirTable() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:duckdb:");
+             Statement statement = connection.createStatement()) {
+            catalog(statement);
+            statement.execute("INSERT INTO " + METADATA + ".ducklake_schema VALUES (0, 1, NULL, 'main'), (1, 1, NULL, 'other')");
+            statement.execute("INSERT INTO " + METADATA + ".ducklake_table VALUES " +
+                    "(1, 1, NULL, 0, 'customers'), (2, 1, NULL, 0, 'orders'), (3, 1, NULL, 1, 'events')");
+            // column ids start over in every table, so the nested columns of the three tables share parent ids
+            statement.execute("INSERT INTO " + METADATA + ".ducklake_column VALUES " +
+                    "(1, 1, NULL, 1, 1, 'id', 'int32', true, NULL), " +
+                    "(2, 1, NULL, 1, 2, 'address', 'struct', true, NULL), " +
+                    "(3, 1, NULL, 1, 3, 'city', 'varchar', true, 2), " +
+                    "(4, 1, NULL, 1, 4, 'zip', 'int32', true, 2), " +
+                    "(1, 1, NULL, 2, 1, 'id', 'int64', true, NULL), " +
+                    "(2, 1, NULL, 2, 2, 'tags', 'list', true, NULL), " +
+                    "(3, 1, NULL, 2, 3, 'element', 'varchar', true, 2), " +
+                    "(1, 1, NULL, 3, 1, 'payload', 'struct', true, NULL), " +
+                    "(2, 1, NULL, 3, 2, 'kind', 'struct', true, 1), " +
+                    "(3, 1, NULL, 3, 3, 'code', 'int16', true, 2)");
+
+            DuckLakeCatalogReader reader = new DuckLakeCatalogReader(connection, "lake");
+            List<Table> tables = reader.readTables("main", List.of());
+
+            Assertions.assertEquals(List.of("customers", "orders"), names(tables));
+            Assertions.assertEquals(List.of("INTEGER", "STRUCT(city VARCHAR, zip INTEGER)"), typeNames(tables.get(0).getColumns()));
+            Assertions.assertEquals(List.of("BIGINT", "VARCHAR[]"), typeNames(tables.get(1).getColumns()));
+            Assertions.assertEquals(List.of("STRUCT(kind STRUCT(code SMALLINT))"),
+                    typeNames(reader.readTables("other", List.of()).get(0).getColumns()));
+            Assertions.assertEquals(List.of("BIGINT", "VARCHAR[]"),
+                    typeNames(reader.readTables("main", List.of("orders")).get(0).getColumns()));
+        }
+    }
+
+    @Test
+    public void readsRenamedTablesAndChangedColumns() throws Exception {
+        try (Connection connection = DriverManager.getConnection("jdbc:duckdb:");
+             Statement statement = connection.createStatement()) {
+            catalog(statement);
+            statement.execute("INSERT INTO " + METADATA + ".ducklake_snapshot VALUES (1)");
+            statement.execute("INSERT INTO " + METADATA + ".ducklake_schema VALUES (0, 1, NULL, 'main')");
+            statement.execute("INSERT INTO " + METADATA + ".ducklake_table VALUES " +
+                    "(1, 1, NULL, 0, 'customers'), (2, 1, NULL, 0, 'orders'), (3, 1, NULL, 0, 'legacy'), " +
+                    "(4, 1, NULL, 0, 'stable')");
+            statement.execute("INSERT INTO " + METADATA + ".ducklake_column VALUES " +
+                    "(1, 1, NULL, 1, 1, 'id', 'int32', false, NULL), " +
+                    "(2, 1, NULL, 1, 2, 'name', 'varchar', true, NULL), " +
+                    "(1, 1, NULL, 2, 1, 'id', 'int64', true, NULL), " +
+                    "(1, 1, NULL, 3, 1, 'id', 'int32', true, NULL), " +
+                    "(1, 1, NULL, 4, 1, 'id', 'int32', true, NULL)");
+
+            DuckLakeCatalogReader reader = new DuckLakeCatalogReader(connection, "lake");
+            long snapshot = reader.currentSnapshot();
+            List<Table> tables = reader.readTables("main", List.of());
+            Assertions.assertEquals(1, snapshot);
+            Assertions.assertEquals(List.of("customers", "legacy", "orders", "stable"), names(tables));
+
+            // snapshot 2: orders is renamed to purchases, customers drops name and adds email, legacy is dropped
+            statement.execute("INSERT INTO " + METADATA + ".ducklake_snapshot VALUES (2)");
+            statement.execute("UPDATE " + METADATA + ".ducklake_table SET end_snapshot = 2 WHERE table_id IN (2, 3)");
+            statement.execute("INSERT INTO " + METADATA + ".ducklake_table VALUES (2, 2, NULL, 0, 'purchases')");
+            statement.execute("UPDATE " + METADATA + ".ducklake_column SET end_snapshot = 2 WHERE table_id = 1 AND column_id = 2");
+            statement.execute("INSERT INTO " + METADATA + ".ducklake_column VALUES (3, 2, NULL, 1, 3, 'email', 'varchar', true, NULL)");
+            Assertions.assertEquals(2, reader.currentSnapshot());
+
+            List<Table> changed = reader.readTablesChangedSince(snapshot, "main", List.of(), tables);
+
+            Assertions.assertEquals(List.of("customers", "purchases", "stable"), names(changed));
+            Assertions.assertEquals(List.of("id", "email"),
+                    changed.get(0).getColumns().stream().map(Column::getName).collect(Collectors.toList()));
+            Assertions.assertEquals(List.of("INTEGER", "VARCHAR"), typeNames(changed.get(0).getColumns()));
+            Assertions.assertEquals(List.of("BIGINT"), typeNames(changed.get(1).getColumns()));
+            Assertions.assertSame(tables.get(3), changed.get(2));
+
+            // a filter keeps the renamed table out, but its old name is still dropped
+            Assertions.assertEquals(List.of("customers", "stable"),
+                    names(reader.readTablesChangedSince(snapshot, "main", List.of("customers", "stable"), tables)));
+        }
+    }
+
+    /**
+     * The DuckLake metadata tables, with the columns the reader uses, attached the way DuckLake attaches them.
+     */
+    private static void catalog(Statement statement) throws SQLException {
+        statement.execute("ATTACH ':memory:' AS \"__ducklake_metadata_lake\"");
+        statement.execute("CREATE TABLE " + METADATA + ".ducklake_snapshot (snapshot_id BIGINT)");
+        statement.execute("CREATE TABLE " + METADATA + ".ducklake_schema (schema_id BIGINT, begin_snapshot BIGINT, " +
+                "end_snapshot BIGINT, schema_name VARCHAR)");
+        statement.execute("CREATE TABLE " + METADATA + ".ducklake_table (table_id BIGINT, begin_snapshot BIGINT, " +
+                "end_snapshot BIGINT, schema_id BIGINT, table_name VARCHAR)");
+        statement.execute("CREATE TABLE " + METADATA + ".ducklake_column (column_id BIGINT, begin_snapshot BIGINT, " +
+                "end_snapshot BIGINT, table_id BIGINT, column_order BIGINT, column_name VARCHAR, column_type VARCHAR, " +
+                "nulls_allowed BOOLEAN, parent_column BIGINT)");
+        statement.execute("CREATE TABLE " + METADATA + ".ducklake_view (view_id BIGINT, begin_snapshot BIGINT, " +
+                "end_snapshot BIGINT, schema_id BIGINT, view_name VARCHAR, sql VARCHAR)");
+    }
+
+    private static List<String> names(Collection<? extends Table> tables) {
+        return tables.stream().map(Table::getName).collect(Collectors.toList());
+    }
+
+    private static List<String> typeNames(Collection<Column> columns) {
+        return columns.stream().map(Column::getTypeName).collect(Collectors.toList());
+    }
+}
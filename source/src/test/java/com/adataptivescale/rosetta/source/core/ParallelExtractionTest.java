@@ -0,0 +1,144 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adataptivescale.rosetta.source.core.interfaces.ConnectionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+public class ParallelExtractionTest {
+
+    private final List<Connection> opened = Collections.synchronizedList(new ArrayList<>());
+    private final List<Connection> closed = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void runsEveryUnitOnceOverTheConnections() throws Exception {
+        Connection caller = connection();
+        List<Integer> units = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+        Map<Integer, Connection> connectionByUnit = new ConcurrentHashMap<>();
+        List<Integer> done = Collections.synchronizedList(new ArrayList<>());
+
+        ParallelExtraction.forEach(units, 4, caller, factory(), (connection, unit) -> {
+            connectionByUnit.put(unit, connection);
+            done.add(unit);
+        });
+
+        Assertions.assertEquals(units, done.stream().sorted().collect(Collectors.toList()));
+        Assertions.assertEquals(3, opened.size());
+        Assertions.assertEquals(new HashSet<>(opened), new HashSet<>(closed));
+        Assertions.assertTrue(connectionByUnit.values().stream().allMatch(it -> it == caller || opened.contains(it)));
+    }
+
+    @Test
+    public void unitsAreSharedByTheWorkers() throws Exception {
+        Connection caller = connection();
+        // every worker holds its first unit until all three have one, so each connection is used
+        CountDownLatch started = new CountDownLatch(3);
+        Map<Connection, Integer> unitsByConnection = new ConcurrentHashMap<>();
+
+        ParallelExtraction.forEach(List.of(1, 2, 3, 4, 5, 6), 3, caller, factory(), (connection, unit) -> {
+            if (unitsByConnection.merge(connection, 1, Integer::sum) == 1) {
+                started.countDown();
+                Assertions.assertTrue(started.await(10, TimeUnit.SECONDS));
+            }
+        });
+
+        Assertions.assertEquals(3, unitsByConnection.size());
+        Assertions.assertTrue(unitsByConnection.containsKey(caller));
+        Assertions.assertEquals(6, unitsByConnection.values().stream().mapToInt(Integer::intValue).sum());
+    }
+
+    @Test
+    public void runsOnCallerConnectionWithoutFactory() throws Exception {
+        Connection caller = connection();
+        List<Integer> done = new ArrayList<>();
+        Thread thread = Thread.currentThread();
+
+        ParallelExtraction.forEach(List.of(1, 2, 3), 4, caller, null, (connection, unit) -> {
+            Assertions.assertSame(caller, connection);
+            Assertions.assertSame(thread, Thread.currentThread());
+            done.add(unit);
+        });
+
+        Assertions.assertEquals(List.of(1, 2, 3), done);
+    }
+
+    @Test
+    public void runsOnCallerConnectionWithOneConnectionOrUnit() throws Exception {
+        Connection caller = connection();
+        List<Integer> done = new ArrayList<>();
+
+        ParallelExtraction.forEach(List.of(1, 2), 1, caller, factory(), (connection, unit) -> done.add(unit));
+        ParallelExtraction.forEach(List.of(3), 4, caller, factory(), (connection, unit) -> done.add(unit));
+
+        Assertions.assertEquals(List.of(1, 2, 3), done);
+        Assertions.assertTrue(opened.isEmpty());
+    }
+
+    @Test
+    public void failureIsRethrownAndConnectionsClosed() {
+        List<Integer> units = IntStream.range(0, 50).boxed().collect(Collectors.toList());
+
+        SQLException thrown = Assertions.assertThrows(SQLException.class,
+                () -> ParallelExtraction.forEach(units, 3, connection(), factory(), (connection, unit) -> {
+                    if (unit == 10) {
+                        throw new SQLException("table is gone");
+                    }
+                }));
+
+        Assertions.assertEquals("table is gone", thrown.getMessage());
+        Assertions.assertEquals(new HashSet<>(opened), new HashSet<>(closed));
+    }
+
+    @Test
+    public void failureToConnectIsRethrown() {
+        ConnectionFactory failing = () -> {
+            throw new SQLException("too many connections");
+        };
+
+        SQLException thrown = Assertions.assertThrows(SQLException.class,
+                () -> ParallelExtraction.forEach(List.of(1, 2, 3), 3, connection(), failing, (connection, unit) -> {
+                }));
+
+        Assertions.assertEquals("too many connections", thrown.getMessage());
+    }
+
+    private ConnectionFactory factory() {
+        return () -> {
+            Connection connection = connection();
+            opened.add(connection);
+            return connection;
+        };
+    }
+
+    private Connection connection() {
+        Connection[] self = new Connection[1];
+        self[0] = (Connection) Proxy.newProxyInstance(ParallelExtractionTest.class.getClassLoader(),
+                new Class[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            closed.add(self[0]);
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+        return self[0];
+    }
+}
@@ -0,0 +1,148 @@
+package com.adataptivescale.rosetta.source.core;
+
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adataptivescale.rosetta.source.core.interfaces.ColumnExtractor;
+import com.adataptivescale.rosetta.source.core.interfaces.ConnectionFactory;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+public class PartitionedColumnExtractorTest {
+
+    private final AtomicInteger connections = new AtomicInteger();
+
+    @Test
+    public void partitionKeepsTablesOfASchemaTogether() {
+        List<Table> tables = List.of(table("a", "t1"), table("b", "t2"), table("a", "t3"), table("b", "t4"),
+                table("a", "t5"));
+
+        List<List<Table>> partitions = PartitionedColumnExtractor.partition(tables, 2);
+
+        Assertions.assertEquals(List.of(List.of("t1", "t3", "t5"), List.of("t2", "t4")), names(partitions));
+    }
+
+    @Test
+    public void partitionSplitsLargeSchemas() {
+        List<Table> tables = List.of(table("a", "t1"), table("a", "t2"), table("a", "t3"), table("a", "t4"));
+
+        Assertions.assertEquals(List.of(List.of("t1", "t2"), List.of("t3", "t4")),
+                names(PartitionedColumnExtractor.partition(tables, 2)));
+        Assertions.assertEquals(List.of(List.of("t1"), List.of("t2"), List.of("t3"), List.of("t4")),
+                names(PartitionedColumnExtractor.partition(tables, 8)));
+    }
+
+    @Test
+    public void partitionBySchemaNeverSplitsASchema() {
+        List<Table> tables = List.of(table("a", "t1"), table("b", "t2"), table("b", "t3"), table("b", "t4"),
+                table("c", "t5"), table("c", "t6"));
+
+        List<List<Table>> partitions = PartitionedColumnExtractor.partitionBySchema(tables, 2);
+
+        // the largest schema goes first, the others onto the partition that is smallest at the time
+        Assertions.assertEquals(List.of(List.of("t2", "t3", "t4"), List.of("t5", "t6", "t1")), names(partitions));
+        Assertions.assertEquals(1, PartitionedColumnExtractor.partitionBySchema(tables, 1).size());
+        Assertions.assertEquals(3, PartitionedColumnExtractor.partitionBySchema(tables, 5).size());
+    }
+
+    @Test
+    public void extractsEveryPartitionOnItsOwnConnection() throws Exception {
+        List<Table> tables = new ArrayList<>();
+        for (int i = 0; i < 9; i++) {
+            tables.add(table("s" + i % 3, "t" + i));
+        }
+        Connection caller = connection();
+        Map<Connection, List<Table>> tablesByConnection = new ConcurrentHashMap<>();
+        ColumnExtractor<Connection, Collection<Table>> delegate = (connection, partition) ->
+                tablesByConnection.computeIfAbsent(connection, it -> Collections.synchronizedList(new ArrayList<>()))
+                        .addAll(partition);
+
+        new PartitionedColumnExtractor(delegate, 3, false, factory()).extract(caller, tables);
+
+        Assertions.assertTrue(tablesByConnection.containsKey(caller));
+        Assertions.assertEquals(names(tables), tablesByConnection.values().stream().flatMap(List::stream)
+                .map(Table::getName).sorted().collect(Collectors.toList()));
+        Assertions.assertTrue(connections.get() <= 2);
+    }
+
+    @Test
+    public void singlePartitionRunsOnCallerConnection() throws Exception {
+        List<Table> tables = List.of(table("a", "t1"), table("a", "t2"));
+        Connection caller = connection();
+        List<Collection<Table>> extracted = new ArrayList<>();
+        ColumnExtractor<Connection, Collection<Table>> delegate = (connection, partition) -> {
+            Assertions.assertSame(caller, connection);
+            extracted.add(partition);
+        };
+
+        new PartitionedColumnExtractor(delegate, 4, true, factory()).extract(caller, tables);
+
+        Assertions.assertEquals(1, extracted.size());
+        Assertions.assertSame(tables, extracted.get(0));
+        Assertions.assertEquals(0, connections.get());
+    }
+
+    @Test
+    public void failureOfAPartitionFailsExtraction() {
+        List<Table> tables = List.of(table("a", "t1"), table("b", "t2"), table("c", "t3"));
+        ColumnExtractor<Connection, Collection<Table>> delegate = (connection, partition) -> {
+            if (partition.stream().anyMatch(table -> table.getName().equals("t2"))) {
+                throw new SQLException("permission denied");
+            }
+        };
+
+        SQLException thrown = Assertions.assertThrows(SQLException.class,
+                () -> new PartitionedColumnExtractor(delegate, 3, true, factory()).extract(connection(), tables));
+
+        Assertions.assertEquals("permission denied", thrown.getMessage());
+    }
+
+    private ConnectionFactory factory() {
+        return () -> {
+            connections.incrementAndGet();
+            return connection();
+        };
+    }
+
+    private static Connection connection() {
+        return (Connection) Proxy.newProxyInstance(PartitionedColumnExtractorTest.class.getClassLoader(),
+                new Class[]{Connection.class}, (proxy, method, args) -> {
+                    switch (method.getName()) {
+                        case "close":
+                            return null;
+                        case "hashCode":
+                            return System.identityHashCode(proxy);
+                        case "equals":
+                            return proxy == args[0];
+                        default:
+                            throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Table table(String schema, String name) {
+        Table table = new Table();
+        table.setSchema(schema);
+        table.setName(name);
+        return table;
+    }
+
+    private static List<String> names(Collection<Table> tables) {
+        return tables.stream().map(Table::getName).sorted().collect(Collectors.toList());
+    }
+
+    private static List<List<String>> names(List<List<Table>> partitions) {
+        return partitions.stream().map(partition -> partition.stream().map(Table::getName).collect(Collectors.toList()))
+                .collect(Collectors.toList());
+    }
+}
@@ -5,6 +5,14 @@ import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 
+import java.util.List;
+
 public interface AssertionSqlGenerator {
      String generateSql(Connection connection, Table table, Column column, AssertTest assertion);
+
+     /**
+      * One scan of the table counting the matching rows of every assertion, as one result column per
+      * assertion in the given order. Each count equals the result of {@link #generateSql} for that assertion.
+      */
+     String generateBatchSql(Connection connection, Table table, List<ColumnAssertion> assertions);
 }
@@ -0,0 +1,22 @@
+package com.adaptivescale.rosetta.test.assertion;
+
+import com.adaptivescale.rosetta.common.models.AssertTest;
+import com.adaptivescale.rosetta.common.models.Column;
+
+public class ColumnAssertion {
+    private final Column column;
+    private final AssertTest assertion;
+
+    public ColumnAssertion(Column column, AssertTest assertion) {
+        this.column = column;
+        this.assertion = assertion;
+    }
+
+    public Column getColumn() {
+        return column;
+    }
+
+    public AssertTest getAssertion() {
+        return assertion;
+    }
+}
@@ -12,33 +12,71 @@ import com.adaptivescale.rosetta.test.assertion.output.Output;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
+/**
+ * Runs the assertions defined on columns, table by table.
+ * <p>
+ * In batch mode all assertions of a table are answered by one scan of the table
+ * (see {@link AssertionSqlGenerator#generateBatchSql}); a table whose batch query fails falls back to one
+ * query per assertion. The assertions answered by one scan share it: each is reported with the start time and
+ * duration of the scan and with the batched query as its executed SQL, and its lines are printed once the scan
+ * has finished. With a parallelism above one, tables are tested concurrently and the lines of each test are printed
+ * once its query has finished. Results keep the order in which the assertions are defined.
+ * <p>
+ * When testing against a target connection, the target query of an assertion (or batch) is dispatched
+ * to a bounded executor while the source query runs, so each test waits for the slower of the two databases
+ * instead of both in turn.
+ */
 @Slf4j
 public class DefaultAssertTestEngine implements AssertTestEngine {
 
+    // keeps the select list of a fused query at a size every supported database accepts
+    private static final int MAX_ASSERTIONS_PER_QUERY = 100;
+
     private final AssertionSqlGenerator sqlGenerator;
     private final SqlExecution sqlExecution;
     private final SqlExecution targetSqlExecution;
     private final Output output;
+    private final boolean batch;
+    private final int parallelism;
     private final List<AssertionResult> results = new ArrayList<>();
 
     public DefaultAssertTestEngine(AssertionSqlGenerator sqlGenerator, SqlExecution sqlExecution) {
-        this.sqlGenerator = sqlGenerator;
-        this.sqlExecution = sqlExecution;
-        this.targetSqlExecution = null;
-        output = new ConsoleOutput();
+        this(sqlGenerator, sqlExecution, null);
     }
 
     public DefaultAssertTestEngine(AssertionSqlGenerator sqlGenerator, SqlExecution sqlExecution, SqlExecution targetSqlExecution) {
+        this(sqlGenerator, sqlExecution, targetSqlExecution, false, 1);
+    }
+
+    public DefaultAssertTestEngine(AssertionSqlGenerator sqlGenerator, SqlExecution sqlExecution, SqlExecution targetSqlExecution,
+                                   boolean batch, int parallelism) {
         this.sqlGenerator = sqlGenerator;
         this.sqlExecution = sqlExecution;
         this.targetSqlExecution = targetSqlExecution;
+        this.batch = batch;
+        this.parallelism = Math.max(1, parallelism);
         output = new ConsoleOutput();
     }
 
     @Override
     public void run(Connection connection, Database database) {
+        runTests(connection, null, database);
+    }
+
+    @Override
+    public void run(Connection sourceConnection, Connection targetConnection, Database sourceDatabase) {
+        runTests(sourceConnection, targetConnection, sourceDatabase);
+    }
+
+    private void runTests(Connection sourceConnection, Connection targetConnection, Database database) {
         List<AssertTest> collect = database
                 .getTables()
                 .stream()
@@ -46,86 +84,207 @@ public class DefaultAssertTestEngine implements AssertTestEngine {
                 .filter(column -> column.getTests() != null && column.getTests().getAssertion() != null && column.getTests().getAssertion().size() > 0)
                 .flatMap(column -> column.getTests().getAssertion().stream()).collect(Collectors.toList());
 
-        output.startTestForDatabase(connection.getName(), collect.size());
+        output.startTestForDatabase(sourceConnection.getName(), collect.size());
 
-        for (Table table : database.getTables()) {
-            Collection<Column> columns = table.getColumns();
-            for (Column column : columns) {
-                Tests tests = column.getTests();
-                if (tests == null) {
-                    continue;
-                }
-                Collection<AssertTest> assertions = tests.getAssertion();
-                if (assertions == null || assertions.isEmpty()) {
-                    continue;
-                }
-                for (AssertTest assertion : assertions) {
-                    AssertionResult assertionResult = new AssertionResult();
-                    assertionResult.setAssertTest(assertion);
-                    long startTime = output.printStartTest(assertion, column);
-                    assertionResult.setStartTime(startTime);
-                    String sql = sqlGenerator.generateSql(connection, table, column, assertion);
-                    assertionResult.setSqlExecuted(sql);
-                    String result = sqlExecution.execute(sql);
-                    boolean pass = Objects.equals(assertion.getExpected(), result);
-                    assertionResult.setPass(pass);
-                    results.add(assertionResult);
-                    output.printEndTest(assertion, column, startTime, pass, result);
+        List<Table> tables = database.getTables().stream()
+                .filter(table -> !assertionsOf(table).isEmpty())
+                .collect(Collectors.toList());
+        // one target query in flight per table worker
+        ExecutorService targetExecutor = targetConnection == null ? null : Executors.newFixedThreadPool(parallelism);
+        try {
+            TestRun testRun = new TestRun(sourceConnection, targetConnection, targetExecutor);
+            if (parallelism == 1 || tables.size() <= 1) {
+                for (Table table : tables) {
+                    results.addAll(testTable(testRun, table));
                 }
+            } else {
+                results.addAll(testTablesConcurrently(testRun, tables));
+            }
+        } finally {
+            if (targetExecutor != null) {
+                targetExecutor.shutdownNow();
             }
         }
 
         output.endTestForDatabase();
     }
 
-    @Override
-    public void run(Connection sourceConnection, Connection targetConnection, Database sourceDatabase) {
-        List<AssertTest> collect = sourceDatabase
-                .getTables()
-                .stream()
-                .flatMap(table1 -> table1.getColumns().stream())
-                .filter(column -> column.getTests() != null && column.getTests().getAssertion() != null && column.getTests().getAssertion().size() > 0)
-                .flatMap(column -> column.getTests().getAssertion().stream()).collect(Collectors.toList());
-
-        output.startTestForDatabase(sourceConnection.getName(), collect.size());
+    private List<AssertionResult> testTablesConcurrently(TestRun testRun, List<Table> tables) {
+        ExecutorService executor = Executors.newFixedThreadPool(Math.min(parallelism, tables.size()));
+        try {
+            List<Future<List<AssertionResult>>> futures = new ArrayList<>();
+            for (Table table : tables) {
+                futures.add(executor.submit(() -> testTable(testRun, table)));
+            }
 
-        for (Table table : sourceDatabase.getTables()) {
-            Collection<Column> columns = table.getColumns();
-            for (Column column : columns) {
-                Tests tests = column.getTests();
-                if (tests == null) {
-                    continue;
+            List<AssertionResult> tableResults = new ArrayList<>();
+            for (Future<List<AssertionResult>> future : futures) {
+                try {
+                    tableResults.addAll(future.get());
+                } catch (ExecutionException e) {
+                    futures.forEach(it -> it.cancel(true));
+                    Throwable cause = e.getCause();
+                    throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException(e);
                 }
-                Collection<AssertTest> assertions = tests.getAssertion();
-                if (assertions == null || assertions.isEmpty()) {
-                    continue;
+            }
+            return tableResults;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private List<AssertionResult> testTable(TestRun testRun, Table table) {
+        List<ColumnAssertion> assertions = assertionsOf(table);
+        if (!batch || assertions.size() <= 1) {
+            return testOneByOne(testRun, table, assertions);
+        }
+
+        List<AssertionResult> tableResults = new ArrayList<>();
+        for (int start = 0; start < assertions.size(); start += MAX_ASSERTIONS_PER_QUERY) {
+            List<ColumnAssertion> chunk = assertions.subList(start, Math.min(start + MAX_ASSERTIONS_PER_QUERY, assertions.size()));
+            String sql = sqlGenerator.generateBatchSql(testRun.sourceConnection, table, chunk);
+            List<String> sourceResults;
+            List<String> targetResults = null;
+            // every assertion of the chunk is timed as the one scan that answers them all
+            long scanStartTime = System.currentTimeMillis();
+            try {
+                Future<List<String>> targetFuture = testRun.onTarget(() ->
+                        executeBatch(targetSqlExecution, sqlGenerator.generateBatchSql(testRun.targetConnection, table, chunk), chunk.size()));
+                sourceResults = awaitWithSource(targetFuture, () -> executeBatch(sqlExecution, sql, chunk.size()));
+                targetResults = targetFuture == null ? null : await(targetFuture);
+            } catch (RuntimeException e) {
+                log.warn("Batched assertions on table {} failed, running them one by one.", table.getName(), e);
+                tableResults.addAll(testOneByOne(testRun, table, chunk));
+                continue;
+            }
+
+            synchronized (output) {
+                for (int i = 0; i < chunk.size(); i++) {
+                    Column column = chunk.get(i).getColumn();
+                    AssertTest assertion = chunk.get(i).getAssertion();
+                    if (targetResults != null) {
+                        assertion.setExpected(targetResults.get(i));
+                    }
+                    output.printStartTest(assertion, column);
+                    tableResults.add(finishTest(assertion, column, sql, scanStartTime, sourceResults.get(i)));
                 }
-                for (AssertTest assertion : assertions) {
-                    AssertionResult assertionResult = new AssertionResult();
-                    assertionResult.setAssertTest(assertion);
-                    long startTime = output.printStartTest(assertion, column);
-                    assertionResult.setStartTime(startTime);
-
-                    String sql = sqlGenerator.generateSql(sourceConnection, table, column, assertion);
-                    assertionResult.setSqlExecuted(sql);
-                    String result = sqlExecution.execute(sql);
-
-                    String targetSql = sqlGenerator.generateSql(targetConnection, table, column, assertion);
-                    String expected = targetSqlExecution.execute(targetSql);
-                    assertion.setExpected(expected);
-
-                    boolean pass = Objects.equals(expected, result);
-                    assertionResult.setPass(pass);
-                    results.add(assertionResult);
-                    output.printEndTest(assertion, column, startTime, pass, result);
+            }
+        }
+        return tableResults;
+    }
+
+    private List<AssertionResult> testOneByOne(TestRun testRun, Table table, List<ColumnAssertion> assertions) {
+        List<AssertionResult> tableResults = new ArrayList<>();
+        for (ColumnAssertion columnAssertion : assertions) {
+            Column column = columnAssertion.getColumn();
+            AssertTest assertion = columnAssertion.getAssertion();
+            // running tables concurrently prints both lines of a test together, so tests of different tables do not interleave
+            boolean printUpfront = parallelism == 1;
+            long startTime = printUpfront ? output.printStartTest(assertion, column) : System.currentTimeMillis();
+
+            String sql = sqlGenerator.generateSql(testRun.sourceConnection, table, column, assertion);
+            Future<String> targetFuture = testRun.onTarget(() ->
+                    targetSqlExecution.execute(sqlGenerator.generateSql(testRun.targetConnection, table, column, assertion)));
+            String result = awaitWithSource(targetFuture, () -> sqlExecution.execute(sql));
+
+            if (targetFuture != null) {
+                String expected = await(targetFuture);
+                assertion.setExpected(expected);
+            }
+
+            synchronized (output) {
+                if (!printUpfront) {
+                    output.printStartTest(assertion, column);
                 }
+                tableResults.add(finishTest(assertion, column, sql, startTime, result));
             }
         }
+        return tableResults;
+    }
 
-        output.endTestForDatabase();
+    private AssertionResult finishTest(AssertTest assertion, Column column, String sql, long startTime, String result) {
+        AssertionResult assertionResult = new AssertionResult();
+        assertionResult.setAssertTest(assertion);
+        assertionResult.setStartTime(startTime);
+        assertionResult.setSqlExecuted(sql);
+        boolean pass = Objects.equals(assertion.getExpected(), result);
+        assertionResult.setPass(pass);
+        output.printEndTest(assertion, column, startTime, pass, result);
+        return assertionResult;
+    }
+
+    /**
+     * Runs the source query on the calling thread; the target query, if any, is cancelled when it fails.
+     */
+    private static <T> T awaitWithSource(Future<?> targetFuture, Supplier<T> sourceQuery) {
+        try {
+            return sourceQuery.get();
+        } catch (RuntimeException e) {
+            if (targetFuture != null) {
+                targetFuture.cancel(true);
+            }
+            throw e;
+        }
+    }
+
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof RuntimeException ? (RuntimeException) cause : new RuntimeException(cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static List<String> executeBatch(SqlExecution execution, String sql, int expectedColumns) {
+        log.debug("Executing batched assertions: {}", sql);
+        List<String> row = execution.executeForRow(sql);
+        if (row.size() != expectedColumns) {
+            throw new RuntimeException(String.format("Batched query returned %d columns, expected %d", row.size(), expectedColumns));
+        }
+        return row;
+    }
+
+    private static List<ColumnAssertion> assertionsOf(Table table) {
+        List<ColumnAssertion> assertions = new ArrayList<>();
+        for (Column column : table.getColumns()) {
+            Tests tests = column.getTests();
+            if (tests == null || tests.getAssertion() == null) {
+                continue;
+            }
+            for (AssertTest assertion : tests.getAssertion()) {
+                assertions.add(new ColumnAssertion(column, assertion));
+            }
+        }
+        return assertions;
     }
 
     public List<AssertionResult> getResults() {
         return results;
     }
+
+    private static class TestRun {
+        private final Connection sourceConnection;
+        private final Connection targetConnection;
+        private final ExecutorService targetExecutor;
+
+        private TestRun(Connection sourceConnection, Connection targetConnection, ExecutorService targetExecutor) {
+            this.sourceConnection = sourceConnection;
+            this.targetConnection = targetConnection;
+            this.targetExecutor = targetExecutor;
+        }
+
+        /**
+         * @return the pending target query, or null when there is no target connection
+         */
+        private <T> Future<T> onTarget(Callable<T> targetQuery) {
+            return targetConnection == null ? null : targetExecutor.submit(targetQuery);
+        }
+    }
 }
@@ -6,6 +6,8 @@ import com.adaptivescale.rosetta.common.models.input.Connection;
 import lombok.extern.slf4j.Slf4j;
 
 import java.sql.*;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Properties;
 
 @Slf4j
@@ -44,4 +46,27 @@ public class DefaultSqlExecution implements SqlExecution {
         }
         throw new RuntimeException(String.format("Execution of query: '%s' returns no data", sql));
     }
+
+    @Override
+    public List<String> executeForRow(String sql) {
+        try {
+            Driver driver = driverProvider.getDriver(connection);
+            Properties properties = JDBCUtils.setJDBCAuth(connection);
+            try (java.sql.Connection sqlConnection = driver.connect(connection.getUrl(), properties);
+                 Statement statement = sqlConnection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(sql)) {
+                if (resultSet.next()) {
+                    List<String> result = new ArrayList<>();
+                    for (int i = 1; i <= resultSet.getMetaData().getColumnCount(); i++) {
+                        result.add(String.valueOf(resultSet.getInt(i)));
+                    }
+                    return result;
+                }
+            }
+        } catch (SQLException e) {
+            log.error("Can not execute query.", e);
+            throw new RuntimeException(e);
+        }
+        throw new RuntimeException(String.format("Execution of query: '%s' returns no data", sql));
+    }
 }
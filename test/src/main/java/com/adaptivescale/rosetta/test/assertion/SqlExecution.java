@@ -1,5 +1,12 @@
 package com.adaptivescale.rosetta.test.assertion;
 
+import java.util.List;
+
 public interface SqlExecution {
     String execute(String sql);
+
+    /**
+     * Executes a query returning a single row of counts and returns every column of that row.
+     */
+    List<String> executeForRow(String sql);
 }
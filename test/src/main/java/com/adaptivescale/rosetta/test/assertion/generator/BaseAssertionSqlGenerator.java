@@ -6,6 +6,7 @@ import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.common.models.enums.OperatorEnum;
 import com.adaptivescale.rosetta.common.models.input.Connection;
 import com.adaptivescale.rosetta.test.assertion.AssertionSqlGenerator;
+import com.adaptivescale.rosetta.test.assertion.ColumnAssertion;
 
 import java.util.List;
 import java.util.stream.Collectors;
@@ -18,6 +19,17 @@ public abstract class BaseAssertionSqlGenerator implements AssertionSqlGenerator
         return prepareSql(connection, table, column, assertion, whereClauseCondition);
     }
 
+    @Override
+    public String generateBatchSql(Connection connection, Table table, List<ColumnAssertion> assertions) {
+        String counts = assertions
+            .stream()
+            .map(it -> String.format("Count(Case when %s %s then 1 end)",
+                    columnExpression(it.getColumn(), it.getAssertion()),
+                    prepareWhereCondition(it.getColumn(), it.getAssertion())))
+            .collect(Collectors.joining(", "));
+        return String.format("Select %s from %s", counts, tableReference(connection, table));
+    }
+
     String prepareWhereCondition(Column column, AssertTest assertion) {
         if (assertion.getOperator().equalsIgnoreCase(OperatorEnum.IS_NULL.getName()) || assertion.getOperator().equalsIgnoreCase(OperatorEnum.IS_NOT_NULL.getName())) {
             return assertion.getOperator();
@@ -34,7 +46,22 @@ public abstract class BaseAssertionSqlGenerator implements AssertionSqlGenerator
         return String.format("%s %s", assertion.getOperator(), handleOperator(assertion, column));
     }
 
-    abstract String prepareSql(Connection connection, Table table, Column column, AssertTest assertion, String whereClauseCondition);
+    String prepareSql(Connection connection, Table table, Column column, AssertTest assertion, String whereClauseCondition) {
+        return String.format("Select Count(*) from %s where %s %s",
+                tableReference(connection, table),
+                columnExpression(column, assertion),
+                whereClauseCondition);
+    }
+
+    /**
+     * @return the table as it is referenced in the from clause
+     */
+    abstract String tableReference(Connection connection, Table table);
+
+    /**
+     * @return the expression the assertion condition is applied on
+     */
+    abstract String columnExpression(Column column, AssertTest assertion);
 
     private String handleOperator(AssertTest assertion, Column column) {
         if (OperatorEnum.IN.getName().equalsIgnoreCase(assertion.getOperator())) {
@@ -10,15 +10,18 @@ import java.util.Optional;
 public class BigQueryAssertionSqlGenerator extends BaseAssertionSqlGenerator {
 
     @Override
-    String prepareSql(Connection connection, Table table, Column column, AssertTest assertion, String whereClauseCondition) {
-        String columnName = isArray(column) ? String.format("ARRAY_TO_STRING(%s,',')", column.getName()) : column.getName();
-        return String.format("Select Count(*) from %s.%s.%s where %s %s",
+    String tableReference(Connection connection, Table table) {
+        return String.format("%s.%s.%s",
                 connection.getDatabaseName(),
                 connection.getSchemaName(),
-                table.getName(),
-                Optional.ofNullable(assertion.getColumnDef())
-                    .orElse(columnName),
-                whereClauseCondition);
+                table.getName());
+    }
+
+    @Override
+    String columnExpression(Column column, AssertTest assertion) {
+        String columnName = isArray(column) ? String.format("ARRAY_TO_STRING(%s,',')", column.getName()) : column.getName();
+        return Optional.ofNullable(assertion.getColumnDef())
+                    .orElse(columnName);
     }
 
     private boolean isArray(Column column) {
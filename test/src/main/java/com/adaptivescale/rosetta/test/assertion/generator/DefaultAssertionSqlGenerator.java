@@ -11,13 +11,14 @@ import java.util.Optional;
 public class DefaultAssertionSqlGenerator extends BaseAssertionSqlGenerator {
 
     @Override
-    String prepareSql(Connection connection, Table table, Column column, AssertTest assertion, String whereClauseCondition) {
-        return String.format("Select Count(*) from %s where %s %s",
-                table.getName(),
-                Optional.ofNullable(assertion.getColumnDef())
-                    .orElse(column.getName()),
-                whereClauseCondition
-        );
+    String tableReference(Connection connection, Table table) {
+        return table.getName();
+    }
+
+    @Override
+    String columnExpression(Column column, AssertTest assertion) {
+        return Optional.ofNullable(assertion.getColumnDef())
+            .orElse(column.getName());
     }
 
     String castValue(Object value, Column column) {
@@ -7,13 +7,13 @@ import com.adaptivescale.rosetta.common.models.input.Connection;
 
 public class RedshiftAssertionSqlGenerator extends BaseAssertionSqlGenerator {
     @Override
-    String prepareSql(Connection connection, Table table, Column column, AssertTest assertTest, String whereClauseCondition) {
+    String tableReference(Connection connection, Table table) {
+        return String.format("\"%s\".\"%s\"", table.getSchema(), table.getName());
+    }
 
-        return String.format("Select Count(*) from \"%s\".\"%s\" where %s %s",
-                table.getSchema(),
-                table.getName(),
-                column.getName(),
-                whereClauseCondition);
+    @Override
+    String columnExpression(Column column, AssertTest assertTest) {
+        return column.getName();
     }
 
     String castValue(Object value, Column column) {
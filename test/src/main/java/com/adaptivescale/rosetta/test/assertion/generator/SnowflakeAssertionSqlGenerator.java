@@ -10,15 +10,17 @@ import java.util.Optional;
 public class SnowflakeAssertionSqlGenerator extends BaseAssertionSqlGenerator {
 
     @Override
-    String prepareSql(Connection connection, Table table, Column column, AssertTest assertion, String whereClauseCondition) {
-        return String.format("Select Count(*) from \"%s\".\"%s\".\"%s\" where \"%s\" %s",
+    String tableReference(Connection connection, Table table) {
+        return String.format("\"%s\".\"%s\".\"%s\"",
                 connection.getDatabaseName(),
                 connection.getSchemaName(),
-                table.getName(),
-                Optional.ofNullable(assertion.getColumnDef())
-                    .orElse(column.getName()),
-                whereClauseCondition
-        );
+                table.getName());
+    }
+
+    @Override
+    String columnExpression(Column column, AssertTest assertion) {
+        return String.format("\"%s\"", Optional.ofNullable(assertion.getColumnDef())
+                    .orElse(column.getName()));
     }
 
     /**
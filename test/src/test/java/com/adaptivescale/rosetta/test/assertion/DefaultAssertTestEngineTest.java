@@ -0,0 +1,134 @@
+package com.adaptivescale.rosetta.test.assertion;
+
+import com.adaptivescale.rosetta.common.models.AssertTest;
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adaptivescale.rosetta.common.models.test.AssertionResult;
+import com.adaptivescale.rosetta.common.models.test.Tests;
+import com.adaptivescale.rosetta.test.assertion.generator.DefaultAssertionSqlGenerator;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+public class DefaultAssertTestEngineTest {
+
+    private final List<String> executed = Collections.synchronizedList(new ArrayList<>());
+    private final List<String> batches = Collections.synchronizedList(new ArrayList<>());
+
+    @Test
+    public void batchAnswersTableWithOneScan() {
+        Database database = database(table("actor", assertion("=", 1, "3"), assertion("is null", null, "0")));
+
+        List<AssertionResult> results = run(database, sql -> List.of("3", "2"));
+
+        Assertions.assertEquals(1, batches.size());
+        Assertions.assertTrue(executed.isEmpty());
+        Assertions.assertEquals(List.of(true, false), passes(results));
+        Assertions.assertEquals(List.of(batches.get(0), batches.get(0)),
+                results.stream().map(AssertionResult::getSqlExecuted).collect(Collectors.toList()));
+        // the assertions are timed as the scan they share
+        Assertions.assertEquals(results.get(0).getStartTime(), results.get(1).getStartTime());
+    }
+
+    @Test
+    public void failedBatchFallsBackToSingleQueries() {
+        Database database = database(table("actor", assertion("=", 1, "3"), assertion("is null", null, "3")));
+
+        List<AssertionResult> results = run(database, sql -> {
+            throw new RuntimeException("Unsupported aggregate");
+        });
+
+        Assertions.assertEquals(1, batches.size());
+        Assertions.assertEquals(List.of("Select Count(*) from actor where c = '1'", "Select Count(*) from actor where c is null"),
+                executed);
+        Assertions.assertEquals(List.of(true, true), passes(results));
+        Assertions.assertEquals(executed,
+                results.stream().map(AssertionResult::getSqlExecuted).collect(Collectors.toList()));
+    }
+
+    @Test
+    public void batchWithUnexpectedColumnsFallsBack() {
+        Database database = database(table("actor", assertion("=", 1, "3"), assertion("=", 2, "3")));
+
+        List<AssertionResult> results = run(database, sql -> List.of("3"));
+
+        Assertions.assertEquals(2, executed.size());
+        Assertions.assertEquals(List.of(true, true), passes(results));
+    }
+
+    @Test
+    public void largeTablesAreSplitIntoSeveralScans() {
+        AssertTest[] assertions = new AssertTest[150];
+        for (int i = 0; i < assertions.length; i++) {
+            assertions[i] = assertion("=", i, "3");
+        }
+        Database database = database(table("actor", assertions));
+
+        List<AssertionResult> results = run(database,
+                sql -> Collections.nCopies(sql.split("Count\\(").length - 1, "3"));
+
+        Assertions.assertEquals(2, batches.size());
+        Assertions.assertTrue(executed.isEmpty());
+        Assertions.assertEquals(150, results.size());
+        Assertions.assertTrue(results.stream().allMatch(AssertionResult::isPass));
+    }
+
+    private List<AssertionResult> run(Database database, Function<String, List<String>> batchResults) {
+        SqlExecution execution = new SqlExecution() {
+            @Override
+            public String execute(String sql) {
+                executed.add(sql);
+                return "3";
+            }
+
+            @Override
+            public List<String> executeForRow(String sql) {
+                batches.add(sql);
+                return batchResults.apply(sql);
+            }
+        };
+        DefaultAssertTestEngine engine = new DefaultAssertTestEngine(new DefaultAssertionSqlGenerator(), execution,
+                null, true, 1);
+        Connection connection = new Connection();
+        connection.setName("source");
+        engine.run(connection, database);
+        return engine.getResults();
+    }
+
+    private static List<Boolean> passes(List<AssertionResult> results) {
+        return results.stream().map(AssertionResult::isPass).collect(Collectors.toList());
+    }
+
+    private static Database database(Table... tables) {
+        Database database = new Database();
+        database.setTables(List.of(tables));
+        return database;
+    }
+
+    private static Table table(String name, AssertTest... assertions) {
+        Tests tests = new Tests();
+        tests.setAssertions(List.of(assertions));
+        Column column = new Column();
+        column.setName("c");
+        column.setTests(tests);
+        Table table = new Table();
+        table.setName(name);
+        table.setColumns(List.of(column));
+        return table;
+    }
+
+    private static AssertTest assertion(String operator, Object value, String expected) {
+        AssertTest assertion = new AssertTest();
+        assertion.setOperator(operator);
+        assertion.setValue(value);
+        assertion.setExpected(expected);
+        return assertion;
+    }
+}
@@ -0,0 +1,81 @@
+package com.adaptivescale.rosetta.test.assertion.generator;
+
+import com.adaptivescale.rosetta.common.models.AssertTest;
+import com.adaptivescale.rosetta.common.models.Column;
+import com.adaptivescale.rosetta.common.models.Table;
+import com.adaptivescale.rosetta.common.models.input.Connection;
+import com.adaptivescale.rosetta.test.assertion.ColumnAssertion;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+public class BaseAssertionSqlGeneratorTest {
+
+    @Test
+    public void batchCountsEveryAssertionInOrder() {
+        Table table = table("actor");
+        List<ColumnAssertion> assertions = List.of(
+                new ColumnAssertion(column("actor_id"), assertion("=", 1)),
+                new ColumnAssertion(column("last_name"), assertion("is null", null)),
+                new ColumnAssertion(column("first_name"), assertion("in", List.of("A", "B"))),
+                new ColumnAssertion(column("actor_id"), assertion("between", List.of(1, 10))));
+
+        String sql = new DefaultAssertionSqlGenerator().generateBatchSql(new Connection(), table, assertions);
+
+        Assertions.assertEquals("Select Count(Case when actor_id = '1' then 1 end), " +
+                "Count(Case when last_name is null then 1 end), " +
+                "Count(Case when first_name in ('A','B') then 1 end), " +
+                "Count(Case when actor_id between '1' AND '10' then 1 end) from actor", sql);
+    }
+
+    @Test
+    public void batchUsesSameConditionsAsSingleQueries() {
+        Connection connection = new Connection();
+        connection.setDatabaseName("DB");
+        connection.setSchemaName("PUBLIC");
+        Table table = table("actor");
+        Column column = column("actor_id");
+        AssertTest notNull = assertion("is not null", null);
+        AssertTest expression = assertion(">", 5);
+        expression.setColumnDef("length(actor_id)");
+        SnowflakeAssertionSqlGenerator generator = new SnowflakeAssertionSqlGenerator();
+
+        String sql = generator.generateBatchSql(connection, table,
+                List.of(new ColumnAssertion(column, notNull), new ColumnAssertion(column, expression)));
+
+        Assertions.assertEquals("Select Count(*) from \"DB\".\"PUBLIC\".\"actor\" where \"actor_id\" is not null",
+                generator.generateSql(connection, table, column, notNull));
+        Assertions.assertEquals("Select Count(Case when \"actor_id\" is not null then 1 end), " +
+                "Count(Case when \"length(actor_id)\" > '5' then 1 end) from \"DB\".\"PUBLIC\".\"actor\"", sql);
+    }
+
+    @Test
+    public void invalidAssertionFailsBatch() {
+        List<ColumnAssertion> assertions = List.of(
+                new ColumnAssertion(column("actor_id"), assertion("=", 1)),
+                new ColumnAssertion(column("actor_id"), assertion("in", 1)));
+
+        Assertions.assertThrows(RuntimeException.class,
+                () -> new DefaultAssertionSqlGenerator().generateBatchSql(new Connection(), table("actor"), assertions));
+    }
+
+    private static Table table(String name) {
+        Table table = new Table();
+        table.setName(name);
+        return table;
+    }
+
+    private static Column column(String name) {
+        Column column = new Column();
+        column.setName(name);
+        return column;
+    }
+
+    private static AssertTest assertion(String operator, Object value) {
+        AssertTest assertion = new AssertTest();
+        assertion.setOperator(operator);
+        assertion.setValue(value);
+        return assertion;
+    }
+}
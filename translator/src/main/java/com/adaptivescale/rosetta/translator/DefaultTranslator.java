@@ -2,10 +2,8 @@ package com.adaptivescale.rosetta.translator;
 
 import com.adaptivescale.rosetta.common.TranslationMatrix;
 import com.adaptivescale.rosetta.common.models.*;
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
 
-import java.util.List;
+import java.util.ArrayList;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -13,17 +11,20 @@ public class DefaultTranslator implements Translator<Database, Database> {
 
     private final String sourceDatabaseName;
     private final String targetDatabaseName;
+    private final TranslationMatrix translationMatrix;
 
     public DefaultTranslator(String sourceDatabaseName, String targetDatabaseName) {
         this.sourceDatabaseName = sourceDatabaseName;
         this.targetDatabaseName = targetDatabaseName;
+        this.translationMatrix = TranslationMatrix.getInstance();
     }
 
     @Override
     public Database translate(Database input) {
         Database result = new Database();
         result.setName(input.getDatabaseProductName());
-        result.setTables(input.getTables().stream().map(this::translateTable).collect(Collectors.toList()));
+        // tables are independent, parallelStream keeps their order in the collected list
+        result.setTables(input.getTables().parallelStream().map(this::translateTable).collect(Collectors.toList()));
         result.setDatabaseType(targetDatabaseName);
         return result;
     }
@@ -43,55 +44,72 @@ public class DefaultTranslator implements Translator<Database, Database> {
 
 
     private Column translateColumn(Column column) {
-        TranslationModel translationModel = TranslationMatrix.getInstance().findBySourceTypeAndSourceColumnTypeAndTargetType(sourceDatabaseName, column.getTypeName(), targetDatabaseName);
+        TranslationModel translationModel = translationMatrix.findBySourceTypeAndSourceColumnTypeAndTargetType(sourceDatabaseName, column.getTypeName(), targetDatabaseName);
 
         if (translationModel == null) {
             translationModel = Optional.ofNullable(column.getFallbackType())
-                .map(it -> TranslationMatrix.getInstance().findBySourceTypeAndSourceColumnTypeAndTargetType(sourceDatabaseName, it, targetDatabaseName))
+                .map(it -> translationMatrix.findBySourceTypeAndSourceColumnTypeAndTargetType(sourceDatabaseName, it, targetDatabaseName))
                 .orElseThrow(() -> new RuntimeException("There is no match for column name: " + column.getName() + " and type: " + column.getTypeName() + "."));
         }
 
-        List<TranslationAttributeModel> translationAttributes = TranslationMatrix.getInstance().findByTranslationAttributesByTranslationIds(translationModel.getId());
-        translationModel.setAttributes(translationAttributes);
+        Column result = copyOf(column);
+        result.setTypeName(translationModel.getTargetColumnType());
 
-        try {
-            String s = new ObjectMapper().writeValueAsString(column);
-            Column result = new ObjectMapper().readValue(s, Column.class);
-            result.setTypeName(translationModel.getTargetColumnType());
-
-            for (TranslationAttributeModel attribute : translationModel.getAttributes()) {
-                String value = attribute.getAttributeValue();
-                switch(attribute.getAttributeName()) {
-                    case "ordinalPosition":
-                        result.setOrdinalPosition(Integer.valueOf(value));
-                        break;
-                    case "autoincrement":
-                        result.setAutoincrement(Boolean.valueOf(value));
-                        break;
-                    case "nullable":
-                        result.setNullable(Boolean.valueOf(value));
-                        break;
-                    case "primaryKey":
-                        result.setPrimaryKey(Boolean.valueOf(value));
-                        break;
-                    case "primaryKeySequenceId":
-                        result.setPrimaryKeySequenceId(Integer.valueOf(value));
-                        break;
-                    case "columnDisplaySize":
-                        result.setColumnDisplaySize(Integer.valueOf(value));
-                        break;
-                    case "scale":
-                        result.setScale(Integer.valueOf(value));
-                        break;
-                    case "precision":
-                        result.setPrecision(Integer.valueOf(value));
-                        break;
-                }
+        for (TranslationAttributeModel attribute : translationModel.getAttributes()) {
+            String value = attribute.getAttributeValue();
+            switch(attribute.getAttributeName()) {
+                case "ordinalPosition":
+                    result.setOrdinalPosition(Integer.valueOf(value));
+                    break;
+                case "autoincrement":
+                    result.setAutoincrement(Boolean.valueOf(value));
+                    break;
+                case "nullable":
+                    result.setNullable(Boolean.valueOf(value));
+                    break;
+                case "primaryKey":
+                    result.setPrimaryKey(Boolean.valueOf(value));
+                    break;
+                case "primaryKeySequenceId":
+                    result.setPrimaryKeySequenceId(Integer.valueOf(value));
+                    break;
+                case "columnDisplaySize":
+                    result.setColumnDisplaySize(Integer.valueOf(value));
+                    break;
+                case "scale":
+                    result.setScale(Integer.valueOf(value));
+                    break;
+                case "precision":
+                    result.setPrecision(Integer.valueOf(value));
+                    break;
             }
-
-            return result;
-        } catch (JsonProcessingException e) {
-            throw new RuntimeException(e);
         }
+
+        return result;
+    }
+
+    /**
+     * Field by field copy of the column. Translation only changes scalar fields, so foreign keys,
+     * column properties and tests are shared with the source column; only their lists are copied.
+     */
+    private static Column copyOf(Column column) {
+        Column result = new Column();
+        result.setName(column.getName());
+        result.setLabel(column.getLabel());
+        result.setDescription(column.getDescription());
+        result.setTypeName(column.getTypeName());
+        result.setFallbackType(column.getFallbackType());
+        result.setOrdinalPosition(column.getOrdinalPosition());
+        result.setAutoincrement(column.isAutoincrement());
+        result.setNullable(column.isNullable());
+        result.setPrimaryKey(column.isPrimaryKey());
+        result.setPrimaryKeySequenceId(column.getPrimaryKeySequenceId());
+        result.setColumnDisplaySize(column.getColumnDisplaySize());
+        result.setScale(column.getScale());
+        result.setPrecision(column.getPrecision());
+        result.setColumnProperties(column.getColumnProperties() == null ? null : new ArrayList<>(column.getColumnProperties()));
+        result.setForeignKeys(column.getForeignKeys() == null ? null : new ArrayList<>(column.getForeignKeys()));
+        result.setTests(column.getTests());
+        return result;
     }
 }
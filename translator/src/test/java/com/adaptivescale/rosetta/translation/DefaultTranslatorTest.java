@@ -2,14 +2,17 @@ package com.adaptivescale.rosetta.translation;
 
 import com.adaptivescale.rosetta.common.models.Column;
 import com.adaptivescale.rosetta.common.models.Database;
+import com.adaptivescale.rosetta.common.models.ForeignKey;
 import com.adaptivescale.rosetta.common.models.Table;
 import com.adaptivescale.rosetta.translator.DefaultTranslator;
 import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.EnumSource;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -38,6 +41,45 @@ public class DefaultTranslatorTest {
         Assertions.assertEquals(result.getTables().size(), 1);
     }
 
+    @Test
+    public void translateCopiesColumnsAndKeepsTableOrder() {
+        subject = new DefaultTranslator("postgres", "kinetica");
+        ForeignKey foreignKey = new ForeignKey();
+        foreignKey.setName("fk_test");
+
+        List<Table> tables = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Column column = new Column();
+            column.setName("id");
+            column.setTypeName("integer");
+            column.setDescription("description");
+            column.setOrdinalPosition(1);
+            column.setForeignKeys(new ArrayList<>(Collections.singletonList(foreignKey)));
+
+            Table table = new Table();
+            table.setName("table_" + i);
+            table.setColumns(Collections.singletonList(column));
+            tables.add(table);
+        }
+        Database source = new Database();
+        source.setTables(tables);
+
+        List<Table> resultTables = new ArrayList<>(subject.translate(source).getTables());
+
+        Assertions.assertEquals(tables.size(), resultTables.size());
+        for (int i = 0; i < tables.size(); i++) {
+            Assertions.assertEquals("table_" + i, resultTables.get(i).getName());
+            Column sourceColumn = tables.get(i).getColumns().iterator().next();
+            Column resultColumn = resultTables.get(i).getColumns().iterator().next();
+            Assertions.assertNotSame(sourceColumn, resultColumn);
+            Assertions.assertEquals("integer", resultColumn.getTypeName());
+            Assertions.assertEquals("description", resultColumn.getDescription());
+            Assertions.assertEquals(1, resultColumn.getOrdinalPosition());
+            Assertions.assertNotSame(sourceColumn.getForeignKeys(), resultColumn.getForeignKeys());
+            Assertions.assertSame(foreignKey, resultColumn.getForeignKeys().get(0));
+        }
+    }
+
 
     enum TranslationScenario {
         SQLSERVER_TO_SNOWFLAKE("sqlserver", "snowflake", Arrays.asList(FakeTable.SQLSERVER_TABLE_TO_SNOWFLAKE)),